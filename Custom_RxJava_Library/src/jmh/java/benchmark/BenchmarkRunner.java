@@ -0,0 +1,48 @@
+package benchmark;
+
+import org.openjdk.jmh.Main;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.File;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Точка входа benchmarks.jar: обычные опции JMH плюс всегда включённый
+ * GC-профайлер (аллокации на операцию, число и время сборок) и JSON-результат
+ * в jmh-results/&lt;версия&gt;-&lt;время&gt;.json — файлы разных релизов
+ * можно сравнивать, например, в JMH Visualizer.
+ */
+public final class BenchmarkRunner {
+
+    private BenchmarkRunner() { }
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException, IOException {
+        CommandLineOptions cli = new CommandLineOptions(args);
+        if (cli.shouldHelp() || cli.shouldList() || cli.shouldListWithParams() || cli.shouldListProfilers()) {
+            Main.main(args);
+            return;
+        }
+        String version = BenchmarkRunner.class.getPackage().getImplementationVersion();
+        String stamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"));
+        File dir = new File("jmh-results");
+        dir.mkdirs();
+        File result = new File(dir, (version == null ? "dev" : version) + "-" + stamp + ".json");
+
+        Options options = new OptionsBuilder()
+                .parent(cli)
+                .addProfiler(GCProfiler.class)
+                .resultFormat(ResultFormatType.JSON)
+                .result(cli.getResult().orElse(result.getPath()))
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,15 @@
+package benchmark;
+
+import core.Observer;
+import org.openjdk.jmh.infra.Blackhole;
+
+/** Observer, отдающий всё в Blackhole, чтобы JIT не выбросил цепочку. */
+final class BlackholeObserver<T> implements Observer<T> {
+    private final Blackhole bh;
+
+    BlackholeObserver(Blackhole bh) { this.bh = bh; }
+
+    @Override public void onNext(T item) { bh.consume(item); }
+    @Override public void onError(Throwable t) { throw new IllegalStateException(t); }
+    @Override public void onComplete() { bh.consume(true); }
+}
@@ -0,0 +1,63 @@
+package benchmark;
+
+import core.Observable;
+import core.Observer;
+import org.openjdk.jmh.annotations.*;
+import scheduler.ComputationScheduler;
+import scheduler.IOThreadScheduler;
+import scheduler.Scheduler;
+import scheduler.SingleThreadScheduler;
+import scheduler.VirtualThreadScheduler;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Задержка одного перехода observeOn: от выдачи элемента в вызывающем потоке
+ * до его получения на потоке планировщика.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ObserveOnBenchmark {
+
+    @Param({"single", "computation", "io", "virtual"})
+    public String scheduler;
+
+    private Scheduler target;
+    private Observable<Integer> hop;
+
+    @Setup
+    public void setup() {
+        target = switch (scheduler) {
+            case "single"      -> new SingleThreadScheduler();
+            case "computation" -> new ComputationScheduler();
+            case "io"          -> new IOThreadScheduler();
+            case "virtual"     -> new VirtualThreadScheduler();
+            default            -> throw new IllegalArgumentException(scheduler);
+        };
+        hop = Observable.<Integer>create(o -> {
+            o.onNext(1);
+            o.onComplete();
+        }).observeOn(target);
+    }
+
+    @TearDown
+    public void tearDown() { target.shutdown(); }
+
+    @Benchmark
+    public Integer observeOnHop() throws InterruptedException {
+        CountDownLatch received = new CountDownLatch(1);
+        Integer[] value = new Integer[1];
+        hop.subscribe(new Observer<Integer>() {
+            @Override public void onNext(Integer item) { value[0] = item; }
+            @Override public void onError(Throwable t) { received.countDown(); }
+            @Override public void onComplete() { received.countDown(); }
+        });
+        received.await();
+        return value[0];
+    }
+}
@@ -0,0 +1,67 @@
+package benchmark;
+
+import core.Observable;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Пропускная способность синхронных цепочек map/filter и flatMap
+ * в зависимости от длины цепочки и числа элементов.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class OperatorChainBenchmark {
+
+    /** Число операторов после источника. */
+    @Param({"1", "4", "16"})
+    public int chainLength;
+
+    @Param({"1000", "100000"})
+    public int count;
+
+    private Observable<Integer> mapFilter;
+    private Observable<Integer> flatMap;
+
+    @Setup
+    public void setup() {
+        Observable<Integer> source = range(count);
+
+        Observable<Integer> chain = source;
+        for (int i = 0; i < chainLength; i++) {
+            // чередуем map и filter; фильтр пропускает всё, чтобы объём не падал по длине
+            chain = (i & 1) == 0 ? chain.map(x -> x + 1) : chain.filter(x -> x >= 0);
+        }
+        mapFilter = chain;
+
+        Observable<Integer> fm = source.flatMap(x -> Observable.<Integer>create(o -> {
+            o.onNext(x);
+            o.onNext(x + 1);
+            o.onComplete();
+        }));
+        for (int i = 1; i < chainLength; i++) fm = fm.map(x -> x + 1);
+        flatMap = fm;
+    }
+
+    @Benchmark
+    public void mapFilterChain(Blackhole bh) {
+        mapFilter.subscribe(new BlackholeObserver<>(bh));
+    }
+
+    @Benchmark
+    public void flatMapChain(Blackhole bh) {
+        flatMap.subscribe(new BlackholeObserver<>(bh));
+    }
+
+    static Observable<Integer> range(int count) {
+        return Observable.create(o -> {
+            for (int i = 0; i < count; i++) o.onNext(i);
+            o.onComplete();
+        });
+    }
+}
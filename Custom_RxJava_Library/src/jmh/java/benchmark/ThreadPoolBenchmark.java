@@ -0,0 +1,118 @@
+package benchmark;
+
+import custom.CustomThreadFactory;
+import custom.CustomThreadPoolExecutor;
+import custom.RejectionPolicy;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * {@link CustomThreadPoolExecutor} против {@link ThreadPoolExecutor} при одинаковых
+ * core/max/очереди и соответствующей политике отказа.<br>
+ * Одна операция — пачка из {@link #BATCH} задач от одного постановщика и ожидание,
+ * пока каждая из них выполнится или будет отброшена. Постановщик один, поэтому
+ * отброшенные задачи учитываются точно: одна на каждый отказ.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ThreadPoolBenchmark {
+
+    static final int BATCH = 1_000;
+
+    @Param({"custom", "jdk"})
+    public String pool;
+
+    /** core:max:queueSize. */
+    @Param({"2:4:64", "4:8:1024", "8:8:16"})
+    public String sizing;
+
+    @Param({"ABORT", "CALLER_RUNS", "DISCARD_OLDEST", "DISCARD"})
+    public RejectionPolicy policy;
+
+    /** Работа одной задачи в условных единицах Blackhole.consumeCPU. */
+    @Param({"10"})
+    public long work;
+
+    private Executor executor;
+    private Runnable shutdown;
+    private final AtomicLong executed = new AtomicLong();
+    /** Задачи, которые не выполнятся: ABORT ловится здесь, DISCARD* считает пул. */
+    private final AtomicLong discarded = new AtomicLong();
+    private LongSupplier dropped;
+    private Runnable task;
+
+    @Setup
+    public void setup() {
+        String[] p = sizing.split(":");
+        int core = Integer.parseInt(p[0]);
+        int max = Integer.parseInt(p[1]);
+        int queueSize = Integer.parseInt(p[2]);
+        task = () -> {
+            Blackhole.consumeCPU(work);
+            executed.incrementAndGet();
+        };
+        if (pool.equals("custom")) {
+            CustomThreadPoolExecutor custom = new CustomThreadPoolExecutor(core, max, 60, TimeUnit.SECONDS,
+                    queueSize, 0, policy, new CustomThreadFactory("bench"));
+            executor = custom;
+            shutdown = custom::shutdown;
+            dropped = policy == RejectionPolicy.DISCARD || policy == RejectionPolicy.DISCARD_OLDEST
+                    ? () -> custom.metrics().getRejections(policy)
+                    : discarded::get;
+        } else {
+            ThreadPoolExecutor jdk = new ThreadPoolExecutor(core, max, 60, TimeUnit.SECONDS,
+                    new ArrayBlockingQueue<>(queueSize), jdkHandler(policy));
+            jdk.prestartAllCoreThreads();
+            executor = jdk;
+            shutdown = jdk::shutdown;
+            dropped = discarded::get;
+        }
+    }
+
+    @TearDown
+    public void tearDown() { shutdown.run(); }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public long batch() {
+        long target = executed.get() + dropped.getAsLong() + BATCH;
+        for (int i = 0; i < BATCH; i++) {
+            try {
+                executor.execute(task);
+            } catch (RejectedExecutionException e) {
+                discarded.incrementAndGet();
+            }
+        }
+        while (executed.get() + dropped.getAsLong() < target) Thread.onSpinWait();
+        return executed.get();
+    }
+
+    private RejectedExecutionHandler jdkHandler(RejectionPolicy policy) {
+        return switch (policy) {
+            case ABORT          -> new ThreadPoolExecutor.AbortPolicy();
+            case CALLER_RUNS    -> new ThreadPoolExecutor.CallerRunsPolicy();
+            case DISCARD_OLDEST -> counting(new ThreadPoolExecutor.DiscardOldestPolicy());
+            case DISCARD        -> counting(new ThreadPoolExecutor.DiscardPolicy());
+        };
+    }
+
+    private RejectedExecutionHandler counting(RejectedExecutionHandler delegate) {
+        return (r, e) -> {
+            discarded.incrementAndGet();
+            delegate.rejectedExecution(r, e);
+        };
+    }
+}
@@ -0,0 +1,254 @@
+package cache;
+
+import java.util.ArrayDeque;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * Потокобезопасный кэш, ограниченный числом записей и (по желанию) временем
+ * жизни записи с момента загрузки.
+ * <ul>
+ *   <li>Чтение попадания — поиск в {@link ConcurrentHashMap}, запись бита
+ *       обращения и увеличение счётчика частоты, без блокировок.</li>
+ *   <li>Вытеснение — CLOCK (второй шанс) под блокировкой: запись, к которой
+ *       обращались после прошлого обхода, пропускается один раз.</li>
+ *   <li>Допуск в стиле TinyLFU: при переполнении новая запись сравнивается
+ *       с кандидатом на вытеснение по частоте из {@link FrequencySketch}
+ *       и остаётся, только если её спрашивают не реже. Однократный проход
+ *       по множеству ключей не вымывает популярные записи.</li>
+ *   <li>Одновременные промахи по одному ключу ждут одну загрузку; ошибку
+ *       загрузки получают все ждущие, а ключ в кэше не остаётся.</li>
+ * </ul>
+ * Значения null не допускаются.
+ *
+ * @param <K> тип ключа
+ * @param <V> тип значения
+ */
+public final class BoundedCache<K, V> {
+
+    private final ConcurrentHashMap<K, Node<K, V>> map = new ConcurrentHashMap<>();
+    private final FrequencySketch sketch;
+    private final int maxSize;
+    /** Long.MAX_VALUE — записи не устаревают. */
+    private final long ttlNanos;
+
+    /** Очередь CLOCK: голова — следующий кандидат на вытеснение. Под evictionLock. */
+    private final ArrayDeque<Node<K, V>> clock = new ArrayDeque<>();
+    private final ReentrantLock evictionLock = new ReentrantLock();
+    /** Живые записи в clock. Под evictionLock. */
+    private int size;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder loadFailures = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder rejections = new LongAdder();
+
+    public BoundedCache(int maxSize) {
+        this(maxSize, 0, TimeUnit.NANOSECONDS);
+    }
+
+    /** @param ttl время жизни записи после загрузки; 0 — без ограничения */
+    public BoundedCache(int maxSize, long ttl, TimeUnit unit) {
+        if (maxSize <= 0) throw new IllegalArgumentException("maxSize > 0 required: " + maxSize);
+        if (ttl < 0) throw new IllegalArgumentException("ttl >= 0 required: " + ttl);
+        this.maxSize = maxSize;
+        this.ttlNanos = ttl == 0 ? Long.MAX_VALUE : unit.toNanos(ttl);
+        this.sketch = new FrequencySketch(maxSize);
+    }
+
+    /* ===== Чтение ======================================================= */
+
+    /**
+     * Значение по ключу; при промахе — loader.apply(key) в текущем потоке.
+     * Если тот же ключ уже загружается другим потоком, вызов ждёт его результат.
+     * Исключение loader пробрасывается вызывающему.
+     */
+    public V get(K key, Function<? super K, ? extends V> loader) {
+        Objects.requireNonNull(key, "key");
+        sketch.increment(key);
+        for (;;) {
+            Node<K, V> n = map.get(key);
+            if (n == null) {
+                Node<K, V> fresh = new Node<>(key);
+                n = map.putIfAbsent(key, fresh);
+                if (n == null) {
+                    misses.increment();
+                    return load(fresh, loader);
+                }
+            }
+            if (n.isExpired(ttlNanos, System.nanoTime())) {
+                discard(n);
+                continue;
+            }
+            V v = n.await();
+            n.referenced = true;
+            hits.increment();
+            return v;
+        }
+    }
+
+    /** Значение, если оно загружено и не устарело; иначе null. Статистику не меняет. */
+    public V getIfPresent(K key) {
+        Node<K, V> n = map.get(key);
+        if (n == null || n.value == null || n.isExpired(ttlNanos, System.nanoTime())) return null;
+        return n.value;
+    }
+
+    /* ===== Удаление ===================================================== */
+
+    public void invalidate(K key) {
+        Node<K, V> n = map.get(key);
+        if (n != null) discard(n);
+    }
+
+    /** Удалить запись, только если по ключу всё ещё лежит именно value. */
+    public boolean invalidate(K key, V value) {
+        Node<K, V> n = map.get(key);
+        if (n == null || n.value != value) return false;
+        return discard(n);
+    }
+
+    /** Число записей, включая загружаемые и ещё не убранные устаревшие. */
+    public int size() { return map.size(); }
+
+    public Stats stats() {
+        return new Stats(hits.sum(), misses.sum(), loadFailures.sum(), evictions.sum(), rejections.sum());
+    }
+
+    /* ===== Загрузка и вытеснение ======================================== */
+
+    private V load(Node<K, V> node, Function<? super K, ? extends V> loader) {
+        V v;
+        try {
+            v = Objects.requireNonNull(loader.apply(node.key), "loader вернул null");
+        } catch (RuntimeException | Error e) {
+            map.remove(node.key, node);
+            loadFailures.increment();
+            node.future.completeExceptionally(e);
+            throw e;
+        }
+        node.complete(v, System.nanoTime());
+        admit(node);
+        return v;
+    }
+
+    private void admit(Node<K, V> node) {
+        evictionLock.lock();
+        try {
+            // запись могли удалить, пока шла загрузка
+            if (map.get(node.key) != node) return;
+            clock.addLast(node);
+            node.inClock = true;
+            size++;
+            while (size > maxSize) evictOne(node);
+            // удалённые через invalidate лежат в очереди до обхода — не даём им копиться
+            if (clock.size() > 2 * maxSize + 16) clock.removeIf(n -> n.removed);
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    /** Один шаг вытеснения после вставки candidate. Под evictionLock. */
+    private void evictOne(Node<K, V> candidate) {
+        long now = System.nanoTime();
+        for (;;) {
+            Node<K, V> victim = clock.pollFirst();
+            if (victim.removed) continue;
+            if (victim.isExpired(ttlNanos, now)) {
+                drop(victim);
+                evictions.increment();
+                return;
+            }
+            if (victim == candidate || victim.referenced) {
+                victim.referenced = false;
+                clock.addLast(victim);
+                continue;
+            }
+            if (sketch.frequency(candidate.key) < sketch.frequency(victim.key)) {
+                // новичка спрашивают реже, чем вытесняемого: оставляем старую запись
+                clock.addFirst(victim);
+                clock.removeLastOccurrence(candidate);
+                drop(candidate);
+                rejections.increment();
+            } else {
+                drop(victim);
+                evictions.increment();
+            }
+            return;
+        }
+    }
+
+    /** Убрать узел из учёта и из map. Под evictionLock. */
+    private void drop(Node<K, V> n) {
+        n.removed = true;
+        size--;
+        map.remove(n.key, n);
+    }
+
+    private boolean discard(Node<K, V> n) {
+        if (!map.remove(n.key, n)) return false;
+        evictionLock.lock();
+        try {
+            if (n.inClock && !n.removed) {
+                n.removed = true;
+                size--;
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+        return true;
+    }
+
+    static final class Node<K, V> {
+        final K key;
+        final CompletableFuture<V> future = new CompletableFuture<>();
+        /** null, пока идёт загрузка. */
+        volatile V value;
+        volatile long loadedAt;
+        /** Бит обращения CLOCK. */
+        volatile boolean referenced;
+        /** Под evictionLock. */
+        boolean inClock, removed;
+
+        Node(K key) { this.key = key; }
+
+        void complete(V v, long now) {
+            loadedAt = now;
+            value = v;
+            future.complete(v);
+        }
+
+        boolean isExpired(long ttlNanos, long now) {
+            return ttlNanos != Long.MAX_VALUE && value != null && now - loadedAt >= ttlNanos;
+        }
+
+        V await() {
+            V v = value;
+            if (v != null) return v;
+            try {
+                return future.join();
+            } catch (CompletionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof RuntimeException re) throw re;
+                if (cause instanceof Error err) throw err;
+                throw e;
+            }
+        }
+    }
+
+    /** Счётчики кэша с момента создания; дождавшиеся чужой загрузки считаются попаданиями. */
+    public record Stats(long hits, long misses, long loadFailures, long evictions, long rejections) {
+        /** Доля попаданий среди всех обращений; 0, если обращений не было. */
+        public double hitRate() {
+            long total = hits + misses;
+            return total == 0 ? 0 : (double) hits / total;
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package cache;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Count-Min Sketch с 4-битными счётчиками — приблизительная частота ключей
+ * для допуска в стиле TinyLFU. В одном long шестнадцать счётчиков, на ключ
+ * четыре счётчика в разных словах; частота — минимум из четырёх.<br>
+ * Счётчики насыщаются на 15. Когда число увеличений доходит до sampleSize,
+ * все счётчики делятся пополам — старая популярность постепенно забывается.
+ * Увеличения идут CAS-ом без блокировок; гонка с делением может потерять
+ * пару увеличений, для оценки частоты это безразлично.
+ */
+final class FrequencySketch {
+
+    private static final long[] SEEDS = {
+            0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L };
+    private static final long RESET_MASK = 0x7777777777777777L;
+
+    private final AtomicLongArray table;
+    private final int mask;
+    private final int sampleSize;
+    private final AtomicInteger additions = new AtomicInteger();
+
+    FrequencySketch(int maxSize) {
+        int n = Integer.highestOneBit(Math.max(16, Math.min(maxSize, 1 << 26)) - 1) << 1;
+        table = new AtomicLongArray(n);
+        mask = n - 1;
+        sampleSize = 10 * Math.max(16, maxSize);
+    }
+
+    int frequency(Object key) {
+        int h = spread(key.hashCode());
+        int min = 15;
+        for (int i = 0; i < 4; i++) {
+            long hash = indexHash(h, i);
+            int word = (int) hash & mask;
+            int shift = counterShift(hash, i);
+            min = Math.min(min, (int) ((table.get(word) >>> shift) & 0xfL));
+        }
+        return min;
+    }
+
+    void increment(Object key) {
+        int h = spread(key.hashCode());
+        boolean added = false;
+        for (int i = 0; i < 4; i++) {
+            long hash = indexHash(h, i);
+            added |= incrementAt((int) hash & mask, counterShift(hash, i));
+        }
+        if (added && additions.incrementAndGet() >= sampleSize) reset();
+    }
+
+    private boolean incrementAt(int word, int shift) {
+        for (;;) {
+            long v = table.get(word);
+            if (((v >>> shift) & 0xfL) == 0xfL) return false;
+            if (table.compareAndSet(word, v, v + (1L << shift))) return true;
+        }
+    }
+
+    /** Деление всех счётчиков пополам; одновременно делит только один поток. */
+    private void reset() {
+        int n = additions.get();
+        if (n < sampleSize || !additions.compareAndSet(n, n >>> 1)) return;
+        for (int i = 0; i < table.length(); i++) {
+            long v;
+            do {
+                v = table.get(i);
+            } while (!table.compareAndSet(i, v, (v >>> 1) & RESET_MASK));
+        }
+    }
+
+    /** Номер 4-битного счётчика в слове: i-й хеш берёт свою четверть слова. */
+    private static int counterShift(long hash, int i) {
+        return ((i << 2) + (int) ((hash >>> 32) & 3)) << 2;
+    }
+
+    private static long indexHash(int h, int i) {
+        long hash = (h + SEEDS[i]) * SEEDS[i];
+        return hash + (hash >>> 32);
+    }
+
+    private static int spread(int x) {
+        x = ((x >>> 16) ^ x) * 0x45d9f3b;
+        x = ((x >>> 16) ^ x) * 0x45d9f3b;
+        return (x >>> 16) ^ x;
+    }
+}
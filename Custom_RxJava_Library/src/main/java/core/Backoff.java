@@ -0,0 +1,42 @@
+package core;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Задержки между повторами для {@link Observable#retryWhen}: экспоненциальный
+ * рост от initialDelay с множителем multiplier, не выше maxDelay, и случайный
+ * разброс jitter. При jitter = 1 задержка равномерна в [0, база] («full jitter»),
+ * при 0.5 — в [база/2, база], при 0 — ровно база. Разброс не даёт клиентам,
+ * упавшим одновременно, повторять запросы тоже одновременно.
+ */
+public final class Backoff {
+
+    private final long initialNanos;
+    private final long maxNanos;
+    private final double multiplier;
+    private final double jitter;
+
+    public Backoff(long initialDelay, long maxDelay, TimeUnit unit, double multiplier, double jitter) {
+        if (initialDelay < 0 || maxDelay < initialDelay)
+            throw new IllegalArgumentException("0 <= initialDelay <= maxDelay required: " + initialDelay + ", " + maxDelay);
+        if (multiplier < 1) throw new IllegalArgumentException("multiplier >= 1 required: " + multiplier);
+        if (jitter < 0 || jitter > 1) throw new IllegalArgumentException("jitter in [0, 1] required: " + jitter);
+        this.initialNanos = unit.toNanos(initialDelay);
+        this.maxNanos = unit.toNanos(maxDelay);
+        this.multiplier = multiplier;
+        this.jitter = jitter;
+    }
+
+    /** Удвоение задержки и full jitter. */
+    public static Backoff exponential(long initialDelay, long maxDelay, TimeUnit unit) {
+        return new Backoff(initialDelay, maxDelay, unit, 2.0, 1.0);
+    }
+
+    /** Задержка перед повтором номер attempt (с нуля), в наносекундах. */
+    public long delayNanos(int attempt) {
+        double base = Math.min(maxNanos, initialNanos * Math.pow(multiplier, attempt));
+        if (jitter == 0) return (long) base;
+        return (long) (base - base * jitter * ThreadLocalRandom.current().nextDouble());
+    }
+}
@@ -0,0 +1,9 @@
+package core;
+
+/** Что делать с элементами Observable, для которых у подписчика Flowable ещё нет спроса. */
+public enum BackpressureStrategy {
+    BUFFER,   // копим всё в неограниченной очереди
+    DROP,     // отбрасываем элементы без спроса
+    LATEST,   // храним только последний элемент
+    ERROR     // завершаемся MissingBackpressureException
+}
@@ -0,0 +1,25 @@
+package core;
+
+import operator.RefCountObservable;
+
+/**
+ * Горячий Observable с ручным подключением: подписчики собираются заранее,
+ * а источник запускается один раз по {@link #connect()} и раздаётся всем.
+ */
+public abstract class ConnectableObservable<T> extends Observable<T> {
+
+    protected ConnectableObservable() { }
+
+    /**
+     * Подписаться на источник. Повторный вызов при живом подключении
+     * возвращает то же подключение.
+     *
+     * @return Disposable, разрывающий подключение
+     */
+    public abstract Disposable connect();
+
+    /** Подключаться при первом подписчике и отключаться, когда ушёл последний. */
+    public Observable<T> refCount() {
+        return RxPlugins.onAssembly(new RefCountObservable<>(this));
+    }
+}
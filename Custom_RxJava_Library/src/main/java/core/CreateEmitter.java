@@ -0,0 +1,72 @@
+package core;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Эмиттер {@link Observable#create}: после отмены или терминального сигнала
+ * сигналы не передаются, isDisposed() = true, а ресурс из setCancellable
+ * освобождается.
+ */
+final class CreateEmitter<T> implements Observable.Emitter<T>, Disposable {
+
+    private final Observer<? super T> downstream;
+    private final AtomicReference<Observable.Cancellable> resource = new AtomicReference<>();
+    private volatile boolean disposed;
+
+    CreateEmitter(Observer<? super T> downstream) { this.downstream = downstream; }
+
+    @Override public void onNext(T item) { if (!disposed) downstream.onNext(item); }
+
+    @Override
+    public void onError(Throwable t) {
+        if (disposed) return;
+        disposed = true;
+        try {
+            downstream.onError(t);
+        } finally {
+            release();
+        }
+    }
+
+    @Override
+    public void onComplete() {
+        if (disposed) return;
+        disposed = true;
+        try {
+            downstream.onComplete();
+        } finally {
+            release();
+        }
+    }
+
+    @Override
+    public void setCancellable(Observable.Cancellable c) {
+        Observable.Cancellable prev = resource.getAndSet(c);
+        if (prev != null) cancel(prev);
+        // отмена могла пройти до записи — тогда release() её уже не увидел
+        if (disposed) release();
+    }
+
+    @Override
+    public void dispose() {
+        if (disposed) return;
+        disposed = true;
+        release();
+    }
+
+    @Override public boolean isDisposed() { return disposed; }
+
+    private void release() {
+        Observable.Cancellable c = resource.getAndSet(null);
+        if (c != null) cancel(c);
+    }
+
+    private static void cancel(Observable.Cancellable c) {
+        try {
+            c.cancel();
+        } catch (Throwable t) {
+            Thread current = Thread.currentThread();
+            current.getUncaughtExceptionHandler().uncaughtException(current, t);
+        }
+    }
+}
@@ -1,6 +1,55 @@
 package core;
 
+import java.util.concurrent.atomic.AtomicReference;
+
 public interface Disposable {
     void dispose();
     boolean isDisposed();
+
+    /* ===== Держатели AtomicReference<Disposable> ======================== */
+
+    /** Уже отменённый Disposable; в держателе — метка «отменено». */
+    Disposable DISPOSED = new Disposable() {
+        @Override public void dispose() { }
+        @Override public boolean isDisposed() { return true; }
+    };
+
+    /**
+     * Запомнить Disposable источника. Если держатель уже отменён (отмена
+     * пришла раньше onSubscribe) или уже занят — d сразу отменяется.
+     *
+     * @return true — d сохранён
+     */
+    static boolean setOnce(AtomicReference<Disposable> ref, Disposable d) {
+        if (ref.compareAndSet(null, d)) return true;
+        d.dispose();
+        return false;
+    }
+
+    /**
+     * Заменить Disposable в держателе, не отменяя прежний (повторная подписка,
+     * новый таймер). Если держатель уже отменён — d сразу отменяется.
+     *
+     * @return true — d сохранён
+     */
+    static boolean replace(AtomicReference<Disposable> ref, Disposable d) {
+        for (;;) {
+            Disposable cur = ref.get();
+            if (cur == DISPOSED) {
+                if (d != null) d.dispose();
+                return false;
+            }
+            if (ref.compareAndSet(cur, d)) return true;
+        }
+    }
+
+    /** Пометить держатель отменённым и отменить то, что в нём было. */
+    static boolean dispose(AtomicReference<Disposable> ref) {
+        Disposable cur = ref.get();
+        if (cur == DISPOSED) return false;
+        cur = ref.getAndSet(DISPOSED);
+        if (cur == DISPOSED) return false;
+        if (cur != null) cur.dispose();
+        return true;
+    }
 }
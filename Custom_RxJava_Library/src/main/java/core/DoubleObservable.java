@@ -0,0 +1,408 @@
+package core;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.DoubleBinaryOperator;
+import java.util.function.DoubleFunction;
+import java.util.function.DoublePredicate;
+import java.util.function.DoubleUnaryOperator;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * «Холодный» поток значений double. В отличие от {@code Observable<Double>}
+ * значения проходят по цепочке без упаковки и без выделений на элемент.<br>
+ * Отмена устроена как в {@link Observable}: каждая стадия передаёт вниз себя
+ * и хранит Disposable источника, поэтому dispose() доходит до источника.
+ */
+public abstract class DoubleObservable {
+
+    /* ===== Интерфейсы =================================================== */
+
+    /** Источник событий. Вызывается при подписке. */
+    @FunctionalInterface
+    public interface OnSubscribe {
+        void subscribe(Emitter emitter) throws Exception;
+    }
+
+    /**
+     * DoubleObserver, который источник {@link #create} получает при подписке.
+     * Долгий или бесконечный источник должен проверять isDisposed().
+     */
+    public interface Emitter extends DoubleObserver {
+
+        /** Подписка отменена или поток уже завершён. */
+        boolean isDisposed();
+    }
+
+    /* ===== Фабрика ====================================================== */
+
+    /** Создать DoubleObservable напрямую из лямбды‑источника. */
+    public static DoubleObservable create(OnSubscribe source) {
+        Objects.requireNonNull(source, "source");
+        return new DoubleObservable() {
+            @Override
+            protected void subscribeActual(DoubleObserver observer) {
+                CreateEmitter emitter = new CreateEmitter(observer);
+                observer.onSubscribe(emitter);
+                try {
+                    source.subscribe(emitter);
+                } catch (Throwable t) {
+                    emitter.onError(t);
+                }
+            }
+        };
+    }
+
+    /** Значения массива по порядку. */
+    public static DoubleObservable of(double... values) {
+        double[] copy = values.clone();
+        return create(emitter -> {
+            for (double v : copy) {
+                if (emitter.isDisposed()) return;
+                emitter.onNext(v);
+            }
+            emitter.onComplete();
+        });
+    }
+
+    /** Значения из обычного Observable; упаковка остаётся только на входе. */
+    public static <T> DoubleObservable from(Observable<T> source, ToDoubleFunction<? super T> mapper) {
+        Objects.requireNonNull(mapper, "mapper");
+        return new DoubleObservable() {
+            @Override
+            protected void subscribeActual(DoubleObserver observer) {
+                source.subscribe(new FromObserver<>(observer, mapper));
+            }
+        };
+    }
+
+    /* ===== Публичная подписка ========================================== */
+
+    /**
+     * Подписка на поток — тот же порядок, что и в {@link Observable#subscribe}:
+     * стадия, сама реализующая Disposable, подписывается как есть, остальные
+     * подписчики оборачиваются.
+     *
+     * @return Disposable для отмены
+     */
+    public Disposable subscribe(DoubleObserver observer) {
+        Objects.requireNonNull(observer, "observer");
+        if (observer instanceof Disposable stage) {
+            subscribeSafely(observer);
+            return stage;
+        }
+        SafeDoubleObserver safe = new SafeDoubleObserver(observer);
+        observer.onSubscribe(safe);
+        subscribeSafely(safe);
+        return safe;
+    }
+
+    private void subscribeSafely(DoubleObserver observer) {
+        try {
+            subscribeActual(observer);
+        } catch (Throwable t) {
+            observer.onError(t);
+        }
+    }
+
+    /**
+     * Реальная логика подписки. Переопределяется операторами.<br>
+     * Источник вызывает observer.onSubscribe раньше остальных сигналов.
+     */
+    protected abstract void subscribeActual(DoubleObserver observer) throws Exception;
+
+    /* ===== Операторы ==================================================== */
+
+    /** Подряд идущие map сливаются в одну стадию через {@link DoubleUnaryOperator#andThen}. */
+    public DoubleObservable map(DoubleUnaryOperator mapper) {
+        Objects.requireNonNull(mapper, "mapper");
+        if (this instanceof MapStage m) return new MapStage(m.upstream, m.mapper.andThen(mapper));
+        return new MapStage(this, mapper);
+    }
+
+    public DoubleObservable filter(DoublePredicate predicate) {
+        Objects.requireNonNull(predicate, "predicate");
+        return new FilterStage(this, predicate);
+    }
+
+    /** Свёртка; единственное значение выдаётся при завершении источника. */
+    public DoubleObservable reduce(double identity, DoubleBinaryOperator accumulator) {
+        Objects.requireNonNull(accumulator, "accumulator");
+        return new ReduceStage(this, identity, accumulator);
+    }
+
+    /** Сумма значений (последовательное сложение без компенсации погрешности). */
+    public DoubleObservable sum() {
+        return reduce(0, Double::sum);
+    }
+
+    /* ===== Мосты ======================================================== */
+
+    /** Обычный Observable; упаковка происходит только здесь, на выходе. */
+    public Observable<Double> boxed() {
+        return mapToObj(Double::valueOf);
+    }
+
+    public <R> Observable<R> mapToObj(DoubleFunction<? extends R> mapper) {
+        Objects.requireNonNull(mapper, "mapper");
+        return RxPlugins.onAssembly(new Observable<R>() {
+            @Override
+            protected void subscribeActual(Observer<? super R> observer) {
+                DoubleObservable.this.subscribe(new ToObjObserver<>(observer, mapper));
+            }
+        });
+    }
+
+    /* ===== Стадии ======================================================= */
+
+    /**
+     * Основа стадии: хранит Disposable источника и передаёт вниз себя.
+     * onError/onComplete проходят один раз — за это отвечает done.
+     */
+    private abstract static class Stage implements DoubleObserver, Disposable {
+        final DoubleObserver downstream;
+        Disposable upstream;
+        boolean done;
+
+        Stage(DoubleObserver downstream) { this.downstream = downstream; }
+
+        @Override
+        public void onSubscribe(Disposable d) {
+            upstream = d;
+            downstream.onSubscribe(this);
+        }
+
+        /** Ошибка функции стадии: отменить источник и завершить поток. */
+        final void fail(Throwable t) {
+            dispose();
+            onError(t);
+        }
+
+        @Override public void onError(Throwable t) { if (!done) { done = true; downstream.onError(t); } }
+        @Override public void onComplete() { if (!done) { done = true; downstream.onComplete(); } }
+
+        @Override
+        public void dispose() {
+            Disposable d = upstream;
+            if (d != null) d.dispose();
+        }
+
+        @Override
+        public boolean isDisposed() {
+            Disposable d = upstream;
+            return d != null && d.isDisposed();
+        }
+    }
+
+    private static final class MapStage extends DoubleObservable {
+        private final DoubleObservable upstream;
+        private final DoubleUnaryOperator mapper;
+
+        MapStage(DoubleObservable upstream, DoubleUnaryOperator mapper) {
+            this.upstream = upstream;
+            this.mapper = mapper;
+        }
+
+        @Override
+        protected void subscribeActual(DoubleObserver observer) {
+            upstream.subscribe(new Stage(observer) {
+                @Override public void onNext(double value) {
+                    if (done) return;
+                    double v;
+                    try {
+                        v = mapper.applyAsDouble(value);
+                    } catch (Throwable t) {
+                        fail(t);
+                        return;
+                    }
+                    downstream.onNext(v);
+                }
+            });
+        }
+    }
+
+    private static final class FilterStage extends DoubleObservable {
+        private final DoubleObservable upstream;
+        private final DoublePredicate predicate;
+
+        FilterStage(DoubleObservable upstream, DoublePredicate predicate) {
+            this.upstream = upstream;
+            this.predicate = predicate;
+        }
+
+        @Override
+        protected void subscribeActual(DoubleObserver observer) {
+            upstream.subscribe(new Stage(observer) {
+                @Override public void onNext(double value) {
+                    if (done) return;
+                    boolean pass;
+                    try {
+                        pass = predicate.test(value);
+                    } catch (Throwable t) {
+                        fail(t);
+                        return;
+                    }
+                    if (pass) downstream.onNext(value);
+                }
+            });
+        }
+    }
+
+    private static final class ReduceStage extends DoubleObservable {
+        private final DoubleObservable upstream;
+        private final double identity;
+        private final DoubleBinaryOperator accumulator;
+
+        ReduceStage(DoubleObservable upstream, double identity, DoubleBinaryOperator accumulator) {
+            this.upstream = upstream;
+            this.identity = identity;
+            this.accumulator = accumulator;
+        }
+
+        @Override
+        protected void subscribeActual(DoubleObserver observer) {
+            upstream.subscribe(new Stage(observer) {
+                double acc = identity;
+
+                @Override public void onNext(double value) {
+                    if (done) return;
+                    try {
+                        acc = accumulator.applyAsDouble(acc, value);
+                    } catch (Throwable t) {
+                        fail(t);
+                    }
+                }
+                @Override public void onComplete() {
+                    if (done) return;
+                    done = true;
+                    downstream.onNext(acc);
+                    downstream.onComplete();
+                }
+            });
+        }
+    }
+
+    /** Вход из Observable: стадия получает Disposable обычной цепочки. */
+    private static final class FromObserver<T> implements Observer<T>, Disposable {
+        private final DoubleObserver downstream;
+        private final ToDoubleFunction<? super T> mapper;
+        private Disposable upstream;
+        private boolean done;
+
+        FromObserver(DoubleObserver downstream, ToDoubleFunction<? super T> mapper) {
+            this.downstream = downstream;
+            this.mapper = mapper;
+        }
+
+        @Override
+        public void onSubscribe(Disposable d) {
+            upstream = d;
+            downstream.onSubscribe(this);
+        }
+
+        @Override
+        public void onNext(T item) {
+            if (done) return;
+            double v;
+            try {
+                v = mapper.applyAsDouble(item);
+            } catch (Throwable t) {
+                dispose();
+                onError(t);
+                return;
+            }
+            downstream.onNext(v);
+        }
+
+        @Override public void onError(Throwable t) { if (!done) { done = true; downstream.onError(t); } }
+        @Override public void onComplete() { if (!done) { done = true; downstream.onComplete(); } }
+
+        @Override public void dispose() { if (upstream != null) upstream.dispose(); }
+        @Override public boolean isDisposed() { return upstream != null && upstream.isDisposed(); }
+    }
+
+    /** Выход в Observable: стадия передаёт вниз себя, отмена идёт в DoubleObservable. */
+    private static final class ToObjObserver<R> implements DoubleObserver, Disposable {
+        private final Observer<? super R> downstream;
+        private final DoubleFunction<? extends R> mapper;
+        private Disposable upstream;
+        private boolean done;
+
+        ToObjObserver(Observer<? super R> downstream, DoubleFunction<? extends R> mapper) {
+            this.downstream = downstream;
+            this.mapper = mapper;
+        }
+
+        @Override
+        public void onSubscribe(Disposable d) {
+            upstream = d;
+            downstream.onSubscribe(this);
+        }
+
+        @Override
+        public void onNext(double value) {
+            if (done) return;
+            R v;
+            try {
+                v = mapper.apply(value);
+            } catch (Throwable t) {
+                dispose();
+                onError(t);
+                return;
+            }
+            downstream.onNext(v);
+        }
+
+        @Override public void onError(Throwable t) { if (!done) { done = true; downstream.onError(t); } }
+        @Override public void onComplete() { if (!done) { done = true; downstream.onComplete(); } }
+
+        @Override public void dispose() { if (upstream != null) upstream.dispose(); }
+        @Override public boolean isDisposed() { return upstream != null && upstream.isDisposed(); }
+    }
+
+    /* ===== Источник и подписчик ========================================= */
+
+    /** Эмиттер {@link #create}: после отмены или терминального сигнала сигналы не передаются. */
+    private static final class CreateEmitter implements Emitter, Disposable {
+        private final DoubleObserver downstream;
+        private volatile boolean disposed;
+
+        CreateEmitter(DoubleObserver downstream) { this.downstream = downstream; }
+
+        @Override public void onNext(double value) { if (!disposed) downstream.onNext(value); }
+
+        @Override
+        public void onError(Throwable t) {
+            if (disposed) return;
+            disposed = true;
+            downstream.onError(t);
+        }
+
+        @Override
+        public void onComplete() {
+            if (disposed) return;
+            disposed = true;
+            downstream.onComplete();
+        }
+
+        @Override public void dispose() { disposed = true; }
+        @Override public boolean isDisposed() { return disposed; }
+    }
+
+    /** Обёртка пользовательского DoubleObserver, как {@link SafeObserver}. */
+    private static final class SafeDoubleObserver implements DoubleObserver, Disposable {
+        private final DoubleObserver downstream;
+        private final AtomicReference<Disposable> upstream = new AtomicReference<>();
+
+        SafeDoubleObserver(DoubleObserver downstream) { this.downstream = downstream; }
+
+        @Override public void onSubscribe(Disposable d) { Disposable.setOnce(upstream, d); }
+
+        @Override public void onNext(double value) { if (!isDisposed()) downstream.onNext(value); }
+        @Override public void onError(Throwable t) { if (!isDisposed()) downstream.onError(t); }
+        @Override public void onComplete() { if (!isDisposed()) downstream.onComplete(); }
+
+        @Override public void dispose() { Disposable.dispose(upstream); }
+        @Override public boolean isDisposed() { return upstream.get() == DISPOSED; }
+    }
+}
@@ -0,0 +1,17 @@
+package core;
+
+/** Получатель элементов {@link DoubleObservable}: значения приходят без упаковки в Double. */
+public interface DoubleObserver {
+
+    /** Подписка получена — передаём Disposable. */
+    default void onSubscribe(Disposable d) { }
+
+    /** Элемент данных. */
+    void onNext(double value);
+
+    /** Ошибка в потоке. */
+    void onError(Throwable t);
+
+    /** Поток корректно завершён. */
+    void onComplete();
+}
@@ -0,0 +1,109 @@
+package core;
+
+import operator.*;
+import scheduler.Scheduler;
+
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.IntStream;
+
+/**
+ * «Холодный» поток с обратным давлением: источник выдаёт не больше,
+ * чем подписчик запросил через {@link Subscription#request(long)}.
+ *
+ * @param <T> тип элементов потока
+ */
+public abstract class Flowable<T> {
+
+    /** Размер предвыборки по умолчанию для observeOn/flatMap. */
+    public static final int BUFFER_SIZE = 128;
+
+    /* ===== Фабрика ====================================================== */
+
+    /** Источник, выдающий элементы коллекции строго по запросу. */
+    public static <T> Flowable<T> fromIterable(Iterable<? extends T> source) {
+        return RxPlugins.onAssembly(new IterableFlowable<>(source));
+    }
+
+    /** Числа start, start+1, ... (count штук) по запросу. */
+    public static Flowable<Integer> range(int start, int count) {
+        if (count < 0) throw new IllegalArgumentException("count < 0: " + count);
+        return fromIterable(() -> IntStream.range(start, start + count).iterator());
+    }
+
+    /**
+     * Источник из лямбды, не знающей о спросе. Излишки обрабатываются
+     * по выбранной стратегии.
+     */
+    public static <T> Flowable<T> create(Observable.OnSubscribe<T> source, BackpressureStrategy strategy) {
+        return Observable.create(source).toFlowable(strategy);
+    }
+
+    /* ===== Публичная подписка ========================================== */
+
+    /**
+     * Подписка на поток. Источник обязан вызвать
+     * {@link Subscriber#onSubscribe} до выдачи элементов.
+     */
+    public final void subscribe(Subscriber<? super T> subscriber) {
+        Objects.requireNonNull(subscriber, "subscriber");
+        try {
+            subscribeActual(subscriber);
+        } catch (Throwable t) {
+            subscriber.onError(t);
+        }
+    }
+
+    /** Реальная логика подписки. Переопределяется операторами. */
+    protected abstract void subscribeActual(Subscriber<? super T> subscriber) throws Exception;
+
+    /* ===== Операторы ==================================================== */
+
+    public <R> Flowable<R> map(Function<? super T, ? extends R> mapper) {
+        return RxPlugins.onAssembly(new MapFlowable<>(this, mapper));
+    }
+
+    public Flowable<T> filter(Predicate<? super T> predicate) {
+        return RxPlugins.onAssembly(new FilterFlowable<>(this, predicate));
+    }
+
+    public <R> Flowable<R> flatMap(Function<? super T, ? extends Flowable<? extends R>> mapper) {
+        return flatMap(mapper, BUFFER_SIZE);
+    }
+
+    /** flatMap, у которого одновременно активно не больше maxConcurrency внутренних потоков. */
+    public <R> Flowable<R> flatMap(Function<? super T, ? extends Flowable<? extends R>> mapper,
+                                   int maxConcurrency) {
+        return RxPlugins.onAssembly(new FlatMapFlowable<>(this, mapper, maxConcurrency, BUFFER_SIZE));
+    }
+
+    public Flowable<T> subscribeOn(Scheduler scheduler) {
+        return RxPlugins.onAssembly(new SubscribeOnFlowable<>(this, scheduler));
+    }
+
+    public Flowable<T> observeOn(Scheduler scheduler) {
+        return observeOn(scheduler, BUFFER_SIZE);
+    }
+
+    /** observeOn с ограниченной очередью на prefetch элементов. */
+    public Flowable<T> observeOn(Scheduler scheduler, int prefetch) {
+        return RxPlugins.onAssembly(new ObserveOnFlowable<>(this, scheduler, prefetch));
+    }
+
+    /* ===== Мосты ======================================================== */
+
+    /** Observable, запрашивающий у этого потока всё сразу. */
+    public Observable<T> toObservable() {
+        return Observable.create(emitter -> subscribe(new Subscriber<T>() {
+            @Override
+            public void onSubscribe(Subscription s) {
+                emitter.setCancellable(s::cancel);
+                s.request(Long.MAX_VALUE);
+            }
+            @Override public void onNext(T item) { emitter.onNext(item); }
+            @Override public void onError(Throwable t) { emitter.onError(t); }
+            @Override public void onComplete() { emitter.onComplete(); }
+        }));
+    }
+}
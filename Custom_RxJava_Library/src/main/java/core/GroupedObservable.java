@@ -0,0 +1,17 @@
+package core;
+
+/**
+ * Поток одной группы {@link Observable#groupBy}: элементы с одинаковым ключом
+ * в порядке поступления. Подписаться на группу можно один раз.
+ *
+ * @param <K> тип ключа
+ * @param <T> тип элементов
+ */
+public abstract class GroupedObservable<K, T> extends Observable<T> {
+
+    private final K key;
+
+    protected GroupedObservable(K key) { this.key = key; }
+
+    public K getKey() { return key; }
+}
@@ -0,0 +1,420 @@
+package core;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.IntBinaryOperator;
+import java.util.function.IntFunction;
+import java.util.function.IntPredicate;
+import java.util.function.IntUnaryOperator;
+import java.util.function.ToIntFunction;
+
+/**
+ * «Холодный» поток значений int. В отличие от {@code Observable<Integer>}
+ * значения проходят по цепочке без упаковки и без выделений на элемент.<br>
+ * Отмена устроена как в {@link Observable}: каждая стадия передаёт вниз себя
+ * и хранит Disposable источника, поэтому dispose() доходит до источника.
+ */
+public abstract class IntObservable {
+
+    /* ===== Интерфейсы =================================================== */
+
+    /** Источник событий. Вызывается при подписке. */
+    @FunctionalInterface
+    public interface OnSubscribe {
+        void subscribe(Emitter emitter) throws Exception;
+    }
+
+    /**
+     * IntObserver, который источник {@link #create} получает при подписке.
+     * Долгий или бесконечный источник должен проверять isDisposed().
+     */
+    public interface Emitter extends IntObserver {
+
+        /** Подписка отменена или поток уже завершён. */
+        boolean isDisposed();
+    }
+
+    /* ===== Фабрика ====================================================== */
+
+    /** Создать IntObservable напрямую из лямбды‑источника. */
+    public static IntObservable create(OnSubscribe source) {
+        Objects.requireNonNull(source, "source");
+        return new IntObservable() {
+            @Override
+            protected void subscribeActual(IntObserver observer) {
+                CreateEmitter emitter = new CreateEmitter(observer);
+                observer.onSubscribe(emitter);
+                try {
+                    source.subscribe(emitter);
+                } catch (Throwable t) {
+                    emitter.onError(t);
+                }
+            }
+        };
+    }
+
+    /** Числа start, start+1, ... (count штук). */
+    public static IntObservable range(int start, int count) {
+        if (count < 0) throw new IllegalArgumentException("count < 0: " + count);
+        return create(emitter -> {
+            for (int i = start, end = start + count; i != end; i++) {
+                if (emitter.isDisposed()) return;
+                emitter.onNext(i);
+            }
+            emitter.onComplete();
+        });
+    }
+
+    /** Значения массива по порядку. */
+    public static IntObservable of(int... values) {
+        int[] copy = values.clone();
+        return create(emitter -> {
+            for (int v : copy) {
+                if (emitter.isDisposed()) return;
+                emitter.onNext(v);
+            }
+            emitter.onComplete();
+        });
+    }
+
+    /** Значения из обычного Observable; упаковка остаётся только на входе. */
+    public static <T> IntObservable from(Observable<T> source, ToIntFunction<? super T> mapper) {
+        Objects.requireNonNull(mapper, "mapper");
+        return new IntObservable() {
+            @Override
+            protected void subscribeActual(IntObserver observer) {
+                source.subscribe(new FromObserver<>(observer, mapper));
+            }
+        };
+    }
+
+    /* ===== Публичная подписка ========================================== */
+
+    /**
+     * Подписка на поток — тот же порядок, что и в {@link Observable#subscribe}:
+     * стадия, сама реализующая Disposable, подписывается как есть, остальные
+     * подписчики оборачиваются.
+     *
+     * @return Disposable для отмены
+     */
+    public Disposable subscribe(IntObserver observer) {
+        Objects.requireNonNull(observer, "observer");
+        if (observer instanceof Disposable stage) {
+            subscribeSafely(observer);
+            return stage;
+        }
+        SafeIntObserver safe = new SafeIntObserver(observer);
+        observer.onSubscribe(safe);
+        subscribeSafely(safe);
+        return safe;
+    }
+
+    private void subscribeSafely(IntObserver observer) {
+        try {
+            subscribeActual(observer);
+        } catch (Throwable t) {
+            observer.onError(t);
+        }
+    }
+
+    /**
+     * Реальная логика подписки. Переопределяется операторами.<br>
+     * Источник вызывает observer.onSubscribe раньше остальных сигналов.
+     */
+    protected abstract void subscribeActual(IntObserver observer) throws Exception;
+
+    /* ===== Операторы ==================================================== */
+
+    /** Подряд идущие map сливаются в одну стадию через {@link IntUnaryOperator#andThen}. */
+    public IntObservable map(IntUnaryOperator mapper) {
+        Objects.requireNonNull(mapper, "mapper");
+        if (this instanceof MapStage m) return new MapStage(m.upstream, m.mapper.andThen(mapper));
+        return new MapStage(this, mapper);
+    }
+
+    public IntObservable filter(IntPredicate predicate) {
+        Objects.requireNonNull(predicate, "predicate");
+        return new FilterStage(this, predicate);
+    }
+
+    /** Свёртка; единственное значение выдаётся при завершении источника. */
+    public IntObservable reduce(int identity, IntBinaryOperator accumulator) {
+        Objects.requireNonNull(accumulator, "accumulator");
+        return new ReduceStage(this, identity, accumulator);
+    }
+
+    /** Сумма значений (с переполнением, как у {@link java.util.stream.IntStream#sum}). */
+    public IntObservable sum() {
+        return reduce(0, Integer::sum);
+    }
+
+    /* ===== Мосты ======================================================== */
+
+    /** Обычный Observable; упаковка происходит только здесь, на выходе. */
+    public Observable<Integer> boxed() {
+        return mapToObj(Integer::valueOf);
+    }
+
+    public <R> Observable<R> mapToObj(IntFunction<? extends R> mapper) {
+        Objects.requireNonNull(mapper, "mapper");
+        return RxPlugins.onAssembly(new Observable<R>() {
+            @Override
+            protected void subscribeActual(Observer<? super R> observer) {
+                IntObservable.this.subscribe(new ToObjObserver<>(observer, mapper));
+            }
+        });
+    }
+
+    /* ===== Стадии ======================================================= */
+
+    /**
+     * Основа стадии: хранит Disposable источника и передаёт вниз себя.
+     * onError/onComplete проходят один раз — за это отвечает done.
+     */
+    private abstract static class Stage implements IntObserver, Disposable {
+        final IntObserver downstream;
+        Disposable upstream;
+        boolean done;
+
+        Stage(IntObserver downstream) { this.downstream = downstream; }
+
+        @Override
+        public void onSubscribe(Disposable d) {
+            upstream = d;
+            downstream.onSubscribe(this);
+        }
+
+        /** Ошибка функции стадии: отменить источник и завершить поток. */
+        final void fail(Throwable t) {
+            dispose();
+            onError(t);
+        }
+
+        @Override public void onError(Throwable t) { if (!done) { done = true; downstream.onError(t); } }
+        @Override public void onComplete() { if (!done) { done = true; downstream.onComplete(); } }
+
+        @Override
+        public void dispose() {
+            Disposable d = upstream;
+            if (d != null) d.dispose();
+        }
+
+        @Override
+        public boolean isDisposed() {
+            Disposable d = upstream;
+            return d != null && d.isDisposed();
+        }
+    }
+
+    private static final class MapStage extends IntObservable {
+        private final IntObservable upstream;
+        private final IntUnaryOperator mapper;
+
+        MapStage(IntObservable upstream, IntUnaryOperator mapper) {
+            this.upstream = upstream;
+            this.mapper = mapper;
+        }
+
+        @Override
+        protected void subscribeActual(IntObserver observer) {
+            upstream.subscribe(new Stage(observer) {
+                @Override public void onNext(int value) {
+                    if (done) return;
+                    int v;
+                    try {
+                        v = mapper.applyAsInt(value);
+                    } catch (Throwable t) {
+                        fail(t);
+                        return;
+                    }
+                    downstream.onNext(v);
+                }
+            });
+        }
+    }
+
+    private static final class FilterStage extends IntObservable {
+        private final IntObservable upstream;
+        private final IntPredicate predicate;
+
+        FilterStage(IntObservable upstream, IntPredicate predicate) {
+            this.upstream = upstream;
+            this.predicate = predicate;
+        }
+
+        @Override
+        protected void subscribeActual(IntObserver observer) {
+            upstream.subscribe(new Stage(observer) {
+                @Override public void onNext(int value) {
+                    if (done) return;
+                    boolean pass;
+                    try {
+                        pass = predicate.test(value);
+                    } catch (Throwable t) {
+                        fail(t);
+                        return;
+                    }
+                    if (pass) downstream.onNext(value);
+                }
+            });
+        }
+    }
+
+    private static final class ReduceStage extends IntObservable {
+        private final IntObservable upstream;
+        private final int identity;
+        private final IntBinaryOperator accumulator;
+
+        ReduceStage(IntObservable upstream, int identity, IntBinaryOperator accumulator) {
+            this.upstream = upstream;
+            this.identity = identity;
+            this.accumulator = accumulator;
+        }
+
+        @Override
+        protected void subscribeActual(IntObserver observer) {
+            upstream.subscribe(new Stage(observer) {
+                int acc = identity;
+
+                @Override public void onNext(int value) {
+                    if (done) return;
+                    try {
+                        acc = accumulator.applyAsInt(acc, value);
+                    } catch (Throwable t) {
+                        fail(t);
+                    }
+                }
+                @Override public void onComplete() {
+                    if (done) return;
+                    done = true;
+                    downstream.onNext(acc);
+                    downstream.onComplete();
+                }
+            });
+        }
+    }
+
+    /** Вход из Observable: стадия получает Disposable обычной цепочки. */
+    private static final class FromObserver<T> implements Observer<T>, Disposable {
+        private final IntObserver downstream;
+        private final ToIntFunction<? super T> mapper;
+        private Disposable upstream;
+        private boolean done;
+
+        FromObserver(IntObserver downstream, ToIntFunction<? super T> mapper) {
+            this.downstream = downstream;
+            this.mapper = mapper;
+        }
+
+        @Override
+        public void onSubscribe(Disposable d) {
+            upstream = d;
+            downstream.onSubscribe(this);
+        }
+
+        @Override
+        public void onNext(T item) {
+            if (done) return;
+            int v;
+            try {
+                v = mapper.applyAsInt(item);
+            } catch (Throwable t) {
+                dispose();
+                onError(t);
+                return;
+            }
+            downstream.onNext(v);
+        }
+
+        @Override public void onError(Throwable t) { if (!done) { done = true; downstream.onError(t); } }
+        @Override public void onComplete() { if (!done) { done = true; downstream.onComplete(); } }
+
+        @Override public void dispose() { if (upstream != null) upstream.dispose(); }
+        @Override public boolean isDisposed() { return upstream != null && upstream.isDisposed(); }
+    }
+
+    /** Выход в Observable: стадия передаёт вниз себя, отмена идёт в IntObservable. */
+    private static final class ToObjObserver<R> implements IntObserver, Disposable {
+        private final Observer<? super R> downstream;
+        private final IntFunction<? extends R> mapper;
+        private Disposable upstream;
+        private boolean done;
+
+        ToObjObserver(Observer<? super R> downstream, IntFunction<? extends R> mapper) {
+            this.downstream = downstream;
+            this.mapper = mapper;
+        }
+
+        @Override
+        public void onSubscribe(Disposable d) {
+            upstream = d;
+            downstream.onSubscribe(this);
+        }
+
+        @Override
+        public void onNext(int value) {
+            if (done) return;
+            R v;
+            try {
+                v = mapper.apply(value);
+            } catch (Throwable t) {
+                dispose();
+                onError(t);
+                return;
+            }
+            downstream.onNext(v);
+        }
+
+        @Override public void onError(Throwable t) { if (!done) { done = true; downstream.onError(t); } }
+        @Override public void onComplete() { if (!done) { done = true; downstream.onComplete(); } }
+
+        @Override public void dispose() { if (upstream != null) upstream.dispose(); }
+        @Override public boolean isDisposed() { return upstream != null && upstream.isDisposed(); }
+    }
+
+    /* ===== Источник и подписчик ========================================= */
+
+    /** Эмиттер {@link #create}: после отмены или терминального сигнала сигналы не передаются. */
+    private static final class CreateEmitter implements Emitter, Disposable {
+        private final IntObserver downstream;
+        private volatile boolean disposed;
+
+        CreateEmitter(IntObserver downstream) { this.downstream = downstream; }
+
+        @Override public void onNext(int value) { if (!disposed) downstream.onNext(value); }
+
+        @Override
+        public void onError(Throwable t) {
+            if (disposed) return;
+            disposed = true;
+            downstream.onError(t);
+        }
+
+        @Override
+        public void onComplete() {
+            if (disposed) return;
+            disposed = true;
+            downstream.onComplete();
+        }
+
+        @Override public void dispose() { disposed = true; }
+        @Override public boolean isDisposed() { return disposed; }
+    }
+
+    /** Обёртка пользовательского IntObserver, как {@link SafeObserver}. */
+    private static final class SafeIntObserver implements IntObserver, Disposable {
+        private final IntObserver downstream;
+        private final AtomicReference<Disposable> upstream = new AtomicReference<>();
+
+        SafeIntObserver(IntObserver downstream) { this.downstream = downstream; }
+
+        @Override public void onSubscribe(Disposable d) { Disposable.setOnce(upstream, d); }
+
+        @Override public void onNext(int value) { if (!isDisposed()) downstream.onNext(value); }
+        @Override public void onError(Throwable t) { if (!isDisposed()) downstream.onError(t); }
+        @Override public void onComplete() { if (!isDisposed()) downstream.onComplete(); }
+
+        @Override public void dispose() { Disposable.dispose(upstream); }
+        @Override public boolean isDisposed() { return upstream.get() == DISPOSED; }
+    }
+}
@@ -0,0 +1,17 @@
+package core;
+
+/** Получатель элементов {@link IntObservable}: значения приходят без упаковки в Integer. */
+public interface IntObserver {
+
+    /** Подписка получена — передаём Disposable. */
+    default void onSubscribe(Disposable d) { }
+
+    /** Элемент данных. */
+    void onNext(int value);
+
+    /** Ошибка в потоке. */
+    void onError(Throwable t);
+
+    /** Поток корректно завершён. */
+    void onComplete();
+}
@@ -0,0 +1,420 @@
+package core;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongBinaryOperator;
+import java.util.function.LongFunction;
+import java.util.function.LongPredicate;
+import java.util.function.LongUnaryOperator;
+import java.util.function.ToLongFunction;
+
+/**
+ * «Холодный» поток значений long. В отличие от {@code Observable<Long>}
+ * значения проходят по цепочке без упаковки и без выделений на элемент.<br>
+ * Отмена устроена как в {@link Observable}: каждая стадия передаёт вниз себя
+ * и хранит Disposable источника, поэтому dispose() доходит до источника.
+ */
+public abstract class LongObservable {
+
+    /* ===== Интерфейсы =================================================== */
+
+    /** Источник событий. Вызывается при подписке. */
+    @FunctionalInterface
+    public interface OnSubscribe {
+        void subscribe(Emitter emitter) throws Exception;
+    }
+
+    /**
+     * LongObserver, который источник {@link #create} получает при подписке.
+     * Долгий или бесконечный источник должен проверять isDisposed().
+     */
+    public interface Emitter extends LongObserver {
+
+        /** Подписка отменена или поток уже завершён. */
+        boolean isDisposed();
+    }
+
+    /* ===== Фабрика ====================================================== */
+
+    /** Создать LongObservable напрямую из лямбды‑источника. */
+    public static LongObservable create(OnSubscribe source) {
+        Objects.requireNonNull(source, "source");
+        return new LongObservable() {
+            @Override
+            protected void subscribeActual(LongObserver observer) {
+                CreateEmitter emitter = new CreateEmitter(observer);
+                observer.onSubscribe(emitter);
+                try {
+                    source.subscribe(emitter);
+                } catch (Throwable t) {
+                    emitter.onError(t);
+                }
+            }
+        };
+    }
+
+    /** Числа start, start+1, ... (count штук). */
+    public static LongObservable range(long start, long count) {
+        if (count < 0) throw new IllegalArgumentException("count < 0: " + count);
+        return create(emitter -> {
+            for (long i = start, end = start + count; i != end; i++) {
+                if (emitter.isDisposed()) return;
+                emitter.onNext(i);
+            }
+            emitter.onComplete();
+        });
+    }
+
+    /** Значения массива по порядку. */
+    public static LongObservable of(long... values) {
+        long[] copy = values.clone();
+        return create(emitter -> {
+            for (long v : copy) {
+                if (emitter.isDisposed()) return;
+                emitter.onNext(v);
+            }
+            emitter.onComplete();
+        });
+    }
+
+    /** Значения из обычного Observable; упаковка остаётся только на входе. */
+    public static <T> LongObservable from(Observable<T> source, ToLongFunction<? super T> mapper) {
+        Objects.requireNonNull(mapper, "mapper");
+        return new LongObservable() {
+            @Override
+            protected void subscribeActual(LongObserver observer) {
+                source.subscribe(new FromObserver<>(observer, mapper));
+            }
+        };
+    }
+
+    /* ===== Публичная подписка ========================================== */
+
+    /**
+     * Подписка на поток — тот же порядок, что и в {@link Observable#subscribe}:
+     * стадия, сама реализующая Disposable, подписывается как есть, остальные
+     * подписчики оборачиваются.
+     *
+     * @return Disposable для отмены
+     */
+    public Disposable subscribe(LongObserver observer) {
+        Objects.requireNonNull(observer, "observer");
+        if (observer instanceof Disposable stage) {
+            subscribeSafely(observer);
+            return stage;
+        }
+        SafeLongObserver safe = new SafeLongObserver(observer);
+        observer.onSubscribe(safe);
+        subscribeSafely(safe);
+        return safe;
+    }
+
+    private void subscribeSafely(LongObserver observer) {
+        try {
+            subscribeActual(observer);
+        } catch (Throwable t) {
+            observer.onError(t);
+        }
+    }
+
+    /**
+     * Реальная логика подписки. Переопределяется операторами.<br>
+     * Источник вызывает observer.onSubscribe раньше остальных сигналов.
+     */
+    protected abstract void subscribeActual(LongObserver observer) throws Exception;
+
+    /* ===== Операторы ==================================================== */
+
+    /** Подряд идущие map сливаются в одну стадию через {@link LongUnaryOperator#andThen}. */
+    public LongObservable map(LongUnaryOperator mapper) {
+        Objects.requireNonNull(mapper, "mapper");
+        if (this instanceof MapStage m) return new MapStage(m.upstream, m.mapper.andThen(mapper));
+        return new MapStage(this, mapper);
+    }
+
+    public LongObservable filter(LongPredicate predicate) {
+        Objects.requireNonNull(predicate, "predicate");
+        return new FilterStage(this, predicate);
+    }
+
+    /** Свёртка; единственное значение выдаётся при завершении источника. */
+    public LongObservable reduce(long identity, LongBinaryOperator accumulator) {
+        Objects.requireNonNull(accumulator, "accumulator");
+        return new ReduceStage(this, identity, accumulator);
+    }
+
+    /** Сумма значений (с переполнением, как у {@link java.util.stream.LongStream#sum}). */
+    public LongObservable sum() {
+        return reduce(0, Long::sum);
+    }
+
+    /* ===== Мосты ======================================================== */
+
+    /** Обычный Observable; упаковка происходит только здесь, на выходе. */
+    public Observable<Long> boxed() {
+        return mapToObj(Long::valueOf);
+    }
+
+    public <R> Observable<R> mapToObj(LongFunction<? extends R> mapper) {
+        Objects.requireNonNull(mapper, "mapper");
+        return RxPlugins.onAssembly(new Observable<R>() {
+            @Override
+            protected void subscribeActual(Observer<? super R> observer) {
+                LongObservable.this.subscribe(new ToObjObserver<>(observer, mapper));
+            }
+        });
+    }
+
+    /* ===== Стадии ======================================================= */
+
+    /**
+     * Основа стадии: хранит Disposable источника и передаёт вниз себя.
+     * onError/onComplete проходят один раз — за это отвечает done.
+     */
+    private abstract static class Stage implements LongObserver, Disposable {
+        final LongObserver downstream;
+        Disposable upstream;
+        boolean done;
+
+        Stage(LongObserver downstream) { this.downstream = downstream; }
+
+        @Override
+        public void onSubscribe(Disposable d) {
+            upstream = d;
+            downstream.onSubscribe(this);
+        }
+
+        /** Ошибка функции стадии: отменить источник и завершить поток. */
+        final void fail(Throwable t) {
+            dispose();
+            onError(t);
+        }
+
+        @Override public void onError(Throwable t) { if (!done) { done = true; downstream.onError(t); } }
+        @Override public void onComplete() { if (!done) { done = true; downstream.onComplete(); } }
+
+        @Override
+        public void dispose() {
+            Disposable d = upstream;
+            if (d != null) d.dispose();
+        }
+
+        @Override
+        public boolean isDisposed() {
+            Disposable d = upstream;
+            return d != null && d.isDisposed();
+        }
+    }
+
+    private static final class MapStage extends LongObservable {
+        private final LongObservable upstream;
+        private final LongUnaryOperator mapper;
+
+        MapStage(LongObservable upstream, LongUnaryOperator mapper) {
+            this.upstream = upstream;
+            this.mapper = mapper;
+        }
+
+        @Override
+        protected void subscribeActual(LongObserver observer) {
+            upstream.subscribe(new Stage(observer) {
+                @Override public void onNext(long value) {
+                    if (done) return;
+                    long v;
+                    try {
+                        v = mapper.applyAsLong(value);
+                    } catch (Throwable t) {
+                        fail(t);
+                        return;
+                    }
+                    downstream.onNext(v);
+                }
+            });
+        }
+    }
+
+    private static final class FilterStage extends LongObservable {
+        private final LongObservable upstream;
+        private final LongPredicate predicate;
+
+        FilterStage(LongObservable upstream, LongPredicate predicate) {
+            this.upstream = upstream;
+            this.predicate = predicate;
+        }
+
+        @Override
+        protected void subscribeActual(LongObserver observer) {
+            upstream.subscribe(new Stage(observer) {
+                @Override public void onNext(long value) {
+                    if (done) return;
+                    boolean pass;
+                    try {
+                        pass = predicate.test(value);
+                    } catch (Throwable t) {
+                        fail(t);
+                        return;
+                    }
+                    if (pass) downstream.onNext(value);
+                }
+            });
+        }
+    }
+
+    private static final class ReduceStage extends LongObservable {
+        private final LongObservable upstream;
+        private final long identity;
+        private final LongBinaryOperator accumulator;
+
+        ReduceStage(LongObservable upstream, long identity, LongBinaryOperator accumulator) {
+            this.upstream = upstream;
+            this.identity = identity;
+            this.accumulator = accumulator;
+        }
+
+        @Override
+        protected void subscribeActual(LongObserver observer) {
+            upstream.subscribe(new Stage(observer) {
+                long acc = identity;
+
+                @Override public void onNext(long value) {
+                    if (done) return;
+                    try {
+                        acc = accumulator.applyAsLong(acc, value);
+                    } catch (Throwable t) {
+                        fail(t);
+                    }
+                }
+                @Override public void onComplete() {
+                    if (done) return;
+                    done = true;
+                    downstream.onNext(acc);
+                    downstream.onComplete();
+                }
+            });
+        }
+    }
+
+    /** Вход из Observable: стадия получает Disposable обычной цепочки. */
+    private static final class FromObserver<T> implements Observer<T>, Disposable {
+        private final LongObserver downstream;
+        private final ToLongFunction<? super T> mapper;
+        private Disposable upstream;
+        private boolean done;
+
+        FromObserver(LongObserver downstream, ToLongFunction<? super T> mapper) {
+            this.downstream = downstream;
+            this.mapper = mapper;
+        }
+
+        @Override
+        public void onSubscribe(Disposable d) {
+            upstream = d;
+            downstream.onSubscribe(this);
+        }
+
+        @Override
+        public void onNext(T item) {
+            if (done) return;
+            long v;
+            try {
+                v = mapper.applyAsLong(item);
+            } catch (Throwable t) {
+                dispose();
+                onError(t);
+                return;
+            }
+            downstream.onNext(v);
+        }
+
+        @Override public void onError(Throwable t) { if (!done) { done = true; downstream.onError(t); } }
+        @Override public void onComplete() { if (!done) { done = true; downstream.onComplete(); } }
+
+        @Override public void dispose() { if (upstream != null) upstream.dispose(); }
+        @Override public boolean isDisposed() { return upstream != null && upstream.isDisposed(); }
+    }
+
+    /** Выход в Observable: стадия передаёт вниз себя, отмена идёт в LongObservable. */
+    private static final class ToObjObserver<R> implements LongObserver, Disposable {
+        private final Observer<? super R> downstream;
+        private final LongFunction<? extends R> mapper;
+        private Disposable upstream;
+        private boolean done;
+
+        ToObjObserver(Observer<? super R> downstream, LongFunction<? extends R> mapper) {
+            this.downstream = downstream;
+            this.mapper = mapper;
+        }
+
+        @Override
+        public void onSubscribe(Disposable d) {
+            upstream = d;
+            downstream.onSubscribe(this);
+        }
+
+        @Override
+        public void onNext(long value) {
+            if (done) return;
+            R v;
+            try {
+                v = mapper.apply(value);
+            } catch (Throwable t) {
+                dispose();
+                onError(t);
+                return;
+            }
+            downstream.onNext(v);
+        }
+
+        @Override public void onError(Throwable t) { if (!done) { done = true; downstream.onError(t); } }
+        @Override public void onComplete() { if (!done) { done = true; downstream.onComplete(); } }
+
+        @Override public void dispose() { if (upstream != null) upstream.dispose(); }
+        @Override public boolean isDisposed() { return upstream != null && upstream.isDisposed(); }
+    }
+
+    /* ===== Источник и подписчик ========================================= */
+
+    /** Эмиттер {@link #create}: после отмены или терминального сигнала сигналы не передаются. */
+    private static final class CreateEmitter implements Emitter, Disposable {
+        private final LongObserver downstream;
+        private volatile boolean disposed;
+
+        CreateEmitter(LongObserver downstream) { this.downstream = downstream; }
+
+        @Override public void onNext(long value) { if (!disposed) downstream.onNext(value); }
+
+        @Override
+        public void onError(Throwable t) {
+            if (disposed) return;
+            disposed = true;
+            downstream.onError(t);
+        }
+
+        @Override
+        public void onComplete() {
+            if (disposed) return;
+            disposed = true;
+            downstream.onComplete();
+        }
+
+        @Override public void dispose() { disposed = true; }
+        @Override public boolean isDisposed() { return disposed; }
+    }
+
+    /** Обёртка пользовательского LongObserver, как {@link SafeObserver}. */
+    private static final class SafeLongObserver implements LongObserver, Disposable {
+        private final LongObserver downstream;
+        private final AtomicReference<Disposable> upstream = new AtomicReference<>();
+
+        SafeLongObserver(LongObserver downstream) { this.downstream = downstream; }
+
+        @Override public void onSubscribe(Disposable d) { Disposable.setOnce(upstream, d); }
+
+        @Override public void onNext(long value) { if (!isDisposed()) downstream.onNext(value); }
+        @Override public void onError(Throwable t) { if (!isDisposed()) downstream.onError(t); }
+        @Override public void onComplete() { if (!isDisposed()) downstream.onComplete(); }
+
+        @Override public void dispose() { Disposable.dispose(upstream); }
+        @Override public boolean isDisposed() { return upstream.get() == DISPOSED; }
+    }
+}
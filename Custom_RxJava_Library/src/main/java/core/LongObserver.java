@@ -0,0 +1,17 @@
+package core;
+
+/** Получатель элементов {@link LongObservable}: значения приходят без упаковки в Long. */
+public interface LongObserver {
+
+    /** Подписка получена — передаём Disposable. */
+    default void onSubscribe(Disposable d) { }
+
+    /** Элемент данных. */
+    void onNext(long value);
+
+    /** Ошибка в потоке. */
+    void onError(Throwable t);
+
+    /** Поток корректно завершён. */
+    void onComplete();
+}
@@ -0,0 +1,9 @@
+package core;
+
+/** Источник выдал больше элементов, чем было запрошено, и их некуда положить. */
+public class MissingBackpressureException extends RuntimeException {
+
+    public MissingBackpressureException(String message) {
+        super(message);
+    }
+}
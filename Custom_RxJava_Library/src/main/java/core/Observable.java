@@ -1,10 +1,30 @@
 package core;
 
+import cache.BoundedCache;
 import operator.*;
+import scheduler.ComputationScheduler;
+import scheduler.IOThreadScheduler;
 import scheduler.Scheduler;
+import subject.PublishSubject;
+import subject.ReplaySubject;
 
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
 import java.util.function.Function;
 import java.util.function.Predicate;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Базовый «холодный» поток данных. Не хранит состояния.
@@ -20,7 +40,27 @@ public abstract class Observable<T> {
      */
     @FunctionalInterface
     public interface OnSubscribe<T> {
-        void subscribe(Observer<? super T> observer) throws Exception;
+        void subscribe(Emitter<T> emitter) throws Exception;
+    }
+
+    /**
+     * Observer, который источник {@link #create} получает при подписке.
+     * Долгий или бесконечный источник должен проверять isDisposed()
+     * и прекращать работу после отмены.
+     */
+    public interface Emitter<T> extends Observer<T> {
+
+        /** Подписка отменена или поток уже завершён — дальнейшие сигналы никто не получит. */
+        boolean isDisposed();
+
+        /** Действие, освобождающее ресурс источника при отмене или завершении. */
+        void setCancellable(Cancellable c);
+    }
+
+    /** Освобождение ресурса источника (закрытие канала, снятие слушателя и т.п.). */
+    @FunctionalInterface
+    public interface Cancellable {
+        void cancel() throws Exception;
     }
 
     /** Храним лямбду‑источник для дальнейших операторов. */
@@ -30,76 +70,641 @@ public abstract class Observable<T> {
         this.source = source;
     }
 
+    /** Для операторов: вся логика подписки — в {@link #subscribeActual}. */
+    protected Observable() {
+        this(null);
+    }
+
     /* ===== Фабрика ====================================================== */
 
     /** Создать Observable напрямую из лямбды‑источника. */
     public static <T> Observable<T> create(OnSubscribe<T> source) {
-        return new Observable<T>(source) {
+        return RxPlugins.onAssembly(new Observable<T>(source) {
             @Override
-            protected void subscribeActual(Observer<? super T> observer) throws Exception {
-                source.subscribe(observer);
+            protected void subscribeActual(Observer<? super T> observer) {
+                CreateEmitter<T> emitter = new CreateEmitter<>(observer);
+                observer.onSubscribe(emitter);
+                try {
+                    source.subscribe(emitter);
+                } catch (Throwable t) {
+                    emitter.onError(t);
+                }
             }
-        };
+        });
+    }
+
+    /** Элементы коллекции синхронно при подписке, с проверкой отмены перед каждым. */
+    public static <T> Observable<T> fromIterable(Iterable<? extends T> source) {
+        Objects.requireNonNull(source, "source");
+        return RxPlugins.onAssembly(new FromIterableObservable<>(source::spliterator, null));
+    }
+
+    /**
+     * Элементы java.util.stream.Stream через его Spliterator; поток закрывается
+     * по окончании. Stream одноразовый: повторная подписка получит onError.
+     */
+    public static <T> Observable<T> fromStream(Stream<? extends T> source) {
+        Objects.requireNonNull(source, "source");
+        return RxPlugins.onAssembly(new FromIterableObservable<>(source::spliterator, source));
+    }
+
+    /* ===== Файлы и каналы =============================================== */
+    /*
+     * Чтение идёт задачей планировщика (по умолчанию IOThreadScheduler.shared()),
+     * отмена прекращает его до следующего куска и закрывает файл или канал.
+     */
+
+    /** Кусок файла, отображаемый в память за раз. */
+    public static final int MAPPED_CHUNK_SIZE = 8 * 1024 * 1024;
+    /** Размер прямого буфера чтения канала. */
+    public static final int CHANNEL_BUFFER_SIZE = 64 * 1024;
+
+    /** Файл кусками MappedByteBuffer (mmap) без копирования в кучу. */
+    public static Observable<ByteBuffer> fromFile(Path path) {
+        return fromFile(path, MAPPED_CHUNK_SIZE, IOThreadScheduler.shared());
+    }
+
+    public static Observable<ByteBuffer> fromFile(Path path, int chunkSize, Scheduler scheduler) {
+        return RxPlugins.onAssembly(new MappedFileObservable(path, chunkSize, scheduler));
+    }
+
+    /**
+     * Канал через переиспользуемый прямой буфер. Канал открывается opener
+     * на каждую подписку и закрывается по её окончании.
+     * Элемент действителен только до возврата из onNext.
+     */
+    public static Observable<ByteBuffer> fromChannel(Callable<? extends ReadableByteChannel> opener) {
+        return fromChannel(opener, CHANNEL_BUFFER_SIZE, IOThreadScheduler.shared());
+    }
+
+    public static Observable<ByteBuffer> fromChannel(Callable<? extends ReadableByteChannel> opener,
+                                                     int bufferSize, Scheduler scheduler) {
+        return RxPlugins.onAssembly(new ChannelObservable(opener, bufferSize, scheduler));
+    }
+
+    /**
+     * Строки из байтовых кусков ('\n', '\r\n') срезами без String.
+     * Строка действительна только до возврата из onNext.
+     */
+    public static Observable<ByteBuffer> lines(Observable<ByteBuffer> chunks) {
+        return RxPlugins.onAssembly(new FrameObservable(chunks, (byte) '\n', true, Integer.MAX_VALUE));
+    }
+
+    /** Кадры по байту-разделителю; кадр длиннее maxFrameLength завершает поток ошибкой. */
+    public static Observable<ByteBuffer> frames(Observable<ByteBuffer> chunks, byte delimiter, int maxFrameLength) {
+        return RxPlugins.onAssembly(new FrameObservable(chunks, delimiter, false, maxFrameLength));
     }
 
     /* ===== Публичная подписка ========================================== */
 
     /**
      * Подписка на поток.<br>
-     * 1) Передаём Disposable.<br>
+     * 1) Передаём подписчику Disposable — до запуска источника.<br>
      * 2) Доверяем дальнейшую работу {@link #subscribeActual}.<br>
+     * Источник передаёт свой Disposable в onSubscribe, каждая стадия оператора
+     * передаёт вниз себя, поэтому dispose() идёт вверх по цепочке до источника.
+     * Observer, который сам реализует Disposable (стадии операторов, субъекты
+     * подключения), подписывается как есть и сам хранит Disposable источника.
      *
      * @return Disposable для отмены
      */
-    public Disposable subscribe(Observer<? super T> observer) {
-        DisposableImpl disposable = new DisposableImpl();
-        observer.onSubscribe(disposable);
+    public final Disposable subscribe(Observer<? super T> observer) {
+        Objects.requireNonNull(observer, "observer");
+        if (observer instanceof Disposable stage) {
+            subscribeSafely(observer);
+            return stage;
+        }
+        SafeObserver<T> safe = new SafeObserver<>(observer);
+        observer.onSubscribe(safe);
+        subscribeSafely(safe);
+        return safe;
+    }
+
+    private void subscribeSafely(Observer<? super T> observer) {
         try {
-            subscribeActual(observer);
+            subscribeActual(RxPlugins.onSubscribe(this, observer));
         } catch (Throwable t) {
             observer.onError(t);
         }
-        return disposable;
     }
 
-    /** Реальная логика подписки. Переопределяется операторами. */
+    /**
+     * Реальная логика подписки. Переопределяется операторами.<br>
+     * Источник вызывает observer.onSubscribe раньше остальных сигналов.
+     */
     protected abstract void subscribeActual(Observer<? super T> observer) throws Exception;
 
     /* ===== Операторы ==================================================== */
 
+    /** Подряд идущие map/filter сливаются в одну стадию ({@link FusedObservable}). */
     public <R> Observable<R> map(Function<? super T, ? extends R> mapper) {
-        return new MapObservable<>(this, mapper);
+        return RxPlugins.onAssembly(FusedObservable.map(this, mapper));
     }
 
     public Observable<T> filter(Predicate<? super T> predicate) {
-        return new FilterObservable<>(this, predicate);
+        return RxPlugins.onAssembly(FusedObservable.filter(this, predicate));
+    }
+
+    public <R> Observable<R> flatMap(Function<? super T, ? extends Observable<? extends R>> mapper) {
+        return flatMap(mapper, Integer.MAX_VALUE);
     }
 
-    public <R> Observable<R> flatMap(Function<? super T, Observable<R>> mapper) {
-        return new FlatMapObservable<>(this, mapper);
+    /** flatMap, у которого одновременно активно не больше maxConcurrency внутренних потоков. */
+    public <R> Observable<R> flatMap(Function<? super T, ? extends Observable<? extends R>> mapper,
+                                     int maxConcurrency) {
+        return RxPlugins.onAssembly(new FlatMapObservable<>(this, mapper, maxConcurrency, Flowable.BUFFER_SIZE));
     }
 
     public Observable<T> subscribeOn(Scheduler scheduler) {
-        return create(observer ->
-                scheduler.execute(() -> Observable.this.subscribe(observer)));
+        return RxPlugins.onAssembly(new SubscribeOnObservable<>(this, scheduler));
     }
 
     public Observable<T> observeOn(Scheduler scheduler) {
-        return create(observer -> Observable.this.subscribe(new Observer<T>() {
-            @Override public void onSubscribe(Disposable d) { observer.onSubscribe(d); }
-            @Override public void onNext(T item) { scheduler.execute(() -> observer.onNext(item)); }
-            @Override public void onError(Throwable t) { scheduler.execute(() -> observer.onError(t)); }
-            @Override public void onComplete() { scheduler.execute(observer::onComplete); }
-        }));
+        return observeOn(scheduler, Flowable.BUFFER_SIZE);
+    }
+
+    /**
+     * observeOn с очередью и циклом выдачи: одна задача планировщика на пачку
+     * сигналов, порядок сохраняется.
+     *
+     * @param bufferSize размер кольца очереди и пачки за один запуск задачи
+     */
+    public Observable<T> observeOn(Scheduler scheduler, int bufferSize) {
+        return RxPlugins.onAssembly(new ObserveOnObservable<>(this, scheduler, bufferSize));
+    }
+
+    /* ===== Объединение потоков ========================================== */
+    /*
+     * zip, combineLatest, merge и concatMapEager держат у каждого источника
+     * ограниченное SPSC-кольцо на bufferSize элементов: источник, заполнивший
+     * своё, ждёт, пока цикл выдачи освободит место, так что быстрый источник
+     * замедляется, а не копит память. Источники, пишущие с одного и того же
+     * потока, ждать друг друга не могут — для них нужен свой поток (subscribeOn).
+     * Массив аргументов zipper/combiner переиспользуется и действителен
+     * только во время вызова.
+     */
+
+    /** Попарно: i-й элемент a с i-м элементом b. */
+    @SuppressWarnings("unchecked")
+    public static <A, B, R> Observable<R> zip(Observable<? extends A> a, Observable<? extends B> b,
+                                              BiFunction<? super A, ? super B, ? extends R> zipper) {
+        Objects.requireNonNull(zipper, "zipper");
+        return zip(List.of(a, b), row -> zipper.apply((A) row[0], (B) row[1]));
+    }
+
+    public static <R> Observable<R> zip(Iterable<? extends Observable<?>> sources,
+                                        Function<? super Object[], ? extends R> zipper) {
+        return zip(sources, zipper, Flowable.BUFFER_SIZE);
+    }
+
+    public static <R> Observable<R> zip(Iterable<? extends Observable<?>> sources,
+                                        Function<? super Object[], ? extends R> zipper, int bufferSize) {
+        return RxPlugins.onAssembly(new ZipObservable<>(toArray(sources), zipper, bufferSize));
     }
 
-    /* ===== Disposable внутренний ======================================= */
+    public <U, R> Observable<R> zipWith(Observable<? extends U> other,
+                                        BiFunction<? super T, ? super U, ? extends R> zipper) {
+        return zip(this, other, zipper);
+    }
+
+    /** Последние элементы a и b при каждом новом элементе любого из них. */
+    @SuppressWarnings("unchecked")
+    public static <A, B, R> Observable<R> combineLatest(Observable<? extends A> a, Observable<? extends B> b,
+                                                        BiFunction<? super A, ? super B, ? extends R> combiner) {
+        Objects.requireNonNull(combiner, "combiner");
+        return combineLatest(List.of(a, b), row -> combiner.apply((A) row[0], (B) row[1]));
+    }
+
+    public static <R> Observable<R> combineLatest(Iterable<? extends Observable<?>> sources,
+                                                  Function<? super Object[], ? extends R> combiner) {
+        return combineLatest(sources, combiner, Flowable.BUFFER_SIZE);
+    }
+
+    public static <R> Observable<R> combineLatest(Iterable<? extends Observable<?>> sources,
+                                                  Function<? super Object[], ? extends R> combiner, int bufferSize) {
+        return RxPlugins.onAssembly(new CombineLatestObservable<>(toArray(sources), combiner, bufferSize));
+    }
+
+    /** Элементы всех источников по мере поступления. */
+    @SafeVarargs
+    public static <T> Observable<T> merge(Observable<? extends T>... sources) {
+        @SuppressWarnings("varargs")
+        Observable<? extends T>[] copy = copy(sources);
+        return RxPlugins.onAssembly(new MergeObservable<>(copy, Flowable.BUFFER_SIZE));
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T> Observable<T> merge(Iterable<? extends Observable<? extends T>> sources) {
+        return RxPlugins.onAssembly(new MergeObservable<>((Observable<? extends T>[]) toArray(sources),
+                Flowable.BUFFER_SIZE));
+    }
+
+    public Observable<T> mergeWith(Observable<? extends T> other) {
+        return merge(this, other);
+    }
+
+    /** Источники по очереди: следующий подписывается после завершения предыдущего. */
+    @SafeVarargs
+    public static <T> Observable<T> concat(Observable<? extends T>... sources) {
+        @SuppressWarnings("varargs")
+        Observable<? extends T>[] copy = copy(sources);
+        return RxPlugins.onAssembly(new ConcatObservable<>(copy));
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T> Observable<T> concat(Iterable<? extends Observable<? extends T>> sources) {
+        return RxPlugins.onAssembly(new ConcatObservable<>((Observable<? extends T>[]) toArray(sources)));
+    }
+
+    public Observable<T> concatWith(Observable<? extends T> other) {
+        return concat(this, other);
+    }
+
+    /** concatMap с подпиской внутренних потоков сразу: выдача по порядку, работа параллельно. */
+    public <R> Observable<R> concatMapEager(Function<? super T, ? extends Observable<? extends R>> mapper) {
+        return concatMapEager(mapper, Flowable.BUFFER_SIZE);
+    }
+
+    /** concatMapEager, у которого одновременно подписано не больше maxConcurrency внутренних потоков. */
+    public <R> Observable<R> concatMapEager(Function<? super T, ? extends Observable<? extends R>> mapper,
+                                            int maxConcurrency) {
+        return RxPlugins.onAssembly(
+                new ConcatMapEagerObservable<>(this, mapper, maxConcurrency, Flowable.BUFFER_SIZE));
+    }
+
+    /** Копия массива источников varargs-метода: вызывающий может менять свой массив. */
+    @SuppressWarnings("unchecked")
+    private static <T> Observable<? extends T>[] copy(Observable<? extends T>[] sources) {
+        return (Observable<? extends T>[]) Arrays.copyOf(sources, sources.length, Observable[].class);
+    }
+
+    private static Observable<?>[] toArray(Iterable<? extends Observable<?>> sources) {
+        List<Observable<?>> list = new ArrayList<>();
+        for (Observable<?> o : sources) list.add(Objects.requireNonNull(o, "source"));
+        return list.toArray(new Observable<?>[0]);
+    }
+
+    /* ===== Досрочное завершение ========================================= */
+    /*
+     * Получив нужное, операторы отменяют источник: он перестаёт
+     * производить элементы, а не просто перестаёт быть услышанным.
+     */
+
+    /** Первые count элементов. */
+    public Observable<T> take(long count) {
+        return RxPlugins.onAssembly(new TakeObservable<>(this, count));
+    }
+
+    /** Элементы, пока predicate истинен; первый ложный не выдаётся. */
+    public Observable<T> takeWhile(Predicate<? super T> predicate) {
+        return RxPlugins.onAssembly(new TakeWhileObservable<>(this, predicate, false));
+    }
+
+    /** Элементы до первого, для которого stop истинен, включая его. */
+    public Observable<T> takeUntil(Predicate<? super T> stop) {
+        return RxPlugins.onAssembly(new TakeWhileObservable<>(this, stop, true));
+    }
+
+    /** Элементы, пока other ничего не выдал и не завершился. */
+    public <U> Observable<T> takeUntil(Observable<U> other) {
+        return RxPlugins.onAssembly(new TakeUntilObservable<>(this, other));
+    }
+
+    /** Первый элемент; пустой поток завершается NoSuchElementException. */
+    public Observable<T> first() {
+        return RxPlugins.onAssembly(new FirstObservable<>(this, null));
+    }
+
+    /** Первый элемент или defaultItem, если поток пуст. */
+    public Observable<T> first(T defaultItem) {
+        return RxPlugins.onAssembly(new FirstObservable<>(this, Objects.requireNonNull(defaultItem, "defaultItem")));
+    }
+
+    /* ===== Операторы со временем ======================================== */
+    /*
+     * Без явного планировщика результаты по таймеру выдаются на
+     * ComputationScheduler.shared(): колесо HashedWheelTimer только отсчитывает
+     * срок, а медленный получатель (запись пачки в хранилище) не задерживает
+     * остальные таймеры процесса.
+     */
+
+    /** Списки по времени: timespan с первого элемента списка. */
+    public Observable<List<T>> buffer(long timespan, TimeUnit unit) {
+        return buffer(Integer.MAX_VALUE, timespan, unit);
+    }
+
+    /** Списки до count элементов или по истечении timespan — что раньше. */
+    public Observable<List<T>> buffer(int count, long timespan, TimeUnit unit) {
+        return buffer(count, timespan, unit, ComputationScheduler.shared());
+    }
+
+    public Observable<List<T>> buffer(int count, long timespan, TimeUnit unit, Scheduler scheduler) {
+        return RxPlugins.onAssembly(new BufferTimedObservable<>(this, count, timespan, unit, scheduler));
+    }
+
+    /** Окна-Observable по времени: timespan с первого элемента окна. */
+    public Observable<Observable<T>> window(long timespan, TimeUnit unit) {
+        return window(Integer.MAX_VALUE, timespan, unit);
+    }
+
+    public Observable<Observable<T>> window(int count, long timespan, TimeUnit unit) {
+        return window(count, timespan, unit, ComputationScheduler.shared());
+    }
+
+    public Observable<Observable<T>> window(int count, long timespan, TimeUnit unit, Scheduler scheduler) {
+        return RxPlugins.onAssembly(
+                new WindowTimedObservable<>(this, count, timespan, unit, scheduler, Flowable.BUFFER_SIZE));
+    }
 
-    /** Простейшая реализация Disposable. */
-    private static final class DisposableImpl implements Disposable {
-        private volatile boolean disposed;
+    /** Раз в period — последний новый элемент. */
+    public Observable<T> sample(long period, TimeUnit unit) {
+        return sample(period, unit, ComputationScheduler.shared());
+    }
+
+    public Observable<T> sample(long period, TimeUnit unit, Scheduler scheduler) {
+        return RxPlugins.onAssembly(new SampleObservable<>(this, period, unit, scheduler));
+    }
+
+    /** Элемент, за которым timeout не было следующего. */
+    public Observable<T> debounce(long timeout, TimeUnit unit) {
+        return debounce(timeout, unit, ComputationScheduler.shared());
+    }
+
+    public Observable<T> debounce(long timeout, TimeUnit unit, Scheduler scheduler) {
+        return RxPlugins.onAssembly(new DebounceObservable<>(this, timeout, unit, scheduler));
+    }
+
+    /** Первый элемент, затем тишина на window. */
+    public Observable<T> throttleFirst(long window, TimeUnit unit) {
+        return RxPlugins.onAssembly(new ThrottleFirstObservable<>(this, window, unit));
+    }
+
+    /* ===== Таймауты, повторы, хеджирование ============================== */
+    /*
+     * Инструменты против хвостовых задержек и нестабильного источника. Ошибка
+     * timeout по умолчанию выдаётся на ComputationScheduler.shared(); подписка
+     * на fallback, повторные и хеджирующие подписки — на IOThreadScheduler.shared(),
+     * потому что подписка на удалённый вызов может блокировать поток.
+     */
+
+    /** Поток завершается TimeoutException, если элемента нет дольше timeout. */
+    public Observable<T> timeout(long timeout, TimeUnit unit) {
+        return timeout(timeout, unit, null, ComputationScheduler.shared());
+    }
+
+    /** Вместо ошибки по таймауту — переключение на fallback (подписка на IOThreadScheduler.shared()). */
+    public Observable<T> timeout(long timeout, TimeUnit unit, Observable<? extends T> fallback) {
+        return timeout(timeout, unit, Objects.requireNonNull(fallback, "fallback"), IOThreadScheduler.shared());
+    }
+
+    /** @param fallback null — завершить TimeoutException */
+    public Observable<T> timeout(long timeout, TimeUnit unit, Observable<? extends T> fallback, Scheduler scheduler) {
+        return RxPlugins.onAssembly(new TimeoutObservable<>(this, timeout, unit, scheduler, fallback));
+    }
+
+    /** Подписаться заново сразу после ошибки, не больше times раз. */
+    public Observable<T> retry(long times) {
+        return retry(times, e -> true);
+    }
+
+    /** retry только для ошибок, подходящих под retryIf. */
+    public Observable<T> retry(long times, Predicate<? super Throwable> retryIf) {
+        return RxPlugins.onAssembly(new RetryObservable<>(this, times, null, retryIf, IOThreadScheduler.shared()));
+    }
+
+    /** Повтор после паузы по backoff: экспоненциальный рост с разбросом. */
+    public Observable<T> retryWhen(long times, Backoff backoff) {
+        return retryWhen(times, backoff, e -> true, IOThreadScheduler.shared());
+    }
+
+    public Observable<T> retryWhen(long times, Backoff backoff, Predicate<? super Throwable> retryIf,
+                                  Scheduler scheduler) {
+        return RxPlugins.onAssembly(
+                new RetryObservable<>(this, times, Objects.requireNonNull(backoff, "backoff"), retryIf, scheduler));
+    }
+
+    /**
+     * Хеджированный запрос: если за delay источник ничего не выдал, подписаться
+     * на него ещё раз, всего не больше maxAttempts попыток. Берётся первый
+     * ответ, проигравшие подписки отменяются. Подходит только для источников,
+     * которые безопасно вызывать повторно (идемпотентное чтение).
+     */
+    public Observable<T> hedge(long delay, TimeUnit unit, int maxAttempts) {
+        return hedge(delay, unit, maxAttempts, IOThreadScheduler.shared());
+    }
+
+    public Observable<T> hedge(long delay, TimeUnit unit, int maxAttempts, Scheduler scheduler) {
+        return RxPlugins.onAssembly(new HedgeObservable<>(this, delay, unit, maxAttempts, scheduler));
+    }
+
+    /* ===== Группировка ================================================== */
+    /*
+     * Группа открывается первым элементом своего ключа и копит элементы до
+     * подписки, поэтому подписываться на группу лучше сразу в onNext.
+     */
+
+    public <K> Observable<GroupedObservable<K, T>> groupBy(Function<? super T, ? extends K> keyFn) {
+        return RxPlugins.onAssembly(new GroupByObservable<>(this, keyFn, Flowable.BUFFER_SIZE, 0, null, 0));
+    }
+
+    /**
+     * groupBy, забывающий группы без элементов дольше idleTimeout: группа
+     * завершается, следующий элемент её ключа открывает новую. Так поток
+     * с множеством редких ключей не копит группы без конца.
+     */
+    public <K> Observable<GroupedObservable<K, T>> groupBy(Function<? super T, ? extends K> keyFn,
+                                                          long idleTimeout, TimeUnit unit) {
+        return RxPlugins.onAssembly(new GroupByObservable<>(this, keyFn, Flowable.BUFFER_SIZE, unit.toNanos(idleTimeout), null, 0));
+    }
+
+    /**
+     * Партиционированный groupBy: ключи по хешу закреплены за partitions
+     * последовательными Worker планировщика, и сигналы групп приходят на них.
+     * Порядок внутри ключа сохраняется, разные партиции идут параллельно.
+     */
+    public <K> Observable<GroupedObservable<K, T>> groupBy(Function<? super T, ? extends K> keyFn,
+                                                          int partitions, Scheduler scheduler) {
+        return RxPlugins.onAssembly(new GroupByObservable<>(this, keyFn, Flowable.BUFFER_SIZE, 0, scheduler, partitions));
+    }
+
+    public <K> Observable<GroupedObservable<K, T>> groupBy(Function<? super T, ? extends K> keyFn,
+                                                          int partitions, Scheduler scheduler,
+                                                          long idleTimeout, TimeUnit unit) {
+        return RxPlugins.onAssembly(new GroupByObservable<>(this, keyFn, Flowable.BUFFER_SIZE, unit.toNanos(idleTimeout),
+                scheduler, partitions));
+    }
+
+    /* ===== Параллельная обработка ======================================= */
+
+    /** Рельсы по числу ядер; дальше — runOn(планировщик) и операторы на рельсах. */
+    public ParallelObservable<T> parallel() {
+        return parallel(Runtime.getRuntime().availableProcessors());
+    }
+
+    /** Элементы раздаются по кругу на parallelism рельсов. */
+    public ParallelObservable<T> parallel(int parallelism) {
+        return ParallelObservable.from(this, parallelism);
+    }
+
+    /* ===== Горячие потоки =============================================== */
+
+    /** Один запуск источника на всех подписчиков; источник стартует по connect(). */
+    public ConnectableObservable<T> publish() {
+        return RxPlugins.onAssembly(new MulticastObservable<>(this, PublishSubject::create));
+    }
+
+    /** publish(), который подключается с первым подписчиком и отключается с последним. */
+    public Observable<T> share() {
+        return publish().refCount();
+    }
+
+    /** Как publish(), но новые подписчики сначала получают последние bufferSize элементов. */
+    public ConnectableObservable<T> replay(int bufferSize) {
+        return RxPlugins.onAssembly(new MulticastObservable<>(this, () -> ReplaySubject.createWithSize(bufferSize)));
+    }
+
+    /** replay по времени: элементы не старше time, но не больше bufferSize последних. */
+    public ConnectableObservable<T> replay(long time, TimeUnit unit, int bufferSize) {
+        return RxPlugins.onAssembly(new MulticastObservable<>(this,
+                () -> ReplaySubject.createWithTimeAndSize(time, unit, bufferSize)));
+    }
+
+    /* ===== Кэширование ================================================== */
+
+    /**
+     * Источник запускается один раз, с первым подписчиком; элементы и
+     * терминальный сигнал запоминаются и повторяются каждому подписчику.
+     * История не ограничена — для бесконечных источников не подходит.
+     */
+    public Observable<T> cache() {
+        return RxPlugins.onAssembly(new CacheObservable<>(this));
+    }
+
+    /**
+     * cache(), результат которого живёт ttl после завершения источника:
+     * следующий подписчик запускает источник заново. Ошибка не кэшируется.
+     */
+    public Observable<T> cacheWithTtl(long ttl, TimeUnit unit) {
+        return RxPlugins.onAssembly(new CacheTtlObservable<>(this, unit.toNanos(ttl)));
+    }
+
+    /**
+     * map с запоминанием результата по ключу keyFn(item): mapper вызывается
+     * только при промахе. Кэш на maxSize ключей общий для всех подписок.
+     */
+    public <K, R> Observable<R> mapCached(Function<? super T, ? extends K> keyFn,
+                                          Function<? super T, ? extends R> mapper, int maxSize) {
+        return mapCached(keyFn, mapper, new BoundedCache<>(maxSize));
+    }
+
+    /**
+     * mapCached со своим кэшем: можно задать TTL, делить кэш между цепочками
+     * и читать {@link BoundedCache#stats()}. Одновременные промахи по одному
+     * ключу ждут одного вызова mapper.
+     */
+    public <K, R> Observable<R> mapCached(Function<? super T, ? extends K> keyFn,
+                                          Function<? super T, ? extends R> mapper, BoundedCache<K, R> cache) {
+        return map(item -> cache.get(keyFn.apply(item), k -> mapper.apply(item)));
+    }
+
+    public <K, R> Observable<R> flatMapCached(Function<? super T, ? extends K> keyFn,
+                                              Function<? super T, ? extends Observable<? extends R>> mapper,
+                                              int maxSize) {
+        return flatMapCached(keyFn, mapper, new BoundedCache<>(maxSize));
+    }
+
+    /**
+     * flatMap, в котором внутренний поток по ключу запускается один раз и
+     * запоминается через cache(): повторные ключи, в том числе пришедшие,
+     * пока поток ещё идёт, подписываются на тот же запуск. Поток, завершившийся
+     * ошибкой, при следующем обращении к ключу заменяется новым.
+     */
+    public <K, R> Observable<R> flatMapCached(Function<? super T, ? extends K> keyFn,
+                                              Function<? super T, ? extends Observable<? extends R>> mapper,
+                                              BoundedCache<K, Observable<R>> cache) {
+        return flatMap(item -> {
+            K key = keyFn.apply(item);
+            for (;;) {
+                Observable<R> inner = cache.get(key, k -> new CacheObservable<R>(mapper.apply(item)));
+                if (!(inner instanceof CacheObservable<R> c) || !c.isFailed()) {
+                    return inner;
+                }
+                cache.invalidate(key, inner);
+            }
+        });
+    }
+
+    /* ===== Мосты ======================================================== */
+
+    /** blockingIterable с prefetch = {@link Flowable#BUFFER_SIZE}. */
+    public Iterable<T> blockingIterable() {
+        return blockingIterable(Flowable.BUFFER_SIZE);
+    }
+
+    /**
+     * Синхронное чтение: каждый iterator() подписывается заново, между
+     * источником и читателем не больше prefetch элементов — при полной очереди
+     * источник ждёт. Подписка идёт на IOThreadScheduler.shared(). Итератор
+     * реализует Disposable: брошенный до конца нужно отменить.
+     */
+    public Iterable<T> blockingIterable(int prefetch) {
+        return new BlockingIterable<>(this, prefetch, IOThreadScheduler.shared());
+    }
+
+    /** Первый элемент; источник после него отменяется. Пустой поток — NoSuchElementException. */
+    public T blockingFirst() {
+        return blockingFirst(null);
+    }
+
+    public T blockingFirst(T defaultItem) {
+        BlockingSingleObserver<T> observer = new BlockingSingleObserver<>(true);
+        subscribe(observer);
+        return observer.blockingGet(defaultItem);
+    }
+
+    /** Последний элемент после завершения. Пустой поток — NoSuchElementException. */
+    public T blockingLast() {
+        return blockingLast(null);
+    }
+
+    public T blockingLast(T defaultItem) {
+        BlockingSingleObserver<T> observer = new BlockingSingleObserver<>(false);
+        subscribe(observer);
+        return observer.blockingGet(defaultItem);
+    }
+
+    /** toStream с prefetch = {@link Flowable#BUFFER_SIZE}. */
+    public Stream<T> toStream() {
+        return toStream(Flowable.BUFFER_SIZE);
+    }
+
+    /**
+     * java.util.stream.Stream поверх {@link #blockingIterable(int)}: подписка —
+     * при терминальной операции. В parallel() Spliterator делится пачками
+     * уже полученных элементов. Stream, прочитанный не до конца, нужно
+     * закрыть (try-with-resources) — это отменит подписку.
+     */
+    public Stream<T> toStream(int prefetch) {
+        BlockingSpliterator<T> spliterator = new BlockingSpliterator<>(
+                new BlockingIterable<>(this, prefetch, IOThreadScheduler.shared()), prefetch);
+        return StreamSupport.stream(spliterator, false).onClose(spliterator::dispose);
+    }
+
+    /** Поток int без упаковки: дальше по цепочке значения не выделяют памяти. */
+    public IntObservable mapToInt(ToIntFunction<? super T> mapper) {
+        return IntObservable.from(this, mapper);
+    }
+
+    public LongObservable mapToLong(ToLongFunction<? super T> mapper) {
+        return LongObservable.from(this, mapper);
+    }
+
+    public DoubleObservable mapToDouble(ToDoubleFunction<? super T> mapper) {
+        return DoubleObservable.from(this, mapper);
+    }
 
-        @Override public void dispose() { disposed = true; }
-        @Override public boolean isDisposed() { return disposed; }
+    /** Flowable с обратным давлением; излишки обрабатываются по стратегии. */
+    public Flowable<T> toFlowable(BackpressureStrategy strategy) {
+        return RxPlugins.onAssembly(new ObservableToFlowable<>(this, strategy));
     }
 }
@@ -0,0 +1,122 @@
+package core;
+
+import operator.*;
+import scheduler.Scheduler;
+
+import java.util.Comparator;
+import java.util.Objects;
+import java.util.function.BiFunction;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Поток, разложенный на N «рельсов». Источник раздаёт элементы по кругу,
+ * после {@link #runOn} каждый рельс обрабатывается своей задачей планировщика,
+ * поэтому map/filter/reduce идут на N ядрах одновременно, а внутри рельса —
+ * последовательно и по порядку.<br>
+ * Обратно в Observable — {@link #sequential()} (порядок между рельсами
+ * не сохраняется), {@link #sorted} или {@link #reduce(BinaryOperator)}.
+ *
+ * @param <T> тип элементов
+ */
+public abstract class ParallelObservable<T> {
+
+    protected ParallelObservable() { }
+
+    /* ===== Фабрика ====================================================== */
+
+    /** Разложить source на parallelism рельсов по кругу. */
+    public static <T> ParallelObservable<T> from(Observable<? extends T> source, int parallelism) {
+        if (parallelism <= 0) throw new IllegalArgumentException("parallelism > 0 required: " + parallelism);
+        return new ParallelFromObservable<>(source, parallelism);
+    }
+
+    /* ===== Подписка ===================================================== */
+
+    /** Число рельсов. */
+    public abstract int parallelism();
+
+    /**
+     * Подписать по Observer на каждый рельс; observers.length должен
+     * совпадать с {@link #parallelism()}. Каждый рельс получает свой
+     * onSubscribe, а источник отменяется, когда отменены все рельсы.
+     */
+    public final void subscribe(Observer<? super T>[] observers) {
+        Objects.requireNonNull(observers, "observers");
+        if (observers.length != parallelism()) {
+            IllegalArgumentException ex = new IllegalArgumentException(
+                    "Ожидалось " + parallelism() + " подписчиков, получено " + observers.length);
+            for (Observer<? super T> o : observers) {
+                o.onSubscribe(Disposable.DISPOSED);
+                o.onError(ex);
+            }
+            return;
+        }
+        subscribeActual(observers);
+    }
+
+    /** Реальная логика подписки. Переопределяется операторами. */
+    protected abstract void subscribeActual(Observer<? super T>[] observers);
+
+    /* ===== Операторы на рельсах ========================================= */
+
+    /**
+     * Дальнейшая обработка каждого рельса — задачами планировщика: одна задача
+     * на пачку сигналов рельса, рельсы выполняются параллельно.
+     */
+    public ParallelObservable<T> runOn(Scheduler scheduler) {
+        return runOn(scheduler, Flowable.BUFFER_SIZE);
+    }
+
+    /** @param bufferSize размер кольца очереди рельса и пачки за один запуск задачи */
+    public ParallelObservable<T> runOn(Scheduler scheduler, int bufferSize) {
+        return new ParallelRunOnObservable<>(this, scheduler, bufferSize);
+    }
+
+    public <R> ParallelObservable<R> map(Function<? super T, ? extends R> mapper) {
+        return new ParallelMapObservable<>(this, mapper);
+    }
+
+    public ParallelObservable<T> filter(Predicate<? super T> predicate) {
+        return new ParallelFilterObservable<>(this, predicate);
+    }
+
+    /**
+     * Частичная свёртка каждого рельса: по одному значению на рельс
+     * при его завершении, начиная с seed.get().
+     */
+    public <R> ParallelObservable<R> reduce(Supplier<R> seed, BiFunction<R, ? super T, R> reducer) {
+        return new ParallelReduceObservable<>(this, seed, reducer);
+    }
+
+    /* ===== Сборка в Observable ========================================== */
+
+    /** Элементы всех рельсов в один поток по мере готовности. */
+    public Observable<T> sequential() {
+        return sequential(Flowable.BUFFER_SIZE);
+    }
+
+    /** @param bufferSize размер кольца очереди каждого рельса на стыке */
+    public Observable<T> sequential(int bufferSize) {
+        return RxPlugins.onAssembly(new ParallelJoinObservable<>(this, bufferSize));
+    }
+
+    /**
+     * Все элементы по порядку comparator. Каждый рельс сортирует свою часть
+     * сам (параллельно), затем отсортированные части сливаются.
+     */
+    public Observable<T> sorted(Comparator<? super T> comparator) {
+        return RxPlugins.onAssembly(new ParallelSortedObservable<>(this, comparator));
+    }
+
+    /**
+     * Свёртка всего потока: рельсы сворачивают свои части параллельно,
+     * частичные результаты объединяются тем же reducer.
+     * Пустой поток завершается без элементов.
+     */
+    public Observable<T> reduce(BinaryOperator<T> reducer) {
+        return RxPlugins.onAssembly(new ParallelReduceFullObservable<>(this, reducer));
+    }
+}
@@ -0,0 +1,140 @@
+package core;
+
+import metrics.PipelineProfiler;
+
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Глобальные точки расширения в духе RxJavaPlugins.<br>
+ * onAssembly видит каждый Observable, собранный оператором или фабрикой
+ * {@link Observable}, и может подменить его обёрткой. Как и в RxJavaPlugins,
+ * у {@link ConnectableObservable} (publish, replay) и {@link Flowable} свои
+ * обработчики сборки того же типа: обёртка обязана сохранить тип. Рельсы
+ * {@link ParallelObservable} — не Observable; onAssembly видит их сборку обратно
+ * в один поток (sequential, sorted, reduce). onSubscribe видит каждую
+ * подписку стадии на источник и может подменить Observer, которому пойдут
+ * сигналы. Инструментирование ({@link #enableInstrumentation}) — встроенный
+ * обработчик подписки: каждая стадия получает счётчики и время обработки.<br>
+ * Все обработчики лежат в одном неизменяемом объекте: пока ничего не
+ * установлено, сборка и подписка платят одним volatile-чтением.
+ */
+public final class RxPlugins {
+
+    /** Снимок обработчиков; меняется целиком. */
+    private record Hooks(Function<Observable<?>, Observable<?>> assembly,
+                         Function<ConnectableObservable<?>, ConnectableObservable<?>> connectableAssembly,
+                         Function<Flowable<?>, Flowable<?>> flowableAssembly,
+                         BiFunction<Observable<?>, Observer<?>, Observer<?>> subscribe,
+                         PipelineProfiler profiler) {
+        boolean isEmpty() {
+            return assembly == null && connectableAssembly == null && flowableAssembly == null
+                    && subscribe == null && profiler == null;
+        }
+    }
+
+    private static volatile Hooks hooks;
+
+    private RxPlugins() { }
+
+    /* ===== Вызовы из библиотеки ========================================= */
+
+    @SuppressWarnings("unchecked")
+    public static <T> Observable<T> onAssembly(Observable<T> source) {
+        Hooks h = hooks;
+        if (h == null || h.assembly == null) return source;
+        return (Observable<T>) h.assembly.apply(source);
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T> ConnectableObservable<T> onAssembly(ConnectableObservable<T> source) {
+        Hooks h = hooks;
+        if (h == null || h.connectableAssembly == null) return source;
+        return (ConnectableObservable<T>) h.connectableAssembly.apply(source);
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T> Flowable<T> onAssembly(Flowable<T> source) {
+        Hooks h = hooks;
+        if (h == null || h.flowableAssembly == null) return source;
+        return (Flowable<T>) h.flowableAssembly.apply(source);
+    }
+
+    /** Observer, которому источник source будет передавать сигналы. */
+    @SuppressWarnings("unchecked")
+    public static <T> Observer<? super T> onSubscribe(Observable<T> source, Observer<? super T> observer) {
+        Hooks h = hooks;
+        if (h == null) return observer;
+        if (h.subscribe != null) observer = (Observer<? super T>) h.subscribe.apply(source, observer);
+        if (h.profiler != null) observer = h.profiler.wrap(source, observer);
+        return observer;
+    }
+
+    /** Включённое инструментирование или null; операторы читают его один раз при подписке. */
+    public static PipelineProfiler profiler() {
+        Hooks h = hooks;
+        return h == null ? null : h.profiler;
+    }
+
+    /* ===== Настройка ==================================================== */
+
+    /** @param hook null — снять */
+    public static synchronized void setOnAssembly(Function<Observable<?>, Observable<?>> hook) {
+        Hooks h = current();
+        update(new Hooks(hook, h.connectableAssembly, h.flowableAssembly, h.subscribe, h.profiler));
+    }
+
+    /** Сборка publish/replay; @param hook null — снять */
+    public static synchronized void setOnConnectableAssembly(
+            Function<ConnectableObservable<?>, ConnectableObservable<?>> hook) {
+        Hooks h = current();
+        update(new Hooks(h.assembly, hook, h.flowableAssembly, h.subscribe, h.profiler));
+    }
+
+    /** Сборка Flowable; @param hook null — снять */
+    public static synchronized void setOnFlowableAssembly(Function<Flowable<?>, Flowable<?>> hook) {
+        Hooks h = current();
+        update(new Hooks(h.assembly, h.connectableAssembly, hook, h.subscribe, h.profiler));
+    }
+
+    /** @param hook (источник, Observer) → Observer для подписки; null — снять */
+    public static synchronized void setOnSubscribe(BiFunction<Observable<?>, Observer<?>, Observer<?>> hook) {
+        Hooks h = current();
+        update(new Hooks(h.assembly, h.connectableAssembly, h.flowableAssembly, hook, h.profiler));
+    }
+
+    /**
+     * Инструментировать подписки, сделанные с этого момента: каждая стадия
+     * считает onNext, время обработки замеряется у каждого sampleInterval-го
+     * элемента, observeOn дополнительно замеряет время в очереди.
+     *
+     * @param sampleInterval степень двойки; 1 — замерять каждый элемент
+     * @return профилировщик со снимками и выгрузкой в JFR
+     */
+    public static synchronized PipelineProfiler enableInstrumentation(int sampleInterval) {
+        PipelineProfiler profiler = new PipelineProfiler(sampleInterval);
+        Hooks h = current();
+        update(new Hooks(h.assembly, h.connectableAssembly, h.flowableAssembly, h.subscribe, profiler));
+        return profiler;
+    }
+
+    /** Новые подписки больше не инструментируются; уже обёрнутые продолжают считать. */
+    public static synchronized void disableInstrumentation() {
+        Hooks h = current();
+        update(new Hooks(h.assembly, h.connectableAssembly, h.flowableAssembly, h.subscribe, null));
+    }
+
+    /** Снять все обработчики. */
+    public static synchronized void reset() {
+        hooks = null;
+    }
+
+    private static Hooks current() {
+        Hooks h = hooks;
+        return h == null ? new Hooks(null, null, null, null, null) : h;
+    }
+
+    private static void update(Hooks h) {
+        hooks = h.isEmpty() ? null : h;
+    }
+}
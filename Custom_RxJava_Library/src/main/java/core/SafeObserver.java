@@ -0,0 +1,27 @@
+package core;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Обёртка пользовательского Observer в {@link Observable#subscribe}.<br>
+ * Подписчик получает её в onSubscribe сразу, ещё до запуска источника;
+ * Disposable цепочки приходит позже через onSubscribe обёртки.
+ * Отмена, пришедшая раньше, отменит его при получении, а сигналы
+ * после отмены подписчику не передаются.
+ */
+final class SafeObserver<T> implements Observer<T>, Disposable {
+
+    private final Observer<? super T> downstream;
+    private final AtomicReference<Disposable> upstream = new AtomicReference<>();
+
+    SafeObserver(Observer<? super T> downstream) { this.downstream = downstream; }
+
+    @Override public void onSubscribe(Disposable d) { Disposable.setOnce(upstream, d); }
+
+    @Override public void onNext(T item) { if (!isDisposed()) downstream.onNext(item); }
+    @Override public void onError(Throwable t) { if (!isDisposed()) downstream.onError(t); }
+    @Override public void onComplete() { if (!isDisposed()) downstream.onComplete(); }
+
+    @Override public void dispose() { Disposable.dispose(upstream); }
+    @Override public boolean isDisposed() { return upstream.get() == DISPOSED; }
+}
@@ -0,0 +1,17 @@
+package core;
+
+/** Получатель элементов {@link Flowable} с поддержкой обратного давления. */
+public interface Subscriber<T> {
+
+    /** Подписка получена — через неё запрашиваем элементы. */
+    void onSubscribe(Subscription s);
+
+    /** Элемент данных (не больше, чем было запрошено). */
+    void onNext(T item);
+
+    /** Ошибка в потоке. */
+    void onError(Throwable t);
+
+    /** Поток корректно завершён. */
+    void onComplete();
+}
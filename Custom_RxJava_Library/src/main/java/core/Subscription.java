@@ -0,0 +1,11 @@
+package core;
+
+/** Канал спроса между {@link Flowable} и {@link Subscriber}. */
+public interface Subscription {
+
+    /** Запросить ещё {@code n} элементов (n > 0, запросы суммируются). */
+    void request(long n);
+
+    /** Отменить подписку — источник прекращает выдачу. */
+    void cancel();
+}
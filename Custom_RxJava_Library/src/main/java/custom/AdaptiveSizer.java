@@ -0,0 +1,82 @@
+package custom;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Расчёт нужного числа воркеров по закону Литтла.<br>
+ * За окно измеряются темп поступления λ, среднее время выполнения S и среднее
+ * ожидание в очереди W. В установившемся режиме занято λ·S воркеров; очередь
+ * по тому же закону держит λ·W задач, и чтобы разобрать их за целевую задержку
+ * T, нужно ещё λ·W·S/T воркеров. Итого {@code ceil(λ·S·(1 + W/T))}.<br>
+ * Запись — инкременты {@link LongAdder} в обёртке задачи; пересчёт делает
+ * один поток не чаще раза в {@link #INTERVAL_NANOS}; длинное окно после простоя
+ * честно даёт малый темп, и расчёт опускается к core.
+ */
+final class AdaptiveSizer {
+
+    /** Минимальное окно измерения. */
+    static final long INTERVAL_NANOS = 10_000_000L;
+
+    private final long targetLatencyNanos;
+    private final LongAdder arrivals = new LongAdder();
+    private final LongAdder started = new LongAdder();
+    private final LongAdder waitNanos = new LongAdder();
+    private final LongAdder finished = new LongAdder();
+    private final LongAdder busyNanos = new LongAdder();
+    private final AtomicLong windowStart = new AtomicLong(System.nanoTime());
+    /** Сглаженное время выполнения; 0 — ещё не измерено. Пишет только пересчитывающий поток. */
+    private double serviceNanos;
+
+    AdaptiveSizer(long targetLatencyNanos) { this.targetLatencyNanos = targetLatencyNanos; }
+
+    /** Обёртка, измеряющая ожидание в очереди и время выполнения задачи. */
+    Runnable track(Runnable task) {
+        arrivals.increment();
+        long enqueued = System.nanoTime();
+        return () -> {
+            long start = System.nanoTime();
+            waitNanos.add(start - enqueued);
+            started.increment();
+            try {
+                task.run();
+            } finally {
+                busyNanos.add(System.nanoTime() - start);
+                finished.increment();
+            }
+        };
+    }
+
+    /**
+     * Нужное число воркеров по итогам окна или -1, если окно ещё не истекло,
+     * его пересчитывает другой поток или данных для решения мало.
+     *
+     * @param queued задач в очереди сейчас: если воркеры заняты долгими задачами
+     *               и очередь не движется, ожидание оценивается как queued/λ
+     */
+    int evaluate(int queued) {
+        long now = System.nanoTime();
+        long start = windowStart.get();
+        long window = now - start;
+        if (window < INTERVAL_NANOS || !windowStart.compareAndSet(start, now)) return -1;
+
+        long a = arrivals.sumThenReset();
+        long s = started.sumThenReset();
+        long w = waitNanos.sumThenReset();
+        long f = finished.sumThenReset();
+        long b = busyNanos.sumThenReset();
+        if (f > 0) {
+            double measured = (double) b / f;
+            serviceNanos = serviceNanos == 0 ? measured : 0.7 * serviceNanos + 0.3 * measured;
+        }
+        if (serviceNanos == 0) return -1;
+
+        double lambda = (double) a / window;
+        double wait = s == 0 ? 0 : (double) w / s;
+        if (lambda > 0) wait = Math.max(wait, queued / lambda);
+        double needed = lambda * serviceNanos * (1 + wait / targetLatencyNanos);
+        return (int) Math.min(Integer.MAX_VALUE, Math.ceil(needed));
+    }
+
+    long targetLatencyNanos() { return targetLatencyNanos; }
+}
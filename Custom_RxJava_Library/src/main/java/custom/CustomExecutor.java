@@ -1,8 +1,12 @@
 package custom;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executor;
 import java.util.concurrent.Future;
+import java.util.function.IntConsumer;
 
 public interface CustomExecutor extends Executor {
 
@@ -11,6 +15,20 @@ public interface CustomExecutor extends Executor {
 
     <T> Future<T> submit(Callable<T> task);
 
+    /* ── пачки: один Future на всю пачку ── */
+
+    /** Выполнить все задачи; Future завершается после последней или с первой ошибкой. */
+    CompletableFuture<Void> executeAll(Collection<? extends Runnable> tasks);
+
+    /** Результаты всех задач в их порядке; первая ошибка завершает Future и отменяет ещё не начатые. */
+    <T> CompletableFuture<List<T>> invokeAll(Collection<? extends Callable<T>> tasks);
+
+    /** Первый успешный результат; ещё не начатые задачи после него не запускаются. */
+    <T> CompletableFuture<T> invokeAny(Collection<? extends Callable<T>> tasks);
+
+    /** body(i) для i из [from, to), по задаче на отрезок из chunkSize индексов. */
+    CompletableFuture<Void> parallelFor(int from, int to, int chunkSize, IntConsumer body);
+
     /** мягкое завершение — ждём выполнения очереди */
     void shutdown();
 
@@ -3,9 +3,28 @@ package custom;
 import java.util.*;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
 
 /**
- * Кастомный пул потоков с параметрами core/max, queueSize, keepAliveTime и minSpareThreads.
+ * Кастомный пул потоков с параметрами core/max, queueSize, keepAliveTime и minSpareThreads.<br>
+ * Очередь задач — lock-free {@link MpmcArrayQueue}; свободные воркеры спят в park
+ * и будятся постановкой задачи, число свободных ведут сами воркеры атомарным счётчиком.
+ * Логирование включается флагом конструктора и по умолчанию выключено,
+ * метрики ({@link #metrics()}) собираются всегда.<br>
+ * Число воркеров меняется только CAS-ом: рост — до maxPoolSize, выход
+ * простаивающего воркера — пока их больше нижней границы, поэтому
+ * одновременно истёкшие keepAlive не опускают пул ниже core.
+ * Нижняя граница — core или, в адаптивном режиме ({@link #setAdaptiveSizing}),
+ * расчётный размер по нагрузке.<br>
+ * Задачи с приоритетом и сроком ({@link #execute(Runnable, int, long, TimeUnit)})
+ * идут во вторую, упорядоченную очередь; воркер берёт из неё, пока там есть
+ * задачи важнее обычных. Политики {@link SheddingPolicy} сбрасывают из неё
+ * просроченную и менее важную работу под перегрузкой.<br>
+ * Пачки ({@link #executeAll}, {@link #invokeAll}, {@link #invokeAny},
+ * {@link #parallelFor}) занимают места в очереди одним CAS-ом, будят воркеров
+ * одним проходом и возвращают один Future на всю пачку.
  */
 public class CustomThreadPoolExecutor implements CustomExecutor {
 
@@ -16,13 +35,33 @@ public class CustomThreadPoolExecutor implements CustomExecutor {
     private final int minSpareThreads;
     private final RejectionPolicy rejection;
     private final CustomThreadFactory threadFactory;
+    private final boolean logging;
 
     /** Очередь задач. */
-    private final BlockingQueue<Runnable> queue;
+    private final MpmcArrayQueue<Runnable> queue;
+    /**
+     * Очередь с приоритетами: lock-free список с пропусками, голова — самая
+     * важная задача, хвост — первая на сброс. Ёмкость та же, что у queue.
+     */
+    private final ConcurrentSkipListMap<PriorityTask, Boolean> priorityQueue = new ConcurrentSkipListMap<>();
+    /** Занятые места priorityQueue: растёт CAS-ом до ёмкости, как workerCount. */
+    private final AtomicInteger prioritySize = new AtomicInteger();
+    private volatile boolean dropExpired;
+    /** Порог ожидания для SHED_LOWEST_PRIORITY, нс; 0 — выключено. */
+    private volatile long shedWaitNanos;
     /** Набор воркеров (а не Thread!). */
     private final Set<Worker> workers = ConcurrentHashMap.newKeySet();
-    /** Счётчик отправленных (ещё не завершённых) задач. */
-    private final AtomicInteger submittedTasks = new AtomicInteger();
+    /** Число воркеров: растёт CAS-ом до maxPoolSize, поэтому лишних потоков не бывает. */
+    private final AtomicInteger workerCount = new AtomicInteger();
+    /** Число воркеров без задачи — ведут сами воркеры. */
+    private final AtomicInteger idleCount = new AtomicInteger();
+    /** Уснувшие воркеры — их будит постановка задачи. */
+    private final Deque<Worker> parked = new ConcurrentLinkedDeque<>();
+    private final PoolMetrics metrics = new PoolMetrics(this);
+    /** null — адаптивный режим выключен. */
+    private volatile AdaptiveSizer sizer;
+    /** Ниже этого числа воркеры по keepAlive не уходят: core или расчёт sizer. */
+    private volatile int targetPoolSize;
     private volatile boolean shutdown;
 
     /* ── конструктор ───────────────────────────────────────────────────── */
@@ -36,6 +75,24 @@ public class CustomThreadPoolExecutor implements CustomExecutor {
             int minSpareThreads,
             RejectionPolicy rejection,
             CustomThreadFactory threadFactory) {
+        this(corePoolSize, maxPoolSize, keepAliveTime, timeUnit, queueSize,
+                minSpareThreads, rejection, threadFactory, false);
+    }
+
+    /**
+     * @param logging печатать ли события пула в stdout (для демонстрации;
+     *                под нагрузкой printf на каждую задачу дороже самой задачи)
+     */
+    public CustomThreadPoolExecutor(
+            int corePoolSize,
+            int maxPoolSize,
+            long keepAliveTime,
+            TimeUnit timeUnit,
+            int queueSize,
+            int minSpareThreads,
+            RejectionPolicy rejection,
+            CustomThreadFactory threadFactory,
+            boolean logging) {
 
         if (corePoolSize <= 0 || maxPoolSize < corePoolSize)
             throw new IllegalArgumentException("Неверные размеры пула");
@@ -47,11 +104,13 @@ public class CustomThreadPoolExecutor implements CustomExecutor {
         this.minSpareThreads = minSpareThreads;
         this.rejection       = rejection;
         this.threadFactory   = threadFactory;
+        this.logging         = logging;
 
-        this.queue = new ArrayBlockingQueue<>(queueSize);
+        this.queue = new MpmcArrayQueue<>(queueSize);
+        this.targetPoolSize = corePoolSize;
 
         /* стартуем базовые core‑воркеры */
-        for (int i = 0; i < corePoolSize; i++) addWorker();
+        for (int i = 0; i < corePoolSize; i++) addWorker(null);
     }
 
     /* ── CustomExecutor API ────────────────────────────────────────────── */
@@ -59,19 +118,26 @@ public class CustomThreadPoolExecutor implements CustomExecutor {
     @Override
     public void execute(Runnable command) {
         Objects.requireNonNull(command);
-        if (shutdown) reject(command);
+        if (shutdown) {
+            reject(command);
+            return;
+        }
 
-        if (queue.offer(command)) {
-            System.out.printf("[Pool] Task accepted into queue: %s%n", command);
+        Runnable task = metrics.isQueueWaitTracking() ? metrics.trackQueueWait(command) : command;
+        AdaptiveSizer s = sizer;
+        if (s != null) task = s.track(task);
+        if (queue.offer(task)) {
+            metrics.onSubmit();
+            metrics.onEnqueued(queue.size());
+            if (logging) log("[Pool] Task accepted into queue: %s%n", command);
+            signalWork();
+            if (s != null) resize(s);
             ensureSpareThreads();
+        } else if (addWorker(task)) {
+            metrics.onSubmit();
         } else {
-            // очередь полна, пытаемся расширить пул
-            if (workers.size() < maxPoolSize) {
-                addWorker();
-                queue.offer(command);
-            } else {
-                reject(command);
-            }
+            // очередь полна и пул на максимуме
+            reject(command);
         }
     }
 
@@ -85,57 +151,467 @@ public class CustomThreadPoolExecutor implements CustomExecutor {
         return cf;
     }
 
+    /* ── пачки ─────────────────────────────────────────────────────────── */
+
     @Override
-    public void shutdown() { shutdown = true; }
+    public CompletableFuture<Void> executeAll(Collection<? extends Runnable> tasks) {
+        return submitBatch(TaskBatch.runAll(tasks.toArray(new Runnable[0])));
+    }
+
+    @Override
+    public <T> CompletableFuture<List<T>> invokeAll(Collection<? extends Callable<T>> tasks) {
+        return submitBatch(TaskBatch.invokeAll(new ArrayList<>(tasks)));
+    }
+
+    @Override
+    public <T> CompletableFuture<T> invokeAny(Collection<? extends Callable<T>> tasks) {
+        if (tasks.isEmpty()) throw new IllegalArgumentException("invokeAny: no tasks");
+        return submitBatch(TaskBatch.invokeAny(new ArrayList<>(tasks)));
+    }
+
+    @Override
+    public CompletableFuture<Void> parallelFor(int from, int to, int chunkSize, IntConsumer body) {
+        if (chunkSize <= 0) throw new IllegalArgumentException("chunkSize > 0 required: " + chunkSize);
+        Objects.requireNonNull(body);
+        return submitBatch(TaskBatch.range(from, to, chunkSize, body));
+    }
+
+    /**
+     * Пачка целиком: места в очереди занимаются одним захватом, метрики,
+     * журнал, пробуждение воркеров и адаптивный пересчёт — раз на пачку.
+     * Не поместившееся в очередь отдаётся новым воркерам до maxPoolSize,
+     * остаток — политике отказа одним куском ({@link #rejectBatch}).
+     */
+    private <R> TaskBatch<R> submitBatch(TaskBatch<R> batch) {
+        int n = batch.size();
+        if (n == 0) {
+            batch.completeIfEmpty();
+            return batch;
+        }
+        boolean trackWait = metrics.isQueueWaitTracking();
+        AdaptiveSizer s = sizer;
+        TaskBatch.Slot[] tasks = new TaskBatch.Slot[n];
+        for (int i = 0; i < n; i++) {
+            TaskBatch.Slot slot = batch.slot(i);
+            if (trackWait || s != null) {
+                Runnable t = slot::runBody;
+                if (trackWait) t = metrics.trackQueueWait(t);
+                if (s != null) t = s.track(t);
+                slot.tracked = t;
+            }
+            tasks[i] = slot;
+        }
+        if (shutdown) {
+            rejectBatch(batch, tasks, 0);
+            return batch;
+        }
+
+        int accepted = queue.offer(tasks, 0, n);
+        int placed = accepted;
+        while (placed < n && addWorker(tasks[placed])) placed++;
+        metrics.onSubmit(placed);
+        if (accepted > 0) {
+            metrics.onEnqueued(queue.size());
+            if (logging) log("[Pool] Batch of %d tasks accepted into queue%n", accepted);
+            signalWork(accepted);
+            if (s != null) resize(s);
+            ensureSpareThreads();
+        }
+        if (placed < n) rejectBatch(batch, tasks, placed);
+        return batch;
+    }
+
+    /* ── приоритеты и сроки ────────────────────────────────────────────── */
+
+    /**
+     * Задача с приоритетом: больший запускается раньше. Обычные задачи
+     * {@link #execute(Runnable)} считаются приоритетом 0 и при равенстве идут первыми.
+     */
+    public void execute(Runnable command, int priority) {
+        enqueue(command, priority, -1, null);
+    }
+
+    /**
+     * Задача с приоритетом и сроком запуска: при равном приоритете раньше
+     * идёт задача с более близким сроком. С {@link #setDropExpired} задача,
+     * не начавшаяся за deadline, сбрасывается.
+     */
+    public void execute(Runnable command, int priority, long deadline, TimeUnit unit) {
+        if (deadline < 0) throw new IllegalArgumentException("deadline >= 0 required: " + deadline);
+        enqueue(command, priority, unit.toNanos(deadline), null);
+    }
+
+    /**
+     * submit с приоритетом и сроком. Сброшенная задача завершает Future
+     * исключением: {@link TimeoutException} — срок истёк,
+     * {@link RejectedExecutionException} — сброшена под перегрузкой.
+     */
+    public <T> Future<T> submit(Callable<T> task, int priority, long deadline, TimeUnit unit) {
+        if (deadline < 0) throw new IllegalArgumentException("deadline >= 0 required: " + deadline);
+        CompletableFuture<T> cf = new CompletableFuture<>();
+        enqueue(() -> {
+            try { cf.complete(task.call()); }
+            catch (Throwable t) { cf.completeExceptionally(t); }
+        }, priority, unit.toNanos(deadline), cf::completeExceptionally);
+        return cf;
+    }
+
+    /** {@link SheddingPolicy#DROP_EXPIRED}: задачи с истёкшим сроком сбрасываются, не запускаясь. */
+    public void setDropExpired(boolean enabled) { dropExpired = enabled; }
+
+    /**
+     * {@link SheddingPolicy#SHED_LOWEST_PRIORITY}: если задача дождалась запуска
+     * дольше maxQueueWait, все ждущие задачи ниже её приоритета сбрасываются,
+     * а при полной очереди новая задача вытесняет наименее важную, если она
+     * важнее. Обычные задачи без приоритета не сбрасываются. 0 — выключить.
+     */
+    public void setShedThreshold(long maxQueueWait, TimeUnit unit) {
+        if (maxQueueWait < 0) throw new IllegalArgumentException("maxQueueWait >= 0 required: " + maxQueueWait);
+        shedWaitNanos = unit.toNanos(maxQueueWait);
+    }
+
+    private void enqueue(Runnable command, int priority, long deadlineNanos, Consumer<Throwable> onDrop) {
+        Objects.requireNonNull(command);
+        if (shutdown) {
+            reject(command, onDrop);
+            return;
+        }
+
+        Runnable task = metrics.isQueueWaitTracking() ? metrics.trackQueueWait(command) : command;
+        AdaptiveSizer s = sizer;
+        if (s != null) task = s.track(task);
+        PriorityTask pt = new PriorityTask(task, priority, deadlineNanos, onDrop);
+        if (offerPriority(pt)) {
+            metrics.onSubmit();
+            metrics.onEnqueued(prioritySize.get());
+            if (logging) log("[Pool] Task accepted into priority queue: %s%n", pt);
+            signalWork();
+            if (s != null) resize(s);
+            ensureSpareThreads();
+        } else if (addWorker(pt) || shedWaitNanos > 0 && displaceLowest(pt)) {
+            metrics.onSubmit();
+        } else if (rejection == RejectionPolicy.DISCARD_OLDEST) {
+            discardLeastImportant(pt);
+        } else {
+            reject(command, onDrop);
+        }
+    }
+
+    /**
+     * DISCARD_OLDEST для очереди с приоритетами: «старейшая» — наименее важная,
+     * в хвосте. Вытесняется она, если новая задача важнее; иначе сбрасывается
+     * сама новая задача. Очередь успела опустеть — новая задача встаёт в неё.
+     */
+    private void discardLeastImportant(PriorityTask pt) {
+        metrics.onRejected(rejection);
+        Map.Entry<PriorityTask, Boolean> last = priorityQueue.lastEntry();
+        if (last == null) {
+            if (offerPriority(pt)) {
+                metrics.onSubmit();
+                signalWork();
+            } else {
+                pt.drop(new RejectedExecutionException("Задача отклонена: очередь переполнена"));
+            }
+            return;
+        }
+        if (last.getKey().priority >= pt.priority || priorityQueue.remove(last.getKey()) == null) {
+            pt.drop(new RejectedExecutionException("Задача отклонена: в очереди нет менее важной"));
+            return;
+        }
+        metrics.onDropped();
+        last.getKey().drop(new RejectedExecutionException("Задача вытеснена более новой"));
+        priorityQueue.put(pt, Boolean.TRUE);
+        metrics.onSubmit();
+        signalWork();
+    }
+
+    private boolean offerPriority(PriorityTask t) {
+        int capacity = queue.capacity();
+        for (;;) {
+            int c = prioritySize.get();
+            if (c >= capacity) return false;
+            if (prioritySize.compareAndSet(c, c + 1)) break;
+        }
+        priorityQueue.put(t, Boolean.TRUE);
+        return true;
+    }
+
+    /** Очередь полна: t занимает место наименее важной задачи, если важнее её. */
+    private boolean displaceLowest(PriorityTask t) {
+        Map.Entry<PriorityTask, Boolean> last = priorityQueue.lastEntry();
+        if (last == null || last.getKey().priority >= t.priority) return false;
+        if (priorityQueue.remove(last.getKey()) == null) return false;
+        shed(last.getKey(), SheddingPolicy.SHED_LOWEST_PRIORITY);
+        priorityQueue.put(t, Boolean.TRUE);
+        signalWork();
+        return true;
+    }
+
+    /** Ожидание превысило порог: сбрасываем всё, что ниже priority. */
+    private void shedBelow(int priority) {
+        for (;;) {
+            Map.Entry<PriorityTask, Boolean> last = priorityQueue.lastEntry();
+            if (last == null || last.getKey().priority >= priority) return;
+            if (priorityQueue.remove(last.getKey()) != null) {
+                prioritySize.decrementAndGet();
+                shed(last.getKey(), SheddingPolicy.SHED_LOWEST_PRIORITY);
+            }
+        }
+    }
+
+    private void shed(PriorityTask t, SheddingPolicy policy) {
+        metrics.onShed(policy);
+        metrics.onDropped();
+        if (logging) log("[Shed] Task %s dropped by %s%n", t, policy);
+        t.drop(policy == SheddingPolicy.DROP_EXPIRED
+                ? new TimeoutException("Срок задачи истёк до запуска")
+                : new RejectedExecutionException("Задача сброшена: ожидание в очереди выше порога"));
+    }
+
+    @Override
+    public void shutdown() {
+        shutdown = true;
+        parked.forEach(w -> LockSupport.unpark(w.thread()));
+    }
 
     @Override
     public void shutdownNow() {
         shutdown = true;
         workers.forEach(Worker::interrupt);  // ← без кастов
         queue.clear();
+        priorityQueue.clear();
+        prioritySize.set(0);
+    }
+
+    /**
+     * Адаптивный размер пула: воркеры добавляются, как только расчёт по закону
+     * Литтла (темп поступления, время выполнения, ожидание в очереди) требует
+     * больше, чем есть, чтобы ожидание укладывалось в targetLatency. Лишние
+     * воркеры уходят по keepAlive, но не ниже расчёта и не ниже core —
+     * keepAlive служит гистерезисом против дёрганья размера.<br>
+     * Учёт стоит одной обёртки на задачу. targetLatency = 0 выключает режим.
+     */
+    public void setAdaptiveSizing(long targetLatency, TimeUnit unit) {
+        if (targetLatency < 0) throw new IllegalArgumentException("targetLatency >= 0 required: " + targetLatency);
+        sizer = targetLatency == 0 ? null : new AdaptiveSizer(unit.toNanos(targetLatency));
+        targetPoolSize = corePoolSize;
     }
 
+    /** Целевая задержка адаптивного режима, нс; 0 — режим выключен. */
+    public long getTargetLatencyNanos() {
+        AdaptiveSizer s = sizer;
+        return s == null ? 0 : s.targetLatencyNanos();
+    }
+
+    /** Счётчики и гистограммы пула; для JMX — {@code metrics().registerMBean(name)}. */
+    public PoolMetrics metrics()     { return metrics; }
+
+    /** Текущее число воркеров. */
+    public int getPoolSize()         { return workerCount.get(); }
+    /** Воркеры, ждущие задачу. */
+    public int getIdleCount()        { return idleCount.get(); }
+    /** Задачи в очереди (приблизительно). */
+    public int getQueueSize()        { return queue.size() + prioritySize.get(); }
+    public int getQueueCapacity()    { return queue.capacity(); }
+    public int getCorePoolSize()     { return corePoolSize; }
+    public int getMaxPoolSize()      { return maxPoolSize; }
+    /** Ниже этого числа пул не сжимается: core или расчёт адаптивного режима. */
+    public int getTargetPoolSize()   { return targetPoolSize; }
+    public RejectionPolicy getRejectionPolicy() { return rejection; }
 
     boolean isShutdown()             { return shutdown; }
-    long     getKeepAliveTime()      { return keepAliveTime; }
-    TimeUnit getTimeUnit()           { return timeUnit; }
+    boolean isLogging()              { return logging; }
+    long     getKeepAliveNanos()     { return timeUnit.toNanos(keepAliveTime); }
+
+    /**
+     * Следующая задача: из очереди с приоритетами, пока её голова важнее
+     * обычных задач, иначе из обычной. Просроченные и вытесняемые задачи
+     * сбрасываются здесь же, по пути.
+     */
+    Runnable pollTask() {
+        if (prioritySize.get() == 0) return queue.poll();
+        for (;;) {
+            Map.Entry<PriorityTask, Boolean> head = priorityQueue.firstEntry();
+            if (head == null || head.getKey().priority <= 0) {
+                Runnable r = queue.poll();
+                if (r != null) return r;
+            }
+            head = priorityQueue.pollFirstEntry();
+            if (head == null) return queue.poll();
+            prioritySize.decrementAndGet();
+            PriorityTask t = head.getKey();
+            long now = System.nanoTime();
+            if (dropExpired && t.isExpired(now)) {
+                shed(t, SheddingPolicy.DROP_EXPIRED);
+                continue;
+            }
+            long limit = shedWaitNanos;
+            if (limit > 0 && now - t.enqueuedAt > limit) shedBelow(t.priority);
+            return t;
+        }
+    }
+
+    /**
+     * Воркер простоял keepAlive и хочет уйти. Место освобождается CAS-ом,
+     * только пока воркеров больше нижней границы: из нескольких одновременно
+     * истёкших уйдут лишь лишние.
+     *
+     * @return true — место освобождено, воркер должен завершиться
+     */
+    boolean tryRetireWorker() {
+        // без новых задач пересчёта не было бы: обновляем расчёт по окну простоя
+        AdaptiveSizer s = sizer;
+        if (s != null) resize(s);
+        int floor = Math.max(corePoolSize, targetPoolSize);
+        for (;;) {
+            int c = workerCount.get();
+            if (c <= floor) return false;
+            if (workerCount.compareAndSet(c, c - 1)) return true;
+        }
+    }
 
-    /** после успешного выполнения задачи */
-    void afterExecute() { submittedTasks.decrementAndGet(); }
+    /**
+     * Воркер остался без задачи и собирается уснуть. Сначала регистрируется
+     * в parked, затем перепроверяет очередь: задача, поставленная между этими
+     * шагами, его разбудит. Счётчик растёт после вставки — увидевший его
+     * постановщик найдёт воркера в parked.
+     */
+    void onWorkerIdle(Worker w) {
+        parked.offerFirst(w);
+        idleCount.incrementAndGet();
+    }
+
+    void onWorkerBusy(Worker w) {
+        parked.remove(w);
+        idleCount.decrementAndGet();
+    }
 
-    /** Поток должен завершиться, если простаивает дольше keepAlive и превышает corePoolSize. */
-    boolean shouldTerminateThisWorker() {
-        return workers.size() > corePoolSize;
+    /** @param retired место уже освобождено в {@link #tryRetireWorker()} */
+    void onWorkerExit(Worker w, boolean retired) {
+        workers.remove(w);
+        if (!retired) workerCount.decrementAndGet();
     }
 
-    void onWorkerExit(Worker w) {
-        workers.remove(w); }
+    void log(String format, Object... args) { System.out.printf(format, args); }
 
-    /** Создаём нового Worker + поток, запоминаем их связь. */
-    private void addWorker() {
-        Worker w = new Worker(queue, this);
+    /** Будим последнего уснувшего: его поток ещё «тёплый». */
+    private void signalWork() { signalWork(1); }
+
+    /** Будим до k уснувших за один проход — по воркеру на задачу пачки. */
+    private void signalWork(int k) {
+        for (int i = 0; i < k && idleCount.get() > 0; i++) {
+            Worker w = parked.pollFirst();
+            if (w == null) return;
+            LockSupport.unpark(w.thread());
+        }
+    }
+
+    /**
+     * Создаём нового Worker + поток, запоминаем их связь.
+     * Место занимается CAS-ом: при полном пуле возвращает false.
+     *
+     * @param firstTask задача, которую воркер выполнит первой (минуя очередь), или null
+     */
+    private boolean addWorker(Runnable firstTask) {
+        for (;;) {
+            int c = workerCount.get();
+            if (c >= maxPoolSize) return false;
+            if (workerCount.compareAndSet(c, c + 1)) {
+                metrics.onWorkerSpawned(c + 1);
+                break;
+            }
+        }
+        Worker w = new Worker(this, firstTask);
         Thread t = threadFactory.newThread(w);
         w.setThread(t);         // связь Worker↔Thread
         workers.add(w);
         t.start();
+        return true;
+    }
+
+    /** Пересчёт адаптивного размера: не чаще раза в окно, рост — сразу. */
+    private void resize(AdaptiveSizer s) {
+        int needed = s.evaluate(queue.size());
+        if (needed < 0) return;
+        int target = Math.max(corePoolSize, Math.min(maxPoolSize, needed));
+        targetPoolSize = target;
+        while (workerCount.get() < target && addWorker(null)) {
+            if (logging) log("[Pool] Adaptive grow to %d workers%n", workerCount.get());
+        }
     }
 
     /** Поддерживаем резерв свободных потоков. */
     private void ensureSpareThreads() {
-        long idle = workers.stream()
-                .filter(w -> w.getState() == Thread.State.WAITING)
-                .count();
-        if (idle < minSpareThreads && workers.size() < maxPoolSize) addWorker();
+        if (idleCount.get() < minSpareThreads && workerCount.get() < maxPoolSize) addWorker(null);
+    }
+
+    /**
+     * Отказ задаче с onDrop (Future из submit): если политика её не выполнит
+     * и не поставит в очередь, Future завершается {@link RejectedExecutionException}.
+     */
+    private void reject(Runnable task, Consumer<Throwable> onDrop) {
+        if (onDrop != null && (rejection == RejectionPolicy.ABORT || rejection == RejectionPolicy.DISCARD))
+            onDrop.accept(new RejectedExecutionException("Задача отклонена политикой " + rejection));
+        reject(task);
     }
 
     /** Обрабатываем переполнение очереди. */
     private void reject(Runnable task) {
-        System.out.printf("[Rejected] Task %s was rejected due to overload!%n", task);
+        metrics.onRejected(rejection);
+        if (logging) log("[Rejected] Task %s was rejected due to overload!%n", task);
         switch (rejection) {
             case ABORT          -> throw new RejectedExecutionException();
             case CALLER_RUNS    -> task.run();
-            case DISCARD_OLDEST -> { queue.poll(); queue.offer(task); }
+            case DISCARD_OLDEST -> {
+                // вытесненная задача уже учтена как принятая — новая занимает её место
+                boolean evicted = evict(queue.poll());
+                if (queue.offer(task)) {
+                    if (!evicted) metrics.onSubmit();
+                    signalWork();
+                }
+            }
             case DISCARD        -> { /* игнор */ }
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Остаток пачки tasks[from..] не поместился — политика применяется к нему целиком:
+     * ABORT отменяет всю пачку (Future завершается {@link RejectedExecutionException},
+     * уже поставленные задачи пропускают тело) и бросает исключение вызывающему;
+     * CALLER_RUNS выполняет остаток в вызывающем потоке; DISCARD_OLDEST вытесняет
+     * под остаток столько же старейших задач очереди; DISCARD не выполняет остаток,
+     * о чём узнаёт Future пачки.
+     */
+    private void rejectBatch(TaskBatch<?> batch, TaskBatch.Slot[] tasks, int from) {
+        int n = tasks.length;
+        int rest = n - from;
+        metrics.onRejected(rejection, rest);
+        if (logging) log("[Rejected] %d of %d batch tasks were rejected due to overload!%n", rest, n);
+        switch (rejection) {
+            case ABORT -> {
+                RejectedExecutionException e =
+                        new RejectedExecutionException(rest + " of " + n + " batch tasks do not fit");
+                batch.completeExceptionally(e);
+                throw e;
+            }
+            case CALLER_RUNS -> {
+                for (int i = from; i < n; i++) tasks[i].runBody();
+            }
+            case DISCARD_OLDEST -> {
+                int evicted = 0;
+                while (evicted < rest && evict(queue.poll())) evicted++;
+                int accepted = queue.offer(tasks, from, rest);
+                if (accepted > evicted) metrics.onSubmit(accepted - evicted);
+                signalWork(accepted);
+                if (accepted < rest) batch.discard(rest - accepted);
+            }
+            case DISCARD -> batch.discard(rest);
+        }
+    }
+
+    /** Задача вытеснена из очереди; слот пачки сообщает о ней своей пачке. */
+    private static boolean evict(Runnable task) {
+        if (task instanceof TaskBatch.Slot slot) slot.discard();
+        return task != null;
+    }
+}
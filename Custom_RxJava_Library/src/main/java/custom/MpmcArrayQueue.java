@@ -0,0 +1,115 @@
+package custom;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Ограниченная lock-free очередь «много писателей — много читателей»
+ * (схема Д. Вьюкова). У каждой ячейки свой номер-последовательность:
+ * по нему писатель видит, что ячейка свободна, а читатель — что она заполнена,
+ * поэтому потоки конкурируют только CAS-ом за свой индекс.<br>
+ * Номер хранится удвоенным (2·pos — свободна, 2·pos+1 — заполнена):
+ * так состояния различимы и при capacity = 1.
+ */
+final class MpmcArrayQueue<E> {
+
+    private final int capacity;
+    private final AtomicReferenceArray<E> buffer;
+    private final AtomicLongArray sequences;
+    private final AtomicLong enqueueIndex = new AtomicLong();
+    private final AtomicLong dequeueIndex = new AtomicLong();
+
+    MpmcArrayQueue(int capacity) {
+        if (capacity <= 0) throw new IllegalArgumentException("capacity > 0 required: " + capacity);
+        this.capacity = capacity;
+        this.buffer = new AtomicReferenceArray<>(capacity);
+        this.sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) sequences.set(i, 2L * i);
+    }
+
+    /** false — очередь полна. */
+    boolean offer(E e) {
+        long pos = enqueueIndex.get();
+        for (;;) {
+            int slot = (int) (pos % capacity);
+            long dif = sequences.get(slot) - 2 * pos;
+            if (dif == 0) {
+                if (enqueueIndex.compareAndSet(pos, pos + 1)) {
+                    buffer.set(slot, e);
+                    sequences.set(slot, 2 * pos + 1);   // публикуем элемент читателям
+                    return true;
+                }
+                pos = enqueueIndex.get();
+            } else if (dif < 0) {
+                return false;
+            } else {
+                pos = enqueueIndex.get();
+            }
+        }
+    }
+
+    /**
+     * Поставить подряд до count элементов items[from..] одним CAS-ом
+     * по enqueueIndex вместо CAS-а на элемент.
+     *
+     * @return сколько элементов поставлено (префикс), 0 — очередь полна
+     */
+    int offer(E[] items, int from, int count) {
+        long pos;
+        int k;
+        for (;;) {
+            pos = enqueueIndex.get();
+            // читатели не обгоняют опубликованное, поэтому free не завышено
+            long free = capacity - (pos - dequeueIndex.get());
+            if (free <= 0 || count <= 0) return 0;
+            k = (int) Math.min(count, free);
+            if (enqueueIndex.compareAndSet(pos, pos + k)) break;
+        }
+        for (int i = 0; i < k; i++) {
+            long p = pos + i;
+            int slot = (int) (p % capacity);
+            // индекс прошлого круга уже забран читателем, но ячейку он мог ещё не освободить
+            while (sequences.get(slot) != 2 * p) Thread.onSpinWait();
+            buffer.set(slot, items[from + i]);
+            sequences.set(slot, 2 * p + 1);
+        }
+        return k;
+    }
+
+    /** null — очередь пуста. */
+    E poll() {
+        long pos = dequeueIndex.get();
+        for (;;) {
+            int slot = (int) (pos % capacity);
+            long dif = sequences.get(slot) - (2 * pos + 1);
+            if (dif == 0) {
+                if (dequeueIndex.compareAndSet(pos, pos + 1)) {
+                    E e = buffer.get(slot);
+                    buffer.set(slot, null);
+                    sequences.set(slot, 2 * (pos + capacity));   // ячейка свободна для следующего круга
+                    return e;
+                }
+                pos = dequeueIndex.get();
+            } else if (dif < 0) {
+                return null;
+            } else {
+                pos = dequeueIndex.get();
+            }
+        }
+    }
+
+    /** Приблизительный размер: под нагрузкой может отставать. */
+    int size() {
+        long size = enqueueIndex.get() - dequeueIndex.get();
+        return (int) Math.max(0, Math.min(capacity, size));
+    }
+
+    boolean isEmpty() { return size() == 0; }
+
+    int capacity() { return capacity; }
+
+    void clear() {
+        while (poll() != null) { /* выбрасываем */ }
+    }
+}
@@ -0,0 +1,93 @@
+package custom;
+
+import core.Disposable;
+import metrics.Histogram;
+import metrics.TaskMetrics;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Метрики пула: общие счётчики задач из {@link TaskMetrics} плюс
+ * состояние воркеров, очереди и отказы по политикам.
+ * Регистрация в JMX — {@link #registerMBean(String)}.
+ */
+public final class PoolMetrics extends TaskMetrics implements PoolMetricsMXBean {
+
+    private final CustomThreadPoolExecutor pool;
+    private final Histogram queueDepth = new Histogram();
+    private final LongAdder[] rejections = new LongAdder[RejectionPolicy.values().length];
+    private final LongAdder[] shed = new LongAdder[SheddingPolicy.values().length];
+    private final LongAdder workerSpawns = new LongAdder();
+    private final LongAdder workerIdleExits = new LongAdder();
+    private final AtomicInteger peakWorkers = new AtomicInteger();
+    private volatile boolean queueWaitTracking;
+
+    PoolMetrics(CustomThreadPoolExecutor pool) {
+        this.pool = pool;
+        for (int i = 0; i < rejections.length; i++) rejections[i] = new LongAdder();
+        for (int i = 0; i < shed.length; i++) shed[i] = new LongAdder();
+    }
+
+    /** Опубликовать метрики в JMX как {@code custom.rx:type=ThreadPool,name=<name>}. */
+    public Disposable registerMBean(String name) { return registerMBean("ThreadPool", name); }
+
+    /* ===== Запись (из пула и воркеров) ===== */
+
+    void onEnqueued(int depth) { queueDepth.record(depth); }
+
+    void onRejected(RejectionPolicy policy) { rejections[policy.ordinal()].increment(); }
+
+    void onRejected(RejectionPolicy policy, int tasks) { rejections[policy.ordinal()].add(tasks); }
+
+    void onShed(SheddingPolicy policy) { shed[policy.ordinal()].increment(); }
+
+    void onWorkerSpawned(int poolSize) {
+        workerSpawns.increment();
+        int p = peakWorkers.get();
+        while (poolSize > p && !peakWorkers.compareAndSet(p, poolSize)) p = peakWorkers.get();
+    }
+
+    void onWorkerIdleExit() { workerIdleExits.increment(); }
+
+    /* ===== Чтение ===== */
+
+    @Override public int getPoolSize()         { return pool.getPoolSize(); }
+    @Override public int getCorePoolSize()     { return pool.getCorePoolSize(); }
+    @Override public int getMaxPoolSize()      { return pool.getMaxPoolSize(); }
+    @Override public int getTargetPoolSize()   { return pool.getTargetPoolSize(); }
+    @Override public long getTargetLatencyNanos() { return pool.getTargetLatencyNanos(); }
+    @Override public int getIdleWorkers()      { return pool.getIdleCount(); }
+    @Override public int getPeakWorkers()      { return peakWorkers.get(); }
+    @Override public long getWorkerSpawns()    { return workerSpawns.sum(); }
+    @Override public long getWorkerIdleExits() { return workerIdleExits.sum(); }
+    @Override public int getQueueSize()        { return pool.getQueueSize(); }
+    @Override public int getQueueCapacity()    { return pool.getQueueCapacity(); }
+    @Override public Histogram.Snapshot getQueueDepth() { return queueDepth.snapshot(); }
+    @Override public String getRejectionPolicy() { return pool.getRejectionPolicy().name(); }
+
+    @Override
+    public Map<String, Long> getRejections() {
+        Map<String, Long> out = new LinkedHashMap<>();
+        for (RejectionPolicy p : RejectionPolicy.values()) out.put(p.name(), rejections[p.ordinal()].sum());
+        return out;
+    }
+
+    /** Отклонено по политике policy. */
+    public long getRejections(RejectionPolicy policy) { return rejections[policy.ordinal()].sum(); }
+
+    @Override
+    public Map<String, Long> getShedTasks() {
+        Map<String, Long> out = new LinkedHashMap<>();
+        for (SheddingPolicy p : SheddingPolicy.values()) out.put(p.name(), shed[p.ordinal()].sum());
+        return out;
+    }
+
+    /** Сброшено из очереди по политике policy. */
+    public long getShed(SheddingPolicy policy) { return shed[policy.ordinal()].sum(); }
+
+    @Override public boolean isQueueWaitTracking()             { return queueWaitTracking; }
+    @Override public void setQueueWaitTracking(boolean enabled) { queueWaitTracking = enabled; }
+}
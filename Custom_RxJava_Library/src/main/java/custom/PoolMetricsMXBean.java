@@ -0,0 +1,34 @@
+package custom;
+
+import metrics.Histogram;
+import metrics.TaskMetricsMXBean;
+
+import java.util.Map;
+
+/** Метрики {@link CustomThreadPoolExecutor} для JMX. */
+public interface PoolMetricsMXBean extends TaskMetricsMXBean {
+    int getPoolSize();
+    int getCorePoolSize();
+    int getMaxPoolSize();
+    /** Нижняя граница сжатия: core или расчёт адаптивного режима. */
+    int getTargetPoolSize();
+    /** 0 — адаптивный размер выключен. */
+    long getTargetLatencyNanos();
+    int getIdleWorkers();
+    int getPeakWorkers();
+    long getWorkerSpawns();
+    /** Воркеры сверх core, завершившиеся по keepAlive. */
+    long getWorkerIdleExits();
+    int getQueueSize();
+    int getQueueCapacity();
+    /** Глубина очереди в момент постановки каждой задачи. */
+    Histogram.Snapshot getQueueDepth();
+    String getRejectionPolicy();
+    /** Отклонённые задачи по политикам. */
+    Map<String, Long> getRejections();
+    /** Задачи, сброшенные из очереди с приоритетами, по политикам. */
+    Map<String, Long> getShedTasks();
+    boolean isQueueWaitTracking();
+    /** Учёт ожидания в очереди стоит одной обёртки на задачу, поэтому выключен по умолчанию. */
+    void setQueueWaitTracking(boolean enabled);
+}
@@ -0,0 +1,48 @@
+package custom;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Задача очереди с приоритетами. Порядок: больший приоритет раньше,
+ * при равном — более ранний срок (EDF), затем порядок постановки.
+ */
+final class PriorityTask implements Runnable, Comparable<PriorityTask> {
+
+    private static final AtomicLong SEQUENCE = new AtomicLong();
+
+    final Runnable task;
+    final int priority;
+    final long enqueuedAt;
+    /** Срок запуска по nanoTime; имеет смысл, только если hasDeadline. */
+    final long deadline;
+    final boolean hasDeadline;
+    /** Кому сообщить о сбросе (future из submit) или null. */
+    private final Consumer<Throwable> onDrop;
+    private final long seq = SEQUENCE.getAndIncrement();
+
+    PriorityTask(Runnable task, int priority, long deadlineNanos, Consumer<Throwable> onDrop) {
+        this.task = task;
+        this.priority = priority;
+        this.enqueuedAt = System.nanoTime();
+        this.hasDeadline = deadlineNanos >= 0;
+        this.deadline = hasDeadline ? enqueuedAt + deadlineNanos : 0;
+        this.onDrop = onDrop;
+    }
+
+    boolean isExpired(long now) { return hasDeadline && now - deadline > 0; }
+
+    void drop(Throwable reason) { if (onDrop != null) onDrop.accept(reason); }
+
+    @Override public void run() { task.run(); }
+
+    @Override
+    public int compareTo(PriorityTask o) {
+        if (priority != o.priority) return Integer.compare(o.priority, priority);
+        if (hasDeadline != o.hasDeadline) return hasDeadline ? -1 : 1;
+        if (hasDeadline && deadline != o.deadline) return deadline - o.deadline < 0 ? -1 : 1;
+        return Long.compare(seq, o.seq);
+    }
+
+    @Override public String toString() { return task + " [priority=" + priority + "]"; }
+}
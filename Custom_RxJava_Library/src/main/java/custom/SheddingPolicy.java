@@ -0,0 +1,7 @@
+package custom;
+
+/** Сброс задач из очереди с приоритетами до их запуска (в отличие от {@link RejectionPolicy} — при постановке). */
+public enum SheddingPolicy {
+    DROP_EXPIRED,          // срок задачи истёк, пока она ждала в очереди
+    SHED_LOWEST_PRIORITY   // ожидание в очереди выше порога — сбрасываем менее важные задачи
+}
@@ -0,0 +1,159 @@
+package custom;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.IntConsumer;
+
+/**
+ * Пачка задач с одним общим Future. Задача пачки — номер слота, а не своя
+ * обёртка с Future: ей нужен только объект {@link Slot}. Пачка завершается,
+ * когда отработали все слоты; слоты, запущенные после завершения пачки
+ * (ошибка, найденный ответ invokeAny, cancel), пропускают тело.
+ */
+abstract class TaskBatch<R> extends CompletableFuture<R> {
+
+    private final int size;
+    private final AtomicInteger remaining;
+
+    TaskBatch(int size) {
+        this.size = size;
+        this.remaining = new AtomicInteger(size);
+    }
+
+    int size() { return size; }
+
+    Slot slot(int index) { return new Slot(this, index); }
+
+    /** Тело задачи index. */
+    abstract void run(int index) throws Exception;
+
+    /** Все слоты отработали (или отброшены). */
+    abstract void onAllDone();
+
+    void onFailure(Throwable t) { completeExceptionally(t); }
+
+    /** Пустая пачка: завершить сразу. */
+    void completeIfEmpty() {
+        if (size == 0) onAllDone();
+    }
+
+    /** count слотов не будут выполнены: отброшены политикой отказа или вытеснены из очереди. */
+    void discard(int count) {
+        onFailure(new RejectedExecutionException(count + " of " + size + " batch tasks were discarded"));
+        countDown(count);
+    }
+
+    private void countDown(int count) {
+        if (remaining.addAndGet(-count) == 0) onAllDone();
+    }
+
+    /**
+     * Задача пачки; завершение её тела считается в пачке, а не в своём Future.
+     * Обёртки учёта пула (ожидание в очереди, адаптивный размер) лежат внутри
+     * слота, поэтому в очереди всегда сам слот и вытеснение узнаёт его.
+     */
+    static final class Slot implements Runnable {
+        private final TaskBatch<?> batch;
+        private final int index;
+        /** Обёртки учёта вокруг {@link #runBody()}; null — без учёта. */
+        Runnable tracked;
+
+        Slot(TaskBatch<?> batch, int index) {
+            this.batch = batch;
+            this.index = index;
+        }
+
+        @Override
+        public void run() {
+            Runnable t = tracked;
+            if (t != null) t.run(); else runBody();
+        }
+
+        void runBody() {
+            try {
+                if (!batch.isDone()) batch.run(index);
+            } catch (Throwable t) {
+                batch.onFailure(t);
+            } finally {
+                batch.countDown(1);
+            }
+        }
+
+        /** Слот снят с очереди, не запустившись. */
+        void discard() { batch.discard(1); }
+
+        @Override public String toString() { return "BatchTask[" + index + "/" + batch.size + "]"; }
+    }
+
+    /* ===== Виды пачек ===== */
+
+    /** executeAll: Future завершается, когда выполнены все задачи; первая ошибка завершает его сразу. */
+    static TaskBatch<Void> runAll(Runnable[] tasks) {
+        return new TaskBatch<>(tasks.length) {
+            @Override void run(int index) { tasks[index].run(); }
+            @Override void onAllDone() { complete(null); }
+        };
+    }
+
+    /** invokeAll: результаты в порядке задач. */
+    static <T> TaskBatch<List<T>> invokeAll(List<? extends Callable<T>> tasks) {
+        Object[] results = new Object[tasks.size()];
+        return new TaskBatch<>(tasks.size()) {
+            @Override void run(int index) throws Exception { results[index] = tasks.get(index).call(); }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            void onAllDone() { complete((List<T>) Arrays.asList(results)); }
+        };
+    }
+
+    /**
+     * invokeAny: первый успешный результат; ещё не начатые задачи после него
+     * пропускаются. Если упали все — первая ошибка, остальные в suppressed.
+     */
+    static <T> TaskBatch<T> invokeAny(List<? extends Callable<T>> tasks) {
+        AtomicReference<Throwable> firstError = new AtomicReference<>();
+        List<Throwable> others = new ArrayList<>();
+        return new TaskBatch<>(tasks.size()) {
+            @Override void run(int index) throws Exception { complete(tasks.get(index).call()); }
+
+            @Override
+            void onFailure(Throwable t) {
+                if (firstError.compareAndSet(null, t)) return;
+                synchronized (others) { others.add(t); }
+            }
+
+            @Override
+            void onAllDone() {
+                Throwable e = firstError.get();
+                if (e == null) {
+                    completeExceptionally(new IllegalArgumentException("invokeAny: no tasks"));
+                    return;
+                }
+                synchronized (others) { others.forEach(e::addSuppressed); }
+                completeExceptionally(e);
+            }
+        };
+    }
+
+    /** parallelFor: слот k — отрезок [from + k·chunk, from + (k+1)·chunk) ∩ [from, to). */
+    static TaskBatch<Void> range(int from, int to, int chunkSize, IntConsumer body) {
+        int chunks = (int) (((long) to - from + chunkSize - 1) / chunkSize);
+        return new TaskBatch<>(Math.max(0, chunks)) {
+            @Override
+            void run(int index) {
+                int lo = (int) (from + (long) index * chunkSize);
+                int hi = (int) Math.min(to, (long) lo + chunkSize);
+                for (int i = lo; i < hi; i++) body.accept(i);
+            }
+
+            @Override void onAllDone() { complete(null); }
+        };
+    }
+}
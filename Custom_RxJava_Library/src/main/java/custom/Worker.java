@@ -1,52 +1,107 @@
 package custom;
 
-import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.locks.LockSupport;
 
 class Worker implements Runnable {
 
-    private final BlockingQueue<Runnable> queue;
     private final CustomThreadPoolExecutor pool;
+    /** Задача, с которой воркер создан при полной очереди; затем null. */
+    private Runnable firstTask;
     private Thread thread;
 
-    Worker(BlockingQueue<Runnable> queue, CustomThreadPoolExecutor pool) {
-        this.queue = queue;
-        this.pool  = pool;
+    Worker(CustomThreadPoolExecutor pool, Runnable firstTask) {
+        this.pool      = pool;
+        this.firstTask = firstTask;
     }
 
     void setThread(Thread thread) {
         this.thread = thread; }
 
-
-
-    Thread.State getState() {
-        return thread.getState(); }
+    Thread thread() {
+        return thread; }
 
     void interrupt() {
         thread.interrupt(); }
 
     @Override
     public void run() {
+        boolean retired = false;
         try {
+            Runnable task = firstTask;
+            firstTask = null;
             while (true) {
-                if (pool.isShutdown() && queue.isEmpty()) break;
-
-                Runnable task = queue.poll(pool.getKeepAliveTime(), pool.getTimeUnit());
-                if (task != null) {
-                    System.out.printf("[Worker] %s executes %s%n",
-                            Thread.currentThread().getName(), task);
-                    task.run();
-                    pool.afterExecute();        // уведомляем пул
-                } else if (pool.shouldTerminateThisWorker()) {
-                    System.out.printf("[Worker] %s idle timeout, stopping.%n",
-                            Thread.currentThread().getName());
-                    break;
+                if (task == null) task = pool.pollTask();
+                if (task == null) {
+                    if (pool.isShutdown()) break;
+                    task = awaitTask();
+                    if (task == null) {
+                        if (pool.isShutdown()) break;
+                        if (pool.tryRetireWorker()) {
+                            retired = true;
+                            pool.metrics().onWorkerIdleExit();
+                            if (pool.isLogging())
+                                pool.log("[Worker] %s idle timeout, stopping.%n", thread.getName());
+                            break;
+                        }
+                        continue;
+                    }
                 }
+                if (pool.isLogging()) pool.log("[Worker] %s executes %s%n", thread.getName(), task);
+                runTask(task);
+                task = null;
             }
         } catch (InterruptedException ignored) {
             Thread.currentThread().interrupt();
         } finally {
-            pool.onWorkerExit(this);
-            System.out.printf("[Worker] %s terminated.%n", Thread.currentThread().getName());
+            pool.onWorkerExit(this, retired);
+            if (pool.isLogging()) pool.log("[Worker] %s terminated.%n", thread.getName());
+        }
+    }
+
+    /**
+     * Ошибка задачи учитывается в метриках и уходит обработчику
+     * {@link Thread.UncaughtExceptionHandler} потока, а воркер продолжает
+     * работу: иначе пул терял бы потоки и опускался ниже core.
+     */
+    private void runTask(Runnable task) {
+        PoolMetrics metrics = pool.metrics();
+        long start = metrics.onStart();
+        Throwable error = null;
+        try {
+            task.run();
+        } catch (Throwable t) {
+            error = t;
+        } finally {
+            metrics.onFinish(start, error);
+        }
+        if (error != null) {
+            Thread current = Thread.currentThread();
+            current.getUncaughtExceptionHandler().uncaughtException(current, error);
+        }
+    }
+
+    /**
+     * Уснуть до новой задачи, но не дольше keepAlive.
+     *
+     * @return задача или null по таймауту/завершению пула
+     */
+    private Runnable awaitTask() throws InterruptedException {
+        long deadline = System.nanoTime() + pool.getKeepAliveNanos();
+        for (;;) {
+            // регистрируемся на каждом круге: разбудивший нас уже вынул нас из parked,
+            // и если задачу забрал другой воркер, без повторной регистрации мы бы уснули насовсем
+            pool.onWorkerIdle(this);
+            try {
+                // перепроверка после регистрации: иначе сигнал мог пройти мимо
+                Runnable task = pool.pollTask();
+                if (task != null || pool.isShutdown()) return task;
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) return null;
+                LockSupport.parkNanos(this, remaining);
+                if (Thread.interrupted()) throw new InterruptedException();
+            } finally {
+                pool.onWorkerBusy(this);
+            }
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,133 @@
+package metrics;
+
+import javax.management.openmbean.CompositeData;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Гистограмма в духе HdrHistogram: логарифмические диапазоны (степени двойки),
+ * каждый разбит на {@value #SUB_BUCKETS} линейных корзин — относительная
+ * погрешность процентилей не больше 1/{@value #SUB_BUCKETS}.<br>
+ * Корзины — {@link LongAdder}: запись из многих потоков не упирается в одну
+ * ячейку, а стоит один инкремент без блокировок и выделения памяти.
+ */
+public final class Histogram {
+
+    private static final int SUB_BITS = 4;
+    static final int SUB_BUCKETS = 1 << SUB_BITS;
+    private static final int BUCKETS = (64 - SUB_BITS) * SUB_BUCKETS;
+
+    private final LongAdder[] buckets = new LongAdder[BUCKETS];
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+
+    public Histogram() {
+        for (int i = 0; i < BUCKETS; i++) buckets[i] = new LongAdder();
+    }
+
+    /** Отрицательные значения считаются нулём. */
+    public void record(long value) {
+        if (value < 0) value = 0;
+        buckets[index(value)].increment();
+        count.increment();
+        sum.add(value);
+        long m = max.get();
+        while (value > m && !max.compareAndSet(m, value)) m = max.get();
+    }
+
+    public long count() { return count.sum(); }
+
+    public long max() { return max.get(); }
+
+    public double mean() {
+        long n = count.sum();
+        return n == 0 ? 0 : (double) sum.sum() / n;
+    }
+
+    /**
+     * Значение, не меньше которого p процентов записей
+     * (верхняя граница корзины, но не больше максимума).
+     */
+    public long percentile(double p) {
+        long[] counts = new long[BUCKETS];
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) total += counts[i] = buckets[i].sum();
+        return percentile(counts, total, p);
+    }
+
+    public Snapshot snapshot() {
+        long[] counts = new long[BUCKETS];
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) total += counts[i] = buckets[i].sum();
+        return new Snapshot(total, mean(), max(),
+                percentile(counts, total, 50), percentile(counts, total, 90),
+                percentile(counts, total, 99), percentile(counts, total, 99.9));
+    }
+
+    private long percentile(long[] counts, long total, double p) {
+        if (total == 0) return 0;
+        long target = Math.max(1, (long) Math.ceil(p / 100 * total));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= target) return Math.min(upperBound(i), max.get());
+        }
+        return max.get();
+    }
+
+    static int index(long value) {
+        if (value < SUB_BUCKETS) return (int) value;
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BITS;
+        int sub = (int) (value >>> shift) & (SUB_BUCKETS - 1);
+        return (shift + 1) * SUB_BUCKETS + sub;
+    }
+
+    static long upperBound(int index) {
+        if (index < SUB_BUCKETS) return index;
+        int shift = index / SUB_BUCKETS - 1;
+        long lower = (long) (SUB_BUCKETS + index % SUB_BUCKETS) << shift;
+        return lower + (1L << shift) - 1;
+    }
+
+    /** Срез гистограммы; в JMX виден как CompositeData. */
+    public static final class Snapshot {
+        private final long count;
+        private final double mean;
+        private final long max;
+        private final long p50;
+        private final long p90;
+        private final long p99;
+        private final long p999;
+
+        public Snapshot(long count, double mean, long max, long p50, long p90, long p99, long p999) {
+            this.count = count;
+            this.mean = mean;
+            this.max = max;
+            this.p50 = p50;
+            this.p90 = p90;
+            this.p99 = p99;
+            this.p999 = p999;
+        }
+
+        public long getCount()  { return count; }
+        public double getMean() { return mean; }
+        public long getMax()    { return max; }
+        public long getP50()    { return p50; }
+        public long getP90()    { return p90; }
+        public long getP99()    { return p99; }
+        public long getP999()   { return p999; }
+
+        /** Обратное преобразование для MXBean-прокси. */
+        public static Snapshot from(CompositeData cd) {
+            return new Snapshot((Long) cd.get("count"), (Double) cd.get("mean"), (Long) cd.get("max"),
+                    (Long) cd.get("p50"), (Long) cd.get("p90"), (Long) cd.get("p99"), (Long) cd.get("p999"));
+        }
+
+        @Override
+        public String toString() {
+            return String.format("count=%d mean=%.1f p50=%d p90=%d p99=%d p99.9=%d max=%d",
+                    count, mean, p50, p90, p99, p999, max);
+        }
+    }
+}
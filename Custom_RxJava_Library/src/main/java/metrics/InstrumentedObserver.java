@@ -0,0 +1,66 @@
+package metrics;
+
+import core.Disposable;
+import core.Observer;
+
+/**
+ * Обёртка Observer стадии при включённом инструментировании.<br>
+ * Собственное время стадии — время её onNext минус время вложенных
+ * инструментированных onNext на том же потоке; вложенность ведёт кадр
+ * {@link Frame} в ThreadLocal. Решение «замерять ли элемент» принимает
+ * внешняя стадия на потоке, вложенные его наследуют — иначе вычитание
+ * времени дочерних стадий было бы неполным.
+ */
+final class InstrumentedObserver<T> implements Observer<T> {
+
+    private static final ThreadLocal<Frame> FRAME = ThreadLocal.withInitial(Frame::new);
+
+    /** Состояние вложенных onNext одного потока. */
+    private static final class Frame {
+        int depth;
+        long counter;
+        boolean sampling;
+        /** Время вложенных стадий текущего уровня. */
+        long child;
+    }
+
+    private final Observer<? super T> downstream;
+    private final StageMetrics stage;
+
+    InstrumentedObserver(Observer<? super T> downstream, StageMetrics stage) {
+        this.downstream = downstream;
+        this.stage = stage;
+    }
+
+    @Override public void onSubscribe(Disposable d) { downstream.onSubscribe(d); }
+
+    @Override
+    public void onNext(T item) {
+        stage.onNext();
+        Frame f = FRAME.get();
+        if (f.depth == 0) f.sampling = (f.counter++ & stage.sampleMask()) == 0;
+        f.depth++;
+        if (!f.sampling) {
+            try {
+                downstream.onNext(item);
+            } finally {
+                f.depth--;
+            }
+            return;
+        }
+        long saved = f.child;
+        f.child = 0;
+        long start = System.nanoTime();
+        try {
+            downstream.onNext(item);
+        } finally {
+            long total = System.nanoTime() - start;
+            stage.recordProcessing(total - f.child);
+            f.child = saved + total;
+            f.depth--;
+        }
+    }
+
+    @Override public void onError(Throwable t) { downstream.onError(t); }
+    @Override public void onComplete() { downstream.onComplete(); }
+}
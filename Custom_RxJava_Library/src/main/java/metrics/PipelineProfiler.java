@@ -0,0 +1,130 @@
+package metrics;
+
+import core.Disposable;
+import core.Observable;
+import core.Observer;
+import jdk.jfr.FlightRecorder;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Профилировщик конвейеров, включаемый {@link core.RxPlugins#enableInstrumentation}.<br>
+ * Стадия — пара «источник, тип получателя»: её метрики общие для всех подписок
+ * на этот собранный Observable. Стадии держатся сильно, чтобы сборка мусора не
+ * теряла метрики работающей или только что завершившейся цепочки; их число
+ * ограничено {@link #MAX_STAGES}, сверх него вытесняется стадия, на которую
+ * дольше всех не подписывались. Результаты — срез {@link #snapshot()} или
+ * события JFR {@link StageEvent}.
+ */
+public final class PipelineProfiler {
+
+    /** Предел числа стадий: профилировщик держит собранные цепочки, пока их стадии не вытеснены. */
+    public static final int MAX_STAGES = 1024;
+
+    /** Стадия: источник (по ссылке) и имя получателя. */
+    private record StageKey(Observable<?> source, String name) {
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof StageKey k && k.source == source && k.name.equals(name);
+        }
+
+        @Override
+        public int hashCode() { return 31 * System.identityHashCode(source) + name.hashCode(); }
+    }
+
+    private final int sampleMask;
+    private final AtomicLong ids = new AtomicLong();
+    /** Стадии в порядке последней подписки; доступ под синхронизацией на самой карте. */
+    private final Map<StageKey, StageMetrics> stages = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<StageKey, StageMetrics> eldest) {
+            return size() > MAX_STAGES;
+        }
+    };
+
+    /** @param sampleInterval степень двойки: время замеряется у каждого sampleInterval-го элемента */
+    public PipelineProfiler(int sampleInterval) {
+        if (sampleInterval <= 0 || Integer.bitCount(sampleInterval) != 1)
+            throw new IllegalArgumentException("sampleInterval must be a power of two: " + sampleInterval);
+        this.sampleMask = sampleInterval - 1;
+    }
+
+    /** Observer, считающий сигналы, которые source передаёт observer. */
+    public <T> Observer<? super T> wrap(Observable<T> source, Observer<? super T> observer) {
+        return new InstrumentedObserver<>(observer, stage(source, observer));
+    }
+
+    /** Метрики стадии observer, подписанной на source. */
+    public StageMetrics stage(Observable<?> source, Observer<?> observer) {
+        String name = nameOf(observer.getClass()) + " <- " + nameOf(source.getClass());
+        synchronized (stages) {
+            return stages.computeIfAbsent(new StageKey(source, name),
+                    k -> new StageMetrics(ids.incrementAndGet(), k.name(), sampleMask));
+        }
+    }
+
+    /** Оператор, которому принадлежит класс: внешний класс вложенного, «create» для анонимного. */
+    private static String nameOf(Class<?> c) {
+        while (c.getEnclosingClass() != null && !c.isAnonymousClass()) c = c.getEnclosingClass();
+        if (c.isAnonymousClass()) return c.getSuperclass() == Observable.class ? "create" : c.getName();
+        return c.getSimpleName();
+    }
+
+    /** Срезы всех стадий, от источников к подписчикам. */
+    public List<StageMetrics.Snapshot> snapshot() {
+        List<StageMetrics.Snapshot> out = new ArrayList<>();
+        for (StageMetrics m : metrics()) out.add(m.snapshot());
+        return out;
+    }
+
+    private List<StageMetrics> metrics() {
+        List<StageMetrics> all;
+        synchronized (stages) {
+            all = new ArrayList<>(stages.values());
+        }
+        all.sort(Comparator.comparingLong(StageMetrics::id).reversed());
+        return all;
+    }
+
+    /* ===== JFR ===== */
+
+    /** Записать по событию {@link StageEvent} на стадию, если событие включено в записи. */
+    public void commitJfrEvents() {
+        for (StageMetrics m : metrics()) {
+            StageEvent e = new StageEvent();
+            if (!e.isEnabled()) return;
+            StageMetrics.Snapshot s = m.snapshot();
+            e.stage = s.stage();
+            e.onNext = s.onNext();
+            e.processingMean = (long) s.processingNanos().getMean();
+            e.processingP99 = s.processingNanos().getP99();
+            e.residencyP99 = s.queueResidencyNanos().getP99();
+            e.commit();
+        }
+    }
+
+    /**
+     * Писать события периодически (период задаётся настройками записи,
+     * по умолчанию раз в секунду).
+     *
+     * @return Disposable, снимающий периодическую запись
+     */
+    public Disposable registerJfrPeriodic() {
+        Runnable hook = this::commitJfrEvents;
+        FlightRecorder.addPeriodicEvent(StageEvent.class, hook);
+        AtomicBoolean disposed = new AtomicBoolean();
+        return new Disposable() {
+            @Override
+            public void dispose() {
+                if (disposed.compareAndSet(false, true)) FlightRecorder.removePeriodicEvent(hook);
+            }
+            @Override public boolean isDisposed() { return disposed.get(); }
+        };
+    }
+}
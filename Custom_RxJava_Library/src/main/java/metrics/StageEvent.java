@@ -0,0 +1,38 @@
+package metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Period;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/** Событие JFR со срезом {@link StageMetrics}; пишет {@link PipelineProfiler}. */
+@Name("custom.rx.Stage")
+@Label("Rx Stage")
+@Category({"Custom Rx", "Pipeline"})
+@Description("Счётчик onNext, время обработки и время в очереди стадии конвейера")
+@Period("1 s")
+@StackTrace(false)
+public final class StageEvent extends Event {
+
+    @Label("Stage")
+    String stage;
+
+    @Label("onNext")
+    long onNext;
+
+    @Label("Processing Mean")
+    @Timespan
+    long processingMean;
+
+    @Label("Processing P99")
+    @Timespan
+    long processingP99;
+
+    @Label("Queue Residency P99")
+    @Timespan
+    long residencyP99;
+}
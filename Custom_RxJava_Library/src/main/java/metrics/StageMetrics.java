@@ -0,0 +1,58 @@
+package metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Метрики одной стадии конвейера: сколько элементов она получила, собственное
+ * время обработки onNext (без стадий ниже на том же потоке) и, для observeOn,
+ * время элемента в очереди между потоками. Время замеряется выборочно —
+ * у каждого sampleInterval-го элемента.
+ */
+public final class StageMetrics {
+
+    private final long id;
+    private final String name;
+    private final int sampleMask;
+    private final LongAdder onNext = new LongAdder();
+    private final Histogram processing = new Histogram();
+    private final Histogram residency = new Histogram();
+
+    StageMetrics(long id, String name, int sampleMask) {
+        this.id = id;
+        this.name = name;
+        this.sampleMask = sampleMask;
+    }
+
+    /* ===== Запись ===== */
+
+    void onNext() { onNext.increment(); }
+
+    void recordProcessing(long nanos) { processing.record(nanos); }
+
+    /** Время от постановки элемента в очередь observeOn до его выдачи. */
+    public void recordResidency(long nanos) { residency.record(nanos); }
+
+    /** Маска выборки: замерять элемент номер n, если {@code (n & mask) == 0}. */
+    public int sampleMask() { return sampleMask; }
+
+    /* ===== Чтение ===== */
+
+    /** Порядковый номер регистрации: подписка идёт снизу вверх, у источника он больше. */
+    public long id() { return id; }
+
+    public String name() { return name; }
+
+    public Snapshot snapshot() {
+        return new Snapshot(name, onNext.sum(), processing.snapshot(), residency.snapshot());
+    }
+
+    /** Срез метрик стадии; времена в наносекундах. */
+    public record Snapshot(String stage, long onNext, Histogram.Snapshot processingNanos,
+                           Histogram.Snapshot queueResidencyNanos) {
+        @Override
+        public String toString() {
+            String s = stage + ": onNext=" + onNext + " processing[" + processingNanos + "]";
+            return queueResidencyNanos.getCount() == 0 ? s : s + " residency[" + queueResidencyNanos + "]";
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package metrics;
+
+import core.Disposable;
+
+import javax.management.InstanceNotFoundException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Счётчики и гистограммы исполнителя задач.<br>
+ * Запись — инкременты {@link LongAdder} и пара вызовов nanoTime,
+ * без блокировок; агрегирование происходит только при чтении.
+ */
+public class TaskMetrics implements TaskMetricsMXBean {
+
+    /** Домен JMX для всех метрик библиотеки. */
+    public static final String JMX_DOMAIN = "custom.rx";
+
+    private final LongAdder submitted = new LongAdder();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final AtomicInteger active = new AtomicInteger();
+    private final AtomicInteger peakActive = new AtomicInteger();
+    private final Histogram queueWait = new Histogram();
+    private final Histogram executionTime = new Histogram();
+
+    /** Окно темпа завершения: сдвигается при завершении задач, а не при чтении. */
+    private static final long RATE_WINDOW_NANOS = 1_000_000_000L;
+    private volatile long windowStart = System.nanoTime();
+    private volatile long windowDone;
+    /** Темп последнего закрытого окна; NaN — окон ещё не было. */
+    private volatile double closedRate = Double.NaN;
+
+    /* ===== Запись ===== */
+
+    public void onSubmit() { submitted.increment(); }
+
+    public void onSubmit(int tasks) { submitted.add(tasks); }
+
+    /** Задача начала выполняться; результат передать в {@link #onFinish}. */
+    public long onStart() {
+        int a = active.incrementAndGet();
+        int p = peakActive.get();
+        while (a > p && !peakActive.compareAndSet(p, a)) p = peakActive.get();
+        return System.nanoTime();
+    }
+
+    public void onFinish(long startNanos, Throwable error) {
+        long now = System.nanoTime();
+        executionTime.record(now - startNanos);
+        active.decrementAndGet();
+        if (error == null) completed.increment(); else failed.increment();
+        if (now - windowStart >= RATE_WINDOW_NANOS) closeRateWindow(now);
+    }
+
+    private synchronized void closeRateWindow(long now) {
+        long elapsed = now - windowStart;
+        if (elapsed < RATE_WINDOW_NANOS) return;   // окно уже закрыл другой поток
+        long done = completed.sum() + failed.sum();
+        closedRate = (done - windowDone) / (elapsed / 1e9);
+        windowDone = done;
+        windowStart = now;
+    }
+
+    /** Принятая задача снята с очереди, так и не запустившись. */
+    public void onDropped() { dropped.increment(); }
+
+    public void onQueueWait(long nanos) { queueWait.record(nanos); }
+
+    /** Обёртка, которая при запуске записывает время ожидания в очереди. */
+    public Runnable trackQueueWait(Runnable task) {
+        long enqueued = System.nanoTime();
+        return () -> {
+            onQueueWait(System.nanoTime() - enqueued);
+            task.run();
+        };
+    }
+
+    /** Полный учёт задачи для внешнего исполнителя: постановка, ожидание, выполнение. */
+    public Runnable wrap(Runnable task) {
+        onSubmit();
+        long enqueued = System.nanoTime();
+        return () -> {
+            onQueueWait(System.nanoTime() - enqueued);
+            long start = onStart();
+            Throwable error = null;
+            try {
+                task.run();
+            } catch (Throwable t) {
+                error = t;
+                throw t;
+            } finally {
+                onFinish(start, error);
+            }
+        };
+    }
+
+    /* ===== Чтение ===== */
+
+    @Override public long getSubmittedTasks()  { return submitted.sum(); }
+    @Override public long getCompletedTasks()  { return completed.sum(); }
+    @Override public long getFailedTasks()     { return failed.sum(); }
+    @Override public long getDroppedTasks()    { return dropped.sum(); }
+    @Override public int getActiveTasks()      { return active.get(); }
+    @Override public int getPeakActiveTasks()  { return peakActive.get(); }
+
+    @Override
+    public long getPendingTasks() {
+        return Math.max(0, submitted.sum() - completed.sum() - failed.sum() - dropped.sum());
+    }
+
+    /**
+     * Задач в секунду за последнее закрытое окно. Чтение ничего не сдвигает,
+     * поэтому несколько клиентов JMX не мешают друг другу. Пока окон не было
+     * или завершений нет дольше окна — темп текущего, открытого окна.
+     */
+    @Override
+    public double getCompletionRate() {
+        long start = windowStart;
+        long elapsed = System.nanoTime() - start;
+        double closed = closedRate;
+        if (!Double.isNaN(closed) && elapsed < RATE_WINDOW_NANOS) return closed;
+        long done = completed.sum() + failed.sum() - windowDone;
+        return elapsed <= 0 ? 0 : done / (elapsed / 1e9);
+    }
+
+    @Override public Histogram.Snapshot getQueueWaitNanos()     { return queueWait.snapshot(); }
+    @Override public Histogram.Snapshot getExecutionTimeNanos() { return executionTime.snapshot(); }
+
+    /* ===== JMX ===== */
+
+    /**
+     * Зарегистрировать в платформенном MBeanServer как
+     * {@code custom.rx:type=<type>,name=<name>}.
+     *
+     * @return Disposable, снимающий регистрацию
+     */
+    public Disposable registerMBean(String type, String name) {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName objectName;
+        try {
+            objectName = new ObjectName(JMX_DOMAIN + ":type=" + type + ",name=" + ObjectName.quote(name));
+            server.registerMBean(this, objectName);
+        } catch (JMException e) {
+            throw new IllegalStateException("Не удалось зарегистрировать MBean " + type + "/" + name, e);
+        }
+        ObjectName registered = objectName;
+        AtomicBoolean disposed = new AtomicBoolean();
+        return new Disposable() {
+            @Override
+            public void dispose() {
+                if (!disposed.compareAndSet(false, true)) return;
+                try {
+                    server.unregisterMBean(registered);
+                } catch (InstanceNotFoundException ignored) {
+                } catch (JMException e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+            @Override public boolean isDisposed() { return disposed.get(); }
+        };
+    }
+}
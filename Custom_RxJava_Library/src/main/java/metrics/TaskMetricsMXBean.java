@@ -0,0 +1,19 @@
+package metrics;
+
+/** Метрики исполнителя задач для JMX. Времена — в наносекундах. */
+public interface TaskMetricsMXBean {
+    long getSubmittedTasks();
+    long getCompletedTasks();
+    /** Задачи, завершившиеся исключением. */
+    long getFailedTasks();
+    /** Приняты, но сняты с очереди без запуска. */
+    long getDroppedTasks();
+    /** Приняты, но ещё не завершены (в очереди или выполняются). */
+    long getPendingTasks();
+    int getActiveTasks();
+    int getPeakActiveTasks();
+    /** Завершений в секунду за последнее секундное окно; чтение окно не сдвигает. */
+    double getCompletionRate();
+    Histogram.Snapshot getQueueWaitNanos();
+    Histogram.Snapshot getExecutionTimeNanos();
+}
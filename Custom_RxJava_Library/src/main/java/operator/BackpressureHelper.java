@@ -0,0 +1,47 @@
+package operator;
+
+import core.Subscription;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/** Учёт спроса request(n) для Flowable-операторов. */
+final class BackpressureHelper {
+
+    /** Метка отменённой подписки. */
+    static final Subscription CANCELLED = new Subscription() {
+        @Override public void request(long n) { }
+        @Override public void cancel() { }
+    };
+
+    private BackpressureHelper() { }
+
+    /** Проверка аргумента request(n). */
+    static void validate(long n) {
+        if (n <= 0) throw new IllegalArgumentException("request(n): n должно быть > 0, получено " + n);
+    }
+
+    /** Сложение с насыщением до Long.MAX_VALUE («неограниченный» спрос). */
+    static long addCap(long a, long b) {
+        long u = a + b;
+        return u < 0 ? Long.MAX_VALUE : u;
+    }
+
+    /** Добавить n к спросу, вернуть предыдущее значение. */
+    static long add(AtomicLong requested, long n) {
+        for (;;) {
+            long r = requested.get();
+            if (r == Long.MAX_VALUE) return r;
+            if (requested.compareAndSet(r, addCap(r, n))) return r;
+        }
+    }
+
+    /** Списать n выданных элементов, вернуть остаток спроса. */
+    static long produced(AtomicLong requested, long n) {
+        for (;;) {
+            long r = requested.get();
+            if (r == Long.MAX_VALUE) return r;
+            long u = Math.max(r - n, 0L);
+            if (requested.compareAndSet(r, u)) return u;
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package operator;
+
+import core.Disposable;
+import core.Observer;
+
+/**
+ * Основа синхронной стадии оператора: хранит Disposable источника и передаёт
+ * вниз себя, так что отмена снизу доходит до источника.
+ * onError/onComplete проходят один раз — за это отвечает done.
+ */
+abstract class BasicObserver<T, R> implements Observer<T>, Disposable {
+
+    final Observer<? super R> downstream;
+    /** Пишется в onSubscribe до передачи this вниз, поэтому виден всем, кто получил this. */
+    Disposable upstream;
+    boolean done;
+
+    BasicObserver(Observer<? super R> downstream) { this.downstream = downstream; }
+
+    @Override
+    public void onSubscribe(Disposable d) {
+        upstream = d;
+        downstream.onSubscribe(this);
+    }
+
+    @Override public void onError(Throwable t) { if (!done) { done = true; downstream.onError(t); } }
+    @Override public void onComplete() { if (!done) { done = true; downstream.onComplete(); } }
+
+    /** Завершить раньше источника: отменить его и выдать onComplete. */
+    final void completeEarly() {
+        done = true;
+        dispose();
+        downstream.onComplete();
+    }
+
+    @Override
+    public void dispose() {
+        Disposable d = upstream;
+        if (d != null) d.dispose();
+    }
+
+    @Override
+    public boolean isDisposed() {
+        Disposable d = upstream;
+        return d != null && d.isDisposed();
+    }
+}
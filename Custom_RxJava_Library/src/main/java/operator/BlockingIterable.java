@@ -0,0 +1,149 @@
+package operator;
+
+import core.Disposable;
+import core.Observable;
+import core.Observer;
+import scheduler.Scheduler;
+
+import java.lang.invoke.VarHandle;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * blockingIterable: каждый iterator() — новая подписка, элементы идут через
+ * ограниченную SPSC-очередь на prefetch элементов. Observable не знает
+ * обратного давления, поэтому при полной очереди поток источника паркуется,
+ * пока читатель не освободит место. Чтобы синхронный источник не заблокировал
+ * самого читателя, подписка идёт задачей scheduler.<br>
+ * Итератор, брошенный до конца, нужно отменить ({@link BlockingIterator#dispose()}),
+ * иначе источник так и останется ждать места в очереди.
+ */
+public final class BlockingIterable<T> implements Iterable<T> {
+
+    private final Observable<? extends T> source;
+    private final int prefetch;
+    private final Scheduler scheduler;
+
+    public BlockingIterable(Observable<? extends T> source, int prefetch, Scheduler scheduler) {
+        if (prefetch <= 0) throw new IllegalArgumentException("prefetch > 0 required: " + prefetch);
+        this.source = source;
+        this.prefetch = prefetch;
+        this.scheduler = scheduler;
+    }
+
+    @Override
+    public BlockingIterator<T> iterator() {
+        BlockingIterator<T> it = new BlockingIterator<>(prefetch);
+        source.subscribeOn(scheduler).subscribe(it);
+        return it;
+    }
+
+    /**
+     * Писатель — поток источника, читатель — поток итерации. Каждая сторона
+     * перед сном записывает себя в producer/consumer и перепроверяет очередь,
+     * а другая после своего шага (барьер StoreLoad) будит её, если увидела.
+     */
+    public static final class BlockingIterator<T> implements Iterator<T>, Observer<T>, Disposable {
+        private final SpscArrayQueue<T> queue;
+        private final AtomicReference<Disposable> upstream = new AtomicReference<>();
+        private volatile Thread producer;
+        private volatile Thread consumer;
+        private Throwable error;
+        private volatile boolean done;
+        /** Элемент, уже вынутый hasNext(). Только поток итерации. */
+        private T next;
+
+        BlockingIterator(int prefetch) { this.queue = new SpscArrayQueue<>(prefetch); }
+
+        /* ===== Сторона источника ===== */
+
+        @Override public void onSubscribe(Disposable d) { Disposable.setOnce(upstream, d); }
+
+        @Override
+        public void onNext(T item) {
+            while (!queue.offer(item)) {
+                if (isDisposed()) return;
+                producer = Thread.currentThread();
+                if (queue.offer(item)) {
+                    producer = null;
+                    break;
+                }
+                LockSupport.park(this);
+                producer = null;
+            }
+            wake(false);
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            error = t;
+            done = true;
+            wake(false);
+        }
+
+        @Override
+        public void onComplete() {
+            done = true;
+            wake(false);
+        }
+
+        /* ===== Сторона итерации ===== */
+
+        @Override
+        public boolean hasNext() {
+            if (next != null) return true;
+            for (;;) {
+                boolean d = done;
+                T v = queue.poll();
+                if (v != null) {
+                    next = v;
+                    wake(true);
+                    return true;
+                }
+                if (d) {
+                    if (error != null) throw BlockingSingleObserver.propagate(error);
+                    return false;
+                }
+                if (isDisposed()) return false;
+                consumer = Thread.currentThread();
+                if (done || !queue.isEmpty()) {
+                    consumer = null;
+                    continue;
+                }
+                LockSupport.park(this);
+                consumer = null;
+                if (Thread.interrupted()) {
+                    dispose();
+                    Thread.currentThread().interrupt();
+                    throw new RuntimeException(new InterruptedException());
+                }
+            }
+        }
+
+        @Override
+        public T next() {
+            if (!hasNext()) throw new NoSuchElementException();
+            T v = next;
+            next = null;
+            return v;
+        }
+
+        @Override
+        public void dispose() {
+            Disposable.dispose(upstream);
+            Thread p = producer;
+            if (p != null) LockSupport.unpark(p);
+        }
+
+        @Override public boolean isDisposed() { return upstream.get() == DISPOSED; }
+
+        /** Разбудить другую сторону, если она спит; запись в очередь до этого должна быть видна. */
+        private void wake(boolean toProducer) {
+            VarHandle.fullFence();
+            Thread t = toProducer ? producer : consumer;
+            if (t != null) LockSupport.unpark(t);
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package operator;
+
+import core.Disposable;
+import core.Observer;
+
+import java.util.NoSuchElementException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * blockingFirst / blockingLast: ждёт первый (и сразу отменяет источник)
+ * или последний элемент. Синхронный источник успевает отработать ещё
+ * внутри subscribe, и ожидания нет вовсе.
+ */
+public final class BlockingSingleObserver<T> extends CountDownLatch implements Observer<T>, Disposable {
+
+    private final boolean first;
+    private final AtomicReference<Disposable> upstream = new AtomicReference<>();
+    private T value;
+    private Throwable error;
+
+    public BlockingSingleObserver(boolean first) {
+        super(1);
+        this.first = first;
+    }
+
+    @Override public void onSubscribe(Disposable d) { Disposable.setOnce(upstream, d); }
+
+    @Override
+    public void onNext(T item) {
+        if (getCount() == 0) return;
+        value = item;
+        if (first) {
+            Disposable.dispose(upstream);
+            countDown();
+        }
+    }
+
+    @Override
+    public void onError(Throwable t) {
+        if (getCount() == 0) return;
+        error = t;
+        countDown();
+    }
+
+    @Override public void onComplete() { countDown(); }
+
+    @Override public void dispose() { Disposable.dispose(upstream); }
+    @Override public boolean isDisposed() { return upstream.get() == DISPOSED; }
+
+    /**
+     * Дождаться результата. Ошибка источника пробрасывается (проверяемая —
+     * завёрнутой в RuntimeException), пустой поток без defaultItem —
+     * NoSuchElementException. Прерывание ожидания отменяет источник.
+     */
+    public T blockingGet(T defaultItem) {
+        if (getCount() != 0) {
+            try {
+                await();
+            } catch (InterruptedException e) {
+                dispose();
+                Thread.currentThread().interrupt();
+                throw new RuntimeException(e);
+            }
+        }
+        if (error != null) throw propagate(error);
+        T v = value != null ? value : defaultItem;
+        if (v == null) throw new NoSuchElementException("Поток завершился без элементов");
+        return v;
+    }
+
+    static RuntimeException propagate(Throwable t) {
+        if (t instanceof Error e) throw e;
+        return t instanceof RuntimeException re ? re : new RuntimeException(t);
+    }
+}
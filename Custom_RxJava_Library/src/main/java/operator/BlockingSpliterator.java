@@ -0,0 +1,70 @@
+package operator;
+
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+
+/**
+ * Spliterator для toStream(): подписка создаётся при первом обращении.
+ * trySplit отдаёт пачку уже полученных элементов массивом — параллельный
+ * поток обрабатывает пачки в ForkJoinPool, пока этот Spliterator тянет
+ * следующие. Пачка растёт на prefetch при каждом делении.
+ */
+public final class BlockingSpliterator<T> implements Spliterator<T> {
+
+    private static final int MAX_BATCH = 1 << 16;
+
+    private final BlockingIterable<T> source;
+    private final int prefetch;
+    private BlockingIterable.BlockingIterator<T> it;
+    private int batch;
+
+    public BlockingSpliterator(BlockingIterable<T> source, int prefetch) {
+        this.source = source;
+        this.prefetch = prefetch;
+    }
+
+    private BlockingIterable.BlockingIterator<T> iterator() {
+        BlockingIterable.BlockingIterator<T> i = it;
+        if (i == null) it = i = source.iterator();
+        return i;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super T> action) {
+        BlockingIterable.BlockingIterator<T> i = iterator();
+        if (!i.hasNext()) return false;
+        action.accept(i.next());
+        return true;
+    }
+
+    @Override
+    public void forEachRemaining(Consumer<? super T> action) {
+        BlockingIterable.BlockingIterator<T> i = iterator();
+        while (i.hasNext()) action.accept(i.next());
+    }
+
+    @Override
+    public Spliterator<T> trySplit() {
+        BlockingIterable.BlockingIterator<T> i = iterator();
+        if (!i.hasNext()) return null;
+        int n = Math.min(batch + prefetch, MAX_BATCH);
+        Object[] a = new Object[n];
+        int j = 0;
+        do {
+            a[j++] = i.next();
+        } while (j < n && i.hasNext());
+        batch = j;
+        return Spliterators.spliterator(a, 0, j, characteristics());
+    }
+
+    @Override public long estimateSize() { return Long.MAX_VALUE; }
+
+    @Override public int characteristics() { return ORDERED | NONNULL; }
+
+    /** Отменить подписку (Stream.close). */
+    public void dispose() {
+        BlockingIterable.BlockingIterator<T> i = it;
+        if (i != null) i.dispose();
+    }
+}
@@ -0,0 +1,132 @@
+package operator;
+
+import core.Disposable;
+import core.Observable;
+import core.Observer;
+import scheduler.Scheduler;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * buffer(count, timespan): элементы копятся в список, который уходит вниз,
+ * когда набрано count элементов или с первого элемента списка прошло timespan.<br>
+ * Таймер взводится только для непустого буфера, поэтому пустые списки
+ * не выдаются. Оставшееся при onComplete выдаётся перед завершением.<br>
+ * Выдача из потока источника и из таймера сериализуется блокировкой наблюдателя.
+ * Отмена снимает таймер и отбрасывает незавершённый буфер.
+ */
+public final class BufferTimedObservable<T> extends Observable<List<T>> {
+
+    private final Observable<T> upstream;
+    private final int count;
+    private final long timespan;
+    private final TimeUnit unit;
+    private final Scheduler scheduler;
+
+    public BufferTimedObservable(Observable<T> upstream, int count, long timespan, TimeUnit unit, Scheduler scheduler) {
+        if (count <= 0) throw new IllegalArgumentException("count > 0 required: " + count);
+        if (timespan <= 0) throw new IllegalArgumentException("timespan > 0 required: " + timespan);
+        this.upstream = upstream;
+        this.count = count;
+        this.timespan = timespan;
+        this.unit = unit;
+        this.scheduler = scheduler;
+    }
+
+    @Override
+    protected void subscribeActual(Observer<? super List<T>> observer) {
+        upstream.subscribe(new BufferObserver<>(observer, count, timespan, unit, scheduler));
+    }
+
+    static final class BufferObserver<T> implements Observer<T>, Disposable {
+        private final Observer<? super List<T>> downstream;
+        private final int count;
+        private final long timespan;
+        private final TimeUnit unit;
+        private final Scheduler scheduler;
+
+        private Disposable upstream;
+        private volatile boolean disposed;
+        /* всё ниже — под блокировкой this */
+        private List<T> buffer;
+        private Disposable timer;
+        private boolean done;
+
+        BufferObserver(Observer<? super List<T>> downstream, int count, long timespan, TimeUnit unit, Scheduler scheduler) {
+            this.downstream = downstream;
+            this.count = count;
+            this.timespan = timespan;
+            this.unit = unit;
+            this.scheduler = scheduler;
+        }
+
+        @Override
+        public void onSubscribe(Disposable d) {
+            upstream = d;
+            downstream.onSubscribe(this);
+        }
+
+        @Override
+        public synchronized void onNext(T item) {
+            if (done) return;
+            List<T> b = buffer;
+            if (b == null) {
+                b = new ArrayList<>(Math.min(count, 1024));
+                buffer = b;
+                List<T> expected = b;
+                timer = scheduler.schedule(() -> timeout(expected), timespan, unit);
+            }
+            b.add(item);
+            if (b.size() >= count) {
+                timer.dispose();
+                flush();
+            }
+        }
+
+        /** Срок буфера expected истёк; если он уже выдан по размеру — ничего не делаем. */
+        private synchronized void timeout(List<T> expected) {
+            if (!done && buffer == expected) flush();
+        }
+
+        private void flush() {
+            List<T> b = buffer;
+            buffer = null;
+            timer = null;
+            downstream.onNext(b);
+        }
+
+        @Override
+        public synchronized void onError(Throwable t) {
+            if (done) return;
+            done = true;
+            if (timer != null) timer.dispose();
+            buffer = null;
+            downstream.onError(t);
+        }
+
+        @Override
+        public synchronized void onComplete() {
+            if (done) return;
+            done = true;
+            if (buffer != null) {
+                timer.dispose();
+                flush();
+            }
+            downstream.onComplete();
+        }
+
+        @Override
+        public synchronized void dispose() {
+            if (disposed) return;
+            disposed = true;
+            done = true;
+            upstream.dispose();
+            if (timer != null) timer.dispose();
+            buffer = null;
+        }
+
+        @Override public boolean isDisposed() { return disposed; }
+    }
+}
@@ -0,0 +1,186 @@
+package operator;
+
+import core.Disposable;
+import core.Observable;
+import core.Observer;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * cache(): источник запускается один раз — с первым подписчиком, все элементы
+ * и терминальный сигнал запоминаются, каждый подписчик получает их с начала.<br>
+ * История хранится связанными сегментами по {@value #SEGMENT} элементов:
+ * пишет только поток источника, читатели идут каждый своим курсором
+ * без блокировок. Отписка подписчиков источник не останавливает.
+ */
+public final class CacheObservable<T> extends Observable<T> implements Observer<T> {
+
+    static final int SEGMENT = 16;
+    private static final CacheDisposable<?>[] EMPTY = new CacheDisposable<?>[0];
+    private static final CacheDisposable<?>[] TERMINATED = new CacheDisposable<?>[0];
+
+    private final Observable<? extends T> source;
+    private final AtomicBoolean connected = new AtomicBoolean();
+    private final AtomicReference<CacheDisposable<?>[]> observers = new AtomicReference<>(EMPTY);
+
+    private final Segment head = new Segment();
+    /** Трогает только поток источника. */
+    private Segment tail = head;
+    private int tailOffset;
+    /** Публикует записанные элементы: всё до size видно читателю, прочитавшему size. */
+    private volatile long size;
+    private Throwable error;
+    private volatile long terminatedAt;
+    private volatile boolean done;
+
+    public CacheObservable(Observable<? extends T> source) { this.source = source; }
+
+    @Override
+    protected void subscribeActual(Observer<? super T> observer) {
+        CacheDisposable<T> inner = new CacheDisposable<>(observer, this);
+        observer.onSubscribe(inner);
+        add(inner);
+        if (!connected.get() && connected.compareAndSet(false, true)) source.subscribe(this);
+        else inner.drain();
+    }
+
+    /**
+     * Запуск завершился ошибкой или прошло не меньше ttlNanos после onComplete.
+     * Пока источник работает — false.
+     */
+    public boolean isExpired(long ttlNanos, long now) {
+        return isFailed() || done && now - terminatedAt >= ttlNanos;
+    }
+
+    /** Источник завершился ошибкой — эту ошибку получит и каждый следующий подписчик. */
+    public boolean isFailed() { return done && error != null; }
+
+    /* ===== Сигналы источника ============================================ */
+
+    @Override public void onSubscribe(Disposable d) { }
+
+    @Override
+    public void onNext(T item) {
+        if (done) return;
+        if (tailOffset == SEGMENT) {
+            Segment s = new Segment();
+            tail.next = s;
+            tail = s;
+            tailOffset = 0;
+        }
+        tail.values[tailOffset++] = item;
+        size = size + 1;
+        for (CacheDisposable<?> o : observers.get()) o.drain();
+    }
+
+    @Override
+    public void onError(Throwable t) {
+        if (done) return;
+        error = t;
+        terminate();
+    }
+
+    @Override
+    public void onComplete() {
+        if (done) return;
+        terminate();
+    }
+
+    private void terminate() {
+        terminatedAt = System.nanoTime();
+        done = true;
+        for (CacheDisposable<?> o : observers.getAndSet(TERMINATED)) o.drain();
+    }
+
+    /* ===== Подписчики =================================================== */
+
+    private void add(CacheDisposable<T> inner) {
+        for (;;) {
+            CacheDisposable<?>[] a = observers.get();
+            if (a == TERMINATED) return;
+            CacheDisposable<?>[] b = new CacheDisposable<?>[a.length + 1];
+            System.arraycopy(a, 0, b, 0, a.length);
+            b[a.length] = inner;
+            if (observers.compareAndSet(a, b)) return;
+        }
+    }
+
+    private void remove(CacheDisposable<T> inner) {
+        for (;;) {
+            CacheDisposable<?>[] a = observers.get();
+            int i = 0;
+            while (i < a.length && a[i] != inner) i++;
+            if (i == a.length) return;
+            CacheDisposable<?>[] b = EMPTY;
+            if (a.length > 1) {
+                b = new CacheDisposable<?>[a.length - 1];
+                System.arraycopy(a, 0, b, 0, i);
+                System.arraycopy(a, i + 1, b, i, a.length - i - 1);
+            }
+            if (observers.compareAndSet(a, b)) return;
+        }
+    }
+
+    static final class Segment {
+        final Object[] values = new Object[SEGMENT];
+        Segment next;
+    }
+
+    static final class CacheDisposable<T> implements Disposable {
+        private final Observer<? super T> downstream;
+        private final CacheObservable<T> parent;
+        private final AtomicInteger wip = new AtomicInteger();
+        /** Курсор чтения; трогает только владелец wip. */
+        private Segment segment;
+        private int offset;
+        private long index;
+        private volatile boolean disposed;
+
+        CacheDisposable(Observer<? super T> downstream, CacheObservable<T> parent) {
+            this.downstream = downstream;
+            this.parent = parent;
+            this.segment = parent.head;
+        }
+
+        @SuppressWarnings("unchecked")
+        void drain() {
+            if (wip.getAndIncrement() != 0) return;
+            CacheObservable<T> p = parent;
+            int missed = 1;
+            for (;;) {
+                if (disposed) return;
+                // done читаем до size: всё записанное до завершения будет выдано
+                boolean d = p.done;
+                long end = p.size;
+                while (index < end) {
+                    if (disposed) return;
+                    if (offset == SEGMENT) {
+                        segment = segment.next;
+                        offset = 0;
+                    }
+                    downstream.onNext((T) segment.values[offset++]);
+                    index++;
+                }
+                if (d) {
+                    disposed = true;
+                    Throwable ex = p.error;
+                    if (ex != null) downstream.onError(ex); else downstream.onComplete();
+                    return;
+                }
+                missed = wip.addAndGet(-missed);
+                if (missed == 0) break;
+            }
+        }
+
+        @Override
+        public void dispose() {
+            if (disposed) return;
+            disposed = true;
+            parent.remove(this);
+        }
+
+        @Override public boolean isDisposed() { return disposed; }
+    }
+}
@@ -0,0 +1,39 @@
+package operator;
+
+import core.Observable;
+import core.Observer;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * cacheWithTtl: {@link CacheObservable}, который устаревает через ttl после
+ * завершения источника. Первый подписчик после этого (или после ошибки)
+ * получает новый запуск источника, остальные делят его с ним.
+ * Пока источник работает, запуск не устаревает.
+ */
+public final class CacheTtlObservable<T> extends Observable<T> {
+
+    private final Observable<? extends T> source;
+    private final long ttlNanos;
+    private final AtomicReference<CacheObservable<T>> current = new AtomicReference<>();
+
+    public CacheTtlObservable(Observable<? extends T> source, long ttlNanos) {
+        if (ttlNanos <= 0) throw new IllegalArgumentException("ttl > 0 required: " + ttlNanos);
+        this.source = source;
+        this.ttlNanos = ttlNanos;
+    }
+
+    @Override
+    protected void subscribeActual(Observer<? super T> observer) {
+        for (;;) {
+            CacheObservable<T> c = current.get();
+            if (c == null || c.isExpired(ttlNanos, System.nanoTime())) {
+                CacheObservable<T> fresh = new CacheObservable<>(source);
+                if (!current.compareAndSet(c, fresh)) continue;
+                c = fresh;
+            }
+            c.subscribe(observer);
+            return;
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package operator;
+
+import core.Disposable;
+import core.Observable;
+import core.Observer;
+import scheduler.Scheduler;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.util.concurrent.Callable;
+
+/**
+ * Канал, прочитанный в один прямой (direct) ByteBuffer, который
+ * переиспользуется между чтениями: элемент — срез прочитанных байт,
+ * действительный только до возврата из onNext. Чтобы сохранить данные
+ * или передать их на другой поток (observeOn), копируйте их.<br>
+ * Канал открывается на каждую подписку и закрывается по завершении или
+ * отмене; закрытие прерывает и заблокированное чтение. Канал ожидается
+ * в блокирующем режиме.
+ */
+public final class ChannelObservable extends Observable<ByteBuffer> {
+
+    private final Callable<? extends ReadableByteChannel> opener;
+    private final int bufferSize;
+    private final Scheduler scheduler;
+
+    public ChannelObservable(Callable<? extends ReadableByteChannel> opener, int bufferSize, Scheduler scheduler) {
+        if (bufferSize <= 0) throw new IllegalArgumentException("bufferSize > 0 required: " + bufferSize);
+        this.opener = opener;
+        this.bufferSize = bufferSize;
+        this.scheduler = scheduler;
+    }
+
+    @Override
+    protected void subscribeActual(Observer<? super ByteBuffer> observer) {
+        ReadTask task = new ReadTask(observer, opener, bufferSize);
+        observer.onSubscribe(task);
+        scheduler.execute(task);
+    }
+
+    static final class ReadTask implements Runnable, Disposable {
+        private final Observer<? super ByteBuffer> downstream;
+        private final Callable<? extends ReadableByteChannel> opener;
+        private final int bufferSize;
+        private volatile ReadableByteChannel channel;
+        private volatile boolean disposed;
+
+        ReadTask(Observer<? super ByteBuffer> downstream, Callable<? extends ReadableByteChannel> opener, int bufferSize) {
+            this.downstream = downstream;
+            this.opener = opener;
+            this.bufferSize = bufferSize;
+        }
+
+        @Override
+        public void run() {
+            if (disposed) return;
+            try (ReadableByteChannel ch = opener.call()) {
+                channel = ch;
+                // отмена могла прийти до записи channel и не закрыть его
+                if (disposed) return;
+                ByteBuffer buffer = ByteBuffer.allocateDirect(bufferSize);
+                // вниз уходит одно и то же представление: на кусок ничего не выделяется
+                ByteBuffer view = buffer.asReadOnlyBuffer();
+                while (!disposed) {
+                    buffer.clear();
+                    int n = ch.read(buffer);
+                    if (n < 0) break;
+                    if (n == 0) continue;
+                    view.limit(n).position(0);
+                    downstream.onNext(view);
+                }
+            } catch (Throwable t) {
+                // закрытие канала отменой — не ошибка
+                if (!disposed) downstream.onError(t);
+                return;
+            }
+            if (!disposed) downstream.onComplete();
+        }
+
+        @Override
+        public void dispose() {
+            if (disposed) return;
+            disposed = true;
+            ReadableByteChannel ch = channel;
+            if (ch != null) {
+                try {
+                    ch.close();
+                } catch (IOException ignored) {
+                    // уже не важно: подписка отменена
+                }
+            }
+        }
+
+        @Override public boolean isDisposed() { return disposed; }
+    }
+}
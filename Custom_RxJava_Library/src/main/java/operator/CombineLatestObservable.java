@@ -0,0 +1,189 @@
+package operator;
+
+import core.Disposable;
+import core.Observable;
+import core.Observer;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+/**
+ * combineLatest: когда у каждого источника есть хотя бы один элемент, любой
+ * новый элемент даёт combiner от последних элементов всех источников.
+ * Завершается, когда завершились все источники, или сразу — если источник
+ * завершился, не выдав ни одного элемента.<br>
+ * Элементы копятся в кольцах {@link RingInner}; цикл выдачи берёт по одному
+ * из каждого кольца по кругу, так что медленный источник не вытесняется
+ * быстрым. Строка аргументов combiner переиспользуется и действительна
+ * только во время вызова.
+ */
+public final class CombineLatestObservable<R> extends Observable<R> {
+
+    private final Observable<?>[] sources;
+    private final Function<? super Object[], ? extends R> combiner;
+    private final int bufferSize;
+
+    public CombineLatestObservable(Observable<?>[] sources, Function<? super Object[], ? extends R> combiner,
+                                   int bufferSize) {
+        if (bufferSize <= 0) throw new IllegalArgumentException("bufferSize > 0 required: " + bufferSize);
+        this.sources = sources;
+        this.combiner = combiner;
+        this.bufferSize = bufferSize;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    protected void subscribeActual(Observer<? super R> observer) {
+        if (sources.length == 0) {
+            observer.onSubscribe(Disposable.DISPOSED);
+            observer.onComplete();
+            return;
+        }
+        CombineCoordinator<R> parent = new CombineCoordinator<>(observer, combiner, sources.length, bufferSize);
+        observer.onSubscribe(parent);
+        for (int i = 0; i < sources.length && !parent.isDisposed(); i++) {
+            ((Observable<Object>) sources[i]).subscribe(parent.inners[i]);
+        }
+    }
+
+    /** Значение AtomicInteger — счётчик незавершённой работы (wip). */
+    static final class CombineCoordinator<R> extends AtomicInteger implements Disposable, RingInner.Parent {
+        private final Observer<? super R> downstream;
+        private final Function<? super Object[], ? extends R> combiner;
+        final RingInner<Object>[] inners;
+        private final AtomicReference<Throwable> error = new AtomicReference<>();
+        private volatile boolean disposed;
+        /* только цикл выдачи */
+        private final Object[] latest;
+        private final Object[] row;
+        private int filled;
+        private Thread drainer;
+
+        @SuppressWarnings("unchecked")
+        CombineCoordinator(Observer<? super R> downstream, Function<? super Object[], ? extends R> combiner,
+                           int n, int bufferSize) {
+            this.downstream = downstream;
+            this.combiner = combiner;
+            this.inners = (RingInner<Object>[]) new RingInner<?>[n];
+            for (int i = 0; i < n; i++) inners[i] = new RingInner<>(this, bufferSize);
+            this.latest = new Object[n];
+            this.row = new Object[n];
+        }
+
+        @Override public boolean isDrainThread() { return drainer == Thread.currentThread(); }
+
+        @Override
+        public void innerError(Throwable t) {
+            error.compareAndSet(null, t);
+            drain();
+        }
+
+        @Override
+        public void drain() {
+            if (getAndIncrement() != 0) return;
+            drainer = Thread.currentThread();
+            drainLoop();
+        }
+
+        private void drainLoop() {
+            int missed = 1;
+            int n = inners.length;
+            for (;;) {
+                for (;;) {
+                    if (disposed) {
+                        clear();
+                        return;
+                    }
+                    Throwable ex = error.get();
+                    if (ex != null) {
+                        terminate();
+                        downstream.onError(ex);
+                        return;
+                    }
+                    boolean polled = false;
+                    int finished = 0;
+                    for (int i = 0; i < n; i++) {
+                        RingInner<Object> inner = inners[i];
+                        boolean d = inner.done;
+                        Object v = inner.queue.poll();
+                        if (v == null) {
+                            if (d) {
+                                // без единого элемента комбинаций больше не будет
+                                if (latest[i] == null) {
+                                    terminate();
+                                    downstream.onComplete();
+                                    return;
+                                }
+                                finished++;
+                            }
+                            continue;
+                        }
+                        polled = true;
+                        inner.wake();
+                        if (latest[i] == null) filled++;
+                        latest[i] = v;
+                        if (filled == n && !emit()) return;
+                    }
+                    if (finished == n) {
+                        terminate();
+                        downstream.onComplete();
+                        return;
+                    }
+                    if (!polled) break;
+                }
+                missed = release(missed);
+                if (missed == 0) break;
+            }
+        }
+
+        /**
+         * Снять missed с wip. Владелец цикла сбрасывается до освобождения:
+         * после него цикл может уже забрать другой поток.
+         */
+        private int release(int missed) {
+            drainer = null;
+            int m = addAndGet(-missed);
+            if (m != 0) drainer = Thread.currentThread();
+            return m;
+        }
+
+        private boolean emit() {
+            System.arraycopy(latest, 0, row, 0, row.length);
+            R r;
+            try {
+                r = Objects.requireNonNull(combiner.apply(row), "combiner returned null");
+            } catch (Throwable t) {
+                terminate();
+                downstream.onError(t);
+                return false;
+            }
+            downstream.onNext(r);
+            return true;
+        }
+
+        private void terminate() {
+            disposed = true;
+            for (RingInner<Object> inner : inners) inner.dispose();
+            clear();
+        }
+
+        private void clear() {
+            Arrays.fill(latest, null);
+            Arrays.fill(row, null);
+            for (RingInner<Object> inner : inners) inner.queue.clear();
+        }
+
+        @Override
+        public void dispose() {
+            if (disposed) return;
+            disposed = true;
+            for (RingInner<Object> inner : inners) inner.dispose();
+            if (getAndIncrement() == 0) clear();
+        }
+
+        @Override public boolean isDisposed() { return disposed; }
+    }
+}
@@ -0,0 +1,247 @@
+package operator;
+
+import core.Disposable;
+import core.Observable;
+import core.Observer;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+/**
+ * concatMapEager: внутренние потоки подписываются сразу (не больше
+ * maxConcurrency одновременно), а выдаются строго по порядку внешних
+ * элементов: пока выдаётся первый, следующие копят элементы в своих
+ * кольцах {@link RingInner}. Кольцо ограничено, и поток, заполнивший своё,
+ * ждёт очереди; слот освобождается, когда поток полностью выдан, так что
+ * в памяти не больше maxConcurrency × bufferSize элементов.<br>
+ * Внешние элементы сверх maxConcurrency ждут в очереди, как в flatMap.
+ * Синхронный внутренний поток, подписанный из onNext и заполнивший кольцо,
+ * задерживает и внешний поток, пока не дойдёт его очередь.
+ */
+public final class ConcatMapEagerObservable<T, R> extends Observable<R> {
+
+    private final Observable<T> upstream;
+    private final Function<? super T, ? extends Observable<? extends R>> mapper;
+    private final int maxConcurrency;
+    private final int bufferSize;
+
+    public ConcatMapEagerObservable(Observable<T> upstream,
+                                    Function<? super T, ? extends Observable<? extends R>> mapper,
+                                    int maxConcurrency, int bufferSize) {
+        if (maxConcurrency <= 0 || bufferSize <= 0)
+            throw new IllegalArgumentException("maxConcurrency и bufferSize должны быть > 0");
+        this.upstream = upstream;
+        this.mapper = mapper;
+        this.maxConcurrency = maxConcurrency;
+        this.bufferSize = bufferSize;
+    }
+
+    @Override
+    protected void subscribeActual(Observer<? super R> observer) {
+        upstream.subscribe(new EagerObserver<>(observer, mapper, maxConcurrency, bufferSize));
+    }
+
+    /** Значение AtomicInteger — счётчик незавершённой работы (wip) цикла выдачи. */
+    static final class EagerObserver<T, R> extends AtomicInteger implements Observer<T>, Disposable, RingInner.Parent {
+        private final Observer<? super R> downstream;
+        private final Function<? super T, ? extends Observable<? extends R>> mapper;
+        private final int maxConcurrency;
+        private final int bufferSize;
+
+        /** Подписанные и ещё не выданные до конца внутренние потоки, по порядку. */
+        private final Queue<RingInner<R>> inners = new ConcurrentLinkedQueue<>();
+        /** Ожидают свободного слота. */
+        private final Queue<Observable<? extends R>> pending = new ConcurrentLinkedQueue<>();
+        /** Занятые слоты: поток в inners или уже забран на подписку. */
+        private final AtomicInteger active = new AtomicInteger();
+        private final AtomicInteger pendingWip = new AtomicInteger();
+        private final AtomicReference<Throwable> error = new AtomicReference<>();
+
+        private Disposable upstream;
+        private volatile boolean done;
+        private volatile boolean disposed;
+        private Thread drainer;
+
+        EagerObserver(Observer<? super R> downstream, Function<? super T, ? extends Observable<? extends R>> mapper,
+                      int maxConcurrency, int bufferSize) {
+            this.downstream = downstream;
+            this.mapper = mapper;
+            this.maxConcurrency = maxConcurrency;
+            this.bufferSize = bufferSize;
+        }
+
+        /* ── внешний поток ─────────────────────────────────────────────── */
+
+        @Override
+        public void onSubscribe(Disposable d) {
+            upstream = d;
+            downstream.onSubscribe(this);
+        }
+
+        @Override
+        public void onNext(T item) {
+            if (done || disposed) return;
+            Observable<? extends R> p;
+            try {
+                p = mapper.apply(item);
+            } catch (Throwable t) {
+                upstream.dispose();
+                onError(t);
+                return;
+            }
+            pending.offer(p);
+            startPending();
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            if (done) return;
+            error.compareAndSet(null, t);
+            done = true;
+            drain();
+        }
+
+        @Override
+        public void onComplete() {
+            if (done) return;
+            done = true;
+            drain();
+        }
+
+        /* ── внутренние потоки ─────────────────────────────────────────── */
+
+        /** Подписать ожидающие потоки, пока есть свободные слоты. Не из цикла выдачи. */
+        @SuppressWarnings("unchecked")
+        private void startPending() {
+            if (pendingWip.getAndIncrement() != 0) return;
+            int missed = 1;
+            for (;;) {
+                for (;;) {
+                    if (disposed) {
+                        pending.clear();
+                        break;
+                    }
+                    int a = active.get();
+                    if (a >= maxConcurrency || pending.isEmpty()) break;
+                    // слот занимаем до poll: иначе проверка завершения увидит пустые pending и active
+                    if (!active.compareAndSet(a, a + 1)) continue;
+                    Observable<? extends R> p = pending.poll();
+                    if (p == null) {
+                        active.decrementAndGet();
+                        break;
+                    }
+                    RingInner<R> inner = new RingInner<>(this, bufferSize);
+                    inners.offer(inner);
+                    if (disposed) inner.dispose(); else ((Observable<R>) p).subscribe(inner);
+                }
+                missed = pendingWip.addAndGet(-missed);
+                if (missed == 0) break;
+            }
+        }
+
+        @Override public boolean isDrainThread() { return drainer == Thread.currentThread(); }
+
+        @Override
+        public void innerError(Throwable t) {
+            error.compareAndSet(null, t);
+            drain();
+        }
+
+        /* ── цикл выдачи ───────────────────────────────────────────────── */
+
+        @Override
+        public void drain() {
+            if (getAndIncrement() != 0) return;
+            drainer = Thread.currentThread();
+            int released = drainLoop();
+            // новые потоки подписываем вне цикла: их синхронные элементы выдаст он же
+            if (released > 0) startPending();
+        }
+
+        /** @return сколько слотов освободилось */
+        private int drainLoop() {
+            int missed = 1;
+            int released = 0;
+            for (;;) {
+                for (;;) {
+                    if (disposed) {
+                        clear();
+                        return 0;
+                    }
+                    if (checkError()) return 0;
+                    RingInner<R> head = inners.peek();
+                    if (head == null) {
+                        // порядок чтения важен: pending пуст ⇒ их слоты уже учтены в active
+                        if (done && pending.isEmpty() && active.get() == 0) {
+                            disposed = true;
+                            downstream.onComplete();
+                            return 0;
+                        }
+                        break;
+                    }
+                    boolean d = head.done;
+                    R v = head.queue.poll();
+                    if (v == null) {
+                        if (!d) break;
+                        inners.poll();
+                        active.decrementAndGet();
+                        released++;
+                        continue;
+                    }
+                    head.wake();
+                    downstream.onNext(v);
+                }
+                missed = release(missed);
+                if (missed == 0) return released;
+            }
+        }
+
+        /**
+         * Снять missed с wip. Владелец цикла сбрасывается до освобождения:
+         * после него цикл может уже забрать другой поток.
+         */
+        private int release(int missed) {
+            drainer = null;
+            int m = addAndGet(-missed);
+            if (m != 0) drainer = Thread.currentThread();
+            return m;
+        }
+
+        private boolean checkError() {
+            Throwable ex = error.get();
+            if (ex == null) return false;
+            disposed = true;
+            cancelAll();
+            clear();
+            downstream.onError(ex);
+            return true;
+        }
+
+        /* ── отмена ────────────────────────────────────────────────────── */
+
+        @Override
+        public void dispose() {
+            if (disposed) return;
+            disposed = true;
+            cancelAll();
+            if (getAndIncrement() == 0) clear();
+        }
+
+        @Override public boolean isDisposed() { return disposed; }
+
+        private void cancelAll() {
+            Disposable d = upstream;
+            if (d != null) d.dispose();
+            for (RingInner<R> inner : inners) inner.dispose();
+        }
+
+        private void clear() {
+            pending.clear();
+            for (RingInner<R> inner : inners) inner.queue.clear();
+            inners.clear();
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package operator;
+
+import core.Disposable;
+import core.Observable;
+import core.Observer;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * concat: источники по очереди — следующий подписывается, когда завершился
+ * предыдущий, поэтому буферов нет вовсе. Переход к следующему идёт через
+ * счётчик wip: цепочка синхронных источников проходится циклом, а не рекурсией.
+ */
+public final class ConcatObservable<T> extends Observable<T> {
+
+    private final Observable<? extends T>[] sources;
+
+    public ConcatObservable(Observable<? extends T>[] sources) {
+        this.sources = sources;
+    }
+
+    @Override
+    protected void subscribeActual(Observer<? super T> observer) {
+        ConcatObserver<T> parent = new ConcatObserver<>(observer, sources);
+        observer.onSubscribe(parent);
+        parent.subscribeNext();
+    }
+
+    /** Значение AtomicInteger — счётчик незавершённой работы (wip). */
+    static final class ConcatObserver<T> extends AtomicInteger implements Observer<T>, Disposable {
+        private final Observer<? super T> downstream;
+        private final Observable<? extends T>[] sources;
+        /** Подписка текущего источника; меняется при переходе к следующему. */
+        private final AtomicReference<Disposable> upstream = new AtomicReference<>();
+        /** Источники идут строго по очереди, поэтому без синхронизации. */
+        private int index;
+
+        ConcatObserver(Observer<? super T> downstream, Observable<? extends T>[] sources) {
+            this.downstream = downstream;
+            this.sources = sources;
+        }
+
+        void subscribeNext() {
+            if (getAndIncrement() != 0) return;
+            do {
+                if (isDisposed()) return;
+                if (index == sources.length) {
+                    downstream.onComplete();
+                    return;
+                }
+                sources[index++].subscribe(this);
+            } while (decrementAndGet() != 0);
+        }
+
+        @Override public void onSubscribe(Disposable d) { Disposable.replace(upstream, d); }
+        @Override public void onNext(T item) { downstream.onNext(item); }
+        @Override public void onError(Throwable t) { downstream.onError(t); }
+        @Override public void onComplete() { subscribeNext(); }
+
+        @Override public void dispose() { Disposable.dispose(upstream); }
+        @Override public boolean isDisposed() { return upstream.get() == DISPOSED; }
+    }
+}
@@ -0,0 +1,118 @@
+package operator;
+
+import core.Disposable;
+import core.Observable;
+import core.Observer;
+import scheduler.Scheduler;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * debounce(timeout): элемент выдаётся, только если за ним timeout не пришло
+ * следующего. Каждый элемент перевзводит таймер — на колесе это O(1)
+ * постановка и отмена. При onComplete ожидающий элемент выдаётся сразу,
+ * при отмене — отбрасывается вместе с таймером.
+ */
+public final class DebounceObservable<T> extends Observable<T> {
+
+    private final Observable<T> upstream;
+    private final long timeout;
+    private final TimeUnit unit;
+    private final Scheduler scheduler;
+
+    public DebounceObservable(Observable<T> upstream, long timeout, TimeUnit unit, Scheduler scheduler) {
+        if (timeout <= 0) throw new IllegalArgumentException("timeout > 0 required: " + timeout);
+        this.upstream = upstream;
+        this.timeout = timeout;
+        this.unit = unit;
+        this.scheduler = scheduler;
+    }
+
+    @Override
+    protected void subscribeActual(Observer<? super T> observer) {
+        upstream.subscribe(new DebounceObserver<>(observer, timeout, unit, scheduler));
+    }
+
+    static final class DebounceObserver<T> implements Observer<T>, Disposable {
+        private final Observer<? super T> downstream;
+        private final long timeout;
+        private final TimeUnit unit;
+        private final Scheduler scheduler;
+
+        private Disposable upstream;
+        private volatile boolean disposed;
+        /* всё ниже — под блокировкой this */
+        private T value;
+        private boolean hasValue;
+        /** Номер последнего элемента: таймер устаревшего ничего не выдаёт. */
+        private long index;
+        private Disposable timer;
+        private boolean done;
+
+        DebounceObserver(Observer<? super T> downstream, long timeout, TimeUnit unit, Scheduler scheduler) {
+            this.downstream = downstream;
+            this.timeout = timeout;
+            this.unit = unit;
+            this.scheduler = scheduler;
+        }
+
+        @Override
+        public void onSubscribe(Disposable d) {
+            upstream = d;
+            downstream.onSubscribe(this);
+        }
+
+        @Override
+        public synchronized void onNext(T item) {
+            if (done) return;
+            long idx = ++index;
+            value = item;
+            hasValue = true;
+            if (timer != null) timer.dispose();
+            timer = scheduler.schedule(() -> emit(idx), timeout, unit);
+        }
+
+        private synchronized void emit(long idx) {
+            if (done || idx != index || !hasValue) return;
+            T v = value;
+            value = null;
+            hasValue = false;
+            timer = null;
+            downstream.onNext(v);
+        }
+
+        @Override
+        public synchronized void onError(Throwable t) {
+            if (done) return;
+            done = true;
+            if (timer != null) timer.dispose();
+            value = null;
+            downstream.onError(t);
+        }
+
+        @Override
+        public synchronized void onComplete() {
+            if (done) return;
+            done = true;
+            if (timer != null) timer.dispose();
+            if (hasValue) {
+                T v = value;
+                value = null;
+                downstream.onNext(v);
+            }
+            downstream.onComplete();
+        }
+
+        @Override
+        public synchronized void dispose() {
+            if (disposed) return;
+            disposed = true;
+            done = true;
+            upstream.dispose();
+            if (timer != null) timer.dispose();
+            value = null;
+        }
+
+        @Override public boolean isDisposed() { return disposed; }
+    }
+}
@@ -0,0 +1,56 @@
+package operator;
+
+import core.Flowable;
+import core.Subscriber;
+import core.Subscription;
+
+import java.util.function.Predicate;
+
+public final class FilterFlowable<T> extends Flowable<T> {
+
+    private final Flowable<T> upstream;
+    private final Predicate<? super T> predicate;
+
+    public FilterFlowable(Flowable<T> upstream, Predicate<? super T> predicate) {
+        this.upstream = upstream;
+        this.predicate = predicate;
+    }
+
+    @Override
+    protected void subscribeActual(Subscriber<? super T> subscriber) {
+        upstream.subscribe(new FilterSubscriber<>(subscriber, predicate));
+    }
+
+    /** Отброшенный элемент компенсируем запросом request(1), чтобы спрос не «утекал». */
+    static final class FilterSubscriber<T> implements Subscriber<T> {
+        private final Subscriber<? super T> downstream;
+        private final Predicate<? super T> predicate;
+        private Subscription upstream;
+        private boolean done;
+
+        FilterSubscriber(Subscriber<? super T> downstream, Predicate<? super T> predicate) {
+            this.downstream = downstream;
+            this.predicate = predicate;
+        }
+
+        @Override public void onSubscribe(Subscription s) { upstream = s; downstream.onSubscribe(s); }
+
+        @Override
+        public void onNext(T item) {
+            if (done) return;
+            boolean pass;
+            try {
+                pass = predicate.test(item);
+            } catch (Throwable t) {
+                upstream.cancel();
+                onError(t);
+                return;
+            }
+            if (pass) downstream.onNext(item);
+            else upstream.request(1);
+        }
+
+        @Override public void onError(Throwable t) { if (!done) { done = true; downstream.onError(t); } }
+        @Override public void onComplete() { if (!done) { done = true; downstream.onComplete(); } }
+    }
+}
@@ -1,6 +1,5 @@
 package operator;
 
-import core.Disposable;
 import core.Observable;
 import core.Observer;
 
@@ -8,19 +7,39 @@ import java.util.function.Predicate;
 
 public final class FilterObservable<T> extends Observable<T> {
 
+    final Observable<T> upstream;
+    final Predicate<? super T> predicate;
+
     public FilterObservable(Observable<T> upstream, Predicate<? super T> predicate) {
-        super(observer -> upstream.subscribe(new Observer<T>() {
-            @Override public void onSubscribe(Disposable d) { observer.onSubscribe(d); }
-            @Override public void onNext(T item) {
-                if (predicate.test(item)) observer.onNext(item);
-            }
-            @Override public void onError(Throwable t) { observer.onError(t); }
-            @Override public void onComplete() { observer.onComplete(); }
-        }));
+        this.upstream = upstream;
+        this.predicate = predicate;
     }
 
     @Override
-    protected void subscribeActual(Observer<? super T> observer) throws Exception {
+    protected void subscribeActual(Observer<? super T> observer) {
+        upstream.subscribe(new FilterObserver<>(observer, predicate));
+    }
 
+    static final class FilterObserver<T> extends BasicObserver<T, T> {
+        private final Predicate<? super T> predicate;
+
+        FilterObserver(Observer<? super T> downstream, Predicate<? super T> predicate) {
+            super(downstream);
+            this.predicate = predicate;
+        }
+
+        @Override
+        public void onNext(T item) {
+            if (done) return;
+            boolean pass;
+            try {
+                pass = predicate.test(item);
+            } catch (Throwable t) {
+                dispose();
+                onError(t);
+                return;
+            }
+            if (pass) downstream.onNext(item);
+        }
     }
-}
\ No newline at end of file
+}
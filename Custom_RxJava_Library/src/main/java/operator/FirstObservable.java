@@ -0,0 +1,57 @@
+package operator;
+
+import core.Observable;
+import core.Observer;
+
+import java.util.NoSuchElementException;
+
+/**
+ * first(): первый элемент, после чего источник отменяется.
+ * Пустой поток даёт defaultItem, а без него — NoSuchElementException.
+ */
+public final class FirstObservable<T> extends Observable<T> {
+
+    private final Observable<T> upstream;
+    /** null — значения по умолчанию нет. */
+    private final T defaultItem;
+
+    public FirstObservable(Observable<T> upstream, T defaultItem) {
+        this.upstream = upstream;
+        this.defaultItem = defaultItem;
+    }
+
+    @Override
+    protected void subscribeActual(Observer<? super T> observer) {
+        upstream.subscribe(new FirstObserver<>(observer, defaultItem));
+    }
+
+    static final class FirstObserver<T> extends BasicObserver<T, T> {
+        private final T defaultItem;
+
+        FirstObserver(Observer<? super T> downstream, T defaultItem) {
+            super(downstream);
+            this.defaultItem = defaultItem;
+        }
+
+        @Override
+        public void onNext(T item) {
+            if (done) return;
+            done = true;
+            dispose();
+            downstream.onNext(item);
+            downstream.onComplete();
+        }
+
+        @Override
+        public void onComplete() {
+            if (done) return;
+            done = true;
+            if (defaultItem != null) {
+                downstream.onNext(defaultItem);
+                downstream.onComplete();
+            } else {
+                downstream.onError(new NoSuchElementException("Поток завершился без элементов"));
+            }
+        }
+    }
+}
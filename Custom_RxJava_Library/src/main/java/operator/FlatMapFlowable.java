@@ -0,0 +1,254 @@
+package operator;
+
+import core.Flowable;
+import core.MissingBackpressureException;
+import core.Subscriber;
+import core.Subscription;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+/**
+ * flatMap с обратным давлением: вверх запрашивается maxConcurrency элементов,
+ * каждый внутренний поток — prefetch элементов; всё сливается одним циклом
+ * выдачи с учётом спроса подписчика.
+ */
+public final class FlatMapFlowable<T, R> extends Flowable<R> {
+
+    private final Flowable<T> upstream;
+    private final Function<? super T, ? extends Flowable<? extends R>> mapper;
+    private final int maxConcurrency;
+    private final int prefetch;
+
+    public FlatMapFlowable(Flowable<T> upstream,
+                           Function<? super T, ? extends Flowable<? extends R>> mapper,
+                           int maxConcurrency,
+                           int prefetch) {
+        if (maxConcurrency <= 0 || prefetch <= 0)
+            throw new IllegalArgumentException("maxConcurrency и prefetch должны быть > 0");
+        this.upstream = upstream;
+        this.mapper = mapper;
+        this.maxConcurrency = maxConcurrency;
+        this.prefetch = prefetch;
+    }
+
+    @Override
+    protected void subscribeActual(Subscriber<? super R> subscriber) {
+        upstream.subscribe(new MergeSubscriber<>(subscriber, mapper, maxConcurrency, prefetch));
+    }
+
+    /** Значение AtomicInteger — wip цикла выдачи. */
+    static final class MergeSubscriber<T, R> extends AtomicInteger implements Subscriber<T>, Subscription {
+        private final Subscriber<? super R> downstream;
+        private final Function<? super T, ? extends Flowable<? extends R>> mapper;
+        private final int maxConcurrency;
+        private final int prefetch;
+        private final Queue<InnerSubscriber<R>> inners = new ConcurrentLinkedQueue<>();
+        private final AtomicLong requested = new AtomicLong();
+        private final AtomicReference<Throwable> error = new AtomicReference<>();
+
+        private Subscription upstream;
+        private volatile boolean done;
+        private volatile boolean cancelled;
+
+        MergeSubscriber(Subscriber<? super R> downstream,
+                        Function<? super T, ? extends Flowable<? extends R>> mapper,
+                        int maxConcurrency, int prefetch) {
+            this.downstream = downstream;
+            this.mapper = mapper;
+            this.maxConcurrency = maxConcurrency;
+            this.prefetch = prefetch;
+        }
+
+        @Override
+        public void onSubscribe(Subscription s) {
+            upstream = s;
+            downstream.onSubscribe(this);
+            s.request(maxConcurrency == Integer.MAX_VALUE ? Long.MAX_VALUE : maxConcurrency);
+        }
+
+        @Override
+        public void onNext(T item) {
+            if (done) return;
+            Flowable<? extends R> p;
+            try {
+                p = mapper.apply(item);
+            } catch (Throwable t) {
+                upstream.cancel();
+                onError(t);
+                return;
+            }
+            InnerSubscriber<R> inner = new InnerSubscriber<>(this, prefetch);
+            inners.add(inner);
+            if (cancelled) {
+                inner.cancel();
+                return;
+            }
+            p.subscribe(inner);
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            if (done) return;
+            error.compareAndSet(null, t);
+            done = true;
+            drain();
+        }
+
+        @Override
+        public void onComplete() {
+            if (done) return;
+            done = true;
+            drain();
+        }
+
+        @Override
+        public void request(long n) {
+            BackpressureHelper.validate(n);
+            BackpressureHelper.add(requested, n);
+            drain();
+        }
+
+        @Override
+        public void cancel() {
+            if (cancelled) return;
+            cancelled = true;
+            upstream.cancel();
+            cancelInners();
+        }
+
+        void innerError(Throwable t) {
+            error.compareAndSet(null, t);
+            drain();
+        }
+
+        void drain() {
+            if (getAndIncrement() == 0) drainLoop();
+        }
+
+        private void drainLoop() {
+            int missed = 1;
+            for (;;) {
+                if (checkTerminated()) return;
+                // done читаем до обхода: после onComplete новых внутренних потоков не будет
+                boolean d = done;
+                long r = requested.get();
+                long e = 0;
+                int completed = 0;
+
+                for (InnerSubscriber<R> inner : inners) {
+                    while (e != r) {
+                        if (checkTerminated()) return;
+                        R v = inner.queue.poll();
+                        if (v == null) break;
+                        downstream.onNext(v);
+                        e++;
+                        inner.consumedOne();
+                    }
+                    if (inner.done && inner.queue.isEmpty()) {
+                        inners.remove(inner);
+                        completed++;
+                    }
+                }
+
+                if (e != 0 && r != Long.MAX_VALUE) requested.addAndGet(-e);
+                if (checkTerminated()) return;
+                if (d && inners.isEmpty()) {
+                    downstream.onComplete();
+                    return;
+                }
+                // каждый завершившийся внутренний поток освобождает место для следующего
+                if (completed != 0 && maxConcurrency != Integer.MAX_VALUE) upstream.request(completed);
+
+                missed = addAndGet(-missed);
+                if (missed == 0) break;
+            }
+        }
+
+        private boolean checkTerminated() {
+            if (cancelled) {
+                cancelInners();
+                return true;
+            }
+            Throwable ex = error.get();
+            if (ex != null) {
+                upstream.cancel();
+                cancelInners();
+                downstream.onError(ex);
+                cancelled = true;
+                return true;
+            }
+            return false;
+        }
+
+        private void cancelInners() {
+            InnerSubscriber<R> inner;
+            while ((inner = inners.poll()) != null) inner.cancel();
+        }
+    }
+
+    /** Внутренний поток: своя SPSC-очередь на prefetch элементов. */
+    static final class InnerSubscriber<R> extends AtomicReference<Subscription> implements Subscriber<R> {
+        private final MergeSubscriber<?, R> parent;
+        private final int prefetch;
+        private final int limit;
+        final SpscArrayQueue<R> queue;
+        volatile boolean done;
+        /** Трогает только цикл выдачи родителя. */
+        private int consumed;
+
+        InnerSubscriber(MergeSubscriber<?, R> parent, int prefetch) {
+            this.parent = parent;
+            this.prefetch = prefetch;
+            this.limit = prefetch - (prefetch >> 2);
+            this.queue = new SpscArrayQueue<>(prefetch);
+        }
+
+        @Override
+        public void onSubscribe(Subscription s) {
+            if (compareAndSet(null, s)) s.request(prefetch);
+            else s.cancel();
+        }
+
+        @Override
+        public void onNext(R item) {
+            if (done) return;
+            if (!queue.offer(item)) {
+                cancel();
+                onError(new MissingBackpressureException("Внутренний поток flatMap выдал больше, чем запрошено"));
+                return;
+            }
+            parent.drain();
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            if (done) return;
+            done = true;
+            parent.innerError(t);
+        }
+
+        @Override
+        public void onComplete() {
+            if (done) return;
+            done = true;
+            parent.drain();
+        }
+
+        void consumedOne() {
+            if (++consumed == limit) {
+                consumed = 0;
+                get().request(limit);
+            }
+        }
+
+        void cancel() {
+            Subscription s = getAndSet(BackpressureHelper.CANCELLED);
+            if (s != null) s.cancel();
+        }
+    }
+}
@@ -4,28 +4,308 @@ import core.Disposable;
 import core.Observable;
 import core.Observer;
 
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Function;
 
+/**
+ * flatMap-слияние.<br>
+ * 1) Одновременно активно не больше maxConcurrency внутренних потоков,
+ *    остальные ждут в очереди и запускаются по мере завершения активных.<br>
+ * 2) Вниз элементы идут строго последовательно: без конкуренции — напрямую,
+ *    иначе через SPSC-очередь своего внутреннего потока, которую разгребает
+ *    тот, кто захватил счётчик wip.<br>
+ * 3) onComplete — только когда завершились внешний и все внутренние потоки.<br>
+ * 4) Отмена или ошибка отменяют внешний и все активные внутренние потоки.
+ */
 public final class FlatMapObservable<T, R> extends Observable<R> {
 
-    public FlatMapObservable(Observable<T> upstream, Function<? super T, Observable<R>> mapper) {
-        super(observer -> upstream.subscribe(new Observer<T>() {
-            @Override public void onSubscribe(Disposable d) { observer.onSubscribe(d); }
-            @Override public void onNext(T item) {
-                mapper.apply(item).subscribe(new Observer<R>() {
-                    @Override public void onSubscribe(Disposable d) { /* ничего */ }
-                    @Override public void onNext(R r) { observer.onNext(r); }
-                    @Override public void onError(Throwable t) { observer.onError(t); }
-                    @Override public void onComplete() { /* дочерний поток молча завершается */ }
-                });
-            }
-            @Override public void onError(Throwable t) { observer.onError(t); }
-            @Override public void onComplete() { observer.onComplete(); }
-        }));
+    private final Observable<T> upstream;
+    private final Function<? super T, ? extends Observable<? extends R>> mapper;
+    private final int maxConcurrency;
+    private final int bufferSize;
+
+    public FlatMapObservable(Observable<T> upstream,
+                             Function<? super T, ? extends Observable<? extends R>> mapper,
+                             int maxConcurrency,
+                             int bufferSize) {
+        if (maxConcurrency <= 0 || bufferSize <= 0)
+            throw new IllegalArgumentException("maxConcurrency и bufferSize должны быть > 0");
+        this.upstream = upstream;
+        this.mapper = mapper;
+        this.maxConcurrency = maxConcurrency;
+        this.bufferSize = bufferSize;
     }
 
     @Override
-    protected void subscribeActual(Observer<? super R> observer) throws Exception {
+    protected void subscribeActual(Observer<? super R> observer) {
+        upstream.subscribe(new MergeObserver<>(observer, mapper, maxConcurrency, bufferSize));
+    }
+
+    static final class MergeObserver<T, R> implements Observer<T>, Disposable {
+        private final Observer<? super R> downstream;
+        private final Function<? super T, ? extends Observable<? extends R>> mapper;
+        private final int maxConcurrency;
+        private final int bufferSize;
+
+        /** Подписанные и ещё не выбранные циклом выдачи внутренние потоки. */
+        private final Queue<InnerObserver<R>> inners = new ConcurrentLinkedQueue<>();
+        /** Ожидают свободного слота (только при ограниченном maxConcurrency). */
+        private final Queue<Observable<? extends R>> pending = new ConcurrentLinkedQueue<>();
+        /** Число запущенных и не завершившихся внутренних потоков. */
+        private final AtomicInteger active = new AtomicInteger();
+        /** wip цикла выдачи вниз. */
+        private final AtomicInteger wip = new AtomicInteger();
+        /** wip запуска ожидающих: синхронные потоки запускаются циклом, а не рекурсией. */
+        private final AtomicInteger pendingWip = new AtomicInteger();
+        private final AtomicReference<Throwable> error = new AtomicReference<>();
+
+        private Disposable upstream;
+        private volatile boolean done;
+        private volatile boolean terminated;
+        private volatile boolean disposed;
+
+        MergeObserver(Observer<? super R> downstream,
+                      Function<? super T, ? extends Observable<? extends R>> mapper,
+                      int maxConcurrency, int bufferSize) {
+            this.downstream = downstream;
+            this.mapper = mapper;
+            this.maxConcurrency = maxConcurrency;
+            this.bufferSize = bufferSize;
+        }
+
+        /* ── внешний поток ─────────────────────────────────────────────── */
+
+        @Override
+        public void onSubscribe(Disposable d) {
+            upstream = d;
+            downstream.onSubscribe(this);
+        }
+
+        @Override
+        public void onNext(T item) {
+            if (done || terminated) return;
+            Observable<? extends R> p;
+            try {
+                p = mapper.apply(item);
+            } catch (Throwable t) {
+                upstream.dispose();
+                onError(t);
+                return;
+            }
+            if (maxConcurrency == Integer.MAX_VALUE) {
+                active.incrementAndGet();
+                subscribeInner(p);
+            } else {
+                pending.offer(p);
+                startPending();
+            }
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            if (done) return;
+            error.compareAndSet(null, t);
+            done = true;
+            drain();
+        }
+
+        @Override
+        public void onComplete() {
+            if (done) return;
+            done = true;
+            drain();
+        }
+
+        /* ── внутренние потоки ─────────────────────────────────────────── */
+
+        private void subscribeInner(Observable<? extends R> p) {
+            InnerObserver<R> inner = new InnerObserver<>(this);
+            inners.add(inner);
+            // отмена могла пройти мимо ещё не добавленного потока
+            if (terminated) {
+                inner.dispose();
+                return;
+            }
+            p.subscribe(inner);
+        }
+
+        /** Запустить ожидающие потоки, пока есть свободные слоты. */
+        private void startPending() {
+            if (pendingWip.getAndIncrement() != 0) return;
+            int missed = 1;
+            for (;;) {
+                for (;;) {
+                    if (terminated) {
+                        pending.clear();
+                        break;
+                    }
+                    int a = active.get();
+                    if (a >= maxConcurrency || pending.isEmpty()) break;
+                    // слот занимаем до poll: иначе проверка завершения увидит пустые pending и active
+                    if (!active.compareAndSet(a, a + 1)) continue;
+                    Observable<? extends R> p = pending.poll();
+                    if (p == null) {
+                        active.decrementAndGet();
+                        break;
+                    }
+                    subscribeInner(p);
+                }
+                missed = pendingWip.addAndGet(-missed);
+                if (missed == 0) break;
+            }
+        }
+
+        void innerNext(InnerObserver<R> inner, R value) {
+            if (terminated) return;
+            // быстрый путь: никто не выдаёт и у этого потока нет отложенных элементов
+            if (wip.get() == 0 && wip.compareAndSet(0, 1)) {
+                SpscLinkedArrayQueue<R> q = inner.queue;
+                if (q == null || q.isEmpty()) {
+                    downstream.onNext(value);
+                    if (wip.decrementAndGet() == 0) return;
+                } else {
+                    // сохраняем порядок внутри потока: встаём за отложенными, wip уже наш
+                    q.offer(value);
+                }
+            } else {
+                inner.queueOrCreate(bufferSize).offer(value);
+                if (wip.getAndIncrement() != 0) return;
+            }
+            drainLoop();
+        }
+
+        void innerError(Throwable t) {
+            error.compareAndSet(null, t);
+            drain();
+        }
+
+        void innerComplete() {
+            active.decrementAndGet();
+            if (maxConcurrency != Integer.MAX_VALUE) startPending();
+            drain();
+        }
+
+        /* ── отмена ────────────────────────────────────────────────────── */
+
+        @Override
+        public void dispose() {
+            if (disposed) return;
+            disposed = true;
+            terminated = true;
+            cancelAll();
+            // выдача не идёт — чистим сами, иначе это сделает её цикл
+            if (wip.getAndIncrement() == 0) clear();
+        }
+
+        @Override public boolean isDisposed() { return disposed; }
+
+        private void cancelAll() {
+            Disposable d = upstream;
+            if (d != null) d.dispose();
+            for (InnerObserver<R> inner : inners) inner.dispose();
+        }
+
+        private void clear() {
+            pending.clear();
+            inners.clear();
+        }
+
+        /* ── цикл выдачи ───────────────────────────────────────────────── */
+
+        private void drain() {
+            if (wip.getAndIncrement() == 0) drainLoop();
+        }
+
+        private void drainLoop() {
+            int missed = 1;
+            for (;;) {
+                if (disposed) {
+                    clear();
+                    return;
+                }
+                if (checkError()) return;
+                for (InnerObserver<R> inner : inners) {
+                    SpscLinkedArrayQueue<R> q = inner.queue;
+                    if (q != null) {
+                        R v;
+                        while ((v = q.poll()) != null) {
+                            if (disposed) {
+                                clear();
+                                return;
+                            }
+                            if (checkError()) return;
+                            downstream.onNext(v);
+                        }
+                    }
+                    // done читаем раньше очереди: всё, что поток положил до onComplete, уже видно
+                    if (inner.done) {
+                        q = inner.queue;
+                        if (q == null || q.isEmpty()) inners.remove(inner);
+                    }
+                }
+                // порядок чтения важен: pending пуст ⇒ их слоты уже учтены в active
+                if (done && pending.isEmpty() && active.get() == 0 && inners.isEmpty()) {
+                    if (checkError()) return;
+                    terminated = true;
+                    downstream.onComplete();
+                    return;
+                }
+                missed = wip.addAndGet(-missed);
+                if (missed == 0) break;
+            }
+        }
+
+        private boolean checkError() {
+            Throwable ex = error.get();
+            if (ex == null) return false;
+            terminated = true;
+            cancelAll();
+            clear();
+            downstream.onError(ex);
+            return true;
+        }
+    }
+
+    static final class InnerObserver<R> implements Observer<R>, Disposable {
+        private final MergeObserver<?, R> parent;
+        private final AtomicReference<Disposable> upstream = new AtomicReference<>();
+        /** Создаётся лениво, только при конкуренции за выдачу. */
+        volatile SpscLinkedArrayQueue<R> queue;
+        volatile boolean done;
+
+        InnerObserver(MergeObserver<?, R> parent) { this.parent = parent; }
+
+        /** Вызывается только из потока этого источника. */
+        SpscLinkedArrayQueue<R> queueOrCreate(int bufferSize) {
+            SpscLinkedArrayQueue<R> q = queue;
+            if (q == null) {
+                q = new SpscLinkedArrayQueue<>(bufferSize);
+                queue = q;
+            }
+            return q;
+        }
+
+        @Override public void onSubscribe(Disposable d) { Disposable.setOnce(upstream, d); }
+        @Override public void onNext(R item) { if (!done) parent.innerNext(this, item); }
+
+        @Override
+        public void onError(Throwable t) {
+            if (done) return;
+            done = true;
+            parent.innerError(t);
+        }
+
+        @Override
+        public void onComplete() {
+            if (done) return;
+            done = true;
+            parent.innerComplete();
+        }
 
+        @Override public void dispose() { Disposable.dispose(upstream); }
+        @Override public boolean isDisposed() { return upstream.get() == DISPOSED; }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,125 @@
+package operator;
+
+import core.Observable;
+import core.Observer;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Разбиение потока байтовых кусков на кадры по байту-разделителю
+ * (строки — по '\n'). Кадр внутри одного куска выдаётся срезом этого куска
+ * без копирования и без String; копируется только кадр, пересекающий
+ * границу кусков, — в переиспользуемый буфер.<br>
+ * Кадр действителен только до возврата из onNext: чтобы сохранить,
+ * скопируйте или декодируйте его. Разделитель в кадр не входит,
+ * последний кадр без разделителя выдаётся при завершении.
+ */
+public final class FrameObservable extends Observable<ByteBuffer> {
+
+    private final Observable<ByteBuffer> upstream;
+    private final byte delimiter;
+    /** Отбрасывать '\r' перед разделителем (строки Windows). */
+    private final boolean stripCarriageReturn;
+    private final int maxFrameLength;
+
+    public FrameObservable(Observable<ByteBuffer> upstream, byte delimiter, boolean stripCarriageReturn, int maxFrameLength) {
+        if (maxFrameLength <= 0) throw new IllegalArgumentException("maxFrameLength > 0 required: " + maxFrameLength);
+        this.upstream = upstream;
+        this.delimiter = delimiter;
+        this.stripCarriageReturn = stripCarriageReturn;
+        this.maxFrameLength = maxFrameLength;
+    }
+
+    @Override
+    protected void subscribeActual(Observer<? super ByteBuffer> observer) {
+        upstream.subscribe(new FrameObserver(observer, delimiter, stripCarriageReturn, maxFrameLength));
+    }
+
+    static final class FrameObserver extends BasicObserver<ByteBuffer, ByteBuffer> {
+        private final byte delimiter;
+        private final boolean stripCarriageReturn;
+        private final int maxFrameLength;
+        /** Начало кадра из прошлых кусков; в режиме записи. */
+        private ByteBuffer carry = ByteBuffer.allocate(256);
+
+        FrameObserver(Observer<? super ByteBuffer> downstream, byte delimiter,
+                      boolean stripCarriageReturn, int maxFrameLength) {
+            super(downstream);
+            this.delimiter = delimiter;
+            this.stripCarriageReturn = stripCarriageReturn;
+            this.maxFrameLength = maxFrameLength;
+        }
+
+        @Override
+        public void onNext(ByteBuffer chunk) {
+            if (done) return;
+            int start = chunk.position();
+            int limit = chunk.limit();
+            for (int i = start; i < limit; i++) {
+                if (chunk.get(i) != delimiter) continue;
+                if (carry.position() == 0) {
+                    if (i - start > maxFrameLength) {
+                        frameTooLong();
+                        return;
+                    }
+                    emit(chunk.slice(start, i - start));
+                } else {
+                    if (!append(chunk, start, i)) return;
+                    carry.flip();
+                    emit(carry);
+                    carry.clear();
+                }
+                if (done || isDisposed()) return;
+                start = i + 1;
+            }
+            if (start < limit) append(chunk, start, limit);
+        }
+
+        /** Дописать chunk[from, to) к началу кадра; false — кадр слишком длинный (выдана ошибка). */
+        private boolean append(ByteBuffer chunk, int from, int to) {
+            int len = to - from;
+            int need = carry.position() + len;
+            if (need > maxFrameLength) {
+                frameTooLong();
+                return false;
+            }
+            if (need > carry.capacity()) {
+                ByteBuffer grown = ByteBuffer.allocate(Math.min(maxFrameLength, Math.max(need, carry.capacity() * 2)));
+                carry.flip();
+                grown.put(carry);
+                carry = grown;
+            }
+            carry.put(carry.position(), chunk, from, len);
+            carry.position(need);
+            return true;
+        }
+
+        private void frameTooLong() {
+            dispose();
+            onError(new IllegalStateException("Кадр длиннее " + maxFrameLength + " байт"));
+        }
+
+        private void emit(ByteBuffer frame) {
+            int end = frame.limit();
+            if (stripCarriageReturn && end > frame.position() && frame.get(end - 1) == '\r') frame.limit(end - 1);
+            downstream.onNext(frame);
+        }
+
+        @Override
+        public void onComplete() {
+            if (done) return;
+            if (carry.position() > 0) {
+                carry.flip();
+                emit(carry);
+            }
+            carry = null;
+            super.onComplete();
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            carry = null;
+            super.onError(t);
+        }
+    }
+}
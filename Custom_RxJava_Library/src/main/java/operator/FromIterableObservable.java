@@ -0,0 +1,64 @@
+package operator;
+
+import core.Disposable;
+import core.Observable;
+import core.Observer;
+
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * fromIterable / fromStream: элементы выдаются прямо в цикле tryAdvance
+ * на потоке подписки — без эмиттера create и без выделений на элемент,
+ * с проверкой отмены перед каждым. Ресурс (Stream) закрывается на том же
+ * потоке по окончании цикла: после завершения, ошибки или отмены.
+ */
+public final class FromIterableObservable<T> extends Observable<T> {
+
+    private final Supplier<? extends Spliterator<? extends T>> source;
+    private final AutoCloseable resource;
+
+    public FromIterableObservable(Supplier<? extends Spliterator<? extends T>> source, AutoCloseable resource) {
+        this.source = source;
+        this.resource = resource;
+    }
+
+    @Override
+    protected void subscribeActual(Observer<? super T> observer) {
+        IterableEmitter<T> e = new IterableEmitter<>(observer);
+        observer.onSubscribe(e);
+        try {
+            Spliterator<? extends T> sp = source.get();
+            while (!e.disposed && sp.tryAdvance(e)) { /* выдача в accept */ }
+            if (!e.disposed) observer.onComplete();
+        } catch (Throwable t) {
+            if (!e.disposed) observer.onError(t);
+        } finally {
+            close();
+        }
+    }
+
+    private void close() {
+        if (resource == null) return;
+        try {
+            resource.close();
+        } catch (Throwable t) {
+            Thread current = Thread.currentThread();
+            current.getUncaughtExceptionHandler().uncaughtException(current, t);
+        }
+    }
+
+    static final class IterableEmitter<T> implements Consumer<T>, Disposable {
+        private final Observer<? super T> downstream;
+        volatile boolean disposed;
+
+        IterableEmitter(Observer<? super T> downstream) { this.downstream = downstream; }
+
+        @Override public void accept(T item) { downstream.onNext(Objects.requireNonNull(item, "элемент null")); }
+
+        @Override public void dispose() { disposed = true; }
+        @Override public boolean isDisposed() { return disposed; }
+    }
+}
@@ -0,0 +1,109 @@
+package operator;
+
+import core.Observable;
+import core.Observer;
+
+import java.util.Arrays;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Слитые на этапе сборки подряд идущие map/filter.<br>
+ * Вместо Observer на каждый оператор — одна стадия, которая прогоняет
+ * элемент по массиву шагов в одном цикле.
+ *
+ * @param <R> тип элементов на выходе цепочки
+ */
+public final class FusedObservable<R> extends Observable<R> {
+
+    /** Первая неслиянная стадия (источник цепочки). */
+    private final Observable<?> upstream;
+    /** Шаги по порядку: Function для map, Predicate для filter. */
+    private final Object[] steps;
+    /** filters[i] == true — шаг i является фильтром. */
+    private final boolean[] filters;
+
+    private FusedObservable(Observable<?> upstream, Object[] steps, boolean[] filters) {
+        this.upstream = upstream;
+        this.steps = steps;
+        this.filters = filters;
+    }
+
+    /* ===== Сборка ======================================================= */
+
+    /** map, слитый с предыдущими map/filter, если они есть. */
+    public static <T, R> Observable<R> map(Observable<T> upstream, Function<? super T, ? extends R> mapper) {
+        Observable<R> fused = append(upstream, mapper, false);
+        return fused != null ? fused : new MapObservable<>(upstream, mapper);
+    }
+
+    /** filter, слитый с предыдущими map/filter, если они есть. */
+    public static <T> Observable<T> filter(Observable<T> upstream, Predicate<? super T> predicate) {
+        Observable<T> fused = append(upstream, predicate, true);
+        return fused != null ? fused : new FilterObservable<>(upstream, predicate);
+    }
+
+    /** Новая стадия с добавленным шагом; null — предыдущая стадия не сливается. */
+    private static <R> FusedObservable<R> append(Observable<?> prev, Object step, boolean filter) {
+        if (prev instanceof MapObservable<?, ?> m) {
+            return new FusedObservable<>(m.upstream,
+                    new Object[] { m.mapper, step }, new boolean[] { false, filter });
+        }
+        if (prev instanceof FilterObservable<?> f) {
+            return new FusedObservable<>(f.upstream,
+                    new Object[] { f.predicate, step }, new boolean[] { true, filter });
+        }
+        if (prev instanceof FusedObservable<?> fu) {
+            // Observable переиспользуем и может ветвиться — массивы копируем, а не дописываем
+            int n = fu.steps.length;
+            Object[] steps = Arrays.copyOf(fu.steps, n + 1);
+            boolean[] filters = Arrays.copyOf(fu.filters, n + 1);
+            steps[n] = step;
+            filters[n] = filter;
+            return new FusedObservable<>(fu.upstream, steps, filters);
+        }
+        return null;
+    }
+
+    /** Число слитых шагов (для диагностики). */
+    public int stepCount() { return steps.length; }
+
+    /* ===== Подписка ===================================================== */
+
+    @Override
+    protected void subscribeActual(Observer<? super R> observer) {
+        upstream.subscribe(new FusedObserver<>(observer, steps, filters));
+    }
+
+    static final class FusedObserver<R> extends BasicObserver<Object, R> {
+        private final Object[] steps;
+        private final boolean[] filters;
+
+        FusedObserver(Observer<? super R> downstream, Object[] steps, boolean[] filters) {
+            super(downstream);
+            this.steps = steps;
+            this.filters = filters;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public void onNext(Object item) {
+            if (done) return;
+            Object v = item;
+            try {
+                for (int i = 0; i < steps.length; i++) {
+                    if (filters[i]) {
+                        if (!((Predicate<Object>) steps[i]).test(v)) return;
+                    } else {
+                        v = ((Function<Object, Object>) steps[i]).apply(v);
+                    }
+                }
+            } catch (Throwable t) {
+                dispose();
+                onError(t);
+                return;
+            }
+            downstream.onNext((R) v);
+        }
+    }
+}
@@ -0,0 +1,262 @@
+package operator;
+
+import core.Disposable;
+import core.GroupedObservable;
+import core.Observable;
+import core.Observer;
+import scheduler.Scheduler;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * groupBy: по группе на каждый новый ключ; элементы группы идут по порядку.<br>
+ * Партиционированный режим (scheduler != null): ключ по хешу закрепляется за
+ * одной из partitions партиций, у каждой — свой последовательный
+ * {@link Scheduler.Worker} и SPSC-очередь пар «группа, сигнал». Внутри ключа
+ * порядок сохраняется, ключи разных партиций обрабатываются параллельно —
+ * без потока и блокировки на ключ.<br>
+ * Вытеснение (idleNanos > 0): группа без элементов дольше idleNanos
+ * завершается и забывается, следующий элемент с её ключом открывает новую.
+ * Проверка идёт на потоке источника при поступлении элементов, не чаще раза
+ * в idleNanos / 2, поэтому обходится без гонки с onNext.<br>
+ * Источник отменяется, когда отменены и внешний поток, и все открытые группы.
+ */
+public final class GroupByObservable<T, K> extends Observable<GroupedObservable<K, T>> {
+
+    /** Ключ null в map. */
+    private static final Object NULL_KEY = new Object();
+    /** Сигнал завершения группы в очереди партиции. */
+    private static final Object COMPLETE = new Object();
+    /** Метка в очереди партиции: источник завершён, Worker можно отпустить. */
+    private static final Object FINISH = new Object();
+
+    private final Observable<T> upstream;
+    private final Function<? super T, ? extends K> keyFn;
+    private final int bufferSize;
+    private final long idleNanos;
+    private final Scheduler scheduler;
+    private final int partitions;
+
+    public GroupByObservable(Observable<T> upstream, Function<? super T, ? extends K> keyFn, int bufferSize,
+                             long idleNanos, Scheduler scheduler, int partitions) {
+        if (scheduler != null && partitions <= 0)
+            throw new IllegalArgumentException("partitions > 0 required: " + partitions);
+        this.upstream = upstream;
+        this.keyFn = keyFn;
+        this.bufferSize = bufferSize;
+        this.idleNanos = idleNanos;
+        this.scheduler = scheduler;
+        this.partitions = partitions;
+    }
+
+    @Override
+    protected void subscribeActual(Observer<? super GroupedObservable<K, T>> observer) {
+        Partition[] parts = null;
+        if (scheduler != null) {
+            parts = new Partition[partitions];
+            for (int i = 0; i < partitions; i++) parts[i] = new Partition(scheduler.createWorker(), bufferSize);
+        }
+        upstream.subscribe(new GroupByObserver<>(observer, keyFn, bufferSize, idleNanos, parts));
+    }
+
+    static final class GroupByObserver<T, K> implements Observer<T>, Disposable {
+        private final Observer<? super GroupedObservable<K, T>> downstream;
+        private final Function<? super T, ? extends K> keyFn;
+        private final int bufferSize;
+        private final long idleNanos;
+        private final Partition[] partitions;
+        private final Map<Object, Group<K, T>> groups = new ConcurrentHashMap<>();
+        /** Открытые группы плюс один за внешний поток; ноль — источник больше не нужен. */
+        private final AtomicInteger active = new AtomicInteger(1);
+        private final AtomicBoolean cancelled = new AtomicBoolean();
+        private Disposable upstream;
+        private boolean done;
+        private long nextSweep;
+
+        GroupByObserver(Observer<? super GroupedObservable<K, T>> downstream, Function<? super T, ? extends K> keyFn,
+                        int bufferSize, long idleNanos, Partition[] partitions) {
+            this.downstream = downstream;
+            this.keyFn = keyFn;
+            this.bufferSize = bufferSize;
+            this.idleNanos = idleNanos;
+            this.partitions = partitions;
+            if (idleNanos > 0) nextSweep = System.nanoTime() + idleNanos / 2;
+        }
+
+        @Override
+        public void onSubscribe(Disposable d) {
+            upstream = d;
+            downstream.onSubscribe(this);
+        }
+
+        @Override
+        public void onNext(T item) {
+            if (done) return;
+            K key;
+            try {
+                key = keyFn.apply(item);
+            } catch (Throwable e) {
+                onError(e);
+                return;
+            }
+            Object mapKey = key == null ? NULL_KEY : key;
+            long now = idleNanos > 0 ? System.nanoTime() : 0;
+            Group<K, T> g = groups.get(mapKey);
+            if (g == null) {
+                // после отмены внешнего потока новых групп не открываем
+                if (cancelled.get()) return;
+                g = new Group<>(key, mapKey, this, partitionOf(mapKey));
+                groups.put(mapKey, g);
+                active.incrementAndGet();
+                downstream.onNext(g);
+            }
+            g.lastAccess = now;
+            emit(g, item);
+            if (idleNanos > 0 && now - nextSweep >= 0) sweep(now);
+        }
+
+        /**
+         * Ошибка фатальна для всего оператора: источник отменяется сразу, даже
+         * если группы ещё открыты; Worker партиций отпускаются меткой FINISH,
+         * когда доставят группам ошибку.
+         */
+        @Override
+        public void onError(Throwable t) {
+            if (done) return;
+            done = true;
+            cancelled.set(true);
+            upstream.dispose();
+            ErrorSignal signal = new ErrorSignal(t);
+            for (Group<K, T> g : groups.values()) emit(g, signal);
+            groups.clear();
+            finishPartitions();
+            downstream.onError(t);
+        }
+
+        @Override
+        public void onComplete() {
+            if (done) return;
+            done = true;
+            for (Group<K, T> g : groups.values()) emit(g, COMPLETE);
+            groups.clear();
+            finishPartitions();
+            downstream.onComplete();
+        }
+
+        @Override
+        public void dispose() {
+            if (cancelled.compareAndSet(false, true)) release();
+        }
+
+        @Override public boolean isDisposed() { return cancelled.get(); }
+
+        private Partition partitionOf(Object mapKey) {
+            if (partitions == null) return null;
+            int h = mapKey.hashCode();
+            h ^= h >>> 16;
+            return partitions[(h & 0x7fffffff) % partitions.length];
+        }
+
+        private void emit(Group<K, T> g, Object signal) {
+            if (g.partition == null) g.deliver(signal); else g.partition.offer(g, signal);
+        }
+
+        /** Завершить группы, простоявшие дольше idleNanos. Поток источника. */
+        private void sweep(long now) {
+            nextSweep = now + idleNanos / 2;
+            for (Group<K, T> g : groups.values()) {
+                if (now - g.lastAccess >= idleNanos && groups.remove(g.mapKey, g)) {
+                    emit(g, COMPLETE);
+                    release();
+                }
+            }
+        }
+
+        /** Подписчик группы отписался: группу забываем, элементы её ключа откроют новую. */
+        void cancelGroup(Group<K, T> g) {
+            if (groups.remove(g.mapKey, g)) release();
+        }
+
+        private void release() {
+            if (active.decrementAndGet() == 0) {
+                upstream.dispose();
+                if (partitions != null) for (Partition p : partitions) p.worker.dispose();
+            }
+        }
+
+        private void finishPartitions() {
+            if (partitions != null) for (Partition p : partitions) p.offer(FINISH, null);
+        }
+    }
+
+    static final class Group<K, T> extends GroupedObservable<K, T> {
+        final Object mapKey;
+        final Partition partition;
+        private final UnicastWindow<T> window;
+        /** Время последнего элемента; трогает только поток источника. */
+        long lastAccess;
+
+        Group(K key, Object mapKey, GroupByObserver<T, K> parent, Partition partition) {
+            super(key);
+            this.mapKey = mapKey;
+            this.partition = partition;
+            this.window = new UnicastWindow<>(parent.bufferSize, () -> parent.cancelGroup(this));
+        }
+
+        @Override
+        protected void subscribeActual(Observer<? super T> observer) { window.subscribe(observer); }
+
+        @SuppressWarnings("unchecked")
+        void deliver(Object signal) {
+            if (signal == COMPLETE) window.onComplete();
+            else if (signal instanceof ErrorSignal e) window.onError(e.error);
+            else window.onNext((T) signal);
+        }
+    }
+
+    /**
+     * Партиция: сигналы её групп по очереди на одном последовательном Worker.
+     * Пишет только поток источника; одна задача Worker на пачку сигналов.
+     */
+    static final class Partition extends AtomicInteger implements Runnable {
+        final Scheduler.Worker worker;
+        private final SpscLinkedArrayQueue<Object> queue;
+
+        Partition(Scheduler.Worker worker, int bufferSize) {
+            this.worker = worker;
+            this.queue = new SpscLinkedArrayQueue<>(bufferSize);
+        }
+
+        void offer(Object group, Object signal) {
+            queue.offer(group);
+            queue.offer(signal == null ? FINISH : signal);
+            if (getAndIncrement() == 0) worker.schedule(this);
+        }
+
+        @Override
+        public void run() {
+            int missed = 1;
+            for (;;) {
+                Object g;
+                while ((g = queue.poll()) != null) {
+                    Object signal;
+                    // пара пишется подряд, вторая половина появится сразу за первой
+                    while ((signal = queue.poll()) == null) Thread.onSpinWait();
+                    if (g == FINISH) {
+                        worker.dispose();
+                        return;
+                    }
+                    ((Group<?, ?>) g).deliver(signal);
+                }
+                missed = addAndGet(-missed);
+                if (missed == 0) break;
+            }
+        }
+    }
+
+    private record ErrorSignal(Throwable error) { }
+}
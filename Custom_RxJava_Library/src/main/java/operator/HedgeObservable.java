@@ -0,0 +1,169 @@
+package operator;
+
+import core.Disposable;
+import core.Observable;
+import core.Observer;
+import scheduler.Scheduler;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * hedge: если источник за delay ничего не выдал, подписаться на него ещё раз
+ * параллельно, и так до maxAttempts одновременных попыток. Побеждает попытка,
+ * первой выдавшая элемент или завершение: дальше идут только её сигналы,
+ * остальные попытки и ожидающий таймер отменяются.<br>
+ * Ошибка проигравшей попытки не завершает поток: сразу запускается
+ * следующая, а если запускать больше нечего и все попытки упали — поток
+ * завершается первой ошибкой, остальные добавлены как suppressed.<br>
+ * Дополнительные попытки подписываются задачей планировщика, поэтому
+ * блокирующая подписка первой попытки им не мешает.
+ */
+public final class HedgeObservable<T> extends Observable<T> {
+
+    private final Observable<T> upstream;
+    private final long delay;
+    private final TimeUnit unit;
+    private final int maxAttempts;
+    private final Scheduler scheduler;
+
+    public HedgeObservable(Observable<T> upstream, long delay, TimeUnit unit, int maxAttempts, Scheduler scheduler) {
+        if (delay < 0) throw new IllegalArgumentException("delay >= 0 required: " + delay);
+        if (maxAttempts <= 0) throw new IllegalArgumentException("maxAttempts > 0 required: " + maxAttempts);
+        this.upstream = upstream;
+        this.delay = delay;
+        this.unit = unit;
+        this.maxAttempts = maxAttempts;
+        this.scheduler = scheduler;
+    }
+
+    @Override
+    protected void subscribeActual(Observer<? super T> observer) {
+        HedgeCoordinator<T> parent = new HedgeCoordinator<>(observer, upstream, delay, unit, maxAttempts, scheduler);
+        observer.onSubscribe(parent);
+        parent.launch();
+    }
+
+    static final class HedgeCoordinator<T> implements Disposable {
+        private final Observer<? super T> downstream;
+        private final Observable<T> source;
+        private final long delay;
+        private final TimeUnit unit;
+        private final Scheduler scheduler;
+        private final AtomicReference<Disposable> timer = new AtomicReference<>();
+        /** Попытка, чьи сигналы идут вниз; читается на каждый элемент без блокировки. */
+        private volatile Attempt<T> winner;
+        private volatile boolean disposed;
+        /* всё ниже — под блокировкой this */
+        private final Attempt<?>[] attempts;
+        private int launched;
+        private int failed;
+        private Throwable error;
+
+        HedgeCoordinator(Observer<? super T> downstream, Observable<T> source, long delay, TimeUnit unit,
+                         int maxAttempts, Scheduler scheduler) {
+            this.downstream = downstream;
+            this.source = source;
+            this.delay = delay;
+            this.unit = unit;
+            this.scheduler = scheduler;
+            this.attempts = new Attempt<?>[maxAttempts];
+        }
+
+        /** Запустить следующую попытку и завести таймер для той, что за ней. */
+        void launch() {
+            Attempt<T> a;
+            boolean more;
+            synchronized (this) {
+                if (disposed || winner != null || launched == attempts.length) return;
+                a = new Attempt<>(this);
+                attempts[launched++] = a;
+                more = launched < attempts.length;
+            }
+            // таймер до подписки: подписка может блокировать поток
+            if (more) Disposable.replace(timer, scheduler.schedule(this::launch, delay, unit));
+            source.subscribe(a);
+        }
+
+        /** @return true — a победитель и может выдавать сигналы вниз */
+        boolean tryWin(Attempt<T> a) {
+            Attempt<?>[] losers;
+            int n;
+            synchronized (this) {
+                if (winner != null || disposed) return winner == a;
+                winner = a;
+                losers = attempts;
+                n = launched;
+            }
+            Disposable.dispose(timer);
+            for (int i = 0; i < n; i++) if (losers[i] != a) losers[i].dispose();
+            return true;
+        }
+
+        void attemptFailed(Attempt<T> a, Throwable t) {
+            boolean next;
+            Throwable terminal = null;
+            synchronized (this) {
+                if (winner != null || disposed) return;
+                if (error == null) error = t; else error.addSuppressed(t);
+                failed++;
+                next = launched < attempts.length;
+                if (!next && failed == launched) {
+                    winner = a;
+                    terminal = error;
+                }
+            }
+            if (next) {
+                Disposable t0 = timer.get();
+                if (t0 != null) t0.dispose();
+                launch();
+            } else if (terminal != null) {
+                downstream.onError(terminal);
+            }
+        }
+
+        @Override
+        public void dispose() {
+            Attempt<?>[] all;
+            int n;
+            synchronized (this) {
+                if (disposed) return;
+                disposed = true;
+                all = attempts;
+                n = launched;
+            }
+            Disposable.dispose(timer);
+            for (int i = 0; i < n; i++) all[i].dispose();
+        }
+
+        @Override public boolean isDisposed() { return disposed; }
+    }
+
+    static final class Attempt<T> implements Observer<T>, Disposable {
+        private final HedgeCoordinator<T> parent;
+        private final AtomicReference<Disposable> upstream = new AtomicReference<>();
+
+        Attempt(HedgeCoordinator<T> parent) { this.parent = parent; }
+
+        @Override public void onSubscribe(Disposable d) { Disposable.setOnce(upstream, d); }
+
+        @Override
+        public void onNext(T item) {
+            if (parent.winner == this || parent.tryWin(this)) parent.downstream.onNext(item);
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            if (parent.winner == this) parent.downstream.onError(t);
+            else parent.attemptFailed(this, t);
+        }
+
+        @Override
+        public void onComplete() {
+            if (parent.winner == this || parent.tryWin(this)) parent.downstream.onComplete();
+        }
+
+        @Override public void dispose() { Disposable.dispose(upstream); }
+        @Override public boolean isDisposed() { return upstream.get() == DISPOSED; }
+    }
+}
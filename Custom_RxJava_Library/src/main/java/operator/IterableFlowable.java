@@ -0,0 +1,87 @@
+package operator;
+
+import core.Flowable;
+import core.Subscriber;
+import core.Subscription;
+
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+
+/** Источник из Iterable: следующий элемент берётся только при наличии спроса. */
+public final class IterableFlowable<T> extends Flowable<T> {
+
+    private final Iterable<? extends T> source;
+
+    public IterableFlowable(Iterable<? extends T> source) {
+        this.source = Objects.requireNonNull(source, "source");
+    }
+
+    @Override
+    protected void subscribeActual(Subscriber<? super T> subscriber) {
+        Iterator<? extends T> it = source.iterator();
+        if (!it.hasNext()) {
+            subscriber.onSubscribe(BackpressureHelper.CANCELLED);
+            subscriber.onComplete();
+            return;
+        }
+        subscriber.onSubscribe(new IteratorSubscription<>(subscriber, it));
+    }
+
+    /** Значение AtomicLong — ещё не выданный спрос. */
+    static final class IteratorSubscription<T> extends AtomicLong implements Subscription {
+        private final Subscriber<? super T> downstream;
+        private final Iterator<? extends T> it;
+        private volatile boolean cancelled;
+
+        IteratorSubscription(Subscriber<? super T> downstream, Iterator<? extends T> it) {
+            this.downstream = downstream;
+            this.it = it;
+        }
+
+        @Override
+        public void request(long n) {
+            BackpressureHelper.validate(n);
+            // выдачу ведёт тот, кто перевёл спрос из 0; повторные запросы лишь добавляют
+            if (BackpressureHelper.add(this, n) == 0) emit(n);
+        }
+
+        @Override public void cancel() { cancelled = true; }
+
+        private void emit(long r) {
+            long e = 0;
+            for (;;) {
+                while (e != r) {
+                    if (cancelled) return;
+                    T v;
+                    boolean hasNext;
+                    try {
+                        v = Objects.requireNonNull(it.next(), "Iterable вернул null");
+                    } catch (Throwable t) {
+                        downstream.onError(t);
+                        return;
+                    }
+                    downstream.onNext(v);
+                    if (cancelled) return;
+                    try {
+                        hasNext = it.hasNext();
+                    } catch (Throwable t) {
+                        downstream.onError(t);
+                        return;
+                    }
+                    if (!hasNext) {
+                        downstream.onComplete();
+                        return;
+                    }
+                    e++;
+                }
+                r = get();
+                if (e == r) {
+                    r = addAndGet(-e);
+                    if (r == 0) return;
+                    e = 0;
+                }
+            }
+        }
+    }
+}
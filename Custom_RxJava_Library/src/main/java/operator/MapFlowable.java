@@ -0,0 +1,55 @@
+package operator;
+
+import core.Flowable;
+import core.Subscriber;
+import core.Subscription;
+
+import java.util.function.Function;
+
+public final class MapFlowable<T, R> extends Flowable<R> {
+
+    private final Flowable<T> upstream;
+    private final Function<? super T, ? extends R> mapper;
+
+    public MapFlowable(Flowable<T> upstream, Function<? super T, ? extends R> mapper) {
+        this.upstream = upstream;
+        this.mapper = mapper;
+    }
+
+    @Override
+    protected void subscribeActual(Subscriber<? super R> subscriber) {
+        upstream.subscribe(new MapSubscriber<>(subscriber, mapper));
+    }
+
+    /** Спрос проходит вверх без изменений: один элемент на входе — один на выходе. */
+    static final class MapSubscriber<T, R> implements Subscriber<T> {
+        private final Subscriber<? super R> downstream;
+        private final Function<? super T, ? extends R> mapper;
+        private Subscription upstream;
+        private boolean done;
+
+        MapSubscriber(Subscriber<? super R> downstream, Function<? super T, ? extends R> mapper) {
+            this.downstream = downstream;
+            this.mapper = mapper;
+        }
+
+        @Override public void onSubscribe(Subscription s) { upstream = s; downstream.onSubscribe(s); }
+
+        @Override
+        public void onNext(T item) {
+            if (done) return;
+            R v;
+            try {
+                v = mapper.apply(item);
+            } catch (Throwable t) {
+                upstream.cancel();
+                onError(t);
+                return;
+            }
+            downstream.onNext(v);
+        }
+
+        @Override public void onError(Throwable t) { if (!done) { done = true; downstream.onError(t); } }
+        @Override public void onComplete() { if (!done) { done = true; downstream.onComplete(); } }
+    }
+}
@@ -1,6 +1,5 @@
 package operator;
 
-import core.Disposable;
 import core.Observable;
 import core.Observer;
 
@@ -8,17 +7,39 @@ import java.util.function.Function;
 
 public final class MapObservable<T, R> extends Observable<R> {
 
+    final Observable<T> upstream;
+    final Function<? super T, ? extends R> mapper;
+
     public MapObservable(Observable<T> upstream, Function<? super T, ? extends R> mapper) {
-        super(observer -> upstream.subscribe(new Observer<T>() {
-            @Override public void onSubscribe(Disposable d) { observer.onSubscribe(d); }
-            @Override public void onNext(T item) { observer.onNext(mapper.apply(item)); }
-            @Override public void onError(Throwable t) { observer.onError(t); }
-            @Override public void onComplete() { observer.onComplete(); }
-        }));
+        this.upstream = upstream;
+        this.mapper = mapper;
     }
 
     @Override
-    protected void subscribeActual(Observer<? super R> observer) throws Exception {
+    protected void subscribeActual(Observer<? super R> observer) {
+        upstream.subscribe(new MapObserver<>(observer, mapper));
+    }
+
+    static final class MapObserver<T, R> extends BasicObserver<T, R> {
+        private final Function<? super T, ? extends R> mapper;
+
+        MapObserver(Observer<? super R> downstream, Function<? super T, ? extends R> mapper) {
+            super(downstream);
+            this.mapper = mapper;
+        }
 
+        @Override
+        public void onNext(T item) {
+            if (done) return;
+            R v;
+            try {
+                v = mapper.apply(item);
+            } catch (Throwable t) {
+                dispose();
+                onError(t);
+                return;
+            }
+            downstream.onNext(v);
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,90 @@
+package operator;
+
+import core.Disposable;
+import core.Observable;
+import core.Observer;
+import scheduler.Scheduler;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Файл кусками, отображёнными в память (mmap): элементы — только для чтения
+ * MappedByteBuffer по chunkSize байт. Данные не копируются в кучу, чтение
+ * идёт со скоростью страничного кэша.<br>
+ * Каждая подписка открывает файл заново и читает его задачей планировщика;
+ * отмена проверяется перед каждым куском и закрывает файл.
+ * Размер файла берётся при подписке.
+ */
+public final class MappedFileObservable extends Observable<ByteBuffer> {
+
+    private final Path path;
+    private final int chunkSize;
+    private final Scheduler scheduler;
+
+    public MappedFileObservable(Path path, int chunkSize, Scheduler scheduler) {
+        if (chunkSize <= 0) throw new IllegalArgumentException("chunkSize > 0 required: " + chunkSize);
+        this.path = path;
+        this.chunkSize = chunkSize;
+        this.scheduler = scheduler;
+    }
+
+    @Override
+    protected void subscribeActual(Observer<? super ByteBuffer> observer) {
+        ReadTask task = new ReadTask(observer, path, chunkSize);
+        observer.onSubscribe(task);
+        scheduler.execute(task);
+    }
+
+    static final class ReadTask implements Runnable, Disposable {
+        private final Observer<? super ByteBuffer> downstream;
+        private final Path path;
+        private final int chunkSize;
+        private volatile FileChannel channel;
+        private volatile boolean disposed;
+
+        ReadTask(Observer<? super ByteBuffer> downstream, Path path, int chunkSize) {
+            this.downstream = downstream;
+            this.path = path;
+            this.chunkSize = chunkSize;
+        }
+
+        @Override
+        public void run() {
+            if (disposed) return;
+            try (FileChannel ch = FileChannel.open(path, StandardOpenOption.READ)) {
+                channel = ch;
+                long size = ch.size();
+                for (long pos = 0; pos < size; pos += chunkSize) {
+                    if (disposed) return;
+                    long len = Math.min(chunkSize, size - pos);
+                    downstream.onNext(ch.map(FileChannel.MapMode.READ_ONLY, pos, len));
+                }
+            } catch (Throwable t) {
+                // закрытие файла отменой — не ошибка
+                if (!disposed) downstream.onError(t);
+                return;
+            }
+            if (!disposed) downstream.onComplete();
+        }
+
+        @Override
+        public void dispose() {
+            if (disposed) return;
+            disposed = true;
+            FileChannel ch = channel;
+            if (ch != null) {
+                try {
+                    ch.close();
+                } catch (IOException ignored) {
+                    // уже не важно: подписка отменена
+                }
+            }
+        }
+
+        @Override public boolean isDisposed() { return disposed; }
+    }
+}
@@ -0,0 +1,168 @@
+package operator;
+
+import core.Disposable;
+import core.Observable;
+import core.Observer;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * merge: элементы всех источников по мере поступления; порядок сохраняется
+ * внутри источника. Завершается после всех источников, ошибка любого
+ * завершает поток сразу.<br>
+ * Без конкуренции элемент идёт вниз напрямую; если выдачу ведёт другой
+ * поток, элемент ждёт в кольце своего источника ({@link RingInner}), и цикл
+ * выдачи забирает кольца по кругу.
+ */
+public final class MergeObservable<T> extends Observable<T> {
+
+    private final Observable<? extends T>[] sources;
+    private final int bufferSize;
+
+    public MergeObservable(Observable<? extends T>[] sources, int bufferSize) {
+        if (bufferSize <= 0) throw new IllegalArgumentException("bufferSize > 0 required: " + bufferSize);
+        this.sources = sources;
+        this.bufferSize = bufferSize;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    protected void subscribeActual(Observer<? super T> observer) {
+        MergeCoordinator<T> parent = new MergeCoordinator<>(observer, sources.length, bufferSize);
+        observer.onSubscribe(parent);
+        for (int i = 0; i < sources.length && !parent.isDisposed(); i++) {
+            ((Observable<T>) sources[i]).subscribe(parent.inners[i]);
+        }
+        // пустой список источников: завершиться сразу
+        if (sources.length == 0) parent.drain();
+    }
+
+    /** Значение AtomicInteger — счётчик незавершённой работы (wip). */
+    static final class MergeCoordinator<T> extends AtomicInteger implements Disposable, RingInner.Parent {
+        private final Observer<? super T> downstream;
+        final RingInner<T>[] inners;
+        private final AtomicReference<Throwable> error = new AtomicReference<>();
+        private volatile boolean disposed;
+        private Thread drainer;
+
+        @SuppressWarnings("unchecked")
+        MergeCoordinator(Observer<? super T> downstream, int n, int bufferSize) {
+            this.downstream = downstream;
+            this.inners = (RingInner<T>[]) new RingInner<?>[n];
+            for (int i = 0; i < n; i++) inners[i] = new RingInner<>(this, bufferSize);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public boolean tryEmit(RingInner<?> inner, Object item) {
+            if (get() != 0 || !compareAndSet(0, 1)) return false;
+            drainer = Thread.currentThread();
+            // в кольце есть более ранние элементы — им и идти первыми
+            if (!inner.queue.isEmpty() || disposed) {
+                drainLoop();
+                return false;
+            }
+            downstream.onNext((T) item);
+            if (release(1) != 0) drainLoop();
+            return true;
+        }
+
+        @Override public boolean isDrainThread() { return drainer == Thread.currentThread(); }
+
+        @Override
+        public void innerError(Throwable t) {
+            error.compareAndSet(null, t);
+            drain();
+        }
+
+        @Override
+        public void drain() {
+            if (getAndIncrement() != 0) return;
+            drainer = Thread.currentThread();
+            drainLoop();
+        }
+
+        private void drainLoop() {
+            int missed = 1;
+            for (;;) {
+                if (disposed) {
+                    clear();
+                    return;
+                }
+                int finished = 0;
+                for (RingInner<T> inner : inners) {
+                    boolean d = inner.done;
+                    // не больше кольца за проход: быстрый источник не задерживает остальные
+                    int budget = inner.queue.capacity();
+                    int polled = 0;
+                    T v;
+                    while (polled < budget && (v = inner.queue.poll()) != null) {
+                        if (disposed) {
+                            clear();
+                            return;
+                        }
+                        if (checkError()) return;
+                        polled++;
+                        downstream.onNext(v);
+                    }
+                    if (polled > 0) inner.wake();
+                    if (d && inner.queue.isEmpty()) finished++;
+                }
+                if (checkError()) return;
+                if (finished == inners.length) {
+                    terminate();
+                    downstream.onComplete();
+                    return;
+                }
+                if (hasQueued()) continue;
+                missed = release(missed);
+                if (missed == 0) break;
+            }
+        }
+
+        /**
+         * Снять missed с wip. Владелец цикла сбрасывается до освобождения:
+         * после него цикл может уже забрать другой поток.
+         */
+        private int release(int missed) {
+            drainer = null;
+            int m = addAndGet(-missed);
+            if (m != 0) drainer = Thread.currentThread();
+            return m;
+        }
+
+        private boolean hasQueued() {
+            for (RingInner<T> inner : inners) if (!inner.queue.isEmpty()) return true;
+            return false;
+        }
+
+        private boolean checkError() {
+            Throwable ex = error.get();
+            if (ex == null) return false;
+            terminate();
+            downstream.onError(ex);
+            return true;
+        }
+
+        private void terminate() {
+            disposed = true;
+            for (RingInner<T> inner : inners) inner.dispose();
+            clear();
+        }
+
+        private void clear() {
+            for (RingInner<T> inner : inners) inner.queue.clear();
+        }
+
+        @Override
+        public void dispose() {
+            if (disposed) return;
+            disposed = true;
+            for (RingInner<T> inner : inners) inner.dispose();
+            if (getAndIncrement() == 0) clear();
+        }
+
+        @Override public boolean isDisposed() { return disposed; }
+    }
+}
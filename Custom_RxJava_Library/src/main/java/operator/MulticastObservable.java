@@ -0,0 +1,95 @@
+package operator;
+
+import core.ConnectableObservable;
+import core.Disposable;
+import core.Observable;
+import core.Observer;
+import subject.Subject;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * publish()/replay(): подписчики подписываются на субъект текущего подключения,
+ * connect() подписывает на источник сам субъект.<br>
+ * Завершившееся подключение остаётся текущим: поздний подписчик publish()
+ * сразу получает терминальный сигнал, а replay() — историю и его.
+ * Новый субъект создаёт connect() после завершения или разрыв подключения.
+ */
+public final class MulticastObservable<T> extends ConnectableObservable<T> {
+
+    private final Observable<T> upstream;
+    private final Supplier<? extends Subject<T>> subjectFactory;
+    private final AtomicReference<Connection<T>> current = new AtomicReference<>();
+
+    public MulticastObservable(Observable<T> upstream, Supplier<? extends Subject<T>> subjectFactory) {
+        this.upstream = upstream;
+        this.subjectFactory = subjectFactory;
+    }
+
+    /** Disposable подписчику передаёт субъект подключения. */
+    @Override
+    protected void subscribeActual(Observer<? super T> observer) {
+        connection(false).subject.subscribe(observer);
+    }
+
+    @Override
+    public Disposable connect() {
+        Connection<T> c = connection(true);
+        if (c.connected.compareAndSet(false, true)) upstream.subscribe(c);
+        return c;
+    }
+
+    /** Текущее подключение или новое, если прошлое разорвано (а для connect — и завершено). */
+    private Connection<T> connection(boolean forConnect) {
+        for (;;) {
+            Connection<T> c = current.get();
+            if (c != null && !c.isDisposed() && !(forConnect && c.terminated)) return c;
+            Connection<T> fresh = new Connection<>(subjectFactory.get(), this);
+            if (current.compareAndSet(c, fresh)) return fresh;
+        }
+    }
+
+    /** Подписчик источника, пересылающий сигналы в субъект подключения. */
+    static final class Connection<T> implements Observer<T>, Disposable {
+        final Subject<T> subject;
+        private final MulticastObservable<T> parent;
+        final AtomicBoolean connected = new AtomicBoolean();
+        private final AtomicReference<Disposable> upstream = new AtomicReference<>();
+        volatile boolean terminated;
+        private volatile boolean disposed;
+
+        Connection(Subject<T> subject, MulticastObservable<T> parent) {
+            this.subject = subject;
+            this.parent = parent;
+        }
+
+        @Override public void onSubscribe(Disposable d) { Disposable.setOnce(upstream, d); }
+        @Override public void onNext(T item) { if (!disposed) subject.onNext(item); }
+
+        @Override
+        public void onError(Throwable t) {
+            if (disposed) return;
+            terminated = true;
+            subject.onError(t);
+        }
+
+        @Override
+        public void onComplete() {
+            if (disposed) return;
+            terminated = true;
+            subject.onComplete();
+        }
+
+        @Override
+        public void dispose() {
+            if (disposed) return;
+            disposed = true;
+            parent.current.compareAndSet(this, null);
+            Disposable.dispose(upstream);
+        }
+
+        @Override public boolean isDisposed() { return disposed; }
+    }
+}
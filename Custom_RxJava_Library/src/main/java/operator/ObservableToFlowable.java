@@ -0,0 +1,226 @@
+package operator;
+
+import core.BackpressureStrategy;
+import core.Disposable;
+import core.Flowable;
+import core.MissingBackpressureException;
+import core.Observable;
+import core.Observer;
+import core.Subscriber;
+import core.Subscription;
+
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Мост Observable → Flowable. Observable не умеет ждать спроса,
+ * поэтому излишки обрабатываются выбранной {@link BackpressureStrategy}.
+ */
+public final class ObservableToFlowable<T> extends Flowable<T> {
+
+    private final Observable<T> upstream;
+    private final BackpressureStrategy strategy;
+
+    public ObservableToFlowable(Observable<T> upstream, BackpressureStrategy strategy) {
+        this.upstream = upstream;
+        this.strategy = Objects.requireNonNull(strategy, "strategy");
+    }
+
+    @Override
+    protected void subscribeActual(Subscriber<? super T> subscriber) {
+        BaseEmitter<T> emitter = switch (strategy) {
+            case BUFFER -> new BufferEmitter<>(subscriber);
+            case LATEST -> new LatestEmitter<>(subscriber);
+            case DROP   -> new DropEmitter<>(subscriber);
+            case ERROR  -> new ErrorEmitter<>(subscriber);
+        };
+        subscriber.onSubscribe(emitter);
+        upstream.subscribe(emitter);
+    }
+
+    /* ===== Эмиттеры ===================================================== */
+
+    abstract static class BaseEmitter<T> implements Observer<T>, Subscription {
+        final Subscriber<? super T> downstream;
+        final AtomicLong requested = new AtomicLong();
+        volatile Disposable disposable;
+        volatile boolean cancelled;
+
+        BaseEmitter(Subscriber<? super T> downstream) { this.downstream = downstream; }
+
+        @Override
+        public void onSubscribe(Disposable d) {
+            disposable = d;
+            if (cancelled) d.dispose();
+        }
+
+        @Override
+        public void request(long n) {
+            BackpressureHelper.validate(n);
+            BackpressureHelper.add(requested, n);
+            onRequested();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            Disposable d = disposable;
+            if (d != null) d.dispose();
+            onRequested();
+        }
+
+        /** Появился спрос или отмена — шанс выдать накопленное. */
+        void onRequested() { }
+    }
+
+    /** DROP и ERROR: выдаём сразу в потоке источника, если спрос есть. */
+    abstract static class NoOverflowEmitter<T> extends BaseEmitter<T> {
+        boolean done;
+
+        NoOverflowEmitter(Subscriber<? super T> downstream) { super(downstream); }
+
+        @Override
+        public void onNext(T item) {
+            if (done || cancelled) return;
+            if (requested.get() != 0) {
+                downstream.onNext(item);
+                BackpressureHelper.produced(requested, 1);
+            } else {
+                onOverflow();
+            }
+        }
+
+        abstract void onOverflow();
+
+        @Override public void onError(Throwable t) { if (!done && !cancelled) { done = true; downstream.onError(t); } }
+        @Override public void onComplete() { if (!done && !cancelled) { done = true; downstream.onComplete(); } }
+    }
+
+    static final class DropEmitter<T> extends NoOverflowEmitter<T> {
+        DropEmitter(Subscriber<? super T> downstream) { super(downstream); }
+
+        @Override void onOverflow() { /* элемент без спроса отбрасываем */ }
+    }
+
+    static final class ErrorEmitter<T> extends NoOverflowEmitter<T> {
+        ErrorEmitter(Subscriber<? super T> downstream) { super(downstream); }
+
+        @Override
+        void onOverflow() {
+            cancel();
+            done = true;
+            downstream.onError(new MissingBackpressureException("Нет спроса на элемент (стратегия ERROR)"));
+        }
+    }
+
+    /**
+     * BUFFER и LATEST: элементы копятся, выдача идёт из цикла, который
+     * может запустить как источник (onNext), так и подписчик (request).
+     */
+    abstract static class DrainEmitter<T> extends BaseEmitter<T> {
+        private final AtomicInteger wip = new AtomicInteger();
+        private Throwable error;
+        private volatile boolean done;
+
+        DrainEmitter(Subscriber<? super T> downstream) { super(downstream); }
+
+        abstract void offer(T item);
+        abstract T poll();
+        abstract boolean isEmpty();
+        abstract void clear();
+
+        @Override
+        public void onNext(T item) {
+            if (done || cancelled) return;
+            offer(item);
+            drain();
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            if (done || cancelled) return;
+            error = t;
+            done = true;
+            drain();
+        }
+
+        @Override
+        public void onComplete() {
+            if (done || cancelled) return;
+            done = true;
+            drain();
+        }
+
+        @Override void onRequested() { drain(); }
+
+        private void drain() {
+            if (wip.getAndIncrement() != 0) return;
+            int missed = 1;
+            for (;;) {
+                long r = requested.get();
+                long e = 0;
+                while (e != r) {
+                    if (cancelled) {
+                        clear();
+                        return;
+                    }
+                    boolean d = done;
+                    T v = poll();
+                    boolean empty = v == null;
+                    if (d && empty) {
+                        terminate();
+                        return;
+                    }
+                    if (empty) break;
+                    downstream.onNext(v);
+                    e++;
+                }
+                if (e == r) {
+                    if (cancelled) {
+                        clear();
+                        return;
+                    }
+                    if (done && isEmpty()) {
+                        terminate();
+                        return;
+                    }
+                }
+                if (e != 0) BackpressureHelper.produced(requested, e);
+                missed = wip.addAndGet(-missed);
+                if (missed == 0) break;
+            }
+        }
+
+        private void terminate() {
+            Throwable ex = error;
+            if (ex != null) downstream.onError(ex);
+            else downstream.onComplete();
+        }
+    }
+
+    static final class BufferEmitter<T> extends DrainEmitter<T> {
+        private final Queue<T> queue = new ConcurrentLinkedQueue<>();
+
+        BufferEmitter(Subscriber<? super T> downstream) { super(downstream); }
+
+        @Override void offer(T item) { queue.offer(item); }
+        @Override T poll() { return queue.poll(); }
+        @Override boolean isEmpty() { return queue.isEmpty(); }
+        @Override void clear() { queue.clear(); }
+    }
+
+    static final class LatestEmitter<T> extends DrainEmitter<T> {
+        private final AtomicReference<T> latest = new AtomicReference<>();
+
+        LatestEmitter(Subscriber<? super T> downstream) { super(downstream); }
+
+        @Override void offer(T item) { latest.set(item); }
+        @Override T poll() { return latest.getAndSet(null); }
+        @Override boolean isEmpty() { return latest.get() == null; }
+        @Override void clear() { latest.set(null); }
+    }
+}
@@ -0,0 +1,167 @@
+package operator;
+
+import core.Flowable;
+import core.MissingBackpressureException;
+import core.Subscriber;
+import core.Subscription;
+import scheduler.Scheduler;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Перенос сигналов на планировщик через очередь на prefetch элементов.
+ * Вверх запрашивается ровно столько, сколько помещается в очередь,
+ * поэтому быстрый источник не может переполнить память.
+ */
+public final class ObserveOnFlowable<T> extends Flowable<T> {
+
+    private final Flowable<T> upstream;
+    private final Scheduler scheduler;
+    private final int prefetch;
+
+    public ObserveOnFlowable(Flowable<T> upstream, Scheduler scheduler, int prefetch) {
+        if (prefetch <= 0) throw new IllegalArgumentException("prefetch > 0 required: " + prefetch);
+        this.upstream = upstream;
+        this.scheduler = scheduler;
+        this.prefetch = prefetch;
+    }
+
+    @Override
+    protected void subscribeActual(Subscriber<? super T> subscriber) {
+        upstream.subscribe(new ObserveOnSubscriber<>(subscriber, scheduler, prefetch));
+    }
+
+    /** Значение AtomicInteger — счётчик незавершённой работы (wip) цикла выдачи. */
+    static final class ObserveOnSubscriber<T> extends AtomicInteger
+            implements Subscriber<T>, Subscription, Runnable {
+        private final Subscriber<? super T> downstream;
+        private final Scheduler scheduler;
+        private final int prefetch;
+        /** После стольких выданных элементов дозапрашиваем вверх. */
+        private final int limit;
+        private final SpscArrayQueue<T> queue;
+        private final AtomicLong requested = new AtomicLong();
+
+        private Subscription upstream;
+        private Throwable error;
+        private volatile boolean done;
+        private volatile boolean cancelled;
+        /** Выдано с момента последнего дозапроса; трогает только цикл выдачи. */
+        private long consumed;
+
+        ObserveOnSubscriber(Subscriber<? super T> downstream, Scheduler scheduler, int prefetch) {
+            this.downstream = downstream;
+            this.scheduler = scheduler;
+            this.prefetch = prefetch;
+            this.limit = prefetch - (prefetch >> 2);
+            this.queue = new SpscArrayQueue<>(prefetch);
+        }
+
+        @Override
+        public void onSubscribe(Subscription s) {
+            upstream = s;
+            downstream.onSubscribe(this);
+            s.request(prefetch);
+        }
+
+        @Override
+        public void onNext(T item) {
+            if (done) return;
+            if (!queue.offer(item)) {
+                upstream.cancel();
+                error = new MissingBackpressureException("Источник выдал больше, чем запрошено observeOn");
+                done = true;
+            }
+            schedule();
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            if (done) return;
+            error = t;
+            done = true;
+            schedule();
+        }
+
+        @Override
+        public void onComplete() {
+            if (done) return;
+            done = true;
+            schedule();
+        }
+
+        @Override
+        public void request(long n) {
+            BackpressureHelper.validate(n);
+            BackpressureHelper.add(requested, n);
+            schedule();
+        }
+
+        @Override
+        public void cancel() {
+            if (cancelled) return;
+            cancelled = true;
+            upstream.cancel();
+            if (getAndIncrement() == 0) queue.clear();
+        }
+
+        /** Одна задача на пачку сигналов: планируем, только если цикл не запущен. */
+        private void schedule() {
+            if (getAndIncrement() == 0) scheduler.execute(this);
+        }
+
+        @Override
+        public void run() {
+            int missed = 1;
+            long e = consumed;
+            for (;;) {
+                long r = requested.get();
+                while (e != r) {
+                    boolean d = done;
+                    T v = queue.poll();
+                    boolean empty = v == null;
+                    if (checkTerminated(d, empty)) return;
+                    if (empty) break;
+                    downstream.onNext(v);
+                    e++;
+                    if (e == limit) {
+                        if (r != Long.MAX_VALUE) r = requested.addAndGet(-e);
+                        upstream.request(e);
+                        e = 0;
+                    }
+                }
+                if (e == r && checkTerminated(done, queue.isEmpty())) return;
+
+                int w = get();
+                if (missed == w) {
+                    consumed = e;
+                    missed = addAndGet(-missed);
+                    if (missed == 0) break;
+                } else {
+                    missed = w;
+                }
+            }
+        }
+
+        private boolean checkTerminated(boolean d, boolean empty) {
+            if (cancelled) {
+                queue.clear();
+                return true;
+            }
+            if (d) {
+                Throwable ex = error;
+                if (ex != null) {
+                    queue.clear();
+                    downstream.onError(ex);
+                    return true;
+                }
+                if (empty) {
+                    downstream.onComplete();
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package operator;
+
+import core.Disposable;
+import core.Observable;
+import core.Observer;
+import core.RxPlugins;
+import metrics.PipelineProfiler;
+import metrics.StageMetrics;
+import scheduler.Scheduler;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * observeOn через очередь и цикл выдачи.<br>
+ * Сигналы складываются в SPSC-очередь, а на планировщик уходит не больше
+ * одной задачи на пачку: её запускает тот, кто перевёл счётчик wip из 0.
+ * Выдача идёт строго последовательно и по порядку, onComplete/onError —
+ * только после всех элементов. После отмены очередь очищается и
+ * задача выдачи завершается, не дожидаясь оставшихся элементов.<br>
+ * При включённом инструментировании ({@link RxPlugins#enableInstrumentation})
+ * рядом с элементами идёт очередь меток времени, и выдача записывает время
+ * элемента в очереди; без него очереди меток нет.
+ */
+public final class ObserveOnObservable<T> extends Observable<T> {
+
+    private final Observable<T> upstream;
+    private final Scheduler scheduler;
+    private final int bufferSize;
+
+    /**
+     * @param bufferSize размер кольца очереди и число элементов, выдаваемых
+     *                   за один запуск задачи, после чего она уступает поток
+     */
+    public ObserveOnObservable(Observable<T> upstream, Scheduler scheduler, int bufferSize) {
+        if (bufferSize <= 0) throw new IllegalArgumentException("bufferSize > 0 required: " + bufferSize);
+        this.upstream = upstream;
+        this.scheduler = scheduler;
+        this.bufferSize = bufferSize;
+    }
+
+    @Override
+    protected void subscribeActual(Observer<? super T> observer) {
+        ObserveOnObserver<T> parent = new ObserveOnObserver<>(observer, scheduler, bufferSize);
+        PipelineProfiler profiler = RxPlugins.profiler();
+        if (profiler != null) parent.instrument(profiler.stage(upstream, parent));
+        upstream.subscribe(parent);
+    }
+
+    /** Значение AtomicInteger — счётчик незавершённой работы (wip). */
+    static final class ObserveOnObserver<T> extends AtomicInteger implements Observer<T>, Disposable, Runnable {
+        private final Observer<? super T> downstream;
+        private final Scheduler scheduler;
+        private final int batchSize;
+        private final SpscLinkedArrayQueue<T> queue;
+
+        private Disposable upstream;
+        /* только при инструментировании: метка времени или 0 на каждый элемент */
+        private SpscLinkedArrayQueue<Long> stamps;
+        private StageMetrics metrics;
+        private long offered;
+        private Throwable error;
+        private volatile boolean done;
+        private volatile boolean disposed;
+
+        ObserveOnObserver(Observer<? super T> downstream, Scheduler scheduler, int bufferSize) {
+            this.downstream = downstream;
+            this.scheduler = scheduler;
+            this.batchSize = bufferSize;
+            this.queue = new SpscLinkedArrayQueue<>(bufferSize);
+        }
+
+        void instrument(StageMetrics metrics) {
+            this.metrics = metrics;
+            this.stamps = new SpscLinkedArrayQueue<>(batchSize);
+        }
+
+        @Override
+        public void onSubscribe(Disposable d) {
+            upstream = d;
+            downstream.onSubscribe(this);
+        }
+
+        @Override
+        public void onNext(T item) {
+            if (done) return;
+            // метка раньше элемента: увидевший элемент увидит и её
+            if (stamps != null) stamps.offer((offered++ & metrics.sampleMask()) == 0 ? System.nanoTime() : 0L);
+            queue.offer(item);
+            schedule();
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            if (done) return;
+            error = t;
+            done = true;
+            schedule();
+        }
+
+        @Override
+        public void onComplete() {
+            if (done) return;
+            done = true;
+            schedule();
+        }
+
+        private void schedule() {
+            if (getAndIncrement() == 0) scheduler.execute(this);
+        }
+
+        @Override
+        public void dispose() {
+            if (disposed) return;
+            disposed = true;
+            upstream.dispose();
+            // выдача не идёт — чистим сами, иначе это сделает её цикл
+            if (getAndIncrement() == 0) clear();
+        }
+
+        @Override public boolean isDisposed() { return disposed; }
+
+        private void clear() {
+            queue.clear();
+            if (stamps != null) stamps.clear();
+        }
+
+        @Override
+        public void run() {
+            int missed = 1;
+            int emitted = 0;
+            for (;;) {
+                for (;;) {
+                    if (disposed) {
+                        clear();
+                        return;
+                    }
+                    boolean d = done;
+                    T v = queue.poll();
+                    boolean empty = v == null;
+                    if (d && empty) {
+                        Throwable ex = error;
+                        if (ex != null) downstream.onError(ex);
+                        else downstream.onComplete();
+                        return;
+                    }
+                    if (empty) break;
+                    if (stamps != null) {
+                        long stamp = stamps.poll();
+                        if (stamp != 0) metrics.recordResidency(System.nanoTime() - stamp);
+                    }
+                    downstream.onNext(v);
+                    if (++emitted == batchSize) {
+                        // пачка выдана — уступаем поток планировщика, wip остаётся > 0
+                        scheduler.execute(this);
+                        return;
+                    }
+                }
+                missed = addAndGet(-missed);
+                if (missed == 0) break;
+            }
+        }
+    }
+}
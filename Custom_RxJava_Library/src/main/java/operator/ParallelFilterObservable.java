@@ -0,0 +1,28 @@
+package operator;
+
+import core.Observer;
+import core.ParallelObservable;
+
+import java.util.function.Predicate;
+
+/** filter на каждом рельсе — та же стадия, что у {@link FilterObservable}. */
+public final class ParallelFilterObservable<T> extends ParallelObservable<T> {
+
+    private final ParallelObservable<T> upstream;
+    private final Predicate<? super T> predicate;
+
+    public ParallelFilterObservable(ParallelObservable<T> upstream, Predicate<? super T> predicate) {
+        this.upstream = upstream;
+        this.predicate = predicate;
+    }
+
+    @Override public int parallelism() { return upstream.parallelism(); }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    protected void subscribeActual(Observer<? super T>[] observers) {
+        Observer<T>[] rails = (Observer<T>[]) new Observer<?>[observers.length];
+        for (int i = 0; i < rails.length; i++) rails[i] = new FilterObservable.FilterObserver<>(observers[i], predicate);
+        upstream.subscribe(rails);
+    }
+}
@@ -0,0 +1,113 @@
+package operator;
+
+import core.Disposable;
+import core.Observable;
+import core.Observer;
+import core.ParallelObservable;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Раздача источника по рельсам: элементы по кругу, пропуская отменённые рельсы;
+ * терминальный сигнал — всем рельсам. Источник отменяется вместе
+ * с последним рельсом.
+ */
+public final class ParallelFromObservable<T> extends ParallelObservable<T> {
+
+    private final Observable<? extends T> upstream;
+    private final int parallelism;
+
+    public ParallelFromObservable(Observable<? extends T> upstream, int parallelism) {
+        this.upstream = upstream;
+        this.parallelism = parallelism;
+    }
+
+    @Override public int parallelism() { return parallelism; }
+
+    @Override
+    protected void subscribeActual(Observer<? super T>[] observers) {
+        upstream.subscribe(new DispatchObserver<>(observers));
+    }
+
+    static final class DispatchObserver<T> implements Observer<T>, Disposable {
+        private final Observer<? super T>[] rails;
+        private final Rail[] subscriptions;
+        /** Неотменённые рельсы. */
+        private final AtomicInteger active;
+        private Disposable upstream;
+        /** Следующий рельс; меняется только в потоке источника. */
+        private int index;
+        private boolean done;
+
+        DispatchObserver(Observer<? super T>[] rails) {
+            this.rails = rails;
+            this.subscriptions = new Rail[rails.length];
+            this.active = new AtomicInteger(rails.length);
+        }
+
+        @Override
+        public void onSubscribe(Disposable d) {
+            upstream = d;
+            for (int i = 0; i < rails.length; i++) {
+                subscriptions[i] = new Rail(this);
+                rails[i].onSubscribe(subscriptions[i]);
+            }
+        }
+
+        @Override
+        public void onNext(T item) {
+            if (done) return;
+            int n = rails.length;
+            int i = index;
+            for (int k = 0; k < n; k++) {
+                if (!subscriptions[i].get()) {
+                    rails[i].onNext(item);
+                    index = i + 1 == n ? 0 : i + 1;
+                    return;
+                }
+                i = i + 1 == n ? 0 : i + 1;
+            }
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            if (done) return;
+            done = true;
+            for (int i = 0; i < rails.length; i++) {
+                if (!subscriptions[i].get()) rails[i].onError(t);
+            }
+        }
+
+        @Override
+        public void onComplete() {
+            if (done) return;
+            done = true;
+            for (int i = 0; i < rails.length; i++) {
+                if (!subscriptions[i].get()) rails[i].onComplete();
+            }
+        }
+
+        void railCancelled() {
+            if (active.decrementAndGet() == 0) dispose();
+        }
+
+        @Override
+        public void dispose() {
+            Disposable d = upstream;
+            if (d != null) d.dispose();
+        }
+
+        @Override public boolean isDisposed() { return active.get() == 0; }
+    }
+
+    /** Disposable одного рельса; значение AtomicBoolean — «рельс отменён». */
+    static final class Rail extends AtomicBoolean implements Disposable {
+        private final DispatchObserver<?> parent;
+
+        Rail(DispatchObserver<?> parent) { this.parent = parent; }
+
+        @Override public void dispose() { if (compareAndSet(false, true)) parent.railCancelled(); }
+        @Override public boolean isDisposed() { return get(); }
+    }
+}
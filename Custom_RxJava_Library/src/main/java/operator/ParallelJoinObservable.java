@@ -0,0 +1,157 @@
+package operator;
+
+import core.Disposable;
+import core.Observable;
+import core.Observer;
+import core.ParallelObservable;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * sequential(): рельсы сливаются в один поток.<br>
+ * У каждого рельса своя SPSC-очередь (пишет только его поток), вниз выдаёт
+ * тот, кто захватил wip, — вызовы onNext не пересекаются. Порядок внутри
+ * рельса сохраняется, между рельсами — нет. onComplete приходит после
+ * всех рельсов; первая ошибка отменяет остальные.
+ */
+public final class ParallelJoinObservable<T> extends Observable<T> {
+
+    private final ParallelObservable<T> upstream;
+    private final int bufferSize;
+
+    public ParallelJoinObservable(ParallelObservable<T> upstream, int bufferSize) {
+        if (bufferSize <= 0) throw new IllegalArgumentException("bufferSize > 0 required: " + bufferSize);
+        this.upstream = upstream;
+        this.bufferSize = bufferSize;
+    }
+
+    @Override
+    protected void subscribeActual(Observer<? super T> observer) {
+        JoinObserver<T> parent = new JoinObserver<>(observer, upstream.parallelism(), bufferSize);
+        observer.onSubscribe(parent);
+        upstream.subscribe(parent.rails);
+    }
+
+    static final class JoinObserver<T> extends AtomicInteger implements Disposable {
+        private final Observer<? super T> downstream;
+        final JoinRail<T>[] rails;
+        private final AtomicReference<Throwable> error = new AtomicReference<>();
+        /** Незавершённые рельсы. */
+        private final AtomicInteger remaining;
+        private volatile boolean cancelled;
+
+        @SuppressWarnings("unchecked")
+        JoinObserver(Observer<? super T> downstream, int parallelism, int bufferSize) {
+            this.downstream = downstream;
+            this.rails = (JoinRail<T>[]) new JoinRail<?>[parallelism];
+            for (int i = 0; i < parallelism; i++) rails[i] = new JoinRail<>(this, bufferSize);
+            this.remaining = new AtomicInteger(parallelism);
+        }
+
+        void railError(Throwable t) {
+            if (error.compareAndSet(null, t)) cancelAll();
+            drain();
+        }
+
+        void railComplete() {
+            remaining.decrementAndGet();
+            drain();
+        }
+
+        void drain() {
+            if (getAndIncrement() != 0) return;
+            int missed = 1;
+            for (;;) {
+                for (;;) {
+                    if (cancelled) {
+                        clear();
+                        return;
+                    }
+                    Throwable ex = error.get();
+                    if (ex != null) {
+                        cancelled = true;
+                        clear();
+                        downstream.onError(ex);
+                        return;
+                    }
+                    // remaining читаем раньше очередей: всё, что рельс положил до onComplete, уже видно
+                    boolean allDone = remaining.get() == 0;
+                    boolean empty = true;
+                    for (JoinRail<T> rail : rails) {
+                        T v = rail.queue.poll();
+                        if (v != null) {
+                            empty = false;
+                            downstream.onNext(v);
+                        }
+                    }
+                    if (allDone && empty) {
+                        cancelled = true;
+                        downstream.onComplete();
+                        return;
+                    }
+                    if (empty) break;
+                }
+                missed = addAndGet(-missed);
+                if (missed == 0) break;
+            }
+        }
+
+        private void cancelAll() {
+            for (JoinRail<T> rail : rails) rail.dispose();
+        }
+
+        private void clear() {
+            for (JoinRail<T> rail : rails) rail.queue.clear();
+        }
+
+        @Override
+        public void dispose() {
+            if (cancelled) return;
+            cancelled = true;
+            cancelAll();
+            // выдача не идёт — чистим сами, иначе это сделает её цикл
+            if (getAndIncrement() == 0) clear();
+        }
+
+        @Override public boolean isDisposed() { return cancelled; }
+    }
+
+    static final class JoinRail<T> implements Observer<T>, Disposable {
+        private final JoinObserver<T> parent;
+        private final AtomicReference<Disposable> upstream = new AtomicReference<>();
+        final SpscLinkedArrayQueue<T> queue;
+        private boolean done;
+
+        JoinRail(JoinObserver<T> parent, int bufferSize) {
+            this.parent = parent;
+            this.queue = new SpscLinkedArrayQueue<>(bufferSize);
+        }
+
+        @Override public void onSubscribe(Disposable d) { Disposable.setOnce(upstream, d); }
+
+        @Override
+        public void onNext(T item) {
+            if (done) return;
+            queue.offer(item);
+            parent.drain();
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            if (done) return;
+            done = true;
+            parent.railError(t);
+        }
+
+        @Override
+        public void onComplete() {
+            if (done) return;
+            done = true;
+            parent.railComplete();
+        }
+
+        @Override public void dispose() { Disposable.dispose(upstream); }
+        @Override public boolean isDisposed() { return upstream.get() == DISPOSED; }
+    }
+}
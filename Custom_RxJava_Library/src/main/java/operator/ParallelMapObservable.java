@@ -0,0 +1,28 @@
+package operator;
+
+import core.Observer;
+import core.ParallelObservable;
+
+import java.util.function.Function;
+
+/** map на каждом рельсе — та же стадия, что у {@link MapObservable}. */
+public final class ParallelMapObservable<T, R> extends ParallelObservable<R> {
+
+    private final ParallelObservable<T> upstream;
+    private final Function<? super T, ? extends R> mapper;
+
+    public ParallelMapObservable(ParallelObservable<T> upstream, Function<? super T, ? extends R> mapper) {
+        this.upstream = upstream;
+        this.mapper = mapper;
+    }
+
+    @Override public int parallelism() { return upstream.parallelism(); }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    protected void subscribeActual(Observer<? super R>[] observers) {
+        Observer<T>[] rails = (Observer<T>[]) new Observer<?>[observers.length];
+        for (int i = 0; i < rails.length; i++) rails[i] = new MapObservable.MapObserver<>(observers[i], mapper);
+        upstream.subscribe(rails);
+    }
+}
@@ -0,0 +1,141 @@
+package operator;
+
+import core.Disposable;
+import core.Observable;
+import core.Observer;
+import core.ParallelObservable;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BinaryOperator;
+
+/**
+ * reduce(reducer) по всем рельсам: каждый рельс сворачивает свою часть
+ * в своём потоке, частичные результаты объединяются тем же reducer
+ * по мере завершения рельсов. Последний рельс выдаёт итог.
+ */
+public final class ParallelReduceFullObservable<T> extends Observable<T> {
+
+    private final ParallelObservable<T> upstream;
+    private final BinaryOperator<T> reducer;
+
+    public ParallelReduceFullObservable(ParallelObservable<T> upstream, BinaryOperator<T> reducer) {
+        this.upstream = upstream;
+        this.reducer = reducer;
+    }
+
+    @Override
+    protected void subscribeActual(Observer<? super T> observer) {
+        ReduceFullObserver<T> parent = new ReduceFullObserver<>(observer, upstream.parallelism(), reducer);
+        observer.onSubscribe(parent);
+        upstream.subscribe(parent.rails);
+    }
+
+    static final class ReduceFullObserver<T> implements Disposable {
+        private final Observer<? super T> downstream;
+        private final BinaryOperator<T> reducer;
+        final ReduceRail<T>[] rails;
+        private final AtomicInteger remaining;
+        private final AtomicBoolean stopped = new AtomicBoolean();
+        /** Объединение частичных результатов; под блокировкой this. */
+        private T result;
+        private volatile boolean disposed;
+
+        @SuppressWarnings("unchecked")
+        ReduceFullObserver(Observer<? super T> downstream, int parallelism, BinaryOperator<T> reducer) {
+            this.downstream = downstream;
+            this.reducer = reducer;
+            this.rails = (ReduceRail<T>[]) new ReduceRail<?>[parallelism];
+            for (int i = 0; i < parallelism; i++) rails[i] = new ReduceRail<>(this);
+            this.remaining = new AtomicInteger(parallelism);
+        }
+
+        /** @param partial null — рельс был пуст */
+        void railDone(T partial) {
+            if (partial != null) {
+                try {
+                    synchronized (this) {
+                        result = result == null ? partial : reducer.apply(result, partial);
+                    }
+                } catch (Throwable t) {
+                    railError(t);
+                    return;
+                }
+            }
+            if (remaining.decrementAndGet() != 0) return;
+            if (!stopped.compareAndSet(false, true)) return;
+            T v;
+            synchronized (this) {
+                v = result;
+                result = null;
+            }
+            if (v != null) downstream.onNext(v);
+            downstream.onComplete();
+        }
+
+        void railError(Throwable t) {
+            if (!stopped.compareAndSet(false, true)) return;
+            cancelAll();
+            downstream.onError(t);
+        }
+
+        private void cancelAll() {
+            for (ReduceRail<T> rail : rails) rail.dispose();
+        }
+
+        @Override
+        public void dispose() {
+            if (disposed) return;
+            disposed = true;
+            stopped.set(true);
+            cancelAll();
+        }
+
+        @Override public boolean isDisposed() { return disposed; }
+    }
+
+    static final class ReduceRail<T> implements Observer<T>, Disposable {
+        private final ReduceFullObserver<T> parent;
+        private final AtomicReference<Disposable> upstream = new AtomicReference<>();
+        private T acc;
+        private boolean done;
+
+        ReduceRail(ReduceFullObserver<T> parent) { this.parent = parent; }
+
+        @Override public void onSubscribe(Disposable d) { Disposable.setOnce(upstream, d); }
+
+        @Override
+        public void onNext(T item) {
+            if (done) return;
+            try {
+                acc = acc == null ? item : parent.reducer.apply(acc, item);
+            } catch (Throwable t) {
+                done = true;
+                acc = null;
+                dispose();
+                parent.railError(t);
+            }
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            if (done) return;
+            done = true;
+            acc = null;
+            parent.railError(t);
+        }
+
+        @Override
+        public void onComplete() {
+            if (done) return;
+            done = true;
+            T v = acc;
+            acc = null;
+            parent.railDone(v);
+        }
+
+        @Override public void dispose() { Disposable.dispose(upstream); }
+        @Override public boolean isDisposed() { return upstream.get() == DISPOSED; }
+    }
+}
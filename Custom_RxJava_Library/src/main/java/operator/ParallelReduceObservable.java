@@ -0,0 +1,82 @@
+package operator;
+
+import core.Disposable;
+import core.Observer;
+import core.ParallelObservable;
+
+import java.util.function.BiFunction;
+import java.util.function.Supplier;
+
+/** Частичная свёртка рельса: при его завершении выдаётся одно значение. */
+public final class ParallelReduceObservable<T, R> extends ParallelObservable<R> {
+
+    private final ParallelObservable<T> upstream;
+    private final Supplier<R> seed;
+    private final BiFunction<R, ? super T, R> reducer;
+
+    public ParallelReduceObservable(ParallelObservable<T> upstream, Supplier<R> seed, BiFunction<R, ? super T, R> reducer) {
+        this.upstream = upstream;
+        this.seed = seed;
+        this.reducer = reducer;
+    }
+
+    @Override public int parallelism() { return upstream.parallelism(); }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    protected void subscribeActual(Observer<? super R>[] observers) {
+        Observer<T>[] rails = (Observer<T>[]) new Observer<?>[observers.length];
+        for (int i = 0; i < rails.length; i++) {
+            R initial;
+            try {
+                initial = seed.get();
+            } catch (Throwable t) {
+                for (Observer<? super R> o : observers) {
+                    o.onSubscribe(Disposable.DISPOSED);
+                    o.onError(t);
+                }
+                return;
+            }
+            rails[i] = new ReduceObserver<>(observers[i], initial, reducer);
+        }
+        upstream.subscribe(rails);
+    }
+
+    static final class ReduceObserver<T, R> extends BasicObserver<T, R> {
+        private final BiFunction<R, ? super T, R> reducer;
+        private R acc;
+
+        ReduceObserver(Observer<? super R> downstream, R initial, BiFunction<R, ? super T, R> reducer) {
+            super(downstream);
+            this.acc = initial;
+            this.reducer = reducer;
+        }
+
+        @Override
+        public void onNext(T item) {
+            if (done) return;
+            try {
+                acc = reducer.apply(acc, item);
+            } catch (Throwable t) {
+                dispose();
+                onError(t);
+            }
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            acc = null;
+            super.onError(t);
+        }
+
+        @Override
+        public void onComplete() {
+            if (done) return;
+            done = true;
+            R v = acc;
+            acc = null;
+            downstream.onNext(v);
+            downstream.onComplete();
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package operator;
+
+import core.Observer;
+import core.ParallelObservable;
+import scheduler.Scheduler;
+
+/**
+ * runOn: каждый рельс переходит на планировщик через свою очередь
+ * и цикл выдачи (как {@link ObserveOnObservable}). Рельсы не делят
+ * ни очередь, ни счётчик wip, поэтому выполняются параллельно.
+ */
+public final class ParallelRunOnObservable<T> extends ParallelObservable<T> {
+
+    private final ParallelObservable<T> upstream;
+    private final Scheduler scheduler;
+    private final int bufferSize;
+
+    public ParallelRunOnObservable(ParallelObservable<T> upstream, Scheduler scheduler, int bufferSize) {
+        if (bufferSize <= 0) throw new IllegalArgumentException("bufferSize > 0 required: " + bufferSize);
+        this.upstream = upstream;
+        this.scheduler = scheduler;
+        this.bufferSize = bufferSize;
+    }
+
+    @Override public int parallelism() { return upstream.parallelism(); }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    protected void subscribeActual(Observer<? super T>[] observers) {
+        Observer<T>[] rails = (Observer<T>[]) new Observer<?>[observers.length];
+        for (int i = 0; i < rails.length; i++) {
+            rails[i] = new ObserveOnObservable.ObserveOnObserver<>(observers[i], scheduler, bufferSize);
+        }
+        upstream.subscribe(rails);
+    }
+}
@@ -0,0 +1,157 @@
+package operator;
+
+import core.Disposable;
+import core.Observable;
+import core.Observer;
+import core.ParallelObservable;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * sorted(comparator): каждый рельс собирает и сортирует свою часть в своём
+ * потоке, последний завершившийся рельс сливает отсортированные части
+ * (k-путевое слияние) и выдаёт результат.
+ */
+public final class ParallelSortedObservable<T> extends Observable<T> {
+
+    private final ParallelObservable<T> upstream;
+    private final Comparator<? super T> comparator;
+
+    public ParallelSortedObservable(ParallelObservable<T> upstream, Comparator<? super T> comparator) {
+        this.upstream = upstream;
+        this.comparator = comparator;
+    }
+
+    @Override
+    protected void subscribeActual(Observer<? super T> observer) {
+        SortedObserver<T> parent = new SortedObserver<>(observer, upstream.parallelism(), comparator);
+        observer.onSubscribe(parent);
+        upstream.subscribe(parent.rails);
+    }
+
+    static final class SortedObserver<T> implements Disposable {
+        private final Observer<? super T> downstream;
+        private final Comparator<? super T> comparator;
+        final SortRail<T>[] rails;
+        private final List<T>[] parts;
+        private final AtomicInteger remaining;
+        /** Терминальный сигнал выдан или подписка отменена. */
+        private final AtomicBoolean stopped = new AtomicBoolean();
+        private volatile boolean disposed;
+
+        @SuppressWarnings("unchecked")
+        SortedObserver(Observer<? super T> downstream, int parallelism, Comparator<? super T> comparator) {
+            this.downstream = downstream;
+            this.comparator = comparator;
+            this.rails = (SortRail<T>[]) new SortRail<?>[parallelism];
+            for (int i = 0; i < parallelism; i++) rails[i] = new SortRail<>(this, i);
+            this.parts = (List<T>[]) new List<?>[parallelism];
+            this.remaining = new AtomicInteger(parallelism);
+        }
+
+        void railDone(int index, List<T> part) {
+            parts[index] = part;
+            // decrementAndGet публикует parts[index] для последнего рельса
+            if (remaining.decrementAndGet() != 0) return;
+            if (!stopped.compareAndSet(false, true)) return;
+            try {
+                merge();
+            } catch (Throwable t) {
+                downstream.onError(t);
+            }
+        }
+
+        void railError(Throwable t) {
+            if (!stopped.compareAndSet(false, true)) return;
+            cancelAll();
+            downstream.onError(t);
+        }
+
+        /** Ошибку сравнения выбрасывает наружу — до неё вниз ничего терминального не ушло. */
+        private void merge() {
+            int n = parts.length;
+            int[] pos = new int[n];
+            for (;;) {
+                int best = -1;
+                T min = null;
+                for (int i = 0; i < n; i++) {
+                    List<T> p = parts[i];
+                    if (pos[i] == p.size()) continue;
+                    T v = p.get(pos[i]);
+                    if (best < 0 || comparator.compare(v, min) < 0) {
+                        best = i;
+                        min = v;
+                    }
+                }
+                if (best < 0) break;
+                pos[best]++;
+                downstream.onNext(min);
+                if (isDisposed()) return;
+            }
+            downstream.onComplete();
+        }
+
+        private void cancelAll() {
+            for (SortRail<T> rail : rails) rail.dispose();
+        }
+
+        @Override
+        public void dispose() {
+            if (disposed) return;
+            disposed = true;
+            stopped.set(true);
+            cancelAll();
+        }
+
+        @Override public boolean isDisposed() { return disposed; }
+    }
+
+    static final class SortRail<T> implements Observer<T>, Disposable {
+        private final SortedObserver<T> parent;
+        private final int index;
+        private final AtomicReference<Disposable> upstream = new AtomicReference<>();
+        private List<T> list = new ArrayList<>();
+
+        SortRail(SortedObserver<T> parent, int index) {
+            this.parent = parent;
+            this.index = index;
+        }
+
+        @Override public void onSubscribe(Disposable d) { Disposable.setOnce(upstream, d); }
+
+        @Override
+        public void onNext(T item) {
+            List<T> l = list;
+            if (l != null) l.add(item);
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            if (list == null) return;
+            list = null;
+            parent.railError(t);
+        }
+
+        @Override
+        public void onComplete() {
+            List<T> l = list;
+            if (l == null) return;
+            list = null;
+            try {
+                l.sort(parent.comparator);
+            } catch (Throwable t) {
+                parent.railError(t);
+                return;
+            }
+            parent.railDone(index, l);
+        }
+
+        @Override public void dispose() { Disposable.dispose(upstream); }
+        @Override public boolean isDisposed() { return upstream.get() == DISPOSED; }
+    }
+}
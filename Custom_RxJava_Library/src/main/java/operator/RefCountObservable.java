@@ -0,0 +1,101 @@
+package operator;
+
+import core.ConnectableObservable;
+import core.Disposable;
+import core.Observable;
+import core.Observer;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * refCount(): первый подписчик подключает источник, уход последнего
+ * (отписка или терминальный сигнал) подключение разрывает.
+ */
+public final class RefCountObservable<T> extends Observable<T> {
+
+    private final ConnectableObservable<T> source;
+    /* под блокировкой this */
+    private int count;
+    private Disposable connection;
+
+    public RefCountObservable(ConnectableObservable<T> source) { this.source = source; }
+
+    /** Disposable подписчика отписывает его и уменьшает счётчик. */
+    @Override
+    protected void subscribeActual(Observer<? super T> observer) {
+        RefCountObserver<T> inner = new RefCountObserver<>(observer, this);
+        // сначала подписка на субъект, потом подключение: синхронный источник
+        // не должен успеть выдать всё до первого подписчика
+        source.subscribe(inner);
+        boolean connect;
+        synchronized (this) {
+            connect = ++count == 1;
+        }
+        if (connect) {
+            Disposable c = source.connect();
+            boolean keep;
+            synchronized (this) {
+                keep = count > 0 && connection == null;
+                if (keep) connection = c;
+            }
+            // синхронный источник успел завершиться и все ушли — сбрасываем подключение
+            if (!keep) c.dispose();
+        }
+    }
+
+    void release() {
+        Disposable c = null;
+        synchronized (this) {
+            if (--count == 0) {
+                c = connection;
+                connection = null;
+            }
+        }
+        if (c != null) c.dispose();
+    }
+
+    static final class RefCountObserver<T> implements Observer<T>, Disposable {
+        private final Observer<? super T> downstream;
+        private final RefCountObservable<T> parent;
+        private final AtomicBoolean released = new AtomicBoolean();
+        private Disposable upstream;
+
+        RefCountObserver(Observer<? super T> downstream, RefCountObservable<T> parent) {
+            this.downstream = downstream;
+            this.parent = parent;
+        }
+
+        @Override
+        public void onSubscribe(Disposable d) {
+            upstream = d;
+            downstream.onSubscribe(this);
+        }
+
+        @Override public void onNext(T item) { downstream.onNext(item); }
+
+        @Override
+        public void onError(Throwable t) {
+            release();
+            downstream.onError(t);
+        }
+
+        @Override
+        public void onComplete() {
+            release();
+            downstream.onComplete();
+        }
+
+        private void release() {
+            if (released.compareAndSet(false, true)) parent.release();
+        }
+
+        @Override
+        public void dispose() {
+            Disposable d = upstream;
+            if (d != null) d.dispose();
+            release();
+        }
+
+        @Override public boolean isDisposed() { return released.get(); }
+    }
+}
@@ -0,0 +1,113 @@
+package operator;
+
+import core.Backoff;
+import core.Disposable;
+import core.Observable;
+import core.Observer;
+import scheduler.Scheduler;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Predicate;
+
+/**
+ * retry / retryWhen: после onError, подходящего под retryIf, подписаться на
+ * источник заново — не больше times раз. Без backoff повтор сразу, иначе через
+ * {@link Backoff#delayNanos} задачей планировщика. Элементы, выданные до
+ * ошибки, остаются у подписчика.<br>
+ * Повторные подписки идут через счётчик wip: синхронный источник, падающий
+ * сразу, повторяется циклом, а не рекурсией.
+ */
+public final class RetryObservable<T> extends Observable<T> {
+
+    private final Observable<T> upstream;
+    private final long times;
+    private final Backoff backoff;
+    private final Predicate<? super Throwable> retryIf;
+    private final Scheduler scheduler;
+
+    public RetryObservable(Observable<T> upstream, long times, Backoff backoff,
+                           Predicate<? super Throwable> retryIf, Scheduler scheduler) {
+        if (times < 0) throw new IllegalArgumentException("times >= 0 required: " + times);
+        this.upstream = upstream;
+        this.times = times;
+        this.backoff = backoff;
+        this.retryIf = retryIf;
+        this.scheduler = scheduler;
+    }
+
+    @Override
+    protected void subscribeActual(Observer<? super T> observer) {
+        RetryObserver<T> parent = new RetryObserver<>(observer, upstream, times, backoff, retryIf, scheduler);
+        observer.onSubscribe(parent);
+        parent.subscribeNext();
+    }
+
+    static final class RetryObserver<T> extends AtomicInteger implements Observer<T>, Disposable {
+        private final Observer<? super T> downstream;
+        private final Observable<T> source;
+        private final Backoff backoff;
+        private final Predicate<? super Throwable> retryIf;
+        private final Scheduler scheduler;
+        /** Подписка текущей попытки; меняется при каждом повторе. */
+        private final AtomicReference<Disposable> upstream = new AtomicReference<>();
+        private final AtomicReference<Disposable> timer = new AtomicReference<>();
+        /* попытки идут строго по очереди, поэтому без синхронизации */
+        private long remaining;
+        private int attempt;
+
+        RetryObserver(Observer<? super T> downstream, Observable<T> source, long times, Backoff backoff,
+                      Predicate<? super Throwable> retryIf, Scheduler scheduler) {
+            this.downstream = downstream;
+            this.source = source;
+            this.remaining = times;
+            this.backoff = backoff;
+            this.retryIf = retryIf;
+            this.scheduler = scheduler;
+        }
+
+        void subscribeNext() {
+            if (getAndIncrement() != 0) return;
+            do {
+                if (isDisposed()) return;
+                source.subscribe(this);
+            } while (decrementAndGet() != 0);
+        }
+
+        @Override public void onSubscribe(Disposable d) { Disposable.replace(upstream, d); }
+
+        @Override public void onNext(T item) { downstream.onNext(item); }
+
+        @Override
+        public void onError(Throwable t) {
+            if (isDisposed()) return;
+            boolean retry;
+            try {
+                retry = remaining > 0 && retryIf.test(t);
+            } catch (Throwable e) {
+                e.addSuppressed(t);
+                downstream.onError(e);
+                return;
+            }
+            if (!retry) {
+                downstream.onError(t);
+                return;
+            }
+            remaining--;
+            long delay = backoff == null ? 0 : backoff.delayNanos(attempt++);
+            if (delay <= 0) subscribeNext();
+            else Disposable.replace(timer, scheduler.schedule(this::subscribeNext, delay, TimeUnit.NANOSECONDS));
+        }
+
+        @Override public void onComplete() { downstream.onComplete(); }
+
+        @Override
+        public void dispose() {
+            Disposable.dispose(upstream);
+            Disposable.dispose(timer);
+        }
+
+        @Override public boolean isDisposed() { return upstream.get() == DISPOSED; }
+    }
+}
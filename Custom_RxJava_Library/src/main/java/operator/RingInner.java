@@ -0,0 +1,111 @@
+package operator;
+
+import core.Disposable;
+import core.MissingBackpressureException;
+import core.Observer;
+
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Подписчик одного источника в операторах объединения (zip, combineLatest,
+ * merge, concatMapEager): элементы идут в собственное ограниченное
+ * SPSC-кольцо, выдачу вниз ведёт один цикл родителя.<br>
+ * Observable не знает обратного давления, поэтому при полном кольце поток
+ * источника паркуется, пока цикл выдачи не освободит место: память ограничена
+ * bufferSize на источник, а быстрый источник замедляется до темпа выдачи.
+ * Ждать нельзя, только если источник пишет с потока, который сам ведёт цикл
+ * выдачи (повторный вход из downstream), — тогда поток завершается
+ * MissingBackpressureException.
+ */
+final class RingInner<T> implements Observer<T>, Disposable {
+
+    interface Parent {
+        /** Быстрый путь мимо кольца; true — элемент уже выдан. */
+        default boolean tryEmit(RingInner<?> inner, Object item) { return false; }
+        void drain();
+        /** Текущий поток ведёт цикл выдачи: ждать в нём места нельзя. */
+        boolean isDrainThread();
+        /** Источник сейчас будет ждать места — дать ход тем, кто ещё не подписан. */
+        default void beforeWait() { }
+        void innerError(Throwable t);
+    }
+
+    final SpscArrayQueue<T> queue;
+    private final Parent parent;
+    private final AtomicReference<Disposable> upstream = new AtomicReference<>();
+    volatile boolean done;
+    /** Поток источника, ждущий места в кольце. */
+    private volatile Thread waiter;
+
+    RingInner(Parent parent, int bufferSize) {
+        this.parent = parent;
+        this.queue = new SpscArrayQueue<>(bufferSize);
+    }
+
+    @Override public void onSubscribe(Disposable d) { Disposable.setOnce(upstream, d); }
+
+    @Override
+    public void onNext(T item) {
+        if (done || parent.tryEmit(this, item)) return;
+        if (!queue.offer(item) && !awaitSpace(item)) return;
+        parent.drain();
+    }
+
+    @Override
+    public void onError(Throwable t) {
+        if (done) return;
+        done = true;
+        parent.innerError(t);
+    }
+
+    @Override
+    public void onComplete() {
+        if (done) return;
+        done = true;
+        parent.drain();
+    }
+
+    /** @return false — ждать нельзя или подписка отменена, элемент отброшен */
+    private boolean awaitSpace(T item) {
+        if (parent.isDrainThread()) {
+            dispose();
+            onError(new MissingBackpressureException(
+                    "Ring of " + queue.capacity() + " is full and the source re-entered its own drain"));
+            return false;
+        }
+        parent.beforeWait();
+        waiter = Thread.currentThread();
+        try {
+            for (;;) {
+                // waiter записан до проверки: освободивший место увидит его и разбудит
+                if (queue.offer(item)) return true;
+                if (isDisposed()) return false;
+                // цикл выдачи мог остановиться, пока кольцо заполнялось
+                parent.drain();
+                if (queue.offer(item)) return true;
+                LockSupport.park(this);
+            }
+        } finally {
+            waiter = null;
+        }
+    }
+
+    /** Цикл выдачи забрал элементы из кольца: разбудить источник, если он ждёт. */
+    void wake() {
+        // освобождение ячейки — release-запись; чтение waiter не должно обогнать её
+        VarHandle.fullFence();
+        Thread w = waiter;
+        if (w != null) LockSupport.unpark(w);
+    }
+
+    @Override
+    public void dispose() {
+        Disposable.dispose(upstream);
+        Thread w = waiter;
+        if (w != null) LockSupport.unpark(w);
+    }
+
+    @Override public boolean isDisposed() { return upstream.get() == DISPOSED; }
+}
@@ -0,0 +1,96 @@
+package operator;
+
+import core.Disposable;
+import core.Observable;
+import core.Observer;
+import scheduler.Scheduler;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * sample(period): раз в period выдаётся последний пришедший элемент,
+ * если с прошлой выдачи был новый. Таймер один на подписку.
+ * Невыданный элемент при onComplete отбрасывается (как в RxJava).
+ * Отмена останавливает таймер вместе с источником.
+ */
+public final class SampleObservable<T> extends Observable<T> {
+
+    private final Observable<T> upstream;
+    private final long period;
+    private final TimeUnit unit;
+    private final Scheduler scheduler;
+
+    public SampleObservable(Observable<T> upstream, long period, TimeUnit unit, Scheduler scheduler) {
+        if (period <= 0) throw new IllegalArgumentException("period > 0 required: " + period);
+        this.upstream = upstream;
+        this.period = period;
+        this.unit = unit;
+        this.scheduler = scheduler;
+    }
+
+    @Override
+    protected void subscribeActual(Observer<? super T> observer) {
+        SampleObserver<T> parent = new SampleObserver<>(observer);
+        parent.timer = scheduler.schedulePeriodically(parent::tick, period, period, unit);
+        upstream.subscribe(parent);
+    }
+
+    static final class SampleObserver<T> implements Observer<T>, Disposable {
+        /** Маркер «нового элемента не было». */
+        private static final Object EMPTY = new Object();
+
+        private final Observer<? super T> downstream;
+        private final AtomicReference<Object> latest = new AtomicReference<>(EMPTY);
+        volatile Disposable timer;
+        private Disposable upstream;
+        private volatile boolean disposed;
+        /** Под блокировкой this. */
+        private boolean done;
+
+        SampleObserver(Observer<? super T> downstream) { this.downstream = downstream; }
+
+        @Override
+        public void onSubscribe(Disposable d) {
+            upstream = d;
+            downstream.onSubscribe(this);
+        }
+
+        @Override
+        public void onNext(T item) { latest.lazySet(item); }
+
+        @SuppressWarnings("unchecked")
+        synchronized void tick() {
+            Object v = latest.getAndSet(EMPTY);
+            if (v != EMPTY && !done) downstream.onNext((T) v);
+        }
+
+        @Override
+        public synchronized void onError(Throwable t) {
+            if (done) return;
+            done = true;
+            timer.dispose();
+            downstream.onError(t);
+        }
+
+        @Override
+        public synchronized void onComplete() {
+            if (done) return;
+            done = true;
+            timer.dispose();
+            downstream.onComplete();
+        }
+
+        @Override
+        public synchronized void dispose() {
+            if (disposed) return;
+            disposed = true;
+            done = true;
+            upstream.dispose();
+            timer.dispose();
+            latest.lazySet(EMPTY);
+        }
+
+        @Override public boolean isDisposed() { return disposed; }
+    }
+}
@@ -0,0 +1,53 @@
+package operator;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Ограниченный lock-free кольцевой буфер «один писатель — один читатель».
+ * Ячейка свободна, пока в ней null, поэтому писатель и читатель
+ * не читают чужой индекс на каждом шаге.
+ */
+final class SpscArrayQueue<E> {
+
+    private final AtomicReferenceArray<E> buffer;
+    private final int mask;
+    private final AtomicLong producerIndex = new AtomicLong();
+    private final AtomicLong consumerIndex = new AtomicLong();
+
+    SpscArrayQueue(int capacity) {
+        int c = 1 << (32 - Integer.numberOfLeadingZeros(Math.max(capacity, 2) - 1));
+        this.buffer = new AtomicReferenceArray<>(c);
+        this.mask = c - 1;
+    }
+
+    /** Вызывается только писателем. false — буфер полон. */
+    boolean offer(E e) {
+        long p = producerIndex.get();
+        int offset = (int) p & mask;
+        if (buffer.get(offset) != null) return false;
+        buffer.lazySet(offset, e);
+        producerIndex.lazySet(p + 1);
+        return true;
+    }
+
+    /** Вызывается только читателем. null — буфер пуст. */
+    E poll() {
+        long c = consumerIndex.get();
+        int offset = (int) c & mask;
+        E e = buffer.get(offset);
+        if (e == null) return null;
+        buffer.lazySet(offset, null);
+        consumerIndex.lazySet(c + 1);
+        return e;
+    }
+
+    boolean isEmpty() { return producerIndex.get() == consumerIndex.get(); }
+
+    int capacity() { return mask + 1; }
+
+    /** Вызывается только читателем. */
+    void clear() {
+        while (poll() != null) { /* выбрасываем */ }
+    }
+}
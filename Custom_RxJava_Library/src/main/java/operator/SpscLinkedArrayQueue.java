@@ -0,0 +1,80 @@
+package operator;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Неограниченная lock-free очередь «один писатель — один читатель».
+ * Пока читатель успевает, работает как кольцевой буфер без выделений;
+ * при переполнении писатель подцепляет новое кольцо того же размера
+ * и оставляет в старом метку перехода.
+ */
+final class SpscLinkedArrayQueue<E> {
+
+    /** Метка: дальше читать из следующего кольца. */
+    private static final Object HAS_NEXT = new Object();
+
+    private final int mask;
+    /** Индекс ячейки-ссылки на следующее кольцо (сразу за данными). */
+    private final int linkOffset;
+
+    private final AtomicLong producerIndex = new AtomicLong();
+    private AtomicReferenceArray<Object> producerBuffer;
+
+    private final AtomicLong consumerIndex = new AtomicLong();
+    private AtomicReferenceArray<Object> consumerBuffer;
+
+    SpscLinkedArrayQueue(int chunkSize) {
+        int c = 1 << (32 - Integer.numberOfLeadingZeros(Math.max(chunkSize, 8) - 1));
+        this.mask = c - 1;
+        this.linkOffset = c;
+        AtomicReferenceArray<Object> buffer = new AtomicReferenceArray<>(c + 1);
+        this.producerBuffer = buffer;
+        this.consumerBuffer = buffer;
+    }
+
+    /** Вызывается только писателем. */
+    void offer(E e) {
+        AtomicReferenceArray<Object> buffer = producerBuffer;
+        long index = producerIndex.get();
+        int offset = (int) index & mask;
+        // держим одну свободную ячейку впереди, чтобы было куда положить метку перехода
+        if (buffer.get((int) (index + 1) & mask) == null) {
+            buffer.lazySet(offset, e);
+        } else {
+            AtomicReferenceArray<Object> next = new AtomicReferenceArray<>(linkOffset + 1);
+            producerBuffer = next;
+            next.lazySet(offset, e);
+            buffer.lazySet(linkOffset, next);
+            buffer.lazySet(offset, HAS_NEXT);
+        }
+        producerIndex.lazySet(index + 1);
+    }
+
+    /** Вызывается только читателем. null — очередь пуста. */
+    @SuppressWarnings("unchecked")
+    E poll() {
+        AtomicReferenceArray<Object> buffer = consumerBuffer;
+        long index = consumerIndex.get();
+        int offset = (int) index & mask;
+        Object e = buffer.get(offset);
+        if (e == null) return null;
+        if (e == HAS_NEXT) {
+            AtomicReferenceArray<Object> next = (AtomicReferenceArray<Object>) buffer.get(linkOffset);
+            buffer.lazySet(linkOffset, null);
+            consumerBuffer = next;
+            buffer = next;
+            e = next.get(offset);
+        }
+        buffer.lazySet(offset, null);
+        consumerIndex.lazySet(index + 1);
+        return (E) e;
+    }
+
+    boolean isEmpty() { return producerIndex.get() == consumerIndex.get(); }
+
+    /** Вызывается только читателем. */
+    void clear() {
+        while (poll() != null) { /* выбрасываем */ }
+    }
+}
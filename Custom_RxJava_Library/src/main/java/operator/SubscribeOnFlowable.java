@@ -0,0 +1,75 @@
+package operator;
+
+import core.Flowable;
+import core.Subscriber;
+import core.Subscription;
+import scheduler.Scheduler;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+public final class SubscribeOnFlowable<T> extends Flowable<T> {
+
+    private final Flowable<T> upstream;
+    private final Scheduler scheduler;
+
+    public SubscribeOnFlowable(Flowable<T> upstream, Scheduler scheduler) {
+        this.upstream = upstream;
+        this.scheduler = scheduler;
+    }
+
+    @Override
+    protected void subscribeActual(Subscriber<? super T> subscriber) {
+        SubscribeOnSubscriber<T> parent = new SubscribeOnSubscriber<>(subscriber);
+        subscriber.onSubscribe(parent);
+        scheduler.execute(() -> upstream.subscribe(parent));
+    }
+
+    /**
+     * Подписчик может запросить элементы раньше, чем источник подпишется
+     * на планировщике, — такой спрос копим и отдаём в onSubscribe.
+     */
+    static final class SubscribeOnSubscriber<T> extends AtomicReference<Subscription>
+            implements Subscriber<T>, Subscription {
+        private final Subscriber<? super T> downstream;
+        private final AtomicLong deferred = new AtomicLong();
+
+        SubscribeOnSubscriber(Subscriber<? super T> downstream) { this.downstream = downstream; }
+
+        @Override
+        public void onSubscribe(Subscription s) {
+            if (!compareAndSet(null, s)) {
+                s.cancel();
+                return;
+            }
+            long r = deferred.getAndSet(0);
+            if (r != 0) s.request(r);
+        }
+
+        @Override public void onNext(T item) { downstream.onNext(item); }
+        @Override public void onError(Throwable t) { downstream.onError(t); }
+        @Override public void onComplete() { downstream.onComplete(); }
+
+        @Override
+        public void request(long n) {
+            BackpressureHelper.validate(n);
+            Subscription s = get();
+            if (s != null) {
+                s.request(n);
+                return;
+            }
+            BackpressureHelper.add(deferred, n);
+            s = get();
+            if (s != null && s != BackpressureHelper.CANCELLED) {
+                long r = deferred.getAndSet(0);
+                if (r != 0) s.request(r);
+            }
+        }
+
+        @Override
+        public void cancel() {
+            Subscription s = getAndSet(BackpressureHelper.CANCELLED);
+            if (s != null) s.cancel();
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package operator;
+
+import core.Disposable;
+import core.Observable;
+import core.Observer;
+import scheduler.Scheduler;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * subscribeOn: подписка на источник (а для синхронного источника — и вся его
+ * работа) выполняется задачей планировщика.<br>
+ * Disposable подписчик получает сразу; отмена до запуска задачи
+ * отменяет и саму подписку на источник.
+ */
+public final class SubscribeOnObservable<T> extends Observable<T> {
+
+    private final Observable<T> upstream;
+    private final Scheduler scheduler;
+
+    public SubscribeOnObservable(Observable<T> upstream, Scheduler scheduler) {
+        this.upstream = upstream;
+        this.scheduler = scheduler;
+    }
+
+    @Override
+    protected void subscribeActual(Observer<? super T> observer) {
+        SubscribeOnObserver<T> parent = new SubscribeOnObserver<>(observer);
+        observer.onSubscribe(parent);
+        scheduler.execute(() -> {
+            if (!parent.isDisposed()) upstream.subscribe(parent);
+        });
+    }
+
+    static final class SubscribeOnObserver<T> implements Observer<T>, Disposable {
+        private final Observer<? super T> downstream;
+        private final AtomicReference<Disposable> upstream = new AtomicReference<>();
+
+        SubscribeOnObserver(Observer<? super T> downstream) { this.downstream = downstream; }
+
+        @Override public void onSubscribe(Disposable d) { Disposable.setOnce(upstream, d); }
+        @Override public void onNext(T item) { downstream.onNext(item); }
+        @Override public void onError(Throwable t) { downstream.onError(t); }
+        @Override public void onComplete() { downstream.onComplete(); }
+
+        @Override public void dispose() { Disposable.dispose(upstream); }
+        @Override public boolean isDisposed() { return upstream.get() == DISPOSED; }
+    }
+}
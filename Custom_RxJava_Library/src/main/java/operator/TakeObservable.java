@@ -0,0 +1,48 @@
+package operator;
+
+import core.Disposable;
+import core.Observable;
+import core.Observer;
+
+/**
+ * take(count): после count-го элемента источник отменяется и поток завершается.
+ * take(0) отменяет источник сразу при подписке.
+ */
+public final class TakeObservable<T> extends Observable<T> {
+
+    private final Observable<T> upstream;
+    private final long count;
+
+    public TakeObservable(Observable<T> upstream, long count) {
+        if (count < 0) throw new IllegalArgumentException("count >= 0 required: " + count);
+        this.upstream = upstream;
+        this.count = count;
+    }
+
+    @Override
+    protected void subscribeActual(Observer<? super T> observer) {
+        upstream.subscribe(new TakeObserver<>(observer, count));
+    }
+
+    static final class TakeObserver<T> extends BasicObserver<T, T> {
+        private long remaining;
+
+        TakeObserver(Observer<? super T> downstream, long count) {
+            super(downstream);
+            this.remaining = count;
+        }
+
+        @Override
+        public void onSubscribe(Disposable d) {
+            super.onSubscribe(d);
+            if (remaining == 0 && !done) completeEarly();
+        }
+
+        @Override
+        public void onNext(T item) {
+            if (done) return;
+            downstream.onNext(item);
+            if (--remaining == 0 && !done) completeEarly();
+        }
+    }
+}
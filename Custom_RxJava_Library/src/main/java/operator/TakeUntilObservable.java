@@ -0,0 +1,99 @@
+package operator;
+
+import core.Disposable;
+import core.Observable;
+import core.Observer;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * takeUntil(other): элементы идут, пока other не выдал элемент или не
+ * завершился; затем оба источника отменяются и поток завершается.<br>
+ * Сигналы основного потока и other сериализуются блокировкой наблюдателя.
+ */
+public final class TakeUntilObservable<T, U> extends Observable<T> {
+
+    private final Observable<T> upstream;
+    private final Observable<U> other;
+
+    public TakeUntilObservable(Observable<T> upstream, Observable<U> other) {
+        this.upstream = upstream;
+        this.other = other;
+    }
+
+    @Override
+    protected void subscribeActual(Observer<? super T> observer) {
+        TakeUntilObserver<T> parent = new TakeUntilObserver<>(observer);
+        observer.onSubscribe(parent);
+        // сначала other: если он сработал сразу, основной источник не запускаем
+        other.subscribe(parent.other);
+        if (!parent.isDisposed()) upstream.subscribe(parent);
+    }
+
+    static final class TakeUntilObserver<T> implements Observer<T>, Disposable {
+        private final Observer<? super T> downstream;
+        private final AtomicReference<Disposable> upstream = new AtomicReference<>();
+        final OtherObserver other = new OtherObserver(this);
+        /** Под блокировкой this. */
+        private boolean done;
+
+        TakeUntilObserver(Observer<? super T> downstream) { this.downstream = downstream; }
+
+        @Override public void onSubscribe(Disposable d) { Disposable.setOnce(upstream, d); }
+
+        @Override public synchronized void onNext(T item) { if (!done) downstream.onNext(item); }
+
+        @Override
+        public synchronized void onError(Throwable t) {
+            if (done) return;
+            done = true;
+            other.dispose();
+            downstream.onError(t);
+        }
+
+        @Override
+        public synchronized void onComplete() {
+            if (done) return;
+            done = true;
+            other.dispose();
+            downstream.onComplete();
+        }
+
+        synchronized void otherComplete() {
+            if (done) return;
+            done = true;
+            dispose();
+            downstream.onComplete();
+        }
+
+        synchronized void otherError(Throwable t) {
+            if (done) return;
+            done = true;
+            dispose();
+            downstream.onError(t);
+        }
+
+        @Override
+        public void dispose() {
+            Disposable.dispose(upstream);
+            other.dispose();
+        }
+
+        @Override public boolean isDisposed() { return upstream.get() == DISPOSED; }
+    }
+
+    static final class OtherObserver implements Observer<Object>, Disposable {
+        private final TakeUntilObserver<?> parent;
+        private final AtomicReference<Disposable> upstream = new AtomicReference<>();
+
+        OtherObserver(TakeUntilObserver<?> parent) { this.parent = parent; }
+
+        @Override public void onSubscribe(Disposable d) { Disposable.setOnce(upstream, d); }
+        @Override public void onNext(Object item) { parent.otherComplete(); }
+        @Override public void onError(Throwable t) { parent.otherError(t); }
+        @Override public void onComplete() { parent.otherComplete(); }
+
+        @Override public void dispose() { Disposable.dispose(upstream); }
+        @Override public boolean isDisposed() { return upstream.get() == DISPOSED; }
+    }
+}
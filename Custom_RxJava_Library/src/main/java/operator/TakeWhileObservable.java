@@ -0,0 +1,62 @@
+package operator;
+
+import core.Observable;
+import core.Observer;
+
+import java.util.function.Predicate;
+
+/**
+ * takeWhile(predicate) и takeUntil(stop): на первом элементе, решающем
+ * остановку, источник отменяется и поток завершается.<br>
+ * inclusive = false (takeWhile) — элемент с ложным predicate не выдаётся;
+ * inclusive = true (takeUntil) — элемент с истинным stop выдаётся последним.
+ */
+public final class TakeWhileObservable<T> extends Observable<T> {
+
+    private final Observable<T> upstream;
+    private final Predicate<? super T> predicate;
+    private final boolean inclusive;
+
+    public TakeWhileObservable(Observable<T> upstream, Predicate<? super T> predicate, boolean inclusive) {
+        this.upstream = upstream;
+        this.predicate = predicate;
+        this.inclusive = inclusive;
+    }
+
+    @Override
+    protected void subscribeActual(Observer<? super T> observer) {
+        upstream.subscribe(new TakeWhileObserver<>(observer, predicate, inclusive));
+    }
+
+    static final class TakeWhileObserver<T> extends BasicObserver<T, T> {
+        private final Predicate<? super T> predicate;
+        private final boolean inclusive;
+
+        TakeWhileObserver(Observer<? super T> downstream, Predicate<? super T> predicate, boolean inclusive) {
+            super(downstream);
+            this.predicate = predicate;
+            this.inclusive = inclusive;
+        }
+
+        @Override
+        public void onNext(T item) {
+            if (done) return;
+            boolean test;
+            try {
+                test = predicate.test(item);
+            } catch (Throwable t) {
+                dispose();
+                onError(t);
+                return;
+            }
+            if (inclusive) {
+                downstream.onNext(item);
+                if (test && !done) completeEarly();
+            } else if (test) {
+                downstream.onNext(item);
+            } else {
+                completeEarly();
+            }
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package operator;
+
+import core.Observable;
+import core.Observer;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * throttleFirst(window): выдаётся первый элемент, следующие window отбрасываются.
+ * Таймер не нужен — достаточно сравнить время прихода с концом окна.
+ */
+public final class ThrottleFirstObservable<T> extends Observable<T> {
+
+    private final Observable<T> upstream;
+    private final long windowNanos;
+
+    public ThrottleFirstObservable(Observable<T> upstream, long window, TimeUnit unit) {
+        if (window <= 0) throw new IllegalArgumentException("window > 0 required: " + window);
+        this.upstream = upstream;
+        this.windowNanos = unit.toNanos(window);
+    }
+
+    @Override
+    protected void subscribeActual(Observer<? super T> observer) {
+        upstream.subscribe(new ThrottleFirstObserver<>(observer, windowNanos));
+    }
+
+    static final class ThrottleFirstObserver<T> extends BasicObserver<T, T> {
+        private final long windowNanos;
+        private boolean gateClosed;
+        private long gateOpensAt;
+
+        ThrottleFirstObserver(Observer<? super T> downstream, long windowNanos) {
+            super(downstream);
+            this.windowNanos = windowNanos;
+        }
+
+        @Override
+        public void onNext(T item) {
+            if (done) return;
+            long now = System.nanoTime();
+            if (gateClosed && now - gateOpensAt < 0) return;
+            gateClosed = true;
+            gateOpensAt = now + windowNanos;
+            downstream.onNext(item);
+        }
+    }
+}
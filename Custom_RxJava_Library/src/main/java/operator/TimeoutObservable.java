@@ -0,0 +1,139 @@
+package operator;
+
+import core.Disposable;
+import core.Observable;
+import core.Observer;
+import scheduler.Scheduler;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * timeout: первый элемент и каждый следующий должны прийти не позже timeout
+ * после подписки или предыдущего элемента. Иначе источник отменяется и поток
+ * завершается TimeoutException или переключается на fallback.<br>
+ * Гонку элемента с таймером решает CAS номера элемента: кто первым сменил
+ * номер, тот и выдаёт сигнал, поэтому блокировки на элемент нет.
+ */
+public final class TimeoutObservable<T> extends Observable<T> {
+
+    private final Observable<T> upstream;
+    private final long timeout;
+    private final TimeUnit unit;
+    private final Scheduler scheduler;
+    private final Observable<? extends T> fallback;
+
+    public TimeoutObservable(Observable<T> upstream, long timeout, TimeUnit unit, Scheduler scheduler,
+                             Observable<? extends T> fallback) {
+        if (timeout <= 0) throw new IllegalArgumentException("timeout > 0 required: " + timeout);
+        this.upstream = upstream;
+        this.timeout = timeout;
+        this.unit = unit;
+        this.scheduler = scheduler;
+        this.fallback = fallback;
+    }
+
+    @Override
+    protected void subscribeActual(Observer<? super T> observer) {
+        TimeoutObserver<T> parent = new TimeoutObserver<>(observer, timeout, unit, scheduler, fallback);
+        observer.onSubscribe(parent);
+        parent.startTimer(0);
+        upstream.subscribe(parent);
+    }
+
+    /** Значение AtomicLong — номер ожидаемого элемента; {@link #DONE} — поток завершён или истёк. */
+    static final class TimeoutObserver<T> extends AtomicLong implements Observer<T>, Disposable {
+        private static final long DONE = Long.MAX_VALUE;
+
+        private final Observer<? super T> downstream;
+        private final long timeout;
+        private final TimeUnit unit;
+        private final Scheduler scheduler;
+        private final Observable<? extends T> fallback;
+        private final AtomicReference<Disposable> upstream = new AtomicReference<>();
+        private final AtomicReference<Disposable> timer = new AtomicReference<>();
+        private final AtomicReference<Disposable> other = new AtomicReference<>();
+        private volatile boolean disposed;
+
+        TimeoutObserver(Observer<? super T> downstream, long timeout, TimeUnit unit, Scheduler scheduler,
+                        Observable<? extends T> fallback) {
+            this.downstream = downstream;
+            this.timeout = timeout;
+            this.unit = unit;
+            this.scheduler = scheduler;
+            this.fallback = fallback;
+        }
+
+        void startTimer(long idx) {
+            Disposable.replace(timer, scheduler.schedule(() -> onTimeout(idx), timeout, unit));
+        }
+
+        @Override public void onSubscribe(Disposable d) { Disposable.setOnce(upstream, d); }
+
+        @Override
+        public void onNext(T item) {
+            long idx = get();
+            // неудача CAS — таймер уже сработал
+            if (idx == DONE || !compareAndSet(idx, idx + 1)) return;
+            Disposable t = timer.get();
+            if (t != null) t.dispose();
+            downstream.onNext(item);
+            startTimer(idx + 1);
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            if (getAndSet(DONE) == DONE) return;
+            Disposable.dispose(timer);
+            downstream.onError(t);
+        }
+
+        @Override
+        public void onComplete() {
+            if (getAndSet(DONE) == DONE) return;
+            Disposable.dispose(timer);
+            downstream.onComplete();
+        }
+
+        private void onTimeout(long idx) {
+            if (!compareAndSet(idx, DONE)) return;
+            Disposable.dispose(upstream);
+            if (fallback == null) {
+                downstream.onError(new TimeoutException("No item within " + timeout + " " + unit));
+            } else {
+                fallback.subscribe(new FallbackObserver<>(downstream, other));
+            }
+        }
+
+        @Override
+        public void dispose() {
+            disposed = true;
+            Disposable.dispose(upstream);
+            Disposable.dispose(timer);
+            Disposable.dispose(other);
+        }
+
+        @Override public boolean isDisposed() { return disposed; }
+    }
+
+    /** Сигналы fallback — прямо вниз; его Disposable хранит родитель. */
+    static final class FallbackObserver<T> implements Observer<T>, Disposable {
+        private final Observer<? super T> downstream;
+        private final AtomicReference<Disposable> upstream;
+
+        FallbackObserver(Observer<? super T> downstream, AtomicReference<Disposable> upstream) {
+            this.downstream = downstream;
+            this.upstream = upstream;
+        }
+
+        @Override public void onSubscribe(Disposable d) { Disposable.setOnce(upstream, d); }
+        @Override public void onNext(T item) { downstream.onNext(item); }
+        @Override public void onError(Throwable t) { downstream.onError(t); }
+        @Override public void onComplete() { downstream.onComplete(); }
+
+        @Override public void dispose() { Disposable.dispose(upstream); }
+        @Override public boolean isDisposed() { return upstream.get() == DISPOSED; }
+    }
+}
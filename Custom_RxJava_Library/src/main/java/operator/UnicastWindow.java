@@ -0,0 +1,108 @@
+package operator;
+
+import core.Disposable;
+import core.Observable;
+import core.Observer;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Окно оператора window (и группа groupBy): горячий поток для одного подписчика.
+ * До подписки элементы копятся в очереди, затем выдаются по порядку.
+ * Писатель один (оператор под своей блокировкой или разборщик партиции),
+ * поэтому очередь SPSC.
+ * Отписка от окна только прекращает выдачу: источник оператора общий.
+ */
+final class UnicastWindow<T> extends Observable<T> implements Observer<T> {
+
+    private final SpscLinkedArrayQueue<T> queue;
+    /** Вызывается при отписке подписчика (groupBy убирает группу); может быть null. */
+    private final Runnable onCancel;
+    private final AtomicInteger wip = new AtomicInteger();
+    private final AtomicBoolean subscribed = new AtomicBoolean();
+    private volatile Observer<? super T> downstream;
+    private Throwable error;
+    private volatile boolean done;
+    private volatile boolean cancelled;
+    private boolean terminated;
+
+    UnicastWindow(int bufferSize) { this(bufferSize, null); }
+
+    UnicastWindow(int bufferSize, Runnable onCancel) {
+        this.queue = new SpscLinkedArrayQueue<>(bufferSize);
+        this.onCancel = onCancel;
+    }
+
+    @Override
+    protected void subscribeActual(Observer<? super T> observer) {
+        if (!subscribed.compareAndSet(false, true)) {
+            observer.onSubscribe(Disposable.DISPOSED);
+            observer.onError(new IllegalStateException("На окно можно подписаться только один раз"));
+            return;
+        }
+        observer.onSubscribe(new Disposable() {
+            @Override
+            public void dispose() {
+                if (cancelled) return;
+                cancelled = true;
+                if (onCancel != null) onCancel.run();
+                drain();
+            }
+
+            @Override public boolean isDisposed() { return cancelled; }
+        });
+        downstream = observer;
+        drain();
+    }
+
+    @Override
+    public void onNext(T item) {
+        queue.offer(item);
+        drain();
+    }
+
+    @Override
+    public void onError(Throwable t) {
+        error = t;
+        done = true;
+        drain();
+    }
+
+    @Override
+    public void onComplete() {
+        done = true;
+        drain();
+    }
+
+    private void drain() {
+        if (wip.getAndIncrement() != 0) return;
+        int missed = 1;
+        for (;;) {
+            Observer<? super T> a = downstream;
+            if (cancelled) {
+                queue.clear();
+            } else if (a != null && !terminated) {
+                for (;;) {
+                    if (cancelled) {
+                        queue.clear();
+                        break;
+                    }
+                    boolean d = done;
+                    T v = queue.poll();
+                    if (v == null) {
+                        if (d) {
+                            terminated = true;
+                            Throwable ex = error;
+                            if (ex != null) a.onError(ex); else a.onComplete();
+                        }
+                        break;
+                    }
+                    a.onNext(v);
+                }
+            }
+            missed = wip.addAndGet(-missed);
+            if (missed == 0) break;
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package operator;
+
+import core.Disposable;
+import core.Observable;
+import core.Observer;
+import scheduler.Scheduler;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * window(count, timespan): как buffer, но вниз сразу уходит окно-Observable,
+ * а элементы текут в него по мере поступления. Окно открывается первым
+ * элементом и закрывается по count элементам или через timespan.<br>
+ * Отмена снимает таймер; уже выданное окно получает элементы, пришедшие до неё.
+ */
+public final class WindowTimedObservable<T> extends Observable<Observable<T>> {
+
+    private final Observable<T> upstream;
+    private final int count;
+    private final long timespan;
+    private final TimeUnit unit;
+    private final Scheduler scheduler;
+    private final int bufferSize;
+
+    public WindowTimedObservable(Observable<T> upstream, int count, long timespan, TimeUnit unit,
+                                 Scheduler scheduler, int bufferSize) {
+        if (count <= 0) throw new IllegalArgumentException("count > 0 required: " + count);
+        if (timespan <= 0) throw new IllegalArgumentException("timespan > 0 required: " + timespan);
+        this.upstream = upstream;
+        this.count = count;
+        this.timespan = timespan;
+        this.unit = unit;
+        this.scheduler = scheduler;
+        this.bufferSize = bufferSize;
+    }
+
+    @Override
+    protected void subscribeActual(Observer<? super Observable<T>> observer) {
+        upstream.subscribe(new WindowObserver<>(this, observer));
+    }
+
+    static final class WindowObserver<T> implements Observer<T>, Disposable {
+        private final WindowTimedObservable<T> parent;
+        private final Observer<? super Observable<T>> downstream;
+
+        private Disposable upstream;
+        private volatile boolean disposed;
+        /* всё ниже — под блокировкой this */
+        private UnicastWindow<T> window;
+        private int size;
+        private Disposable timer;
+        private boolean done;
+
+        WindowObserver(WindowTimedObservable<T> parent, Observer<? super Observable<T>> downstream) {
+            this.parent = parent;
+            this.downstream = downstream;
+        }
+
+        @Override
+        public void onSubscribe(Disposable d) {
+            upstream = d;
+            downstream.onSubscribe(this);
+        }
+
+        @Override
+        public synchronized void onNext(T item) {
+            if (done) return;
+            UnicastWindow<T> w = window;
+            if (w == null) {
+                w = new UnicastWindow<>(parent.bufferSize);
+                window = w;
+                size = 0;
+                UnicastWindow<T> expected = w;
+                timer = parent.scheduler.schedule(() -> timeout(expected), parent.timespan, parent.unit);
+                downstream.onNext(w);
+            }
+            w.onNext(item);
+            if (++size >= parent.count) {
+                timer.dispose();
+                close();
+            }
+        }
+
+        private synchronized void timeout(UnicastWindow<T> expected) {
+            if (!done && window == expected) close();
+        }
+
+        private void close() {
+            UnicastWindow<T> w = window;
+            window = null;
+            timer = null;
+            w.onComplete();
+        }
+
+        @Override
+        public synchronized void onError(Throwable t) {
+            if (done) return;
+            done = true;
+            if (window != null) {
+                timer.dispose();
+                window.onError(t);
+                window = null;
+            }
+            downstream.onError(t);
+        }
+
+        @Override
+        public synchronized void onComplete() {
+            if (done) return;
+            done = true;
+            if (window != null) {
+                timer.dispose();
+                close();
+            }
+            downstream.onComplete();
+        }
+
+        @Override
+        public synchronized void dispose() {
+            if (disposed) return;
+            disposed = true;
+            done = true;
+            upstream.dispose();
+            if (window != null) {
+                timer.dispose();
+                close();
+            }
+        }
+
+        @Override public boolean isDisposed() { return disposed; }
+    }
+}
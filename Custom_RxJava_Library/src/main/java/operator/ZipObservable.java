@@ -0,0 +1,190 @@
+package operator;
+
+import core.Disposable;
+import core.Observable;
+import core.Observer;
+import scheduler.IOThreadScheduler;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+/**
+ * zip: i-й элемент результата — zipper от i-х элементов всех источников.
+ * Поток завершается, как только один из источников завершился и его
+ * элементы исчерпаны; ошибка любого источника завершает поток сразу.<br>
+ * У каждого источника своё кольцо {@link RingInner}, выдача — один цикл
+ * под счётчиком wip. Строка аргументов zipper переиспользуется: кроме
+ * результата zipper ничего на элемент не выделяется, поэтому массив
+ * действителен только во время вызова.<br>
+ * Синхронный источник, заполнивший кольцо при подписке, не может ждать на
+ * подписывающем потоке, пока не подписаны остальные: перед ожиданием
+ * подписка оставшихся источников продолжается на IOThreadScheduler.shared().
+ */
+public final class ZipObservable<R> extends Observable<R> {
+
+    private final Observable<?>[] sources;
+    private final Function<? super Object[], ? extends R> zipper;
+    private final int bufferSize;
+
+    public ZipObservable(Observable<?>[] sources, Function<? super Object[], ? extends R> zipper, int bufferSize) {
+        if (bufferSize <= 0) throw new IllegalArgumentException("bufferSize > 0 required: " + bufferSize);
+        this.sources = sources;
+        this.zipper = zipper;
+        this.bufferSize = bufferSize;
+    }
+
+    @Override
+    protected void subscribeActual(Observer<? super R> observer) {
+        if (sources.length == 0) {
+            observer.onSubscribe(Disposable.DISPOSED);
+            observer.onComplete();
+            return;
+        }
+        ZipCoordinator<R> parent = new ZipCoordinator<>(observer, sources, zipper, bufferSize);
+        observer.onSubscribe(parent);
+        parent.subscribeSources();
+    }
+
+    /** Значение AtomicInteger — счётчик незавершённой работы (wip). */
+    static final class ZipCoordinator<R> extends AtomicInteger implements Disposable, RingInner.Parent {
+        private final Observer<? super R> downstream;
+        private final Observable<?>[] sources;
+        private final Function<? super Object[], ? extends R> zipper;
+        private final RingInner<Object>[] inners;
+        /** Следующий источник для подписки; забирается CAS-ом любым подписывающим потоком. */
+        private final AtomicInteger nextSource = new AtomicInteger();
+        private final AtomicReference<Throwable> error = new AtomicReference<>();
+        private volatile boolean disposed;
+        /* только цикл выдачи */
+        private final Object[] row;
+        private Thread drainer;
+
+        @SuppressWarnings("unchecked")
+        ZipCoordinator(Observer<? super R> downstream, Observable<?>[] sources,
+                       Function<? super Object[], ? extends R> zipper, int bufferSize) {
+            this.downstream = downstream;
+            this.sources = sources;
+            this.zipper = zipper;
+            this.inners = (RingInner<Object>[]) new RingInner<?>[sources.length];
+            for (int i = 0; i < inners.length; i++) inners[i] = new RingInner<>(this, bufferSize);
+            this.row = new Object[sources.length];
+        }
+
+        @SuppressWarnings("unchecked")
+        void subscribeSources() {
+            int i;
+            while ((i = nextSource.getAndIncrement()) < sources.length) {
+                if (disposed) return;
+                ((Observable<Object>) sources[i]).subscribe(inners[i]);
+            }
+        }
+
+        @Override
+        public void beforeWait() {
+            if (nextSource.get() < sources.length) IOThreadScheduler.shared().execute(this::subscribeSources);
+        }
+
+        @Override public boolean isDrainThread() { return drainer == Thread.currentThread(); }
+
+        @Override
+        public void innerError(Throwable t) {
+            error.compareAndSet(null, t);
+            drain();
+        }
+
+        @Override
+        public void drain() {
+            if (getAndIncrement() != 0) return;
+            drainer = Thread.currentThread();
+            drainLoop();
+        }
+
+        private void drainLoop() {
+            int missed = 1;
+            int n = inners.length;
+            for (;;) {
+                for (;;) {
+                    if (disposed) {
+                        clear();
+                        return;
+                    }
+                    Throwable ex = error.get();
+                    if (ex != null) {
+                        terminate();
+                        downstream.onError(ex);
+                        return;
+                    }
+                    boolean ready = true;
+                    for (int i = 0; i < n; i++) {
+                        if (row[i] != null) continue;
+                        RingInner<Object> inner = inners[i];
+                        // done читаем раньше кольца: всё, что лежало до onComplete, уже видно
+                        boolean d = inner.done;
+                        Object v = inner.queue.poll();
+                        if (v == null) {
+                            if (d) {
+                                terminate();
+                                downstream.onComplete();
+                                return;
+                            }
+                            ready = false;
+                        } else {
+                            row[i] = v;
+                            inner.wake();
+                        }
+                    }
+                    if (!ready) break;
+                    R r;
+                    try {
+                        r = Objects.requireNonNull(zipper.apply(row), "zipper returned null");
+                    } catch (Throwable t) {
+                        terminate();
+                        downstream.onError(t);
+                        return;
+                    }
+                    Arrays.fill(row, null);
+                    downstream.onNext(r);
+                }
+                missed = release(missed);
+                if (missed == 0) break;
+            }
+        }
+
+        /**
+         * Снять missed с wip. Владелец цикла сбрасывается до освобождения:
+         * после него цикл может уже забрать другой поток.
+         */
+        private int release(int missed) {
+            drainer = null;
+            int m = addAndGet(-missed);
+            if (m != 0) drainer = Thread.currentThread();
+            return m;
+        }
+
+        /** Поток завершается: отменить источники; wip остаётся занятым навсегда. */
+        private void terminate() {
+            disposed = true;
+            for (RingInner<Object> inner : inners) inner.dispose();
+            clear();
+        }
+
+        private void clear() {
+            Arrays.fill(row, null);
+            for (RingInner<Object> inner : inners) inner.queue.clear();
+        }
+
+        @Override
+        public void dispose() {
+            if (disposed) return;
+            disposed = true;
+            for (RingInner<Object> inner : inners) inner.dispose();
+            // выдача не идёт — чистим сами, иначе это сделает её цикл
+            if (getAndIncrement() == 0) clear();
+        }
+
+        @Override public boolean isDisposed() { return disposed; }
+    }
+}
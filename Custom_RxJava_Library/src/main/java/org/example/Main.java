@@ -14,7 +14,8 @@ public class Main {
                 2, 4, 5, TimeUnit.SECONDS,
                 5, 1,
                 RejectionPolicy.ABORT,
-                new CustomThreadFactory("MyPool")
+                new CustomThreadFactory("MyPool"),
+                true                      // печатаем события пула
         );
 
         // имитационные задачи
@@ -1,12 +1,135 @@
 package scheduler;
 
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.Deque;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
 
+/**
+ * Планировщик для CPU-задач на деках с перехватом работы (work stealing).<br>
+ * У каждого из N потоков своя дека: задача, поставленная из потока этого
+ * планировщика, кладётся в его же деку (данные остаются в кэше ядра),
+ * внешние задачи раздаются по кругу. Свой поток берёт задачи с головы деки
+ * (FIFO, чтобы переставляющие себя задачи не вытесняли остальные), свободный —
+ * перехватывает с хвоста чужих деки и только потом засыпает.
+ */
 public final class ComputationScheduler implements Scheduler {
-    private final ExecutorService pool =
-            Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
 
-    @Override public void execute(Runnable task) { pool.execute(task); }
-    @Override public void shutdown() { pool.shutdown(); }
-}
\ No newline at end of file
+    private static final class Shared {
+        static final ComputationScheduler INSTANCE =
+                new ComputationScheduler(Runtime.getRuntime().availableProcessors(), true);
+    }
+
+    /**
+     * Общий планировщик вычислений библиотеки: на нём операторы со временем
+     * выдают результаты по таймеру, чтобы поток колеса только отсчитывал сроки.
+     * Потоки — демоны; {@link #shutdown()} на нём игнорируется.
+     */
+    public static ComputationScheduler shared() { return Shared.INSTANCE; }
+
+    private final CoreThread[] threads;
+    private final boolean shared;
+    /** Уснувшие потоки — их будит постановка новой задачи. */
+    private final Queue<CoreThread> idle = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger nextThread = new AtomicInteger();
+    private volatile boolean shutdown;
+
+    public ComputationScheduler() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    public ComputationScheduler(int parallelism) {
+        this(parallelism, false);
+    }
+
+    private ComputationScheduler(int parallelism, boolean shared) {
+        this.shared = shared;
+        if (parallelism <= 0) throw new IllegalArgumentException("parallelism > 0 required: " + parallelism);
+        threads = new CoreThread[parallelism];
+        for (int i = 0; i < parallelism; i++) threads[i] = new CoreThread(i);
+        for (CoreThread t : threads) t.start();
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        if (shutdown) throw new RejectedExecutionException("ComputationScheduler is shut down");
+        Thread current = Thread.currentThread();
+        if (current instanceof CoreThread own && own.owner() == this) {
+            own.deque.offerLast(task);
+        } else {
+            int i = (nextThread.getAndIncrement() & Integer.MAX_VALUE) % threads.length;
+            threads[i].deque.offerLast(task);
+        }
+        CoreThread sleeper = idle.poll();
+        if (sleeper != null) LockSupport.unpark(sleeper);
+    }
+
+    /** Мягкое завершение: уже поставленные задачи выполняются. */
+    @Override
+    public void shutdown() {
+        if (shared) return;
+        shutdown = true;
+        for (CoreThread t : threads) LockSupport.unpark(t);
+    }
+
+    public int parallelism() { return threads.length; }
+
+    private Runnable steal(int self) {
+        for (int k = 1; k < threads.length; k++) {
+            Runnable task = threads[(self + k) % threads.length].deque.pollLast();
+            if (task != null) return task;
+        }
+        return null;
+    }
+
+    private boolean hasWork() {
+        for (CoreThread t : threads) if (!t.deque.isEmpty()) return true;
+        return false;
+    }
+
+    final class CoreThread extends Thread {
+        private final int index;
+        final Deque<Runnable> deque = new ConcurrentLinkedDeque<>();
+
+        CoreThread(int index) {
+            super("computation-" + index);
+            this.index = index;
+            setDaemon(true);
+        }
+
+        ComputationScheduler owner() { return ComputationScheduler.this; }
+
+        @Override
+        public void run() {
+            for (;;) {
+                Runnable task = deque.pollFirst();
+                if (task == null) task = steal(index);
+                if (task != null) {
+                    runTask(task);
+                    continue;
+                }
+                if (shutdown && !hasWork()) return;
+                // сначала встаём в очередь спящих, потом перепроверяем: постановка
+                // между проверкой и park не потеряется — она нас разбудит
+                idle.offer(this);
+                if (hasWork() || shutdown) {
+                    idle.remove(this);
+                    continue;
+                }
+                LockSupport.park(this);
+                idle.remove(this);
+            }
+        }
+
+        private void runTask(Runnable task) {
+            try {
+                task.run();
+            } catch (Throwable t) {
+                getUncaughtExceptionHandler().uncaughtException(this, t);
+            }
+        }
+    }
+}
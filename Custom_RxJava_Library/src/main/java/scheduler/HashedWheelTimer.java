@@ -0,0 +1,296 @@
+package scheduler;
+
+import core.Disposable;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Таймер на хешированном колесе (hashed wheel): один поток, кольцо из корзин,
+ * каждая корзина — тик заданной длины. Постановка и отмена — O(1) без блокировок,
+ * поэтому тысячи одновременных окон buffer/debounce стоят по объекту на таймаут,
+ * а не по задаче ScheduledExecutorService с перестройкой кучи.<br>
+ * Точность — один тик. Задачи выполняются на потоке таймера и должны быть
+ * короткими; тяжёлую работу передавайте другому планировщику.<br>
+ * {@link #shared()} — общий таймер библиотеки: на нём основаны отложенные
+ * задачи всех планировщиков и операторы со временем.
+ */
+public final class HashedWheelTimer implements Scheduler {
+
+    private static final class Shared {
+        static final HashedWheelTimer INSTANCE =
+                new HashedWheelTimer("rx-wheel-timer", 1, TimeUnit.MILLISECONDS, 512, true);
+    }
+
+    /** Общий таймер: тик 1 мс, 512 корзин; {@link #shutdown()} на нём игнорируется. */
+    public static HashedWheelTimer shared() { return Shared.INSTANCE; }
+
+    private final long tickNanos;
+    private final Bucket[] wheel;
+    private final int mask;
+    private final boolean shared;
+    /** Новые таймауты: переносятся в корзины потоком таймера на каждом тике. */
+    private final Queue<Timeout> pending = new ConcurrentLinkedQueue<>();
+    /** Отменённые таймауты, которые ещё надо вынуть из корзин. */
+    private final Queue<Timeout> cancelled = new ConcurrentLinkedQueue<>();
+    private final long startTime = System.nanoTime();
+    private final Thread thread;
+    private volatile boolean shutdown;
+    /** Поток таймера спит до первой постановки: пустое колесо не тикает. */
+    private volatile boolean idle;
+    /** Номер текущего тика; меняется только потоком таймера. */
+    private long tick;
+    /** Таймауты в корзинах; меняется только потоком таймера. */
+    private int scheduled;
+
+    public HashedWheelTimer() {
+        this("wheel-timer", 1, TimeUnit.MILLISECONDS, 512);
+    }
+
+    /**
+     * @param tickDuration  длина тика (точность таймера)
+     * @param ticksPerWheel число корзин, округляется вверх до степени двойки
+     */
+    public HashedWheelTimer(String name, long tickDuration, TimeUnit unit, int ticksPerWheel) {
+        this(name, tickDuration, unit, ticksPerWheel, false);
+    }
+
+    private HashedWheelTimer(String name, long tickDuration, TimeUnit unit, int ticksPerWheel, boolean shared) {
+        if (tickDuration <= 0) throw new IllegalArgumentException("tickDuration > 0 required: " + tickDuration);
+        if (ticksPerWheel <= 0) throw new IllegalArgumentException("ticksPerWheel > 0 required: " + ticksPerWheel);
+        int size = Integer.highestOneBit(ticksPerWheel - 1) << 1;
+        if (size == 0) size = 1;
+        this.tickNanos = unit.toNanos(tickDuration);
+        this.wheel = new Bucket[size];
+        for (int i = 0; i < size; i++) wheel[i] = new Bucket();
+        this.mask = size - 1;
+        this.shared = shared;
+        this.thread = new Thread(this::runWheel, name);
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /* ===== API ========================================================== */
+
+    /**
+     * Выполнить task на потоке таймера не раньше чем через delay.
+     *
+     * @return Disposable для отмены до срабатывания
+     */
+    public Disposable newTimeout(Runnable task, long delay, TimeUnit unit) {
+        if (shutdown) throw new RejectedExecutionException("HashedWheelTimer is shut down");
+        Timeout t = new Timeout(task, System.nanoTime() - startTime + Math.max(0, unit.toNanos(delay)));
+        pending.offer(t);
+        if (idle) LockSupport.unpark(thread);
+        return t;
+    }
+
+    /** Задача выполнится на потоке таймера на ближайшем тике. */
+    @Override
+    public void execute(Runnable task) { newTimeout(task, 0, TimeUnit.NANOSECONDS); }
+
+    @Override
+    public Disposable schedule(Runnable task, long delay, TimeUnit unit) { return newTimeout(task, delay, unit); }
+
+    /**
+     * С фиксированной частотой: срок каждого запуска считается от начального,
+     * поэтому погрешность тиков не накапливается. Запуски идут на одном потоке
+     * таймера и не пересекаются.
+     */
+    @Override
+    public Disposable schedulePeriodically(Runnable task, long initialDelay, long period, TimeUnit unit) {
+        Periodic p = new Periodic(task, System.nanoTime() + unit.toNanos(initialDelay), unit.toNanos(period));
+        p.arm(initialDelay, unit);
+        return p;
+    }
+
+    @Override
+    public void shutdown() {
+        if (shared) return;
+        shutdown = true;
+        LockSupport.unpark(thread);
+    }
+
+    /* ===== Поток таймера ================================================ */
+
+    private void runWheel() {
+        while (!shutdown) {
+            removeCancelled();
+            if (scheduled == 0 && pending.isEmpty()) {
+                // сначала флаг, потом проверка: постановка после неё нас разбудит
+                idle = true;
+                if (pending.isEmpty() && !shutdown) LockSupport.park(this);
+                idle = false;
+                // колесо пустое — проспанные тики просто пропускаем
+                tick = Math.max(tick, (System.nanoTime() - startTime) / tickNanos);
+                continue;
+            }
+            if (!waitForNextTick()) break;
+            removeCancelled();
+            transferPending();
+            wheel[(int) (tick & mask)].expire();
+            tick++;
+        }
+    }
+
+    /** @return false при остановке таймера */
+    private boolean waitForNextTick() {
+        long deadline = tickNanos * (tick + 1);
+        for (;;) {
+            long sleep = deadline - (System.nanoTime() - startTime);
+            if (sleep <= 0) return true;
+            if (shutdown) return false;
+            LockSupport.parkNanos(this, sleep);
+        }
+    }
+
+    private void transferPending() {
+        Timeout t;
+        while ((t = pending.poll()) != null) {
+            if (t.state.get() == Timeout.CANCELLED) continue;
+            long calculated = t.deadline / tickNanos;
+            t.remainingRounds = (calculated - tick) / wheel.length;
+            // просроченный таймаут — в текущую корзину, сработает на этом тике
+            long ticks = Math.max(calculated, tick);
+            wheel[(int) (ticks & mask)].add(t);
+        }
+    }
+
+    private void removeCancelled() {
+        Timeout t;
+        while ((t = cancelled.poll()) != null) {
+            if (t.bucket != null) t.bucket.remove(t);
+        }
+    }
+
+    /* ===== Корзина и таймаут ============================================ */
+
+    /** Двусвязный список таймаутов; трогает только поток таймера. */
+    private final class Bucket {
+        private Timeout head;
+        private Timeout tail;
+
+        void add(Timeout t) {
+            scheduled++;
+            t.bucket = this;
+            if (head == null) {
+                head = tail = t;
+            } else {
+                tail.next = t;
+                t.prev = tail;
+                tail = t;
+            }
+        }
+
+        void expire() {
+            Timeout t = head;
+            while (t != null) {
+                Timeout next = t.next;
+                if (t.remainingRounds <= 0) {
+                    // по построению срок уже наступил: корзина выбрана по deadline / tick
+                    remove(t);
+                    t.expire();
+                } else if (t.state.get() == Timeout.CANCELLED) {
+                    remove(t);
+                } else {
+                    t.remainingRounds--;
+                }
+                t = next;
+            }
+        }
+
+        void remove(Timeout t) {
+            if (t.bucket != this) return;
+            Timeout next = t.next;
+            if (t.prev != null) t.prev.next = next;
+            if (next != null) next.prev = t.prev;
+            if (t == head) head = next;
+            if (t == tail) tail = t.prev;
+            t.prev = null;
+            t.next = null;
+            t.bucket = null;
+            scheduled--;
+        }
+    }
+
+    private final class Timeout implements Disposable {
+        static final int WAITING = 0, CANCELLED = 1, EXPIRED = 2;
+
+        private final Runnable task;
+        /** Срок относительно startTime. */
+        final long deadline;
+        final AtomicInteger state = new AtomicInteger();
+        long remainingRounds;
+        Bucket bucket;
+        Timeout prev;
+        Timeout next;
+
+        Timeout(Runnable task, long deadline) {
+            this.task = task;
+            this.deadline = deadline;
+        }
+
+        void expire() {
+            if (!state.compareAndSet(WAITING, EXPIRED)) return;
+            try {
+                task.run();
+            } catch (Throwable t) {
+                thread.getUncaughtExceptionHandler().uncaughtException(thread, t);
+            }
+        }
+
+        @Override
+        public void dispose() {
+            // вынимаем из корзины на следующем тике, чтобы отменённые не копились
+            if (state.compareAndSet(WAITING, CANCELLED)) cancelled.offer(this);
+        }
+
+        @Override public boolean isDisposed() { return state.get() != WAITING; }
+    }
+
+    /** Периодическая задача: перевзводит себя после каждого запуска. */
+    private final class Periodic implements Runnable, Disposable {
+        private final Runnable task;
+        private final long start;
+        private final long period;
+        private long runs;
+        private volatile Disposable current;
+        private volatile boolean disposed;
+
+        Periodic(Runnable task, long start, long period) {
+            this.task = task;
+            this.start = start;
+            this.period = period;
+        }
+
+        void arm(long delay, TimeUnit unit) {
+            current = newTimeout(this, delay, unit);
+            if (disposed) current.dispose();
+        }
+
+        @Override
+        public void run() {
+            if (disposed) return;
+            try {
+                task.run();
+            } catch (Throwable t) {
+                thread.getUncaughtExceptionHandler().uncaughtException(thread, t);
+            }
+            runs++;
+            if (!shutdown) arm(start + runs * period - System.nanoTime(), TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public void dispose() {
+            disposed = true;
+            Disposable d = current;
+            if (d != null) d.dispose();
+        }
+
+        @Override public boolean isDisposed() { return disposed; }
+    }
+}
@@ -2,10 +2,41 @@ package scheduler;
 
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public final class IOThreadScheduler implements Scheduler {
-    private final ExecutorService pool = Executors.newCachedThreadPool();
+
+    private static final class Shared {
+        static final IOThreadScheduler INSTANCE = new IOThreadScheduler(true);
+    }
+
+    /**
+     * Общий планировщик ввода-вывода библиотеки (источники из файлов и каналов):
+     * потоки-демоны rx-io-N; {@link #shutdown()} на нём игнорируется.
+     */
+    public static IOThreadScheduler shared() { return Shared.INSTANCE; }
+
+    private final ExecutorService pool;
+    private final boolean shared;
+
+    public IOThreadScheduler() {
+        this(false);
+    }
+
+    private IOThreadScheduler(boolean shared) {
+        this.shared = shared;
+        if (shared) {
+            AtomicInteger counter = new AtomicInteger();
+            this.pool = Executors.newCachedThreadPool(r -> {
+                Thread t = new Thread(r, "rx-io-" + counter.getAndIncrement());
+                t.setDaemon(true);
+                return t;
+            });
+        } else {
+            this.pool = Executors.newCachedThreadPool();
+        }
+    }
 
     @Override public void execute(Runnable task) { pool.execute(task); }
-    @Override public void shutdown() { pool.shutdown(); }
-}
\ No newline at end of file
+    @Override public void shutdown() { if (!shared) pool.shutdown(); }
+}
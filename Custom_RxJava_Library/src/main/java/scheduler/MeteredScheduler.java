@@ -0,0 +1,26 @@
+package scheduler;
+
+import core.Disposable;
+import metrics.TaskMetrics;
+
+/**
+ * Планировщик-обёртка, собирающий {@link TaskMetrics} для любого другого:
+ * число задач, ожидание от постановки до запуска, время выполнения,
+ * активные задачи и темп завершения. Задачи Worker и отложенные задачи
+ * идут через {@link #execute} и тоже учитываются.
+ */
+public final class MeteredScheduler implements Scheduler {
+
+    private final Scheduler delegate;
+    private final TaskMetrics metrics = new TaskMetrics();
+
+    public MeteredScheduler(Scheduler delegate) { this.delegate = delegate; }
+
+    @Override public void execute(Runnable task) { delegate.execute(metrics.wrap(task)); }
+    @Override public void shutdown() { delegate.shutdown(); }
+
+    public TaskMetrics metrics() { return metrics; }
+
+    /** Опубликовать метрики в JMX как {@code custom.rx:type=Scheduler,name=<name>}. */
+    public Disposable registerMBean(String name) { return metrics.registerMBean("Scheduler", name); }
+}
@@ -0,0 +1,61 @@
+package scheduler;
+
+import core.Disposable;
+
+import java.util.function.Consumer;
+
+/** Задача планировщика с возможностью отмены до запуска. */
+final class ScheduledAction implements Runnable, Disposable {
+
+    /** Заглушка для задач, поставленных в уже закрытый Worker. */
+    static final ScheduledAction DISPOSED = new ScheduledAction(() -> { }, false);
+
+    static {
+        DISPOSED.disposed = true;
+    }
+
+    private final Runnable task;
+    private final boolean periodic;
+    /** Снять задачу с учёта владельца при отмене; null — не нужно. */
+    private final Consumer<ScheduledAction> onDispose;
+    private volatile boolean disposed;
+    private volatile Disposable timer;
+
+    ScheduledAction(Runnable task, boolean periodic) {
+        this(task, periodic, null);
+    }
+
+    ScheduledAction(Runnable task, boolean periodic, Consumer<ScheduledAction> onDispose) {
+        this.task = task;
+        this.periodic = periodic;
+        this.onDispose = onDispose;
+    }
+
+    void setTimer(Disposable timer) {
+        this.timer = timer;
+        if (disposed) timer.dispose();
+    }
+
+    @Override
+    public void run() {
+        if (disposed) return;
+        try {
+            task.run();
+        } catch (Throwable t) {
+            Thread current = Thread.currentThread();
+            current.getUncaughtExceptionHandler().uncaughtException(current, t);
+        } finally {
+            if (!periodic) disposed = true;
+        }
+    }
+
+    @Override
+    public void dispose() {
+        disposed = true;
+        Disposable t = timer;
+        if (t != null) t.dispose();
+        if (onDispose != null) onDispose.accept(this);
+    }
+
+    @Override public boolean isDisposed() { return disposed; }
+}
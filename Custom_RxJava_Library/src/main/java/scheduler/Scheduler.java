@@ -1,6 +1,46 @@
 package scheduler;
 
+import core.Disposable;
+
+import java.util.concurrent.TimeUnit;
+
 public interface Scheduler {
     void execute(Runnable task);
     void shutdown();
-}
\ No newline at end of file
+
+    /** Выполнить задачу на этом планировщике через delay. */
+    default Disposable schedule(Runnable task, long delay, TimeUnit unit) {
+        ScheduledAction action = new ScheduledAction(task, false);
+        if (delay <= 0) {
+            execute(action);
+        } else {
+            action.setTimer(HashedWheelTimer.shared().schedule(() -> {
+                if (!action.isDisposed()) execute(action);
+            }, delay, unit));
+        }
+        return action;
+    }
+
+    /** Периодическая задача; запуски не пересекаются, так как идут через один {@link Worker}. */
+    default Disposable schedulePeriodically(Runnable task, long initialDelay, long period, TimeUnit unit) {
+        Worker worker = createWorker();
+        worker.schedulePeriodically(task, initialDelay, period, unit);
+        return worker;
+    }
+
+    /** Последовательный исполнитель, например для одной подписки. */
+    default Worker createWorker() {
+        return new SerialWorker(this);
+    }
+
+    /**
+     * Последовательный исполнитель поверх планировщика: задачи одного Worker
+     * выполняются по одной и в порядке постановки.
+     * {@link #dispose()} отменяет все ещё не выполненные задачи.
+     */
+    interface Worker extends Disposable {
+        Disposable schedule(Runnable task);
+        Disposable schedule(Runnable task, long delay, TimeUnit unit);
+        Disposable schedulePeriodically(Runnable task, long initialDelay, long period, TimeUnit unit);
+    }
+}
@@ -0,0 +1,108 @@
+package scheduler;
+
+import core.Disposable;
+
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * {@link Scheduler.Worker} поверх любого планировщика: задачи копятся в очереди,
+ * а на планировщик уходит одна задача-разборщик, пока очередь не опустеет.
+ */
+final class SerialWorker implements Scheduler.Worker, Runnable {
+
+    private final Scheduler scheduler;
+    private final Queue<ScheduledAction> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger wip = new AtomicInteger();
+    /**
+     * Отложенные задачи, ещё не попавшие в очередь, и периодические — их отменяет
+     * dispose(). Отменённая задача сама снимается отсюда, иначе долгоживущий Worker,
+     * ставящий и отменяющий таймауты, копил бы их без предела.
+     */
+    private final Set<ScheduledAction> timed = ConcurrentHashMap.newKeySet();
+    private volatile boolean disposed;
+
+    SerialWorker(Scheduler scheduler) { this.scheduler = scheduler; }
+
+    @Override
+    public Disposable schedule(Runnable task) {
+        if (disposed) return ScheduledAction.DISPOSED;
+        ScheduledAction action = new ScheduledAction(task, false);
+        enqueue(action);
+        return action;
+    }
+
+    @Override
+    public Disposable schedule(Runnable task, long delay, TimeUnit unit) {
+        if (delay <= 0) return schedule(task);
+        if (disposed) return ScheduledAction.DISPOSED;
+        ScheduledAction action = new ScheduledAction(task, false, timed::remove);
+        track(action);
+        action.setTimer(HashedWheelTimer.shared().schedule(() -> {
+            timed.remove(action);
+            enqueue(action);
+        }, delay, unit));
+        return action;
+    }
+
+    @Override
+    public Disposable schedulePeriodically(Runnable task, long initialDelay, long period, TimeUnit unit) {
+        if (disposed) return ScheduledAction.DISPOSED;
+        // пока прошлый запуск не выполнен, новый тик не ставим — очередь не растёт
+        AtomicBoolean queued = new AtomicBoolean();
+        ScheduledAction action = new ScheduledAction(() -> {
+            queued.set(false);
+            task.run();
+        }, true, timed::remove);
+        track(action);
+        action.setTimer(HashedWheelTimer.shared().schedulePeriodically(() -> {
+            if (queued.compareAndSet(false, true)) enqueue(action);
+        }, initialDelay, period, unit));
+        return action;
+    }
+
+    private void track(ScheduledAction action) {
+        timed.add(action);
+        // dispose() Worker мог пройти по timed до вставки
+        if (disposed) action.dispose();
+    }
+
+    private void enqueue(ScheduledAction action) {
+        if (disposed || action.isDisposed()) return;
+        queue.offer(action);
+        if (wip.getAndIncrement() == 0) scheduler.execute(this);
+    }
+
+    @Override
+    public void run() {
+        int missed = 1;
+        for (;;) {
+            ScheduledAction action;
+            while ((action = queue.poll()) != null) {
+                if (disposed) {
+                    queue.clear();
+                    return;
+                }
+                action.run();
+            }
+            missed = wip.addAndGet(-missed);
+            if (missed == 0) break;
+        }
+    }
+
+    @Override
+    public void dispose() {
+        if (disposed) return;
+        disposed = true;
+        timed.forEach(ScheduledAction::dispose);
+        timed.clear();
+        queue.clear();
+    }
+
+    @Override public boolean isDisposed() { return disposed; }
+}
@@ -0,0 +1,135 @@
+package scheduler;
+
+import core.Disposable;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedThread;
+import jdk.jfr.consumer.RecordingStream;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Планировщик для блокирующих задач на виртуальных потоках.<br>
+ * Каждая задача получает свой виртуальный поток: блокировка на JDBC/HTTP
+ * освобождает поток-носитель, поэтому десятки тысяч ожидающих задач
+ * не требуют десятков тысяч платформенных потоков.<br>
+ * maxConcurrency ограничивает число одновременно выполняемых задач
+ * (например, по размеру пула соединений); лишние ждут на семафоре,
+ * не занимая носителей.
+ */
+public final class VirtualThreadScheduler implements Scheduler {
+
+    /** Событие JFR о закреплении виртуального потока на носителе. */
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+
+    private final String namePrefix;
+    private final ExecutorService pool;
+    /** null — без ограничения. */
+    private final Semaphore permits;
+    private final AtomicLong pinnedCount = new AtomicLong();
+    /** Все включённые обнаружения; shutdown закрывает каждое. */
+    private final Set<RecordingStream> pinningStreams = ConcurrentHashMap.newKeySet();
+
+    public VirtualThreadScheduler() {
+        this("virtual", Integer.MAX_VALUE);
+    }
+
+    /**
+     * @param namePrefix     имена потоков: prefix-0, prefix-1, ...
+     * @param maxConcurrency сколько задач может выполняться одновременно
+     */
+    public VirtualThreadScheduler(String namePrefix, int maxConcurrency) {
+        if (maxConcurrency <= 0) throw new IllegalArgumentException("maxConcurrency > 0 required: " + maxConcurrency);
+        this.namePrefix = namePrefix + "-";
+        this.pool = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name(this.namePrefix, 0).factory());
+        this.permits = maxConcurrency == Integer.MAX_VALUE ? null : new Semaphore(maxConcurrency);
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        if (permits == null) {
+            pool.execute(task);
+            return;
+        }
+        // ждём разрешения уже внутри виртуального потока: вызывающий не блокируется
+        pool.execute(() -> {
+            permits.acquireUninterruptibly();
+            try {
+                task.run();
+            } finally {
+                permits.release();
+            }
+        });
+    }
+
+    @Override
+    public void shutdown() {
+        pool.shutdown();
+        for (RecordingStream rs : pinningStreams) {
+            if (pinningStreams.remove(rs)) rs.close();
+        }
+    }
+
+    /* ===== Диагностика закрепления ====================================== */
+
+    /** Закрепление виртуального потока этого планировщика на носителе. */
+    public record Pinning(String threadName, Duration duration, List<String> stackTrace) { }
+
+    /**
+     * Включить обнаружение закреплений (pinning) через JFR: блокировка внутри
+     * synchronized или нативного вызова удерживает поток-носитель, и такие
+     * задачи перестают масштабироваться. Сообщаются события этого
+     * планировщика длительнее threshold. Каждый вызов открывает свою запись;
+     * все они закрываются своим Disposable или {@link #shutdown()}.
+     *
+     * @return Disposable, выключающий обнаружение
+     */
+    public Disposable enablePinningDetection(Duration threshold, Consumer<Pinning> listener) {
+        RecordingStream rs = new RecordingStream();
+        rs.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+        rs.onEvent(PINNED_EVENT, event -> {
+            Pinning pinning = toPinning(event);
+            if (pinning == null) return;
+            pinnedCount.incrementAndGet();
+            listener.accept(pinning);
+        });
+        pinningStreams.add(rs);
+        rs.startAsync();
+        AtomicBoolean closed = new AtomicBoolean();
+        return new Disposable() {
+            @Override
+            public void dispose() {
+                if (closed.compareAndSet(false, true) && pinningStreams.remove(rs)) rs.close();
+            }
+
+            @Override public boolean isDisposed() { return closed.get() || !pinningStreams.contains(rs); }
+        };
+    }
+
+    /** Сколько закреплений обнаружено с момента включения. */
+    public long pinnedCount() { return pinnedCount.get(); }
+
+    private Pinning toPinning(RecordedEvent event) {
+        RecordedThread thread = event.getThread();
+        String name = thread == null ? null : thread.getJavaName();
+        if (name == null || !name.startsWith(namePrefix)) return null;
+        List<String> frames = new ArrayList<>();
+        if (event.getStackTrace() != null) {
+            for (RecordedFrame f : event.getStackTrace().getFrames()) {
+                frames.add(f.getMethod().getType().getName() + "." + f.getMethod().getName()
+                        + ":" + f.getLineNumber());
+            }
+        }
+        return new Pinning(name, event.getDuration(), frames);
+    }
+}
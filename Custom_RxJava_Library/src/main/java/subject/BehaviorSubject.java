@@ -0,0 +1,202 @@
+package subject;
+
+import core.Disposable;
+import core.Observer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Хранит последнее значение: новый подписчик сразу получает его,
+ * затем — все следующие. После завершения подписчик получает только
+ * терминальный сигнал.<br>
+ * Раздача идёт без блокировок; короткая блокировка нужна только чтобы
+ * согласовать первое значение нового подписчика с параллельным onNext
+ * (индекс значения отсекает дубли, очередь подписчика — перестановки).
+ */
+public final class BehaviorSubject<T> extends Subject<T> {
+
+    /** Терминальный сигнал в поле value. */
+    private static final class Terminal {
+        final Throwable error;
+        Terminal(Throwable error) { this.error = error; }
+    }
+
+    private static final Terminal COMPLETE = new Terminal(null);
+
+    private final ObserverArray<BehaviorDisposable<T>> observers = new ObserverArray<>();
+    private final Lock readLock;
+    private final Lock writeLock;
+    /** Последнее значение или {@link Terminal}; null — значения ещё не было. */
+    private volatile Object value;
+    /** Номер значения; меняется под writeLock. */
+    private long index;
+
+    private BehaviorSubject(T initial) {
+        ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        this.readLock = lock.readLock();
+        this.writeLock = lock.writeLock();
+        this.value = initial;
+    }
+
+    public static <T> BehaviorSubject<T> create() { return new BehaviorSubject<>(null); }
+
+    public static <T> BehaviorSubject<T> createDefault(T initial) { return new BehaviorSubject<>(initial); }
+
+    @Override
+    protected void subscribeActual(Observer<? super T> observer) {
+        BehaviorDisposable<T> inner = new BehaviorDisposable<>(observer, this);
+        observer.onSubscribe(inner);
+        if (observers.add(inner)) {
+            if (inner.isDisposed()) observers.remove(inner); else inner.emitFirst();
+        } else {
+            Object v = value;
+            Throwable ex = v instanceof Terminal t ? t.error : null;
+            if (ex != null) observer.onError(ex); else observer.onComplete();
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void onNext(T item) {
+        if (value instanceof Terminal) return;
+        long idx = set(item);
+        for (Object o : observers.get()) ((BehaviorDisposable<T>) o).emitNext(item, idx);
+    }
+
+    @Override
+    public void onError(Throwable t) { terminate(new Terminal(t)); }
+
+    @Override
+    public void onComplete() { terminate(COMPLETE); }
+
+    @SuppressWarnings("unchecked")
+    private void terminate(Terminal terminal) {
+        if (value instanceof Terminal) return;
+        long idx = set(terminal);
+        for (Object o : observers.terminate()) ((BehaviorDisposable<T>) o).emitNext(terminal, idx);
+    }
+
+    private long set(Object v) {
+        writeLock.lock();
+        try {
+            value = v;
+            return ++index;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /** Текущее значение или null. */
+    @SuppressWarnings("unchecked")
+    public T getValue() {
+        Object v = value;
+        return v instanceof Terminal ? null : (T) v;
+    }
+
+    public boolean hasValue() { Object v = value; return v != null && !(v instanceof Terminal); }
+
+    @Override public boolean hasObservers()   { return observers.size() != 0; }
+    @Override public int observerCount()      { return observers.size(); }
+    @Override public boolean hasComplete()    { return value == COMPLETE; }
+    @Override public boolean hasThrowable()   { return value instanceof Terminal t && t.error != null; }
+    @Override public Throwable getThrowable() { return value instanceof Terminal t ? t.error : null; }
+
+    static final class BehaviorDisposable<T> implements Disposable {
+        private final Observer<? super T> downstream;
+        private final BehaviorSubject<T> parent;
+        private volatile boolean disposed;
+
+        /* под блокировкой this, пока не включён fastPath */
+        private boolean next;
+        private boolean emitting;
+        private List<Object> queue;
+        private long index;
+        /** Первое значение выдано и очередь пуста — дальше только поток onNext. */
+        private boolean fastPath;
+
+        BehaviorDisposable(Observer<? super T> downstream, BehaviorSubject<T> parent) {
+            this.downstream = downstream;
+            this.parent = parent;
+        }
+
+        void emitFirst() {
+            Object v;
+            synchronized (this) {
+                if (disposed || next) return;
+                parent.readLock.lock();
+                try {
+                    index = parent.index;
+                    v = parent.value;
+                } finally {
+                    parent.readLock.unlock();
+                }
+                emitting = v != null;
+                next = true;
+            }
+            if (v != null) {
+                if (test(v)) return;
+                emitLoop();
+            }
+        }
+
+        void emitNext(Object v, long stateIndex) {
+            if (disposed) return;
+            if (!fastPath) {
+                synchronized (this) {
+                    if (disposed) return;
+                    // это значение уже выдано как первое
+                    if (index == stateIndex) return;
+                    if (emitting) {
+                        if (queue == null) queue = new ArrayList<>();
+                        queue.add(v);
+                        return;
+                    }
+                    next = true;
+                }
+                fastPath = true;
+            }
+            test(v);
+        }
+
+        private void emitLoop() {
+            for (;;) {
+                if (disposed) return;
+                List<Object> q;
+                synchronized (this) {
+                    q = queue;
+                    if (q == null) {
+                        emitting = false;
+                        return;
+                    }
+                    queue = null;
+                }
+                for (Object v : q) if (test(v)) return;
+            }
+        }
+
+        /** @return true — подписчик завершён или отписан */
+        @SuppressWarnings("unchecked")
+        private boolean test(Object v) {
+            if (disposed) return true;
+            if (v instanceof Terminal t) {
+                disposed = true;
+                if (t.error != null) downstream.onError(t.error); else downstream.onComplete();
+                return true;
+            }
+            downstream.onNext((T) v);
+            return false;
+        }
+
+        @Override
+        public void dispose() {
+            if (disposed) return;
+            disposed = true;
+            parent.observers.remove(this);
+        }
+
+        @Override public boolean isDisposed() { return disposed; }
+    }
+}
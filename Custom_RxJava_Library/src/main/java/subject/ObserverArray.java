@@ -0,0 +1,63 @@
+package subject;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Массив подписчиков с копированием при записи: подписка и отписка
+ * CAS-ом подменяют массив целиком, а выдача просто проходит по текущему —
+ * без блокировок и без аллокаций на каждый элемент.
+ */
+final class ObserverArray<I> {
+
+    private static final Object[] EMPTY = new Object[0];
+    private static final Object[] TERMINATED = new Object[0];
+
+    private final AtomicReference<Object[]> array = new AtomicReference<>(EMPTY);
+
+    /** false — субъект уже завершён, подписчик не добавлен. */
+    boolean add(I inner) {
+        for (;;) {
+            Object[] a = array.get();
+            if (a == TERMINATED) return false;
+            Object[] b = new Object[a.length + 1];
+            System.arraycopy(a, 0, b, 0, a.length);
+            b[a.length] = inner;
+            if (array.compareAndSet(a, b)) return true;
+        }
+    }
+
+    void remove(I inner) {
+        for (;;) {
+            Object[] a = array.get();
+            int n = a.length;
+            if (n == 0) return;
+            int j = -1;
+            for (int i = 0; i < n; i++) {
+                if (a[i] == inner) {
+                    j = i;
+                    break;
+                }
+            }
+            if (j < 0) return;
+            Object[] b;
+            if (n == 1) {
+                b = EMPTY;
+            } else {
+                b = new Object[n - 1];
+                System.arraycopy(a, 0, b, 0, j);
+                System.arraycopy(a, j + 1, b, j, n - j - 1);
+            }
+            if (array.compareAndSet(a, b)) return;
+        }
+    }
+
+    /** Текущий снимок; элементы приводятся вызывающим. */
+    Object[] get() { return array.get(); }
+
+    /** Закрыть массив для новых подписчиков; возвращает последних. */
+    Object[] terminate() { return array.getAndSet(TERMINATED); }
+
+    boolean isTerminated() { return array.get() == TERMINATED; }
+
+    int size() { return array.get().length; }
+}
@@ -0,0 +1,85 @@
+package subject;
+
+import core.Disposable;
+import core.Observer;
+
+/**
+ * Раздаёт подписчикам только сигналы, пришедшие после их подписки.
+ * Подписавшийся после завершения сразу получает onComplete/onError.
+ */
+public final class PublishSubject<T> extends Subject<T> {
+
+    private final ObserverArray<PublishDisposable<T>> observers = new ObserverArray<>();
+    private volatile Throwable error;
+    private volatile boolean done;
+
+    private PublishSubject() { }
+
+    public static <T> PublishSubject<T> create() { return new PublishSubject<>(); }
+
+    @Override
+    protected void subscribeActual(Observer<? super T> observer) {
+        PublishDisposable<T> inner = new PublishDisposable<>(observer, this);
+        observer.onSubscribe(inner);
+        if (observers.add(inner)) {
+            if (inner.isDisposed()) observers.remove(inner);
+        } else {
+            Throwable ex = error;
+            if (ex != null) observer.onError(ex); else observer.onComplete();
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void onNext(T item) {
+        if (done) return;
+        for (Object o : observers.get()) ((PublishDisposable<T>) o).onNext(item);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void onError(Throwable t) {
+        if (done) return;
+        error = t;
+        done = true;
+        for (Object o : observers.terminate()) ((PublishDisposable<T>) o).onError(t);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void onComplete() {
+        if (done) return;
+        done = true;
+        for (Object o : observers.terminate()) ((PublishDisposable<T>) o).onComplete();
+    }
+
+    @Override public boolean hasObservers()   { return observers.size() != 0; }
+    @Override public int observerCount()      { return observers.size(); }
+    @Override public boolean hasComplete()    { return done && error == null; }
+    @Override public boolean hasThrowable()   { return done && error != null; }
+    @Override public Throwable getThrowable() { return done ? error : null; }
+
+    static final class PublishDisposable<T> implements Disposable {
+        private final Observer<? super T> downstream;
+        private final PublishSubject<T> parent;
+        private volatile boolean disposed;
+
+        PublishDisposable(Observer<? super T> downstream, PublishSubject<T> parent) {
+            this.downstream = downstream;
+            this.parent = parent;
+        }
+
+        void onNext(T item)        { if (!disposed) downstream.onNext(item); }
+        void onError(Throwable t)  { if (!disposed) downstream.onError(t); }
+        void onComplete()          { if (!disposed) downstream.onComplete(); }
+
+        @Override
+        public void dispose() {
+            if (disposed) return;
+            disposed = true;
+            parent.observers.remove(this);
+        }
+
+        @Override public boolean isDisposed() { return disposed; }
+    }
+}
@@ -0,0 +1,177 @@
+package subject;
+
+import core.Disposable;
+import core.Observer;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Повторяет новым подписчикам историю, затем раздаёт новые сигналы.
+ * История ограничена: кольцевой буфер на maxSize элементов и, по желанию,
+ * возраст maxAge — память не растёт с длиной потока.<br>
+ * Каждый подписчик читает кольцо по своему индексу в цикле выдачи (wip),
+ * поэтому повтор истории и живые элементы не перемешиваются.
+ * Если подписчик отстал больше чем на maxSize элементов (например, медленно
+ * разбирает историю, пока источник пишет), затёртые элементы он пропускает
+ * и продолжает с самого старого сохранившегося.
+ */
+public final class ReplaySubject<T> extends Subject<T> {
+
+    /** Ячейка кольца: значение с абсолютным номером и временем записи. */
+    private static final class Node {
+        final Object value;
+        final long index;
+        final long time;
+
+        Node(Object value, long index, long time) {
+            this.value = value;
+            this.index = index;
+            this.time = time;
+        }
+    }
+
+    private final ObserverArray<ReplayDisposable<T>> observers = new ObserverArray<>();
+    private final AtomicReferenceArray<Node> ring;
+    private final int capacity;
+    private final long maxAgeNanos;
+    /** Сколько элементов записано всего; пишет только источник. */
+    private volatile long size;
+    private volatile Throwable error;
+    private volatile boolean done;
+
+    private ReplaySubject(int maxSize, long maxAgeNanos) {
+        if (maxSize <= 0) throw new IllegalArgumentException("maxSize > 0 required: " + maxSize);
+        this.ring = new AtomicReferenceArray<>(maxSize);
+        this.capacity = maxSize;
+        this.maxAgeNanos = maxAgeNanos;
+    }
+
+    /** Хранит последние maxSize элементов. */
+    public static <T> ReplaySubject<T> createWithSize(int maxSize) {
+        return new ReplaySubject<>(maxSize, Long.MAX_VALUE);
+    }
+
+    /** Хранит элементы не старше maxAge, но не больше maxSize последних. */
+    public static <T> ReplaySubject<T> createWithTimeAndSize(long maxAge, TimeUnit unit, int maxSize) {
+        return new ReplaySubject<>(maxSize, unit.toNanos(maxAge));
+    }
+
+    @Override
+    protected void subscribeActual(Observer<? super T> observer) {
+        ReplayDisposable<T> inner = new ReplayDisposable<>(observer, this);
+        observer.onSubscribe(inner);
+        if (observers.add(inner) && inner.isDisposed()) {
+            observers.remove(inner);
+            return;
+        }
+        // и при живом, и при завершённом субъекте: история, затем сигналы/завершение
+        inner.drain();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void onNext(T item) {
+        if (done) return;
+        long i = size;
+        ring.set((int) (i % capacity), new Node(item, i, maxAgeNanos == Long.MAX_VALUE ? 0 : System.nanoTime()));
+        size = i + 1;
+        for (Object o : observers.get()) ((ReplayDisposable<T>) o).drain();
+    }
+
+    @Override
+    public void onError(Throwable t) {
+        if (done) return;
+        error = t;
+        terminate();
+    }
+
+    @Override
+    public void onComplete() {
+        if (done) return;
+        terminate();
+    }
+
+    @SuppressWarnings("unchecked")
+    private void terminate() {
+        done = true;
+        for (Object o : observers.terminate()) ((ReplayDisposable<T>) o).drain();
+    }
+
+    /** Первый номер, который ещё стоит повторять новому подписчику. */
+    private long oldestIndex() {
+        long end = size;
+        long i = Math.max(0, end - capacity);
+        if (maxAgeNanos == Long.MAX_VALUE) return i;
+        long limit = System.nanoTime() - maxAgeNanos;
+        for (; i < end; i++) {
+            Node n = ring.get((int) (i % capacity));
+            if (n != null && n.index == i && n.time - limit >= 0) break;
+        }
+        return i;
+    }
+
+    @Override public boolean hasObservers()   { return observers.size() != 0; }
+    @Override public int observerCount()      { return observers.size(); }
+    @Override public boolean hasComplete()    { return done && error == null; }
+    @Override public boolean hasThrowable()   { return done && error != null; }
+    @Override public Throwable getThrowable() { return done ? error : null; }
+
+    static final class ReplayDisposable<T> implements Disposable {
+        private final Observer<? super T> downstream;
+        private final ReplaySubject<T> parent;
+        private final AtomicInteger wip = new AtomicInteger();
+        /** Следующий номер для выдачи; -1 — ещё не начинали. Трогает только владелец wip. */
+        private long index = -1;
+        private volatile boolean disposed;
+
+        ReplayDisposable(Observer<? super T> downstream, ReplaySubject<T> parent) {
+            this.downstream = downstream;
+            this.parent = parent;
+        }
+
+        @SuppressWarnings("unchecked")
+        void drain() {
+            if (wip.getAndIncrement() != 0) return;
+            ReplaySubject<T> p = parent;
+            int missed = 1;
+            for (;;) {
+                if (disposed) return;
+                long i = index < 0 ? p.oldestIndex() : index;
+                // done читаем до size: всё записанное до завершения будет выдано
+                boolean d = p.done;
+                long end = p.size;
+                while (i < end) {
+                    if (disposed) return;
+                    Node n = p.ring.get((int) (i % p.capacity));
+                    if (n.index != i) {
+                        // ячейку уже перезаписали — догоняем самый старый сохранившийся
+                        i = Math.max(i + 1, p.size - p.capacity);
+                        continue;
+                    }
+                    downstream.onNext((T) n.value);
+                    i++;
+                }
+                index = i;
+                if (d) {
+                    disposed = true;
+                    Throwable ex = p.error;
+                    if (ex != null) downstream.onError(ex); else downstream.onComplete();
+                    return;
+                }
+                missed = wip.addAndGet(-missed);
+                if (missed == 0) break;
+            }
+        }
+
+        @Override
+        public void dispose() {
+            if (disposed) return;
+            disposed = true;
+            parent.observers.remove(this);
+        }
+
+        @Override public boolean isDisposed() { return disposed; }
+    }
+}
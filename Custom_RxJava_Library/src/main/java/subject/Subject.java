@@ -0,0 +1,28 @@
+package subject;
+
+import core.Observable;
+import core.Observer;
+
+/**
+ * Субъект — одновременно Observer и горячий Observable: сигналы, поданные
+ * в него, раздаются всем текущим подписчикам. Источник выполняется один раз,
+ * сколько бы подписчиков ни было.<br>
+ * Как и для любого Observer, onNext/onError/onComplete нужно вызывать
+ * последовательно (не из нескольких потоков одновременно).<br>
+ * Disposable подписки на субъект отписывает подписчика от раздачи.
+ */
+public abstract class Subject<T> extends Observable<T> implements Observer<T> {
+
+    protected Subject() { }
+
+    public abstract boolean hasObservers();
+
+    /** Число текущих подписчиков. */
+    public abstract int observerCount();
+
+    public abstract boolean hasComplete();
+
+    public abstract boolean hasThrowable();
+
+    public abstract Throwable getThrowable();
+}
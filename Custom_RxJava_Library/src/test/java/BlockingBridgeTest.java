@@ -0,0 +1,126 @@
+import core.Observable;
+import org.junit.Test;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class BlockingBridgeTest {
+
+    /** Бесконечный синхронный источник; считает выданные элементы. */
+    private static Observable<Integer> infinite(AtomicInteger produced, AtomicBoolean stopped) {
+        return Observable.create(e -> {
+            for (int i = 0; !e.isDisposed(); i++) {
+                produced.incrementAndGet();
+                e.onNext(i);
+            }
+            stopped.set(true);
+        });
+    }
+
+    @Test
+    public void blockingIterableBoundsPrefetchAndCancels() throws InterruptedException {
+        AtomicInteger produced = new AtomicInteger();
+        AtomicBoolean stopped = new AtomicBoolean();
+        Iterator<Integer> it = infinite(produced, stopped).blockingIterable(16).iterator();
+        for (int i = 0; i < 100; i++) assertEquals(i, (int) it.next());
+        Thread.sleep(50);
+        // прочитано 100, в очереди не больше 16, плюс один ждущий в onNext
+        assertTrue("produced " + produced.get(), produced.get() <= 100 + 16 + 1);
+
+        ((core.Disposable) it).dispose();
+        long deadline = System.currentTimeMillis() + 1000;
+        while (!stopped.get() && System.currentTimeMillis() < deadline) Thread.sleep(5);
+        assertTrue(stopped.get());
+    }
+
+    @Test
+    public void blockingIterableRethrowsError() {
+        Iterator<Integer> it = Observable.<Integer>create(e -> {
+            e.onNext(1);
+            e.onError(new IllegalStateException("boom"));
+        }).blockingIterable().iterator();
+        assertEquals(1, (int) it.next());
+        try {
+            it.hasNext();
+            fail();
+        } catch (IllegalStateException expected) {
+            assertEquals("boom", expected.getMessage());
+        }
+    }
+
+    @Test
+    public void blockingFirstAndLast() {
+        AtomicInteger produced = new AtomicInteger();
+        AtomicBoolean stopped = new AtomicBoolean();
+        assertEquals(0, (int) infinite(produced, stopped).blockingFirst());
+        assertTrue(stopped.get());
+
+        Observable<Integer> three = Observable.fromIterable(List.of(1, 2, 3));
+        assertEquals(1, (int) three.blockingFirst());
+        assertEquals(3, (int) three.blockingLast());
+
+        Observable<Integer> empty = Observable.fromIterable(List.of());
+        assertEquals(7, (int) empty.blockingFirst(7));
+        assertEquals(7, (int) empty.blockingLast(7));
+        try {
+            empty.blockingLast();
+            fail();
+        } catch (NoSuchElementException expected) { }
+        try {
+            Observable.<Integer>create(e -> { throw new IllegalArgumentException("bad"); }).blockingFirst();
+            fail();
+        } catch (IllegalArgumentException expected) { }
+    }
+
+    @Test
+    public void toStreamIsOrderedAndSplitsInParallel() {
+        Observable<Integer> source = Observable.fromStream(IntStream.range(0, 50_000).boxed())
+                .map(i -> i);
+        // fromStream одноразовый, поэтому на каждый проход — свой источник
+        assertEquals(List.of(0, 1, 2, 3, 4),
+                Observable.fromIterable(List.of(0, 1, 2, 3, 4)).toStream().collect(Collectors.toList()));
+        long sum = source.toStream(64).parallel().mapToLong(Integer::longValue).sum();
+        assertEquals(50_000L * 49_999 / 2, sum);
+    }
+
+    @Test
+    public void toStreamCloseCancelsSource() throws InterruptedException {
+        AtomicInteger produced = new AtomicInteger();
+        AtomicBoolean stopped = new AtomicBoolean();
+        try (Stream<Integer> s = infinite(produced, stopped).toStream(8)) {
+            assertEquals(List.of(0, 1, 2), s.limit(3).collect(Collectors.toList()));
+        }
+        long deadline = System.currentTimeMillis() + 1000;
+        while (!stopped.get() && System.currentTimeMillis() < deadline) Thread.sleep(5);
+        assertTrue(stopped.get());
+    }
+
+    @Test
+    public void fromStreamClosesStreamAndHonoursDispose() {
+        AtomicBoolean closed = new AtomicBoolean();
+        AtomicInteger pulled = new AtomicInteger();
+        Stream<Integer> stream = Stream.iterate(0, i -> i + 1).peek(i -> pulled.incrementAndGet())
+                .onClose(() -> closed.set(true));
+        assertEquals(4, (int) Observable.fromStream(stream).take(5).blockingLast());
+        assertTrue(closed.get());
+        assertTrue("pulled " + pulled.get(), pulled.get() <= 6);
+
+        // повторная подписка на использованный Stream — ошибка, а не тихий пустой поток
+        try {
+            Observable.fromStream(stream).blockingFirst();
+            fail();
+        } catch (IllegalStateException expected) { }
+        assertFalse(Observable.fromIterable(List.of()).blockingIterable().iterator().hasNext());
+    }
+}
@@ -0,0 +1,146 @@
+import cache.BoundedCache;
+import core.Observable;
+import core.Observer;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class CacheTest {
+
+    private static <T> List<Object> collect(Observable<T> source) {
+        List<Object> out = new ArrayList<>();
+        source.subscribe(new Observer<T>() {
+            @Override public void onNext(T item) { out.add(item); }
+            @Override public void onError(Throwable t) { out.add("error: " + t.getMessage()); }
+            @Override public void onComplete() { out.add("done"); }
+        });
+        return out;
+    }
+
+    @Test
+    public void cacheRunsSourceOnceAndTtlRefreshes() throws InterruptedException {
+        AtomicInteger runs = new AtomicInteger();
+        Observable<Integer> source = Observable.create(e -> {
+            int run = runs.incrementAndGet();
+            for (int i = 0; i < 40; i++) e.onNext(run * 100 + i);
+            e.onComplete();
+        });
+
+        Observable<Integer> cached = source.cache();
+        List<Object> first = collect(cached);
+        assertEquals(41, first.size());
+        assertEquals(first, collect(cached));
+        assertEquals(1, runs.get());
+
+        Observable<Integer> ttl = source.cacheWithTtl(50, TimeUnit.MILLISECONDS);
+        assertEquals(201, collect(ttl).get(1));
+        assertEquals(201, collect(ttl).get(1));
+        assertEquals(2, runs.get());
+        Thread.sleep(80);
+        assertEquals(301, collect(ttl).get(1));
+        assertEquals(3, runs.get());
+
+        // ошибка не кэшируется: следующий подписчик запускает источник заново
+        AtomicInteger attempts = new AtomicInteger();
+        Observable<String> flaky = Observable.<String>create(e -> {
+            if (attempts.incrementAndGet() == 1) e.onError(new IllegalStateException("boom"));
+            else { e.onNext("ok"); e.onComplete(); }
+        }).cacheWithTtl(1, TimeUnit.MINUTES);
+        assertEquals(List.of("error: boom"), collect(flaky));
+        assertEquals(List.of("ok", "done"), collect(flaky));
+        assertEquals(List.of("ok", "done"), collect(flaky));
+        assertEquals(2, attempts.get());
+    }
+
+    @Test
+    public void boundedCacheKeepsFrequentKeysAndExpires() throws InterruptedException {
+        BoundedCache<String, String> cache = new BoundedCache<>(2);
+        for (int i = 0; i < 5; i++) {
+            cache.get("hot", String::toUpperCase);
+            cache.get("warm", String::toUpperCase);
+        }
+        // однократный проход по новым ключам не вытесняет популярные
+        for (int i = 0; i < 20; i++) cache.get("scan-" + i, String::toUpperCase);
+        assertEquals("HOT", cache.getIfPresent("hot"));
+        assertEquals("WARM", cache.getIfPresent("warm"));
+        assertTrue(cache.size() <= 2);
+
+        BoundedCache.Stats stats = cache.stats();
+        assertEquals(8, stats.hits());
+        assertEquals(22, stats.misses());
+        assertEquals(20, stats.evictions() + stats.rejections());
+
+        BoundedCache<Integer, Integer> ttl = new BoundedCache<>(10, 30, TimeUnit.MILLISECONDS);
+        AtomicInteger loads = new AtomicInteger();
+        ttl.get(1, k -> loads.incrementAndGet());
+        ttl.get(1, k -> loads.incrementAndGet());
+        Thread.sleep(50);
+        assertNull(ttl.getIfPresent(1));
+        assertEquals(2, (int) ttl.get(1, k -> loads.incrementAndGet()));
+    }
+
+    @Test
+    public void concurrentMissesShareOneLoad() throws InterruptedException {
+        BoundedCache<String, Integer> cache = new BoundedCache<>(16);
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread loader = new Thread(() -> cache.get("k", k -> {
+            loading.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return loads.incrementAndGet();
+        }));
+        loader.start();
+        assertTrue(loading.await(5, TimeUnit.SECONDS));
+        int[] seen = new int[1];
+        Thread waiter = new Thread(() -> seen[0] = cache.get("k", k -> loads.incrementAndGet()));
+        waiter.start();
+        Thread.sleep(20);
+        release.countDown();
+        loader.join(5000);
+        waiter.join(5000);
+        assertEquals(1, loads.get());
+        assertEquals(1, seen[0]);
+    }
+
+    @Test
+    public void mapCachedAndFlatMapCached() {
+        Observable<Integer> items = Observable.create(e -> {
+            for (int i = 0; i < 30; i++) e.onNext(i % 3);
+            e.onComplete();
+        });
+
+        AtomicInteger calls = new AtomicInteger();
+        BoundedCache<Integer, String> cache = new BoundedCache<>(8);
+        List<Object> mapped = collect(items.mapCached(i -> i, i -> {
+            calls.incrementAndGet();
+            return "v" + i;
+        }, cache));
+        assertEquals(31, mapped.size());
+        assertEquals("v2", mapped.get(29));
+        assertEquals(3, calls.get());
+        assertEquals(27, cache.stats().hits());
+
+        AtomicInteger subscriptions = new AtomicInteger();
+        List<Object> flat = collect(items.flatMapCached(i -> i, i -> Observable.<Integer>create(e -> {
+            subscriptions.incrementAndGet();
+            e.onNext(i * 10);
+            e.onNext(i * 10 + 1);
+            e.onComplete();
+        }), 8));
+        assertEquals(61, flat.size());
+        assertEquals(3, subscriptions.get());
+    }
+}
@@ -0,0 +1,163 @@
+import core.Disposable;
+import core.Observable;
+import org.junit.Test;
+import scheduler.HashedWheelTimer;
+import scheduler.IOThreadScheduler;
+import subject.PublishSubject;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class CombiningTest {
+
+    private static Observable<Integer> range(int from, int n) {
+        return Observable.fromIterable(IntStream.range(from, from + n).boxed().collect(Collectors.toList()));
+    }
+
+    private static <T> List<T> collect(Observable<T> source) {
+        return source.toStream().collect(Collectors.toList());
+    }
+
+    /** Бесконечный источник на своём потоке; считает выданные элементы. */
+    private static Observable<Integer> fast(AtomicInteger produced, AtomicBoolean stopped) {
+        return Observable.<Integer>create(e -> {
+            for (int i = 0; !e.isDisposed(); i++) {
+                produced.incrementAndGet();
+                e.onNext(i);
+            }
+            stopped.set(true);
+        }).subscribeOn(IOThreadScheduler.shared());
+    }
+
+    @Test
+    public void zipPairsByIndexAndStopsAtShortest() {
+        assertEquals(List.of("1a", "2b", "3c"),
+                collect(Observable.zip(range(1, 5), Observable.fromIterable(List.of("a", "b", "c")), (i, s) -> i + s)));
+        assertEquals(List.of(11, 22), collect(Observable.fromIterable(List.of(1, 2))
+                .zipWith(Observable.fromIterable(List.of(10, 20, 30)), Integer::sum)));
+        assertEquals(List.of("0-0-0", "1-1-1"),
+                collect(Observable.zip(List.of(range(0, 2), range(0, 3), range(0, 4)),
+                        row -> row[0] + "-" + row[1] + "-" + row[2])));
+
+        // синхронные источники длиннее кольца: ждущий источник передаёт подписку остальных другому потоку
+        long sum = Observable.zip(range(0, 10_000), range(0, 10_000), Integer::sum)
+                .toStream().mapToLong(Integer::longValue).sum();
+        assertEquals(2L * (10_000L * 9_999 / 2), sum);
+    }
+
+    @Test
+    public void zipHoldsFastSourceToRingSize() throws InterruptedException {
+        AtomicInteger produced = new AtomicInteger();
+        AtomicBoolean stopped = new AtomicBoolean();
+        Observable<Integer> slow = Observable.create(e -> {
+            for (int i = 0; i < 20 && !e.isDisposed(); i++) {
+                Thread.sleep(2);
+                e.onNext(i);
+            }
+            e.onComplete();
+        });
+        List<Integer> out = collect(Observable.zip(List.of(fast(produced, stopped), slow),
+                row -> (Integer) row[0] + (Integer) row[1], 16));
+        assertEquals(20, out.size());
+        assertEquals(38, (int) out.get(19));
+        // 20 склеено, не больше кольца в очереди, один ждущий в onNext
+        // и один, успевший занять место, освобождённое последней строкой
+        assertTrue("produced " + produced.get(), produced.get() <= 20 + 16 + 2);
+        long deadline = System.currentTimeMillis() + 1000;
+        while (!stopped.get() && System.currentTimeMillis() < deadline) Thread.sleep(5);
+        assertTrue(stopped.get());
+    }
+
+    @Test
+    public void combineLatestEmitsOnEveryChangeAfterAllHaveValues() {
+        PublishSubject<Integer> prices = PublishSubject.create();
+        PublishSubject<String> positions = PublishSubject.create();
+        List<String> out = new ArrayList<>();
+        AtomicBoolean completed = new AtomicBoolean();
+        Observable.combineLatest(prices, positions, (p, s) -> s + "@" + p).subscribe(new core.Observer<String>() {
+            @Override public void onNext(String item) { out.add(item); }
+            @Override public void onError(Throwable t) { fail(); }
+            @Override public void onComplete() { completed.set(true); }
+        });
+        prices.onNext(100);
+        prices.onNext(101);
+        positions.onNext("A");
+        prices.onNext(102);
+        positions.onNext("B");
+        prices.onComplete();
+        positions.onNext("C");
+        assertEquals(List.of("A@101", "A@102", "B@102", "C@102"), out);
+        positions.onComplete();
+        assertTrue(completed.get());
+
+        // источник завершился пустым — комбинаций не будет
+        assertEquals(List.of(), collect(Observable.combineLatest(range(0, 3), Observable.fromIterable(List.of()),
+                (a, b) -> a + "" + b)));
+    }
+
+    @Test
+    public void mergeInterleavesAndKeepsPerSourceOrder() {
+        int n = 5_000;
+        List<Integer> out = collect(Observable.merge(
+                range(0, n).subscribeOn(IOThreadScheduler.shared()),
+                range(n, n).subscribeOn(IOThreadScheduler.shared())));
+        assertEquals(2 * n, out.size());
+        int lastA = -1, lastB = n - 1;
+        for (int v : out) {
+            if (v < n) { assertTrue(v > lastA); lastA = v; }
+            else { assertTrue(v > lastB); lastB = v; }
+        }
+        assertEquals(List.of(1, 2, 3, 4), collect(range(1, 2).mergeWith(range(3, 2))));
+
+        AtomicBoolean cancelled = new AtomicBoolean();
+        Observable<Integer> never = Observable.create(e -> e.setCancellable(() -> cancelled.set(true)));
+        try {
+            Observable.merge(never, Observable.<Integer>create(e -> e.onError(new IllegalStateException("boom"))))
+                    .blockingFirst();
+            fail();
+        } catch (IllegalStateException expected) {
+            assertTrue(cancelled.get());
+        }
+    }
+
+    @Test
+    public void concatRunsSourcesInTurn() {
+        assertEquals(List.of(1, 2, 3, 4, 5, 6), collect(Observable.concat(range(1, 3), range(4, 3))));
+        assertEquals(List.of(1, 2), collect(range(1, 1).concatWith(range(2, 1))));
+        // длинная цепочка синхронных источников — цикл, а не рекурсия
+        List<Observable<Integer>> many = Collections.nCopies(20_000, range(0, 1));
+        assertEquals(20_000, Observable.concat(many).toStream().count());
+    }
+
+    @Test
+    public void concatMapEagerSubscribesAheadButEmitsInOrder() {
+        AtomicInteger active = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+        // чем раньше элемент, тем дольше его внутренний поток
+        Observable<Integer> out = range(1, 6).concatMapEager(i -> Observable.<Integer>create(e -> {
+            peak.accumulateAndGet(active.incrementAndGet(), Math::max);
+            Disposable t = HashedWheelTimer.shared().schedule(() -> {
+                active.decrementAndGet();
+                e.onNext(i * 10);
+                e.onNext(i * 10 + 1);
+                e.onComplete();
+            }, 120 - i * 15, TimeUnit.MILLISECONDS);
+            e.setCancellable(t::dispose);
+        }), 3);
+        long start = System.nanoTime();
+        assertEquals(List.of(10, 11, 20, 21, 30, 31, 40, 41, 50, 51, 60, 61), collect(out));
+        assertEquals(3, peak.get());
+        // по три параллельно: заметно быстрее суммы задержек (105+90+...+30 = 405 мс)
+        assertTrue(System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(380));
+    }
+}
@@ -0,0 +1,450 @@
+import custom.CustomThreadFactory;
+import custom.CustomThreadPoolExecutor;
+import custom.PoolMetrics;
+import custom.RejectionPolicy;
+import custom.SheddingPolicy;
+import org.junit.Test;
+
+import core.Disposable;
+
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class CustomThreadPoolExecutorTest {
+
+    @Test
+    public void runsAllTasksFromManyProducers() throws InterruptedException {
+        var pool = new CustomThreadPoolExecutor(2, 4, 1, TimeUnit.SECONDS,
+                1_024, 1, RejectionPolicy.CALLER_RUNS, new CustomThreadFactory("test"));
+        int producers = 4, perProducer = 50_000;
+        AtomicInteger executed = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(producers * perProducer);
+        for (int p = 0; p < producers; p++) {
+            new Thread(() -> {
+                for (int i = 0; i < perProducer; i++) {
+                    pool.execute(() -> {
+                        executed.incrementAndGet();
+                        done.countDown();
+                    });
+                }
+            }).start();
+        }
+        assertTrue(done.await(30, TimeUnit.SECONDS));
+        pool.shutdown();
+        assertEquals(producers * perProducer, executed.get());
+        assertTrue(pool.getPoolSize() <= 4);
+    }
+
+    @Test
+    public void fullQueueHandsTaskToNewWorker() throws InterruptedException {
+        var pool = new CustomThreadPoolExecutor(1, 2, 1, TimeUnit.SECONDS,
+                1, 0, RejectionPolicy.ABORT, new CustomThreadFactory("test"));
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(3);
+        Runnable blocking = () -> {
+            try { release.await(); } catch (InterruptedException ignored) { }
+            done.countDown();
+        };
+        pool.execute(blocking);       // занимает core-воркер
+        Thread.sleep(100);
+        pool.execute(blocking);       // в очередь
+        pool.execute(blocking);       // очередь полна — новый воркер берёт задачу сразу
+        assertEquals(2, pool.getPoolSize());
+        try {
+            pool.execute(blocking);   // пул и очередь заполнены
+            fail("expected rejection");
+        } catch (RejectedExecutionException expected) { }
+        release.countDown();
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        pool.shutdown();
+    }
+
+    @Test
+    public void idleWorkersAboveCoreStopAfterKeepAlive() throws InterruptedException {
+        var pool = new CustomThreadPoolExecutor(1, 3, 50, TimeUnit.MILLISECONDS,
+                1, 0, RejectionPolicy.ABORT, new CustomThreadFactory("test"));
+        CountDownLatch release = new CountDownLatch(1);
+        for (int i = 0; i < 4; i++) {
+            pool.execute(() -> {
+                try { release.await(); } catch (InterruptedException ignored) { }
+            });
+        }
+        assertEquals(3, pool.getPoolSize());
+        release.countDown();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (pool.getPoolSize() > 1 && System.nanoTime() < deadline) Thread.sleep(10);
+        assertEquals(1, pool.getPoolSize());
+        // оставшийся core-воркер раз в keepAlive перерегистрируется и на миг не считается ждущим
+        while (pool.getIdleCount() != 1 && System.nanoTime() < deadline) Thread.sleep(1);
+        assertEquals(1, pool.getIdleCount());
+        pool.shutdown();
+    }
+
+    @Test
+    public void failingTaskDoesNotKillWorker() throws InterruptedException {
+        List<Throwable> reported = Collections.synchronizedList(new ArrayList<>());
+        Thread.UncaughtExceptionHandler previous = Thread.getDefaultUncaughtExceptionHandler();
+        Thread.setDefaultUncaughtExceptionHandler((t, e) -> reported.add(e));
+        var pool = new CustomThreadPoolExecutor(1, 1, 1, TimeUnit.SECONDS,
+                4, 0, RejectionPolicy.ABORT, new CustomThreadFactory("test"));
+        try {
+            pool.execute(() -> { throw new IllegalStateException("boom"); });
+            CountDownLatch ran = new CountDownLatch(1);
+            pool.execute(ran::countDown);
+            // ошибка ушла обработчику потока, а воркер взял следующую задачу
+            assertTrue(ran.await(5, TimeUnit.SECONDS));
+            assertEquals(1, pool.getPoolSize());
+            assertEquals(1, pool.metrics().getFailedTasks());
+            assertEquals(1, reported.size());
+            assertEquals("boom", reported.get(0).getMessage());
+        } finally {
+            Thread.setDefaultUncaughtExceptionHandler(previous);
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void metricsCountTasksRejectionsAndTimings() throws Exception {
+        var pool = new CustomThreadPoolExecutor(1, 1, 1, TimeUnit.SECONDS,
+                2, 0, RejectionPolicy.DISCARD, new CustomThreadFactory("test"));
+        PoolMetrics metrics = pool.metrics();
+        metrics.setQueueWaitTracking(true);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(3);
+        for (int i = 0; i < 5; i++) {
+            pool.execute(() -> {
+                try { release.await(); } catch (InterruptedException ignored) { }
+                done.countDown();
+            });
+            Thread.sleep(20);
+        }
+        release.countDown();
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        Thread.sleep(50);
+
+        assertEquals(3, metrics.getSubmittedTasks());
+        assertEquals(3, metrics.getCompletedTasks());
+        assertEquals(0, metrics.getPendingTasks());
+        assertEquals(2, metrics.getRejections(RejectionPolicy.DISCARD));
+        assertEquals(1, metrics.getPeakWorkers());
+        assertEquals(3, metrics.getQueueWaitNanos().getCount());
+        assertTrue(metrics.getExecutionTimeNanos().getMax() > 0);
+
+        // атрибуты видны через платформенный MBeanServer
+        Disposable registration = metrics.registerMBean("test-pool");
+        var server = ManagementFactory.getPlatformMBeanServer();
+        var name = new ObjectName("custom.rx:type=ThreadPool,name=\"test-pool\"");
+        assertEquals(3L, server.getAttribute(name, "CompletedTasks"));
+        registration.dispose();
+        assertTrue(!server.isRegistered(name));
+        pool.shutdown();
+    }
+
+    @Test
+    public void simultaneousKeepAliveExpiryStopsAtCore() throws InterruptedException {
+        var pool = new CustomThreadPoolExecutor(2, 8, 20, TimeUnit.MILLISECONDS,
+                1, 0, RejectionPolicy.ABORT, new CustomThreadFactory("test"));
+        for (int round = 0; round < 3; round++) {
+            CountDownLatch release = new CountDownLatch(1);
+            Runnable blocker = () -> {
+                try { release.await(); } catch (InterruptedException ignored) { }
+            };
+            // core-воркеры разбираем по одному: иначе задача, ещё не взятая из
+            // единственного слота очереди, заставила бы лишний раз расширять пул
+            for (int i = 0; i < 2; i++) {
+                CountDownLatch started = new CountDownLatch(1);
+                pool.execute(() -> {
+                    started.countDown();
+                    blocker.run();
+                });
+                assertTrue(started.await(5, TimeUnit.SECONDS));
+            }
+            // одна задача встаёт в очередь, шесть — на новых воркерах до max
+            for (int i = 0; i < 7; i++) pool.execute(blocker);
+            assertEquals(8, pool.getPoolSize());
+            // все лишние воркеры освобождаются разом и разом же истекают по keepAlive
+            release.countDown();
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (pool.getPoolSize() > 2 && System.nanoTime() < deadline) Thread.sleep(10);
+            Thread.sleep(100);  // ещё несколько keepAlive: ниже core пул не опускается
+            assertEquals(2, pool.getPoolSize());
+        }
+        pool.shutdown();
+    }
+
+    @Test
+    public void adaptiveSizingFollowsLoad() throws InterruptedException {
+        var pool = new CustomThreadPoolExecutor(1, 16, 100, TimeUnit.MILLISECONDS,
+                10_000, 0, RejectionPolicy.ABORT, new CustomThreadFactory("test"));
+        pool.setAdaptiveSizing(5, TimeUnit.MILLISECONDS);
+        Runnable work = () -> {
+            try { Thread.sleep(5); } catch (InterruptedException ignored) { }
+        };
+
+        // задачи строго по одной: занятость λ·S не выше 1, а ожидание входит в тот же
+        // интервал, так что расчёт остаётся около 1 + S/T при любых задержках планировщика
+        for (int i = 0; i < 100; i++) {
+            CountDownLatch done = new CountDownLatch(1);
+            pool.execute(() -> { work.run(); done.countDown(); });
+            assertTrue(done.await(5, TimeUnit.SECONDS));
+        }
+        assertTrue("peak=" + pool.metrics().getPeakWorkers(), pool.metrics().getPeakWorkers() <= 8);
+
+        // пачки по 10 задач: темп намного выше, чем разбирает один воркер, очередь
+        // растёт, ожидание выше цели — пул расширяется (расчёт идёт на поступлении задач);
+        // задержки планировщика только удлиняют очередь, поэтому рост от них не зависит
+        int tasks = 300;
+        CountDownLatch done = new CountDownLatch(tasks);
+        int peak = 1;
+        for (int i = 0; i < tasks; i++) {
+            pool.execute(() -> { work.run(); done.countDown(); });
+            if (i % 10 == 9) Thread.sleep(2);
+            peak = Math.max(peak, pool.getPoolSize());
+        }
+        while (done.getCount() > 0) {
+            peak = Math.max(peak, pool.getPoolSize());
+            done.await(1, TimeUnit.MILLISECONDS);
+        }
+        assertTrue("peak=" + peak, peak >= 3);
+
+        // нагрузка ушла — по keepAlive обратно к core
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (pool.getPoolSize() > 1 && System.nanoTime() < deadline) Thread.sleep(20);
+        assertEquals(1, pool.getPoolSize());
+        pool.shutdown();
+    }
+
+    @Test
+    public void priorityDeadlinesAndShedding() throws Exception {
+        var pool = new CustomThreadPoolExecutor(1, 1, 1, TimeUnit.SECONDS,
+                100, 0, RejectionPolicy.ABORT, new CustomThreadFactory("test"));
+        List<String> order = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch release = new CountDownLatch(1);
+        pool.execute(() -> {
+            try { release.await(); } catch (InterruptedException ignored) { }
+        });
+        Thread.sleep(50);
+        pool.execute(() -> order.add("plain"));
+        pool.execute(() -> order.add("low"), -5);
+        pool.execute(() -> order.add("high-late"), 10, 1, TimeUnit.SECONDS);
+        pool.execute(() -> order.add("high-soon"), 10, 100, TimeUnit.MILLISECONDS);
+        pool.execute(() -> order.add("mid"), 3);
+        release.countDown();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (order.size() < 5 && System.nanoTime() < deadline) Thread.sleep(10);
+        assertEquals(List.of("high-soon", "high-late", "mid", "plain", "low"), order);
+
+        // просроченная задача не запускается, её Future завершается TimeoutException
+        pool.setDropExpired(true);
+        pool.setShedThreshold(20, TimeUnit.MILLISECONDS);
+        CountDownLatch block = new CountDownLatch(1);
+        pool.execute(() -> {
+            try { block.await(); } catch (InterruptedException ignored) { }
+        });
+        Thread.sleep(50);
+        Future<String> expired = pool.submit(() -> "late", 10, 10, TimeUnit.MILLISECONDS);
+        List<Future<String>> batch = new ArrayList<>();
+        for (int i = 0; i < 5; i++) batch.add(pool.submit(() -> "batch", -1, 1, TimeUnit.HOURS));
+        Future<String> interactive = pool.submit(() -> "interactive", 5, 1, TimeUnit.HOURS);
+        Thread.sleep(50);
+        block.countDown();
+
+        assertEquals("interactive", interactive.get(5, TimeUnit.SECONDS));
+        try {
+            expired.get(5, TimeUnit.SECONDS);
+            fail("expected expiry");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof TimeoutException);
+        }
+        // интерактивная задача ждала дольше порога — пакетные сброшены
+        for (Future<String> f : batch) {
+            try {
+                f.get(5, TimeUnit.SECONDS);
+                fail("expected shedding");
+            } catch (ExecutionException e) {
+                assertTrue(e.getCause() instanceof RejectedExecutionException);
+            }
+        }
+        PoolMetrics metrics = pool.metrics();
+        assertEquals(1, metrics.getShed(SheddingPolicy.DROP_EXPIRED));
+        assertEquals(5, metrics.getShed(SheddingPolicy.SHED_LOWEST_PRIORITY));
+        assertEquals(6, metrics.getDroppedTasks());
+        // Future завершается внутри задачи, учёт выполнения — после её возврата
+        long settle = System.nanoTime() + TimeUnit.SECONDS.toNanos(1);
+        while (metrics.getPendingTasks() != 0 && System.nanoTime() < settle) Thread.sleep(5);
+        assertEquals(0, metrics.getPendingTasks());
+        pool.shutdown();
+    }
+
+    @Test
+    public void batchesCompleteWithOneAggregateFuture() throws Exception {
+        var pool = new CustomThreadPoolExecutor(2, 4, 1, TimeUnit.SECONDS,
+                1_024, 0, RejectionPolicy.ABORT, new CustomThreadFactory("test"));
+        AtomicInteger executed = new AtomicInteger();
+        List<Runnable> tasks = new ArrayList<>();
+        for (int i = 0; i < 500; i++) tasks.add(executed::incrementAndGet);
+        pool.executeAll(tasks).get(5, TimeUnit.SECONDS);
+        assertEquals(500, executed.get());
+        assertEquals(500, pool.metrics().getSubmittedTasks());
+        assertTrue(pool.executeAll(List.of()).isDone());
+
+        // результаты в порядке задач
+        List<Callable<Integer>> calls = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            int v = i;
+            calls.add(() -> v * v);
+        }
+        List<Integer> squares = pool.invokeAll(calls).get(5, TimeUnit.SECONDS);
+        for (int i = 0; i < 100; i++) assertEquals(i * i, (int) squares.get(i));
+
+        // ошибка одной задачи завершает общий Future
+        calls.set(50, () -> { throw new IllegalStateException("boom"); });
+        try {
+            pool.invokeAll(calls).get(5, TimeUnit.SECONDS);
+            fail("expected failure");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof IllegalStateException);
+        }
+
+        // invokeAny: первый успешный; если упали все — первая ошибка с остальными в suppressed
+        assertEquals("ok", pool.invokeAny(List.<Callable<String>>of(
+                () -> { throw new IllegalStateException("a"); }, () -> "ok")).get(5, TimeUnit.SECONDS));
+        try {
+            pool.invokeAny(List.<Callable<String>>of(
+                    () -> { throw new IllegalStateException("a"); },
+                    () -> { throw new IllegalStateException("b"); })).get(5, TimeUnit.SECONDS);
+            fail("expected failure");
+        } catch (ExecutionException e) {
+            assertEquals(1, e.getCause().getSuppressed().length);
+        }
+
+        // отрезки по chunkSize, последний неполный
+        AtomicLong sum = new AtomicLong();
+        AtomicInteger chunks = new AtomicInteger();
+        pool.parallelFor(3, 1_003, 64, i -> {
+            sum.addAndGet(i);
+            if ((i - 3) % 64 == 0) chunks.incrementAndGet();
+        }).get(5, TimeUnit.SECONDS);
+        assertEquals((3L + 1_002) * 1_000 / 2, sum.get());
+        assertEquals(16, chunks.get());
+        assertTrue(pool.parallelFor(5, 5, 8, i -> fail()).isDone());
+        pool.shutdown();
+    }
+
+    @Test
+    public void rejectionPolicyAppliesToWholeBatch() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+
+        // ABORT: пачка не помещается — не выполняется ни одна её задача
+        var abort = new CustomThreadPoolExecutor(1, 1, 1, TimeUnit.SECONDS,
+                4, 0, RejectionPolicy.ABORT, new CustomThreadFactory("test"));
+        occupyWorker(abort, release);
+        AtomicInteger ran = new AtomicInteger();
+        List<Runnable> batch = Collections.nCopies(10, ran::incrementAndGet);
+        try {
+            abort.executeAll(batch);
+            fail("expected rejection");
+        } catch (RejectedExecutionException expected) { }
+        assertEquals(6, abort.metrics().getRejections(RejectionPolicy.ABORT));
+
+        // CALLER_RUNS: остаток выполняется в вызывающем потоке, пока воркер занят
+        var callerRuns = new CustomThreadPoolExecutor(1, 1, 1, TimeUnit.SECONDS,
+                4, 0, RejectionPolicy.CALLER_RUNS, new CustomThreadFactory("test"));
+        occupyWorker(callerRuns, release);
+        Thread caller = Thread.currentThread();
+        AtomicInteger onCaller = new AtomicInteger();
+        CompletableFuture<Void> all = callerRuns.executeAll(Collections.nCopies(10, () -> {
+            if (Thread.currentThread() == caller) onCaller.incrementAndGet();
+        }));
+        assertEquals(6, onCaller.get());
+        assertFalse(all.isDone());
+
+        // DISCARD: остаток не выполняется, и общий Future об этом знает
+        var discard = new CustomThreadPoolExecutor(1, 1, 1, TimeUnit.SECONDS,
+                4, 0, RejectionPolicy.DISCARD, new CustomThreadFactory("test"));
+        occupyWorker(discard, release);
+        AtomicInteger discarded = new AtomicInteger();
+        CompletableFuture<Void> partial = discard.executeAll(Collections.nCopies(10, discarded::incrementAndGet));
+
+        release.countDown();
+        all.get(5, TimeUnit.SECONDS);
+        try {
+            partial.get(5, TimeUnit.SECONDS);
+            fail("expected discard");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof RejectedExecutionException);
+        }
+        // пачка уже завершена ошибкой: поставленные задачи тело не выполняют
+        Thread.sleep(50);
+        assertEquals(0, ran.get());
+        assertEquals(0, discarded.get());
+        abort.shutdown();
+        callerRuns.shutdown();
+        discard.shutdown();
+    }
+
+    @Test
+    public void rejectedPriorityTaskCompletesItsFuture() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+
+        // DISCARD_OLDEST: вытесняется наименее важная задача, а не более важная новой
+        var oldest = new CustomThreadPoolExecutor(1, 1, 1, TimeUnit.SECONDS,
+                2, 0, RejectionPolicy.DISCARD_OLDEST, new CustomThreadFactory("test"));
+        occupyWorker(oldest, release);
+        Future<String> low = oldest.submit(() -> "low", -1, 1, TimeUnit.HOURS);
+        Future<String> mid = oldest.submit(() -> "mid", 1, 1, TimeUnit.HOURS);
+        Future<String> lower = oldest.submit(() -> "lower", -1, 1, TimeUnit.HOURS);
+        Future<String> high = oldest.submit(() -> "high", 5, 1, TimeUnit.HOURS);
+
+        // DISCARD: отброшенная задача не оставляет Future висеть
+        var discard = new CustomThreadPoolExecutor(1, 1, 1, TimeUnit.SECONDS,
+                1, 0, RejectionPolicy.DISCARD, new CustomThreadFactory("test"));
+        occupyWorker(discard, release);
+        Future<String> queued = discard.submit(() -> "queued", 0, 1, TimeUnit.HOURS);
+        Future<String> dropped = discard.submit(() -> "dropped", 9, 1, TimeUnit.HOURS);
+
+        release.countDown();
+        assertEquals("high", high.get(5, TimeUnit.SECONDS));
+        assertEquals("mid", mid.get(5, TimeUnit.SECONDS));
+        assertEquals("queued", queued.get(5, TimeUnit.SECONDS));
+        for (Future<String> f : List.of(low, lower, dropped)) {
+            try {
+                f.get(5, TimeUnit.SECONDS);
+                fail("expected rejection");
+            } catch (ExecutionException e) {
+                assertTrue(e.getCause() instanceof RejectedExecutionException);
+            }
+        }
+        assertEquals(1, oldest.metrics().getDroppedTasks());
+        oldest.shutdown();
+        discard.shutdown();
+    }
+
+    /** Занять единственного воркера до release; очередь при этом пуста. */
+    private static void occupyWorker(CustomThreadPoolExecutor pool, CountDownLatch release) throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        pool.execute(() -> {
+            started.countDown();
+            try { release.await(); } catch (InterruptedException ignored) { }
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+    }
+}
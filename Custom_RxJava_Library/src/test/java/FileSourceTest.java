@@ -0,0 +1,97 @@
+import core.Observable;
+import core.Observer;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class FileSourceTest {
+
+    /** Кадры декодируются внутри onNext: после него буфер может быть переиспользован. */
+    private static List<String> collectStrings(Observable<ByteBuffer> source) throws InterruptedException {
+        List<String> out = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch done = new CountDownLatch(1);
+        source.subscribe(new Observer<ByteBuffer>() {
+            @Override public void onNext(ByteBuffer item) { out.add(StandardCharsets.UTF_8.decode(item).toString()); }
+            @Override public void onError(Throwable t) { out.add("error: " + t.getMessage()); done.countDown(); }
+            @Override public void onComplete() { done.countDown(); }
+        });
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        return out;
+    }
+
+    @Test
+    public void mappedFileLinesAcrossChunkBoundaries() throws Exception {
+        Path file = Files.createTempFile("lines", ".log");
+        try {
+            Files.writeString(file, "alpha\r\nbeta\ngamma-delta-epsilon\n\nlast");
+            // кусок в 4 байта: почти каждая строка пересекает границу
+            List<String> lines = collectStrings(Observable.lines(
+                    Observable.fromFile(file, 4, scheduler.IOThreadScheduler.shared())));
+            assertEquals(List.of("alpha", "beta", "gamma-delta-epsilon", "", "last"), lines);
+
+            List<String> whole = collectStrings(Observable.lines(Observable.fromFile(file)));
+            assertEquals(lines, whole);
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void channelFramesAndMaxFrameLength() throws InterruptedException {
+        byte[] data = "a;bb;ccc;dddd".getBytes(StandardCharsets.UTF_8);
+        Observable<ByteBuffer> chunks = Observable.fromChannel(
+                () -> Channels.newChannel(new ByteArrayInputStream(data)), 3, scheduler.IOThreadScheduler.shared());
+        assertEquals(List.of("a", "bb", "ccc", "dddd"), collectStrings(Observable.frames(chunks, (byte) ';', 16)));
+        assertEquals(List.of("a", "bb", "ccc", "error: Кадр длиннее 3 байт"),
+                collectStrings(Observable.frames(chunks, (byte) ';', 3)));
+
+        // длинный кадр целиком внутри одного куска — тоже ошибка, а не срез без проверки
+        Observable<ByteBuffer> single = Observable.fromIterable(
+                List.of(ByteBuffer.wrap("a;bbbbbbbbbb;c".getBytes(StandardCharsets.UTF_8))));
+        assertEquals(List.of("a", "error: Кадр длиннее 3 байт"),
+                collectStrings(Observable.frames(single, (byte) ';', 3)));
+    }
+
+    @Test
+    public void disposeStopsReadingAndClosesChannel() throws InterruptedException {
+        AtomicLong bytesRead = new AtomicLong();
+        AtomicBoolean closed = new AtomicBoolean();
+        // бесконечный канал строк "x\n"
+        ReadableByteChannel endless = new ReadableByteChannel() {
+            @Override
+            public int read(ByteBuffer dst) {
+                int n = 0;
+                while (dst.remaining() >= 2) {
+                    dst.put((byte) 'x').put((byte) '\n');
+                    n += 2;
+                }
+                bytesRead.addAndGet(n);
+                return n;
+            }
+            @Override public boolean isOpen() { return !closed.get(); }
+            @Override public void close() { closed.set(true); }
+        };
+        List<String> lines = collectStrings(Observable.lines(Observable.fromChannel(() -> endless)).take(3));
+        assertEquals(List.of("x", "x", "x"), lines);
+        Thread.sleep(50);
+        assertTrue(closed.get());
+        // отмена пришла внутри первого же куска: дальше канал не читался
+        assertEquals(Observable.CHANNEL_BUFFER_SIZE, bytesRead.get());
+    }
+}
@@ -0,0 +1,123 @@
+import core.BackpressureStrategy;
+import core.Flowable;
+import core.MissingBackpressureException;
+import core.Observable;
+import core.Subscriber;
+import core.Subscription;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class FlowableTest {
+
+    /** Подписчик, который сам решает, когда запрашивать. */
+    private static final class TestSubscriber<T> implements Subscriber<T> {
+        final List<T> values = Collections.synchronizedList(new ArrayList<>());
+        final List<Throwable> errors = Collections.synchronizedList(new ArrayList<>());
+        final CountDownLatch done = new CountDownLatch(1);
+        private final long initialRequest;
+        volatile Subscription subscription;
+
+        TestSubscriber(long initialRequest) { this.initialRequest = initialRequest; }
+
+        @Override public void onSubscribe(Subscription s) {
+            subscription = s;
+            if (initialRequest > 0) s.request(initialRequest);
+        }
+        @Override public void onNext(T item) { values.add(item); }
+        @Override public void onError(Throwable t) { errors.add(t); done.countDown(); }
+        @Override public void onComplete() { done.countDown(); }
+    }
+
+    @Test
+    public void requestLimitsEmission() {
+        TestSubscriber<Integer> ts = new TestSubscriber<>(3);
+        Flowable.range(1, 10).subscribe(ts);
+        assertEquals(List.of(1, 2, 3), ts.values);
+        assertEquals(1L, ts.done.getCount());
+
+        ts.subscription.request(100);
+        assertEquals(10, ts.values.size());
+        assertEquals(0L, ts.done.getCount());
+    }
+
+    @Test
+    public void mapFilterFlatMap() {
+        TestSubscriber<Integer> ts = new TestSubscriber<>(Long.MAX_VALUE);
+        Flowable.range(1, 4)
+                .map(x -> x * 10)
+                .filter(x -> x >= 20)
+                .flatMap(x -> Flowable.fromIterable(List.of(x, x + 1)))
+                .subscribe(ts);
+        assertEquals(List.of(20, 21, 30, 31, 40, 41), ts.values);
+        assertTrue(ts.errors.isEmpty());
+    }
+
+    @Test
+    public void observeOnThrottlesProducer() throws InterruptedException {
+        AtomicInteger generated = new AtomicInteger();
+        var scheduler = new scheduler.SingleThreadScheduler();
+        TestSubscriber<Integer> ts = new TestSubscriber<>(1);
+        Flowable.range(1, 1_000)
+                .map(x -> { generated.incrementAndGet(); return x; })
+                .observeOn(scheduler, 16)
+                .subscribe(ts);
+        Thread.sleep(200);
+        // источник остановился на размере предвыборки, а не выдал всю тысячу
+        assertEquals(List.of(1), ts.values);
+        assertEquals(16, generated.get());
+
+        ts.subscription.request(Long.MAX_VALUE);
+        assertTrue(ts.done.await(5, TimeUnit.SECONDS));
+        scheduler.shutdown();
+        assertEquals(1_000, ts.values.size());
+        assertEquals(1_000, generated.get());
+    }
+
+    @Test
+    public void overflowStrategies() {
+        Observable<Integer> source = Observable.create(obs -> {
+            for (int i = 1; i <= 5; i++) obs.onNext(i);
+            obs.onComplete();
+        });
+
+        TestSubscriber<Integer> drop = new TestSubscriber<>(2);
+        source.toFlowable(BackpressureStrategy.DROP).subscribe(drop);
+        assertEquals(List.of(1, 2), drop.values);
+
+        TestSubscriber<Integer> latest = new TestSubscriber<>(0);
+        source.toFlowable(BackpressureStrategy.LATEST).subscribe(latest);
+        latest.subscription.request(10);
+        assertEquals(List.of(5), latest.values);
+
+        TestSubscriber<Integer> buffer = new TestSubscriber<>(0);
+        source.toFlowable(BackpressureStrategy.BUFFER).subscribe(buffer);
+        buffer.subscription.request(10);
+        assertEquals(List.of(1, 2, 3, 4, 5), buffer.values);
+
+        TestSubscriber<Integer> error = new TestSubscriber<>(1);
+        source.toFlowable(BackpressureStrategy.ERROR).subscribe(error);
+        assertEquals(List.of(1), error.values);
+        assertTrue(error.errors.get(0) instanceof MissingBackpressureException);
+    }
+
+    @Test
+    public void toObservableRequestsEverything() {
+        List<Integer> out = new ArrayList<>();
+        Flowable.range(1, 3).toObservable().subscribe(new core.Observer<Integer>() {
+            @Override public void onNext(Integer item) { out.add(item); }
+            @Override public void onError(Throwable t) { fail(String.valueOf(t)); }
+            @Override public void onComplete() { /* ok */ }
+        });
+        assertEquals(List.of(1, 2, 3), out);
+    }
+}
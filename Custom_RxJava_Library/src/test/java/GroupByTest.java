@@ -0,0 +1,145 @@
+import core.Disposable;
+import core.GroupedObservable;
+import core.Observable;
+import core.Observer;
+import org.junit.Test;
+import scheduler.ComputationScheduler;
+import subject.PublishSubject;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class GroupByTest {
+
+    /** Подписывается на каждую группу сразу и собирает её элементы по ключу. */
+    private static <K, T> Map<K, List<T>> collectGroups(Observable<GroupedObservable<K, T>> groups,
+                                                        CountDownLatch allDone, AtomicInteger opened) {
+        Map<K, List<T>> out = new ConcurrentHashMap<>();
+        groups.subscribe(new Observer<GroupedObservable<K, T>>() {
+            @Override
+            public void onNext(GroupedObservable<K, T> g) {
+                opened.incrementAndGet();
+                List<T> list = out.computeIfAbsent(g.getKey(), k -> new ArrayList<>());
+                g.subscribe(new Observer<T>() {
+                    @Override public void onNext(T item) { synchronized (list) { list.add(item); } }
+                    @Override public void onError(Throwable t) { }
+                    @Override public void onComplete() { allDone.countDown(); }
+                });
+            }
+            @Override public void onError(Throwable t) { }
+            @Override public void onComplete() { }
+        });
+        return out;
+    }
+
+    private static Observable<Integer> range(int n) {
+        return Observable.create(e -> {
+            for (int i = 0; i < n && !e.isDisposed(); i++) e.onNext(i);
+            e.onComplete();
+        });
+    }
+
+    @Test
+    public void groupsKeepOrderPerKey() throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(3);
+        AtomicInteger opened = new AtomicInteger();
+        Map<Integer, List<Integer>> groups = collectGroups(range(30).groupBy(i -> i % 3), done, opened);
+        assertTrue(done.await(1, TimeUnit.SECONDS));
+        assertEquals(3, opened.get());
+        for (int k = 0; k < 3; k++) {
+            List<Integer> g = groups.get(k);
+            assertEquals(10, g.size());
+            for (int j = 0; j < g.size(); j++) assertEquals(k + 3 * j, (int) g.get(j));
+        }
+    }
+
+    @Test
+    public void partitionedKeepsOrderPerKeyAcrossWorkers() throws InterruptedException {
+        var scheduler = new ComputationScheduler(4);
+        int keys = 50, n = 20_000;
+        CountDownLatch done = new CountDownLatch(keys);
+        AtomicInteger opened = new AtomicInteger();
+        Map<Integer, List<Integer>> groups = collectGroups(range(n).groupBy(i -> i % keys, 4, scheduler), done, opened);
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        assertEquals(keys, opened.get());
+        for (int k = 0; k < keys; k++) {
+            List<Integer> g = groups.get(k);
+            assertEquals(n / keys, g.size());
+            for (int j = 0; j < g.size(); j++) assertEquals(k + keys * j, (int) g.get(j));
+        }
+        scheduler.shutdown();
+    }
+
+    @Test
+    public void idleGroupsAreEvictedAndReopened() throws InterruptedException {
+        PublishSubject<String> source = PublishSubject.create();
+        List<String> events = new ArrayList<>();
+        List<Disposable> groupSubscriptions = new ArrayList<>();
+        Disposable outer = source.groupBy(s -> s.substring(0, 1), 200, TimeUnit.MILLISECONDS)
+                .subscribe(new Observer<GroupedObservable<String, String>>() {
+                    @Override
+                    public void onNext(GroupedObservable<String, String> g) {
+                        events.add("open " + g.getKey());
+                        groupSubscriptions.add(g.subscribe(new Observer<String>() {
+                            @Override public void onNext(String item) { events.add(item); }
+                            @Override public void onError(Throwable t) { }
+                            @Override public void onComplete() { events.add("close " + g.getKey()); }
+                        }));
+                    }
+                    @Override public void onError(Throwable t) { }
+                    @Override public void onComplete() { }
+                });
+        source.onNext("a1");
+        source.onNext("b1");
+        // порог с запасом: пауза сборщика между a1 и b1 не должна закрыть a раньше времени
+        Thread.sleep(400);
+        source.onNext("b2");   // b снова активна, а простоявшая a закрывается
+        source.onNext("a2");
+        assertEquals(List.of("open a", "a1", "open b", "b1", "b2", "close a", "open a", "a2"), events);
+
+        // источник отменяется, только когда отменены и внешний поток, и все открытые группы
+        outer.dispose();
+        assertTrue(source.hasObservers());
+        groupSubscriptions.forEach(Disposable::dispose);
+        assertTrue(!source.hasObservers());
+    }
+
+    @Test
+    public void keyFnErrorCancelsSourceWithOpenGroups() throws InterruptedException {
+        var scheduler = new ComputationScheduler(2);
+        for (boolean partitioned : new boolean[] {false, true}) {
+            PublishSubject<Integer> source = PublishSubject.create();
+            CountDownLatch groupFailed = new CountDownLatch(1);
+            List<Throwable> errors = new ArrayList<>();
+            Observable<GroupedObservable<Integer, Integer>> groups = partitioned
+                    ? source.groupBy(i -> 10 / i, 2, scheduler)
+                    : source.groupBy(i -> 10 / i);
+            groups.subscribe(new Observer<GroupedObservable<Integer, Integer>>() {
+                @Override
+                public void onNext(GroupedObservable<Integer, Integer> g) {
+                    g.subscribe(new Observer<Integer>() {
+                        @Override public void onNext(Integer item) { }
+                        @Override public void onError(Throwable t) { groupFailed.countDown(); }
+                        @Override public void onComplete() { }
+                    });
+                }
+                @Override public void onError(Throwable t) { errors.add(t); }
+                @Override public void onComplete() { }
+            });
+            source.onNext(1);
+            source.onNext(0);  // keyFn падает, группа 10 ещё открыта
+            assertTrue(errors.get(0) instanceof ArithmeticException);
+            assertTrue(!source.hasObservers());
+            assertTrue(groupFailed.await(5, TimeUnit.SECONDS));
+        }
+        scheduler.shutdown();
+    }
+}
@@ -1,11 +1,21 @@
+import core.Disposable;
 import core.Observable;
 import core.Observer;
+import operator.FusedObservable;
 import org.junit.Test;
+import subject.PublishSubject;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 public class ObservableTest {
@@ -77,32 +87,277 @@ public class ObservableTest {
         };
         var disposable = observable.subscribe(observer);
         disposable.dispose();
-        // После dispose элементы не должны добавляться (но в данной реализации это не блокируется явно)
-        // Проверяем, что dispose не вызывает ошибку и не влияет на уже полученные элементы
+        // Источник синхронный: оба элемента пришли ещё до возврата из subscribe.
+        // Остановку производства после dispose проверяют тесты ниже
         assertEquals(List.of(1, 2), out);
         assertEquals(true, disposable.isDisposed());
     }
 
     @Test
-    public void schedulerTest() throws InterruptedException {
-        List<String> threadNames = new ArrayList<>();
+    public void schedulerTest() {
         var scheduler = new scheduler.IOThreadScheduler();
-        Observable.<Integer>create(obs -> {
+        List<String> threadNames = new ArrayList<>();
+        // blockingIterable дожидается элементов сам, без sleep
+        for (String name : Observable.<Integer>create(obs -> {
                     obs.onNext(1); obs.onNext(2); obs.onComplete();
                 })
                 .subscribeOn(scheduler)
                 .observeOn(scheduler)
+                .map(item -> Thread.currentThread().getName())
+                .blockingIterable()) {
+            threadNames.add(name);
+        }
+        scheduler.shutdown();
+        // Проверяем, что элементы обрабатывались не в главном потоке
+        assertEquals(2, threadNames.size());
+        assertTrue(threadNames.stream().noneMatch(name -> name.contains("main")));
+    }
+
+    @Test
+    public void mapFilterChainIsFused() {
+        Observable<Integer> source = Observable.create(obs -> {
+            obs.onNext(1); obs.onNext(2); obs.onNext(3); obs.onNext(4); obs.onComplete();
+        });
+        Observable<Integer> base = source.map(x -> x + 1).filter(x -> x % 2 == 0);
+        Observable<String> a = base.map(x -> "a" + x);
+        Observable<String> b = base.filter(x -> x > 3).map(x -> "b" + x);
+
+        assertTrue(a instanceof FusedObservable);
+        assertEquals(3, ((FusedObservable<String>) a).stepCount());
+        assertEquals(4, ((FusedObservable<String>) b).stepCount());
+
+        // ветки от общей стадии не влияют друг на друга
+        List<String> out = new ArrayList<>();
+        int[] subscribes = new int[1];
+        Observer<String> collector = new Observer<String>() {
+            @Override public void onSubscribe(core.Disposable d) { subscribes[0]++; }
+            @Override public void onNext(String item) { out.add(item); }
+            @Override public void onError(Throwable t) { fail(String.valueOf(t)); }
+            @Override public void onComplete() { /* ok */ }
+        };
+        a.subscribe(collector);
+        b.subscribe(collector);
+        assertEquals(List.of("a2", "a4", "b4"), out);
+        // onSubscribe приходит ровно один раз на подписку, а не на каждую стадию
+        assertEquals(2, subscribes[0]);
+    }
+
+    @Test
+    public void fusedStageReportsMapperError() {
+        List<String> errors = new ArrayList<>();
+        Observable.<Integer>create(obs -> {
+                    obs.onNext(1); obs.onNext(0); obs.onNext(2); obs.onComplete();
+                })
+                .map(x -> 10 / x)
+                .map(x -> x + 1)
                 .subscribe(new Observer<Integer>() {
-                    @Override public void onSubscribe(core.Disposable d) { /* ничего */ }
-                    @Override public void onNext(Integer item) { threadNames.add(Thread.currentThread().getName()); }
-                    @Override public void onError(Throwable t) { fail(); }
-                    @Override public void onComplete() { /* ok */ }
+                    @Override public void onNext(Integer item) { /* ничего */ }
+                    @Override public void onError(Throwable t) { errors.add(t.getClass().getSimpleName()); }
+                    @Override public void onComplete() { fail(); }
+                });
+        assertEquals(List.of("ArithmeticException"), errors);
+    }
+
+    @Test
+    public void observeOnKeepsOrder() throws InterruptedException {
+        var scheduler = new scheduler.ComputationScheduler();
+        List<Integer> out = Collections.synchronizedList(new ArrayList<>());
+        List<Integer> atComplete = new ArrayList<>();
+        CountDownLatch done = new CountDownLatch(1);
+        Observable.<Integer>create(obs -> {
+                    for (int i = 0; i < 10_000; i++) obs.onNext(i);
+                    obs.onComplete();
+                })
+                .observeOn(scheduler)
+                .subscribe(new Observer<Integer>() {
+                    @Override public void onNext(Integer item) { out.add(item); }
+                    @Override public void onError(Throwable t) { fail(String.valueOf(t)); }
+                    @Override public void onComplete() { atComplete.add(out.size()); done.countDown(); }
                 });
-        // Даем время задачам выполниться в других потоках
-        Thread.sleep(200);
+        assertTrue(done.await(5, TimeUnit.SECONDS));
         scheduler.shutdown();
-        // Проверяем, что элементы обрабатывались не в главном потоке
-        boolean notMain = threadNames.stream().anyMatch(name -> !name.contains("main"));
-        assertEquals(true, notMain);
+
+        List<Integer> expected = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) expected.add(i);
+        assertEquals(expected, out);
+        // onComplete пришёл после всех элементов
+        assertEquals(List.of(10_000), atComplete);
+    }
+
+    @Test
+    public void observeOnSchedulesOneTaskPerBatch() {
+        List<Runnable> tasks = new ArrayList<>();
+        scheduler.Scheduler manual = new scheduler.Scheduler() {
+            @Override public void execute(Runnable task) { tasks.add(task); }
+            @Override public void shutdown() { }
+        };
+        int[] received = new int[1];
+        Observable.<Integer>create(obs -> {
+                    for (int i = 0; i < 1_000; i++) obs.onNext(i);
+                    obs.onComplete();
+                })
+                .observeOn(manual, 64)
+                .subscribe(new Observer<Integer>() {
+                    @Override public void onNext(Integer item) { received[0]++; }
+                    @Override public void onError(Throwable t) { fail(String.valueOf(t)); }
+                    @Override public void onComplete() { /* ok */ }
+                });
+        // источник отработал синхронно, но задача на планировщике одна
+        assertEquals(1, tasks.size());
+        int runs = 0;
+        while (runs < tasks.size()) tasks.get(runs++).run();
+        assertEquals(1_000, received[0]);
+        // 1000 элементов пачками по 64 — 16 запусков
+        assertEquals(16, runs);
+    }
+
+    @Test
+    public void flatMapWaitsForAsyncInnersAndBoundsConcurrency() throws InterruptedException {
+        var io = new scheduler.IOThreadScheduler();
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        AtomicInteger inOnNext = new AtomicInteger();
+        List<Integer> out = Collections.synchronizedList(new ArrayList<>());
+        List<String> problems = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch done = new CountDownLatch(1);
+
+        Observable.<Integer>create(obs -> {
+                    for (int i = 0; i < 200; i++) obs.onNext(i);
+                    obs.onComplete();
+                })
+                .flatMap((Integer x) -> Observable.<Integer>create(obs -> {
+                    maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                    Thread.sleep(1);
+                    obs.onNext(x);
+                    obs.onNext(-x);
+                    running.decrementAndGet();
+                    obs.onComplete();
+                }).subscribeOn(io), 4)
+                .subscribe(new Observer<Integer>() {
+                    @Override public void onNext(Integer item) {
+                        if (inOnNext.incrementAndGet() != 1) problems.add("concurrent onNext");
+                        out.add(item);
+                        inOnNext.decrementAndGet();
+                    }
+                    @Override public void onError(Throwable t) { problems.add(String.valueOf(t)); }
+                    @Override public void onComplete() { problems.add("size@complete=" + out.size()); done.countDown(); }
+                });
+
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        io.shutdown();
+        // onComplete — только после всех внутренних потоков, вызовы onNext не пересекались
+        assertEquals(List.of("size@complete=400"), problems);
+        assertTrue("max running: " + maxRunning.get(), maxRunning.get() <= 4);
+    }
+
+    @Test
+    public void flatMapPropagatesInnerError() {
+        List<String> events = new ArrayList<>();
+        Observable.<Integer>create(obs -> {
+                    obs.onNext(1); obs.onNext(2); obs.onNext(3); obs.onComplete();
+                })
+                .flatMap((Integer x) -> Observable.<Integer>create(obs -> {
+                    if (x == 2) throw new IllegalStateException("inner " + x);
+                    obs.onNext(x); obs.onComplete();
+                }), 1)
+                .subscribe(new Observer<Integer>() {
+                    @Override public void onNext(Integer item) { events.add("next " + item); }
+                    @Override public void onError(Throwable t) { events.add("error " + t.getMessage()); }
+                    @Override public void onComplete() { events.add("complete"); }
+                });
+        assertEquals(List.of("next 1", "error inner 2"), events);
+    }
+
+    @Test
+    public void takeStopsInfiniteSource() {
+        AtomicInteger produced = new AtomicInteger();
+        List<Integer> out = new ArrayList<>();
+        List<String> events = new ArrayList<>();
+        Observable.<Integer>create(obs -> {
+                    // без отмены этот цикл не закончился бы никогда
+                    while (!obs.isDisposed()) obs.onNext(produced.incrementAndGet());
+                })
+                .map(x -> x * 10)
+                .take(5)
+                .subscribe(new Observer<Integer>() {
+                    @Override public void onNext(Integer item) { out.add(item); }
+                    @Override public void onError(Throwable t) { fail(String.valueOf(t)); }
+                    @Override public void onComplete() { events.add("complete"); }
+                });
+        assertEquals(List.of(10, 20, 30, 40, 50), out);
+        assertEquals(List.of("complete"), events);
+        assertEquals(5, produced.get());
+    }
+
+    @Test
+    public void disposeStopsAsyncSourceThroughChain() throws InterruptedException {
+        var io = new scheduler.IOThreadScheduler();
+        var computation = new scheduler.ComputationScheduler(2);
+        CountDownLatch received = new CountDownLatch(3);
+        CountDownLatch sourceStopped = new CountDownLatch(1);
+        AtomicBoolean released = new AtomicBoolean();
+        Disposable d = Observable.<Integer>create(obs -> {
+                    obs.setCancellable(() -> released.set(true));
+                    int i = 0;
+                    while (!obs.isDisposed()) {
+                        obs.onNext(i++);
+                        Thread.sleep(1);
+                    }
+                    sourceStopped.countDown();
+                })
+                .subscribeOn(io)
+                .flatMap((Integer x) -> Observable.<Integer>create(o -> { o.onNext(x); o.onComplete(); }))
+                .filter(x -> x >= 0)
+                .observeOn(computation)
+                .subscribe(new Observer<Integer>() {
+                    @Override public void onNext(Integer item) { received.countDown(); }
+                    @Override public void onError(Throwable t) { fail(String.valueOf(t)); }
+                    @Override public void onComplete() { fail(); }
+                });
+        assertTrue(received.await(5, TimeUnit.SECONDS));
+        d.dispose();
+        assertTrue(sourceStopped.await(5, TimeUnit.SECONDS));
+        assertTrue(released.get());
+        io.shutdown();
+        computation.shutdown();
+    }
+
+    @Test
+    public void takeWhileTakeUntilAndFirst() {
+        List<Object> out = new ArrayList<>();
+        Observer<Object> collector = new Observer<>() {
+            @Override public void onNext(Object item) { out.add(item); }
+            @Override public void onError(Throwable t) { out.add(t.getClass().getSimpleName()); }
+            @Override public void onComplete() { out.add("|"); }
+        };
+        Observable<Integer> numbers = Observable.create(obs -> {
+            for (int i = 1; i <= 5 && !obs.isDisposed(); i++) obs.onNext(i);
+            obs.onComplete();
+        });
+        numbers.takeWhile(x -> x < 3).subscribe(collector);
+        numbers.takeUntil((Integer x) -> x == 3).subscribe(collector);
+        numbers.first().subscribe(collector);
+        Observable.<Integer>create(Observer::onComplete).first(42).subscribe(collector);
+        Observable.<Integer>create(Observer::onComplete).first().subscribe(collector);
+        assertEquals(List.of(1, 2, "|", 1, 2, 3, "|", 1, "|", 42, "|", "NoSuchElementException"), out);
+    }
+
+    @Test
+    public void takeUntilOtherDisposesBoth() {
+        PublishSubject<Integer> main = PublishSubject.create();
+        PublishSubject<String> stop = PublishSubject.create();
+        List<Object> out = new ArrayList<>();
+        main.takeUntil(stop).subscribe(new Observer<Integer>() {
+            @Override public void onNext(Integer item) { out.add(item); }
+            @Override public void onError(Throwable t) { fail(String.valueOf(t)); }
+            @Override public void onComplete() { out.add("|"); }
+        });
+        main.onNext(1);
+        main.onNext(2);
+        stop.onNext("stop");
+        main.onNext(3);
+        assertEquals(List.of(1, 2, "|"), out);
+        assertFalse(main.hasObservers());
+        assertFalse(stop.hasObservers());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,100 @@
+import core.Observable;
+import core.Observer;
+import org.junit.Test;
+import scheduler.ComputationScheduler;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class ParallelObservableTest {
+
+    private static Observable<Integer> range(int count) {
+        return Observable.create(o -> {
+            for (int i = 0; i < count && !o.isDisposed(); i++) o.onNext(i);
+            o.onComplete();
+        });
+    }
+
+    private static <T> List<T> collect(Observable<T> source) throws InterruptedException {
+        List<T> out = Collections.synchronizedList(new ArrayList<>());
+        AtomicInteger inOnNext = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(1);
+        source.subscribe(new Observer<T>() {
+            @Override public void onNext(T item) {
+                if (inOnNext.incrementAndGet() != 1) fail("concurrent onNext");
+                out.add(item);
+                inOnNext.decrementAndGet();
+            }
+            @Override public void onError(Throwable t) { out.add(null); done.countDown(); }
+            @Override public void onComplete() { done.countDown(); }
+        });
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        return out;
+    }
+
+    @Test
+    public void railsRunOnSeparateThreadsAndMergeBack() throws InterruptedException {
+        var scheduler = new ComputationScheduler(4);
+        Set<String> threads = ConcurrentHashMap.newKeySet();
+        List<Integer> out = collect(range(10_000)
+                .parallel(4)
+                .runOn(scheduler)
+                .map(x -> {
+                    threads.add(Thread.currentThread().getName());
+                    return x * 2;
+                })
+                .filter(x -> x % 4 == 0)
+                .sequential());
+        scheduler.shutdown();
+
+        assertEquals(5_000, out.size());
+        List<Integer> sorted = new ArrayList<>(out);
+        Collections.sort(sorted);
+        for (int i = 0; i < 5_000; i++) assertEquals(Integer.valueOf(i * 4), sorted.get(i));
+        assertTrue("threads: " + threads, threads.size() > 1);
+    }
+
+    @Test
+    public void sortedMergesSortedRails() throws InterruptedException {
+        var scheduler = new ComputationScheduler(3);
+        List<Integer> out = collect(range(1_000)
+                .map(x -> (x * 7919) % 1_000)
+                .parallel(3)
+                .runOn(scheduler)
+                .sorted(Comparator.reverseOrder()));
+        scheduler.shutdown();
+        for (int i = 0; i < 1_000; i++) assertEquals(Integer.valueOf(999 - i), out.get(i));
+    }
+
+    @Test
+    public void reduceCombinesPartialsPerRail() throws InterruptedException {
+        var scheduler = new ComputationScheduler(4);
+        List<Long> total = collect(range(100_000)
+                .parallel(4)
+                .runOn(scheduler)
+                .map(Integer::longValue)
+                .reduce(Long::sum));
+        List<Integer> partials = collect(range(100)
+                .parallel(4)
+                .reduce(() -> 0, (acc, x) -> acc + 1)
+                .sequential());
+        List<Integer> empty = collect(range(0).parallel(2).reduce(Integer::sum));
+        scheduler.shutdown();
+
+        assertEquals(List.of(4_999_950_000L), total);
+        // по кругу: 25 элементов на каждый из 4 рельсов
+        assertEquals(List.of(25, 25, 25, 25), partials);
+        assertEquals(List.of(), empty);
+    }
+}
@@ -0,0 +1,174 @@
+import core.BackpressureStrategy;
+import core.Observable;
+import core.RxPlugins;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import metrics.PipelineProfiler;
+import metrics.StageMetrics;
+import org.junit.Test;
+import scheduler.SingleThreadScheduler;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class PluginsTest {
+
+    private static List<Integer> range(int n) {
+        return IntStream.range(0, n).boxed().collect(Collectors.toList());
+    }
+
+    /** Занять поток примерно на nanos. */
+    private static int spin(int item, long nanos) {
+        long end = System.nanoTime() + nanos;
+        while (System.nanoTime() < end) Thread.onSpinWait();
+        return item;
+    }
+
+    private static StageMetrics.Snapshot stage(List<StageMetrics.Snapshot> all, String name) {
+        return all.stream().filter(s -> s.stage().equals(name)).findFirst()
+                .orElseThrow(() -> new AssertionError(name + " not in " + all));
+    }
+
+    @Test
+    public void hooksSeeAssemblyAndSubscription() {
+        AtomicInteger assembled = new AtomicInteger();
+        AtomicInteger subscribed = new AtomicInteger();
+        try {
+            RxPlugins.setOnAssembly(o -> { assembled.incrementAndGet(); return o; });
+            RxPlugins.setOnSubscribe((source, observer) -> { subscribed.incrementAndGet(); return observer; });
+            Observable<Integer> chain = Observable.fromIterable(range(10)).map(i -> i * 2).take(3);
+            assertEquals(3, assembled.get());
+            assertEquals(4, (int) chain.blockingLast());
+            // источник, map и take — по подписке на каждую стадию
+            assertEquals(3, subscribed.get());
+        } finally {
+            RxPlugins.reset();
+        }
+
+        // после reset обработчики больше не вызываются
+        int a = assembled.get(), s = subscribed.get();
+        Observable.fromIterable(range(3)).map(i -> i).blockingLast();
+        assertEquals(a, assembled.get());
+        assertEquals(s, subscribed.get());
+    }
+
+    @Test
+    public void assemblyHooksSeeConnectableParallelAndFlowableStages() {
+        List<String> assembled = new ArrayList<>();
+        try {
+            RxPlugins.setOnAssembly(o -> { assembled.add(o.getClass().getSimpleName()); return o; });
+            RxPlugins.setOnConnectableAssembly(o -> { assembled.add("connectable " + o.getClass().getSimpleName()); return o; });
+            RxPlugins.setOnFlowableAssembly(f -> { assembled.add("flowable " + f.getClass().getSimpleName()); return f; });
+            Observable<Integer> source = Observable.fromIterable(range(4));
+            assembled.clear();
+
+            source.publish().refCount();
+            source.replay(2);
+            source.parallel(2).sequential();
+            source.parallel(2).sorted(Integer::compare);
+            source.parallel(2).reduce(Integer::sum);
+            source.toFlowable(BackpressureStrategy.BUFFER).map(i -> i);
+            assertEquals(List.of("connectable MulticastObservable", "RefCountObservable",
+                    "connectable MulticastObservable",
+                    "ParallelJoinObservable", "ParallelSortedObservable", "ParallelReduceFullObservable",
+                    "flowable ObservableToFlowable", "flowable MapFlowable"), assembled);
+        } finally {
+            RxPlugins.reset();
+        }
+    }
+
+    @Test
+    public void instrumentationMeasuresStagesAndQueueResidency() throws Exception {
+        SingleThreadScheduler scheduler = new SingleThreadScheduler();
+        PipelineProfiler profiler = RxPlugins.enableInstrumentation(1);
+        try {
+            int n = 500;
+            int last = Observable.fromIterable(range(n))
+                    .map(i -> spin(i, 20_000))
+                    .observeOn(scheduler)
+                    .filter(i -> i % 2 == 1)
+                    .blockingLast();
+            assertEquals(n - 1, last);
+
+            List<StageMetrics.Snapshot> stages = profiler.snapshot();
+            StageMetrics.Snapshot map = stage(stages, "MapObservable <- FromIterableObservable");
+            StageMetrics.Snapshot hop = stage(stages, "ObserveOnObservable <- MapObservable");
+            StageMetrics.Snapshot filter = stage(stages, "FilterObservable <- ObserveOnObservable");
+            StageMetrics.Snapshot sink = stage(stages, "BlockingSingleObserver <- FilterObservable");
+            assertEquals(n, map.onNext());
+            assertEquals(n, hop.onNext());
+            assertEquals(n, filter.onNext());
+            assertEquals(n / 2, sink.onNext());
+            // от источника к подписчику
+            assertTrue(stages.indexOf(map) < stages.indexOf(hop));
+            assertTrue(stages.indexOf(hop) < stages.indexOf(filter));
+
+            // собственное время map не включает постановку в очередь observeOn и наоборот
+            assertTrue(map.processingNanos().toString(), map.processingNanos().getP50() >= 20_000);
+            assertTrue(hop.processingNanos().toString(), hop.processingNanos().getP50() < 20_000);
+            assertEquals(n, hop.queueResidencyNanos().getCount());
+            assertEquals(0, map.queueResidencyNanos().getCount());
+
+            Path file = Files.createTempFile("stages", ".jfr");
+            try (Recording recording = new Recording()) {
+                recording.enable("custom.rx.Stage");
+                recording.start();
+                profiler.commitJfrEvents();
+                recording.stop();
+                recording.dump(file);
+            }
+            List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+            Files.deleteIfExists(file);
+            assertTrue(events.stream().anyMatch(e -> e.getEventType().getName().equals("custom.rx.Stage")
+                    && e.getString("stage").equals(hop.stage())
+                    && e.getLong("onNext") == n));
+        } finally {
+            RxPlugins.reset();
+            scheduler.shutdown();
+        }
+        assertNull(RxPlugins.profiler());
+    }
+
+    @Test
+    public void samplingTimesEveryNthItemButCountsAll() {
+        PipelineProfiler profiler = RxPlugins.enableInstrumentation(8);
+        try {
+            Observable.fromIterable(range(64)).map(i -> i + 1).blockingLast();
+            RxPlugins.disableInstrumentation();
+            // новые подписки после выключения не учитываются
+            Observable.fromIterable(range(64)).map(i -> i + 1).blockingLast();
+            // цепочка недостижима, но её стадии остаются в срезе
+            System.gc();
+            List<StageMetrics.Snapshot> stages = profiler.snapshot();
+            StageMetrics.Snapshot map = stage(stages, "MapObservable <- FromIterableObservable");
+            assertEquals(64, map.onNext());
+            assertEquals(8, map.processingNanos().getCount());
+            assertFalse(stages.stream().anyMatch(s -> s.onNext() > 64));
+        } finally {
+            RxPlugins.reset();
+        }
+    }
+
+    @Test
+    public void profilerKeepsAtMostMaxStages() {
+        PipelineProfiler profiler = RxPlugins.enableInstrumentation(1);
+        try {
+            for (int i = 0; i < PipelineProfiler.MAX_STAGES + 10; i++)
+                Observable.fromIterable(range(1)).map(x -> x).blockingLast();
+            assertEquals(PipelineProfiler.MAX_STAGES, profiler.snapshot().size());
+        } finally {
+            RxPlugins.reset();
+        }
+    }
+}
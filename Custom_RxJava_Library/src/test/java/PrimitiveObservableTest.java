@@ -0,0 +1,156 @@
+import core.Disposable;
+import core.DoubleObservable;
+import core.IntObservable;
+import core.IntObserver;
+import core.LongObservable;
+import core.LongObserver;
+import core.Observable;
+import core.Observer;
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class PrimitiveObservableTest {
+
+    /** Последнее значение потока int. */
+    private static int lastInt(IntObservable source) {
+        int[] last = new int[1];
+        source.subscribe(new IntObserver() {
+            @Override public void onNext(int value) { last[0] = value; }
+            @Override public void onError(Throwable t) { fail(String.valueOf(t)); }
+            @Override public void onComplete() { /* ok */ }
+        });
+        return last[0];
+    }
+
+    @Test
+    public void intMapAndFilter() {
+        List<Integer> out = new ArrayList<>();
+        IntObservable.of(1, 2, 3)
+                .map(x -> x * 10)
+                .filter(x -> x >= 20)
+                .boxed()
+                .subscribe(new Observer<Integer>() {
+                    @Override public void onNext(Integer item) { out.add(item); }
+                    @Override public void onError(Throwable t) { fail(String.valueOf(t)); }
+                    @Override public void onComplete() { /* ok */ }
+                });
+        assertEquals(List.of(20, 30), out);
+    }
+
+    @Test
+    public void sumAndReduce() {
+        assertEquals(5050, lastInt(IntObservable.range(1, 100).sum()));
+        assertEquals(120, lastInt(IntObservable.range(1, 5).reduce(1, (a, b) -> a * b)));
+        assertEquals(0, lastInt(IntObservable.range(1, 0).sum()));
+
+        long[] total = new long[1];
+        LongObservable.range(1, 1_000).map(x -> x * 1_000_000_000L).sum()
+                .subscribe(new LongObserver() {
+                    @Override public void onNext(long value) { total[0] = value; }
+                    @Override public void onError(Throwable t) { fail(String.valueOf(t)); }
+                    @Override public void onComplete() { /* ok */ }
+                });
+        assertEquals(500_500L * 1_000_000_000L, total[0]);
+    }
+
+    @Test
+    public void conversionsFromAndToObservable() {
+        List<String> out = new ArrayList<>();
+        Observable.<String>create(obs -> {
+                    obs.onNext("a"); obs.onNext("bbb"); obs.onNext("cc"); obs.onComplete();
+                })
+                .mapToDouble(String::length)
+                .map(x -> x / 2)
+                .mapToObj(x -> "len/2=" + x)
+                .subscribe(new Observer<String>() {
+                    @Override public void onNext(String item) { out.add(item); }
+                    @Override public void onError(Throwable t) { fail(String.valueOf(t)); }
+                    @Override public void onComplete() { /* ok */ }
+                });
+        assertEquals(List.of("len/2=0.5", "len/2=1.5", "len/2=1.0"), out);
+        assertEquals(6, lastInt(Observable.<String>create(obs -> {
+            obs.onNext("ab"); obs.onNext("cdef"); obs.onComplete();
+        }).mapToInt(String::length).sum()));
+    }
+
+    @Test
+    public void pipelineDoesNotAllocatePerElement() {
+        var threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        IntObservable pipeline = IntObservable.range(0, 1_000_000)
+                .map(x -> x * 3)
+                .filter(x -> (x & 1) == 0)
+                .map(x -> x + 1)
+                .sum();
+        lastInt(pipeline); // прогрев: загрузка классов, JIT
+
+        long before = threads.getCurrentThreadAllocatedBytes();
+        lastInt(pipeline);
+        long allocated = threads.getCurrentThreadAllocatedBytes() - before;
+        // миллион элементов с упаковкой — это десятки мегабайт; здесь только объекты подписки
+        assertTrue("allocated " + allocated + " bytes", allocated < 64 * 1024);
+    }
+
+    @Test
+    public void disposeReachesUpstreamThroughPrimitiveStages() {
+        // отмена снизу проходит mapToObj, стадии int и mapToInt до исходного Observable
+        AtomicBoolean cancelled = new AtomicBoolean();
+        Observable<String> source = Observable.create(e -> {
+            e.setCancellable(() -> cancelled.set(true));
+            e.onNext("1");
+        });
+        List<Integer> seen = new ArrayList<>();
+        Disposable d = source.mapToInt(Integer::parseInt).map(x -> x * 2).filter(x -> x > 0).boxed()
+                .subscribe(new Observer<Integer>() {
+                    @Override public void onNext(Integer item) { seen.add(item); }
+                    @Override public void onError(Throwable t) { fail(String.valueOf(t)); }
+                    @Override public void onComplete() { }
+                });
+        assertEquals(List.of(2), seen);
+        d.dispose();
+        assertTrue(cancelled.get());
+        assertTrue(d.isDisposed());
+
+        // источник-примитив прекращает цикл после отмены
+        AtomicInteger received = new AtomicInteger();
+        IntObservable.range(0, Integer.MAX_VALUE).map(x -> x + 1).subscribe(new IntObserver() {
+            Disposable upstream;
+            @Override public void onSubscribe(Disposable d) { upstream = d; }
+            @Override public void onNext(int value) {
+                if (received.incrementAndGet() == 10) upstream.dispose();
+            }
+            @Override public void onError(Throwable t) { fail(String.valueOf(t)); }
+            @Override public void onComplete() { fail("completed after dispose"); }
+        });
+        assertEquals(10, received.get());
+
+        AtomicInteger boxed = new AtomicInteger();
+        LongObservable.range(0, Long.MAX_VALUE).mapToObj(Long::valueOf).subscribe(new Observer<Long>() {
+            Disposable upstream;
+            @Override public void onSubscribe(Disposable d) { upstream = d; }
+            @Override public void onNext(Long item) { if (boxed.incrementAndGet() == 5) upstream.dispose(); }
+            @Override public void onError(Throwable t) { fail(String.valueOf(t)); }
+            @Override public void onComplete() { fail("completed after dispose"); }
+        });
+        assertEquals(5, boxed.get());
+
+        AtomicInteger doubles = new AtomicInteger();
+        Disposable dd = DoubleObservable.of(1, 2, 3).subscribe(new core.DoubleObserver() {
+            Disposable upstream;
+            @Override public void onSubscribe(Disposable d) { upstream = d; }
+            @Override public void onNext(double value) { doubles.incrementAndGet(); upstream.dispose(); }
+            @Override public void onError(Throwable t) { fail(String.valueOf(t)); }
+            @Override public void onComplete() { fail("completed after dispose"); }
+        });
+        assertEquals(1, doubles.get());
+        assertTrue(dd.isDisposed());
+    }
+}
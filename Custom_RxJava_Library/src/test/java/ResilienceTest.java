@@ -0,0 +1,188 @@
+import core.Backoff;
+import core.Disposable;
+import core.Observable;
+import core.Observer;
+import org.junit.Test;
+import scheduler.HashedWheelTimer;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class ResilienceTest {
+
+    /** Собирает элементы и терминальный сигнал. */
+    private static final class Recorder<T> implements Observer<T> {
+        final List<T> items = Collections.synchronizedList(new ArrayList<>());
+        final AtomicReference<Throwable> error = new AtomicReference<>();
+        final CountDownLatch done = new CountDownLatch(1);
+
+        @Override public void onNext(T item) { items.add(item); }
+        @Override public void onError(Throwable t) { error.set(t); done.countDown(); }
+        @Override public void onComplete() { done.countDown(); }
+    }
+
+    /**
+     * Асинхронный «удалённый вызов»: ответ n через latencyOf(n) мс по таймеру.
+     * В cancelled попадают номера вызовов, отменённых до ответа.
+     */
+    private static Observable<Integer> backend(AtomicInteger calls, Set<Integer> cancelled,
+                                               java.util.function.IntUnaryOperator latencyOf) {
+        return Observable.create(e -> {
+            int n = calls.incrementAndGet();
+            AtomicBoolean answered = new AtomicBoolean();
+            Disposable t = HashedWheelTimer.shared().schedule(() -> {
+                answered.set(true);
+                e.onNext(n);
+                e.onComplete();
+            }, latencyOf.applyAsInt(n), TimeUnit.MILLISECONDS);
+            e.setCancellable(() -> {
+                if (!answered.get()) cancelled.add(n);
+                t.dispose();
+            });
+        });
+    }
+
+    @Test
+    public void timeoutErrorsCancelsSourceOrSwitchesToFallback() throws InterruptedException {
+        AtomicBoolean cancelled = new AtomicBoolean();
+        Observable<Integer> stalls = Observable.create(e -> {
+            e.onNext(1);
+            e.setCancellable(() -> cancelled.set(true));
+        });
+        Recorder<Integer> r = new Recorder<>();
+        stalls.timeout(30, TimeUnit.MILLISECONDS).subscribe(r);
+        assertTrue(r.done.await(1, TimeUnit.SECONDS));
+        assertEquals(List.of(1), r.items);
+        assertTrue(r.error.get() instanceof TimeoutException);
+        assertTrue(cancelled.get());
+
+        Recorder<Integer> f = new Recorder<>();
+        AtomicReference<String> fallbackThread = new AtomicReference<>();
+        Observable<Integer> fallback = Observable.create(e -> {
+            fallbackThread.set(Thread.currentThread().getName());
+            e.onNext(8);
+            e.onNext(9);
+            e.onComplete();
+        });
+        stalls.timeout(30, TimeUnit.MILLISECONDS, fallback).subscribe(f);
+        assertTrue(f.done.await(1, TimeUnit.SECONDS));
+        assertEquals(List.of(1, 8, 9), f.items);
+        assertEquals(null, f.error.get());
+        // подписка на fallback может блокировать — не на потоке колеса
+        assertTrue(fallbackThread.get(), fallbackThread.get().startsWith("rx-io-"));
+
+        // быстрый источник таймаута не замечает
+        assertEquals(3, (int) Observable.fromIterable(List.of(1, 2, 3)).timeout(1, TimeUnit.SECONDS).blockingLast());
+    }
+
+    @Test
+    public void retryResubscribesAndGivesUp() {
+        AtomicInteger calls = new AtomicInteger();
+        Observable<Integer> flaky = Observable.create(e -> {
+            if (calls.incrementAndGet() < 4) throw new IllegalStateException("fail " + calls.get());
+            e.onNext(calls.get());
+            e.onComplete();
+        });
+        assertEquals(4, (int) flaky.retry(5).blockingFirst());
+
+        calls.set(0);
+        try {
+            flaky.retry(2).blockingFirst();
+            fail();
+        } catch (IllegalStateException expected) {
+            assertEquals("fail 3", expected.getMessage());
+        }
+        calls.set(0);
+        try {
+            flaky.retry(5, e -> !(e instanceof IllegalStateException)).blockingFirst();
+            fail();
+        } catch (IllegalStateException expected) {
+            assertEquals(1, calls.get());
+        }
+
+        // синхронный источник, падающий сразу: повтор циклом, без переполнения стека
+        AtomicInteger attempts = new AtomicInteger();
+        try {
+            Observable.<Integer>create(e -> { attempts.incrementAndGet(); e.onError(new RuntimeException()); })
+                    .retry(100_000).blockingFirst();
+            fail();
+        } catch (RuntimeException expected) {
+            assertEquals(100_001, attempts.get());
+        }
+    }
+
+    @Test
+    public void retryWhenBacksOffWithJitter() {
+        AtomicInteger calls = new AtomicInteger();
+        Observable<Integer> flaky = Observable.create(e -> {
+            if (calls.incrementAndGet() < 4) throw new IllegalStateException();
+            e.onNext(calls.get());
+            e.onComplete();
+        });
+        // базы 10, 20, 40 мс, разброс 0.5 — не меньше 5 + 10 + 20
+        long start = System.nanoTime();
+        assertEquals(4, (int) flaky.retryWhen(5, new Backoff(10, 100, TimeUnit.MILLISECONDS, 2, 0.5)).blockingFirst());
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(35));
+
+        Backoff full = Backoff.exponential(10, 40, TimeUnit.MILLISECONDS);
+        for (int attempt = 0; attempt < 10; attempt++) {
+            long d = full.delayNanos(attempt);
+            assertTrue(d >= 0 && d <= TimeUnit.MILLISECONDS.toNanos(40));
+        }
+    }
+
+    @Test
+    public void hedgeTakesFirstAnswerAndCancelsLosers() {
+        AtomicInteger calls = new AtomicInteger();
+        Set<Integer> cancelled = ConcurrentHashMap.newKeySet();
+        // первый вызов застревает, повторные отвечают быстро
+        Observable<Integer> slowFirst = backend(calls, cancelled, n -> n == 1 ? 2_000 : 20);
+        long start = System.nanoTime();
+        assertEquals(2, (int) slowFirst.hedge(50, TimeUnit.MILLISECONDS, 3).blockingFirst());
+        assertTrue(System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(1_000));
+        assertEquals(2, calls.get());
+        assertEquals(Set.of(1), cancelled);
+
+        // быстрый ответ — хеджирующих вызовов нет
+        calls.set(0);
+        assertEquals(1, (int) backend(calls, cancelled, n -> 5).hedge(200, TimeUnit.MILLISECONDS, 3).blockingFirst());
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    public void hedgeFailsOnlyWhenAllAttemptsFail() {
+        AtomicInteger calls = new AtomicInteger();
+        Observable<Integer> failing = Observable.create(e -> e.onError(new IllegalStateException("fail " + calls.incrementAndGet())));
+        try {
+            failing.hedge(10, TimeUnit.MILLISECONDS, 3).blockingFirst();
+            fail();
+        } catch (IllegalStateException expected) {
+            assertEquals("fail 1", expected.getMessage());
+            assertEquals(2, expected.getSuppressed().length);
+        }
+
+        // упавшая попытка сразу запускает следующую, не дожидаясь delay
+        calls.set(0);
+        Observable<Integer> firstFails = Observable.create(e -> {
+            int n = calls.incrementAndGet();
+            if (n == 1) e.onError(new IllegalStateException());
+            else { e.onNext(n); e.onComplete(); }
+        });
+        long start = System.nanoTime();
+        assertEquals(2, (int) firstFails.hedge(1, TimeUnit.SECONDS, 2).blockingFirst());
+        assertTrue(System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(500));
+    }
+}
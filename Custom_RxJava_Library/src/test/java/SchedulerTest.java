@@ -0,0 +1,200 @@
+import core.Disposable;
+import org.junit.Test;
+import scheduler.ComputationScheduler;
+import scheduler.IOThreadScheduler;
+import scheduler.MeteredScheduler;
+import scheduler.Scheduler;
+import scheduler.VirtualThreadScheduler;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class SchedulerTest {
+
+    @Test
+    public void computationSchedulerUsesAllThreads() throws InterruptedException {
+        var scheduler = new ComputationScheduler(4);
+        Set<String> threadNames = ConcurrentHashMap.newKeySet();
+        CountDownLatch started = new CountDownLatch(4);
+        CountDownLatch release = new CountDownLatch(1);
+        for (int i = 0; i < 4; i++) {
+            scheduler.execute(() -> {
+                threadNames.add(Thread.currentThread().getName());
+                started.countDown();
+                try { release.await(); } catch (InterruptedException ignored) { }
+            });
+        }
+        // четыре блокирующие задачи одновременно — значит, каждая досталась своему потоку
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        release.countDown();
+        scheduler.shutdown();
+        assertEquals(4, threadNames.size());
+    }
+
+    @Test
+    public void nestedTasksAreStolenByIdleThreads() throws InterruptedException {
+        var scheduler = new ComputationScheduler(4);
+        Set<String> threadNames = ConcurrentHashMap.newKeySet();
+        CountDownLatch done = new CountDownLatch(400);
+        scheduler.execute(() -> {
+            // всё ставится в деку одного потока; остальные должны её разобрать
+            for (int i = 0; i < 400; i++) {
+                scheduler.execute(() -> {
+                    threadNames.add(Thread.currentThread().getName());
+                    long end = System.nanoTime() + 200_000;
+                    while (System.nanoTime() < end) { Thread.onSpinWait(); }
+                    done.countDown();
+                });
+            }
+        });
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        scheduler.shutdown();
+        assertTrue("threads: " + threadNames, threadNames.size() > 1);
+    }
+
+    @Test
+    public void workerRunsTasksSeriallyInOrder() throws InterruptedException {
+        var scheduler = new ComputationScheduler(4);
+        Scheduler.Worker worker = scheduler.createWorker();
+        List<Integer> out = Collections.synchronizedList(new ArrayList<>());
+        AtomicInteger inTask = new AtomicInteger();
+        AtomicInteger overlaps = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(1);
+        for (int i = 0; i < 1_000; i++) {
+            int id = i;
+            worker.schedule(() -> {
+                if (inTask.incrementAndGet() != 1) overlaps.incrementAndGet();
+                out.add(id);
+                inTask.decrementAndGet();
+            });
+        }
+        worker.schedule(done::countDown);
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        worker.dispose();
+        scheduler.shutdown();
+
+        assertEquals(0, overlaps.get());
+        for (int i = 0; i < 1_000; i++) assertEquals(Integer.valueOf(i), out.get(i));
+    }
+
+    @Test
+    public void delayedAndPeriodicScheduling() throws InterruptedException {
+        var scheduler = new IOThreadScheduler();
+        CountDownLatch delayed = new CountDownLatch(1);
+        long start = System.nanoTime();
+        scheduler.schedule(delayed::countDown, 50, TimeUnit.MILLISECONDS);
+        assertTrue(delayed.await(5, TimeUnit.SECONDS));
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(50));
+
+        AtomicInteger cancelledRuns = new AtomicInteger();
+        Disposable cancelled = scheduler.schedule(cancelledRuns::incrementAndGet, 50, TimeUnit.MILLISECONDS);
+        cancelled.dispose();
+
+        AtomicInteger ticks = new AtomicInteger();
+        CountDownLatch threeTicks = new CountDownLatch(3);
+        Disposable periodic = scheduler.schedulePeriodically(() -> {
+            ticks.incrementAndGet();
+            threeTicks.countDown();
+        }, 0, 10, TimeUnit.MILLISECONDS);
+        assertTrue(threeTicks.await(5, TimeUnit.SECONDS));
+        periodic.dispose();
+        assertTrue(periodic.isDisposed());
+        Thread.sleep(50);
+        int afterDispose = ticks.get();
+        Thread.sleep(100);
+        scheduler.shutdown();
+
+        assertEquals(afterDispose, ticks.get());
+        assertEquals(0, cancelledRuns.get());
+    }
+
+    @Test
+    public void virtualThreadSchedulerCapsConcurrency() throws InterruptedException {
+        var scheduler = new VirtualThreadScheduler("io-virtual", 8);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        Set<String> names = ConcurrentHashMap.newKeySet();
+        CountDownLatch done = new CountDownLatch(2_000);
+        for (int i = 0; i < 2_000; i++) {
+            scheduler.execute(() -> {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                names.add(Thread.currentThread().getName());
+                try { Thread.sleep(1); } catch (InterruptedException ignored) { }
+                running.decrementAndGet();
+                done.countDown();
+            });
+        }
+        assertTrue(done.await(30, TimeUnit.SECONDS));
+        scheduler.shutdown();
+        assertTrue("max running: " + maxRunning.get(), maxRunning.get() <= 8);
+        assertTrue(names.stream().allMatch(n -> n.startsWith("io-virtual-")));
+    }
+
+    @Test
+    public void virtualThreadSchedulerReportsPinning() throws InterruptedException {
+        var scheduler = new VirtualThreadScheduler("pinned", 4);
+        List<VirtualThreadScheduler.Pinning> events = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch reported = new CountDownLatch(1);
+        Disposable detection = scheduler.enablePinningDetection(Duration.ofMillis(10), p -> {
+            events.add(p);
+            reported.countDown();
+        });
+        Thread.sleep(500); // запись JFR стартует асинхронно
+        Object lock = new Object();
+        scheduler.execute(() -> {
+            // сон под монитором держит поток-носитель
+            synchronized (lock) {
+                try { Thread.sleep(50); } catch (InterruptedException ignored) { }
+            }
+        });
+        assertTrue(reported.await(10, TimeUnit.SECONDS));
+        detection.dispose();
+        scheduler.shutdown();
+        assertTrue(events.get(0).threadName().startsWith("pinned-"));
+        assertTrue(scheduler.pinnedCount() >= 1);
+    }
+
+    @Test
+    public void shutdownClosesEveryPinningDetection() {
+        var scheduler = new VirtualThreadScheduler("pinned", 4);
+        Disposable first = scheduler.enablePinningDetection(Duration.ofMillis(10), p -> { });
+        Disposable second = scheduler.enablePinningDetection(Duration.ofMillis(10), p -> { });
+        assertFalse(first.isDisposed());
+        scheduler.shutdown();
+        assertTrue(first.isDisposed());
+        assertTrue(second.isDisposed());
+        second.dispose();
+    }
+
+    @Test
+    public void meteredSchedulerRecordsTasks() throws InterruptedException {
+        var scheduler = new MeteredScheduler(new ComputationScheduler(2));
+        CountDownLatch done = new CountDownLatch(100);
+        for (int i = 0; i < 100; i++) scheduler.execute(done::countDown);
+        scheduler.execute(() -> { throw new IllegalStateException("boom"); });
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        Thread.sleep(50);
+        scheduler.shutdown();
+
+        var metrics = scheduler.metrics();
+        assertEquals(101, metrics.getSubmittedTasks());
+        assertEquals(100, metrics.getCompletedTasks());
+        assertEquals(1, metrics.getFailedTasks());
+        assertEquals(101, metrics.getQueueWaitNanos().getCount());
+        assertTrue(metrics.getCompletionRate() > 0);
+        // чтение не сбрасывает окно: второй клиент видит тот же порядок величины
+        double first = metrics.getCompletionRate();
+        assertTrue(metrics.getCompletionRate() > first / 2);
+    }
+}
@@ -0,0 +1,159 @@
+import core.ConnectableObservable;
+import core.Disposable;
+import core.Observable;
+import core.Observer;
+import org.junit.Test;
+import subject.BehaviorSubject;
+import subject.PublishSubject;
+import subject.ReplaySubject;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class SubjectTest {
+
+    /** Observer, собирающий элементы; "done"/"error" — терминальные сигналы. */
+    private static final class Recorder<T> implements Observer<T> {
+        final List<Object> events = Collections.synchronizedList(new ArrayList<>());
+        @Override public void onNext(T item) { events.add(item); }
+        @Override public void onError(Throwable t) { events.add("error"); }
+        @Override public void onComplete() { events.add("done"); }
+    }
+
+    @Test
+    public void publishSubjectDeliversOnlyNewItems() {
+        PublishSubject<Integer> subject = PublishSubject.create();
+        Recorder<Integer> early = new Recorder<>();
+        Recorder<Integer> late = new Recorder<>();
+        subject.subscribe(early);
+        subject.onNext(1);
+        Disposable lateSub = subject.subscribe(late);
+        subject.onNext(2);
+        lateSub.dispose();
+        subject.onNext(3);
+        subject.onComplete();
+
+        assertEquals(List.of(1, 2, 3, "done"), early.events);
+        assertEquals(List.of(2), late.events);
+        assertFalse(subject.hasObservers());
+        Recorder<Integer> afterDone = new Recorder<>();
+        subject.subscribe(afterDone);
+        assertEquals(List.of("done"), afterDone.events);
+    }
+
+    @Test
+    public void behaviorSubjectReplaysLatestValue() {
+        BehaviorSubject<String> subject = BehaviorSubject.createDefault("a");
+        Recorder<String> first = new Recorder<>();
+        subject.subscribe(first);
+        subject.onNext("b");
+        Recorder<String> second = new Recorder<>();
+        subject.subscribe(second);
+        subject.onNext("c");
+        subject.onComplete();
+
+        assertEquals(List.of("a", "b", "c", "done"), first.events);
+        assertEquals(List.of("b", "c", "done"), second.events);
+        Recorder<String> afterDone = new Recorder<>();
+        subject.subscribe(afterDone);
+        assertEquals(List.of("done"), afterDone.events);
+    }
+
+    @Test
+    public void replaySubjectKeepsBoundedHistory() {
+        ReplaySubject<Integer> subject = ReplaySubject.createWithSize(3);
+        for (int i = 1; i <= 10; i++) subject.onNext(i);
+        Recorder<Integer> late = new Recorder<>();
+        subject.subscribe(late);
+        subject.onNext(11);
+        subject.onComplete();
+        Recorder<Integer> afterDone = new Recorder<>();
+        subject.subscribe(afterDone);
+
+        assertEquals(List.of(8, 9, 10, 11, "done"), late.events);
+        assertEquals(List.of(9, 10, 11, "done"), afterDone.events);
+    }
+
+    @Test
+    public void replaySubjectDropsExpiredItems() throws InterruptedException {
+        ReplaySubject<Integer> subject = ReplaySubject.createWithTimeAndSize(100, TimeUnit.MILLISECONDS, 16);
+        subject.onNext(1);
+        Thread.sleep(200);
+        subject.onNext(2);
+        Recorder<Integer> late = new Recorder<>();
+        subject.subscribe(late);
+        assertEquals(List.of(2), late.events);
+    }
+
+    @Test
+    public void publishRunsSourceOnceForAllSubscribers() {
+        AtomicInteger runs = new AtomicInteger();
+        ConnectableObservable<Integer> published = Observable.<Integer>create(o -> {
+            runs.incrementAndGet();
+            o.onNext(1); o.onNext(2); o.onComplete();
+        }).publish();
+        List<Recorder<Integer>> recorders = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            Recorder<Integer> r = new Recorder<>();
+            recorders.add(r);
+            published.map(x -> x * 10).subscribe(r);
+        }
+        published.connect();
+
+        assertEquals(1, runs.get());
+        for (Recorder<Integer> r : recorders) assertEquals(List.of(10, 20, "done"), r.events);
+    }
+
+    @Test
+    public void shareConnectsWithFirstAndDisconnectsWithLast() throws InterruptedException {
+        AtomicInteger runs = new AtomicInteger();
+        PublishSubject<Integer> feed = PublishSubject.create();
+        Observable<Integer> shared = Observable.<Integer>create(o -> {
+            runs.incrementAndGet();
+            feed.subscribe(o);
+        }).share();
+
+        Recorder<Integer> a = new Recorder<>();
+        Recorder<Integer> b = new Recorder<>();
+        Disposable da = shared.subscribe(a);
+        Disposable db = shared.subscribe(b);
+        feed.onNext(1);
+        da.dispose();
+        feed.onNext(2);
+        db.dispose();
+        assertEquals(1, runs.get());
+        assertEquals(List.of(1), a.events);
+        assertEquals(List.of(1, 2), b.events);
+
+        // после ухода последнего подписчика следующий подключает заново
+        Recorder<Integer> c = new Recorder<>();
+        shared.subscribe(c);
+        assertEquals(2, runs.get());
+    }
+
+    @Test
+    public void replayOperatorServesLateSubscriber() throws InterruptedException {
+        ConnectableObservable<Integer> replayed = Observable.<Integer>create(o -> {
+            for (int i = 0; i < 5; i++) o.onNext(i);
+            o.onComplete();
+        }).replay(2);
+        replayed.connect();
+        Recorder<Integer> late = new Recorder<>();
+        CountDownLatch done = new CountDownLatch(1);
+        replayed.subscribe(new Observer<Integer>() {
+            @Override public void onNext(Integer item) { late.onNext(item); }
+            @Override public void onError(Throwable t) { done.countDown(); }
+            @Override public void onComplete() { late.onComplete(); done.countDown(); }
+        });
+        assertTrue(done.await(1, TimeUnit.SECONDS));
+        assertEquals(List.of(3, 4, "done"), late.events);
+    }
+}
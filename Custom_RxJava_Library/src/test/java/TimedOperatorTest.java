@@ -0,0 +1,169 @@
+import core.Disposable;
+import core.Observable;
+import core.Observer;
+import org.junit.Test;
+import scheduler.HashedWheelTimer;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class TimedOperatorTest {
+
+    /** Источник: элементы с паузами; пауза задаётся отрицательным числом миллисекунд. */
+    private static Observable<Integer> timed(int... script) {
+        return Observable.create(o -> {
+            for (int v : script) {
+                if (v < 0) Thread.sleep(-v); else o.onNext(v);
+            }
+            o.onComplete();
+        });
+    }
+
+    private static <T> List<T> collect(Observable<T> source) throws InterruptedException {
+        List<T> out = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch done = new CountDownLatch(1);
+        source.subscribe(new Observer<T>() {
+            @Override public void onNext(T item) { out.add(item); }
+            @Override public void onError(Throwable t) { done.countDown(); }
+            @Override public void onComplete() { done.countDown(); }
+        });
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        return out;
+    }
+
+    @Test
+    public void bufferFlushesByCountAndByTime() throws InterruptedException {
+        List<List<Integer>> out = collect(timed(1, 2, 3, 4, 5, -200, 6, 7)
+                .buffer(3, 100, TimeUnit.MILLISECONDS));
+        // 1..3 — по размеру, 4..5 — по времени, 6..7 — при завершении
+        assertEquals(List.of(List.of(1, 2, 3), List.of(4, 5), List.of(6, 7)), out);
+    }
+
+    @Test
+    public void windowEmitsObservablePerTimeSlice() throws InterruptedException {
+        List<List<Integer>> windows = Collections.synchronizedList(new ArrayList<>());
+        List<Observable<Integer>> raw = collect(timed(1, 2, -200, 3, 4, 5)
+                .window(2, 100, TimeUnit.MILLISECONDS));
+        for (Observable<Integer> w : raw) windows.add(collect(w));
+        assertEquals(List.of(List.of(1, 2), List.of(3, 4), List.of(5)), windows);
+    }
+
+    @Test
+    public void debounceKeepsLastOfBurst() throws InterruptedException {
+        List<Integer> out = collect(timed(1, 2, 3, -200, 4, 5, -200, 6)
+                .debounce(80, TimeUnit.MILLISECONDS));
+        assertEquals(List.of(3, 5, 6), out);
+    }
+
+    @Test
+    public void sampleAndThrottleFirst() throws InterruptedException {
+        List<Integer> sampled = collect(timed(1, 2, 3, -250, 4, -250)
+                .sample(100, TimeUnit.MILLISECONDS));
+        assertEquals(List.of(3, 4), sampled);
+
+        List<Integer> throttled = collect(timed(1, 2, 3, -200, 4, 5)
+                .throttleFirst(100, TimeUnit.MILLISECONDS));
+        assertEquals(List.of(1, 4), throttled);
+    }
+
+    @Test
+    public void wheelTimerFiresInOrderAndSkipsCancelled() throws InterruptedException {
+        var timer = new HashedWheelTimer("test-wheel", 1, TimeUnit.MILLISECONDS, 8);
+        List<Integer> fired = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch done = new CountDownLatch(3);
+        long start = System.nanoTime();
+        // задержки больше длины колеса (8 мс) проверяют счёт оборотов
+        timer.schedule(() -> { fired.add(30); done.countDown(); }, 30, TimeUnit.MILLISECONDS);
+        timer.schedule(() -> { fired.add(5); done.countDown(); }, 5, TimeUnit.MILLISECONDS);
+        timer.schedule(() -> { fired.add(15); done.countDown(); }, 15, TimeUnit.MILLISECONDS);
+        AtomicInteger cancelledRuns = new AtomicInteger();
+        List<Disposable> cancelled = new ArrayList<>();
+        for (int i = 0; i < 1_000; i++) {
+            cancelled.add(timer.schedule(cancelledRuns::incrementAndGet, 100, TimeUnit.MILLISECONDS));
+        }
+        cancelled.forEach(Disposable::dispose);
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(25));
+        Thread.sleep(150);
+        timer.shutdown();
+        assertEquals(List.of(5, 15, 30), fired);
+        assertEquals(0, cancelledRuns.get());
+    }
+
+    @Test
+    public void disposeCancelsOperatorTimers() throws InterruptedException {
+        // считаем живые таймеры, которые операторы поставили на колесо
+        AtomicInteger liveTimers = new AtomicInteger();
+        scheduler.Scheduler counting = new scheduler.Scheduler() {
+            @Override public void execute(Runnable task) { HashedWheelTimer.shared().execute(task); }
+            @Override public void shutdown() { }
+            @Override
+            public Disposable schedule(Runnable task, long delay, TimeUnit unit) {
+                return track(HashedWheelTimer.shared().schedule(task, delay, unit));
+            }
+            @Override
+            public Disposable schedulePeriodically(Runnable task, long initialDelay, long period, TimeUnit unit) {
+                return track(HashedWheelTimer.shared().schedulePeriodically(task, initialDelay, period, unit));
+            }
+            private Disposable track(Disposable d) {
+                liveTimers.incrementAndGet();
+                return new Disposable() {
+                    @Override public void dispose() { if (!d.isDisposed()) liveTimers.decrementAndGet(); d.dispose(); }
+                    @Override public boolean isDisposed() { return d.isDisposed(); }
+                };
+            }
+        };
+        subject.PublishSubject<Integer> source = subject.PublishSubject.create();
+        List<Integer> out = Collections.synchronizedList(new ArrayList<>());
+        Observer<Integer> collector = new Observer<>() {
+            @Override public void onNext(Integer item) { out.add(item); }
+            @Override public void onError(Throwable t) { }
+            @Override public void onComplete() { }
+        };
+        Disposable sample = source.sample(1, TimeUnit.HOURS, counting).subscribe(collector);
+        Disposable debounce = source.debounce(1, TimeUnit.HOURS, counting).subscribe(collector);
+        source.onNext(1);
+        assertEquals(2, liveTimers.get());
+
+        sample.dispose();
+        debounce.dispose();
+        assertEquals(0, liveTimers.get());
+        assertEquals(false, source.hasObservers());
+        assertEquals(List.of(), out);
+    }
+
+    @Test
+    public void slowTimedFlushDoesNotStallTheWheel() throws InterruptedException {
+        CountDownLatch flushing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<String> flushThreads = Collections.synchronizedList(new ArrayList<>());
+        Disposable d = Observable.<Integer>create(o -> o.onNext(1))
+                .buffer(10, TimeUnit.MILLISECONDS)
+                .subscribe(new Observer<List<Integer>>() {
+                    @Override
+                    public void onNext(List<Integer> batch) {
+                        // «запись в хранилище» по таймеру
+                        flushThreads.add(Thread.currentThread().getName());
+                        flushing.countDown();
+                        try { release.await(); } catch (InterruptedException ignored) { }
+                    }
+                    @Override public void onError(Throwable t) { }
+                    @Override public void onComplete() { }
+                });
+        assertTrue(flushing.await(5, TimeUnit.SECONDS));
+        // колесо свободно, пока получатель занят
+        CountDownLatch fired = new CountDownLatch(1);
+        HashedWheelTimer.shared().schedule(fired::countDown, 5, TimeUnit.MILLISECONDS);
+        assertTrue(fired.await(1, TimeUnit.SECONDS));
+        release.countDown();
+        d.dispose();
+        assertTrue(flushThreads.get(0), !flushThreads.get(0).equals("rx-wheel-timer"));
+    }
+}